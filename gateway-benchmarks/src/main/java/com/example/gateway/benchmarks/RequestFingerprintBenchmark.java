@@ -0,0 +1,95 @@
+package com.example.gateway.benchmarks;
+
+import com.example.gateway.core.pipeline.InvocationRequest;
+import com.example.gateway.finops.cache.FingerprintAlgorithm;
+import com.example.gateway.finops.cache.RequestFingerprintCalculator;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the canonical streaming request fingerprint against the previous
+ * {@code payload.toString()} + SHA-256 implementation. Run with
+ * {@code -prof gc} to compare allocation rates as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestFingerprintBenchmark {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    /** Number of chat messages in the payload. */
+    @Param({"2", "16", "64"})
+    public int messages;
+
+    private InvocationRequest request;
+    private RequestFingerprintCalculator sha256;
+    private RequestFingerprintCalculator murmur3;
+
+    @Setup
+    public void setUp() {
+        List<Map<String, Object>> conversation = new ArrayList<>();
+        for (int i = 0; i < messages; i++) {
+            Map<String, Object> message = new LinkedHashMap<>();
+            message.put("role", i % 2 == 0 ? "user" : "assistant");
+            message.put("content", "Message " + i + ": summarise the quarterly spend report and list the top cost drivers per provider.");
+            conversation.add(message);
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("messages", conversation);
+        payload.put("temperature", 0.7);
+        payload.put("max_tokens", 512);
+        payload.put("top_p", 1.0);
+        request = InvocationRequest.builder()
+            .providerHint("openai")
+            .modelHint("gpt-4o-mini")
+            .payload(payload)
+            .build();
+        sha256 = new RequestFingerprintCalculator(FingerprintAlgorithm.SHA_256);
+        murmur3 = new RequestFingerprintCalculator(FingerprintAlgorithm.MURMUR3_128);
+    }
+
+    @Benchmark
+    public String legacyToStringSha256() throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(safeBytes(request.getProviderHint()));
+        digest.update(safeBytes(request.getModelHint()));
+        digest.update(request.getPayload().toString().getBytes(StandardCharsets.UTF_8));
+        return HEX.formatHex(digest.digest());
+    }
+
+    @Benchmark
+    public String canonicalSha256() {
+        return sha256.fingerprint(request);
+    }
+
+    @Benchmark
+    public String canonicalMurmur3() {
+        return murmur3.fingerprint(request);
+    }
+
+    private static byte[] safeBytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.gateway.clients.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the retry and fallback settings used by the client invocation
+ * handler.
+ */
+@Configuration
+@EnableConfigurationProperties(ClientResilienceProperties.class)
+public class ClientResilienceConfiguration {
+}
@@ -0,0 +1,295 @@
+package com.example.gateway.clients.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Retry and fallback settings applied around model client invocations.
+ */
+@ConfigurationProperties("gateway.clients.resilience")
+public class ClientResilienceProperties {
+
+    /** Flag enabling fallback along the model's fallback chain. */
+    private boolean enabled = true;
+
+    /** Maximum number of attempts, including the first, per invocation. */
+    private int maxAttempts = 3;
+
+    /** Deadline of a single attempt; for streams, the time to the first chunk. */
+    private Duration attemptTimeout = Duration.ofSeconds(30);
+
+    /** Overall latency budget across all attempts and backoff delays. */
+    private Duration totalBudget = Duration.ofSeconds(60);
+
+    /** Upper bound of the randomised delay before the second attempt. */
+    private Duration initialBackoff = Duration.ofMillis(100);
+
+    /** Cap of the randomised delay between attempts. */
+    private Duration maxBackoff = Duration.ofSeconds(2);
+
+    /** Hedged request settings. */
+    private final Hedging hedging = new Hedging();
+
+    /** Adaptive outbound concurrency settings. */
+    private final Outbound outbound = new Outbound();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getAttemptTimeout() {
+        return attemptTimeout;
+    }
+
+    public void setAttemptTimeout(Duration attemptTimeout) {
+        this.attemptTimeout = attemptTimeout;
+    }
+
+    public Duration getTotalBudget() {
+        return totalBudget;
+    }
+
+    public void setTotalBudget(Duration totalBudget) {
+        this.totalBudget = totalBudget;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public Hedging getHedging() {
+        return hedging;
+    }
+
+    public Outbound getOutbound() {
+        return outbound;
+    }
+
+    /**
+     * Hedging sends a second request to the first fallback model when the
+     * routed model has not answered within a latency percentile, and uses
+     * whichever response arrives first.
+     */
+    public static class Hedging {
+
+        /** Flag enabling hedged requests. */
+        private boolean enabled;
+
+        /** Latency quantile of the routed model after which the hedge is sent. */
+        private double quantile = 0.95;
+
+        /** Lower bound of the hedge delay. */
+        private Duration minDelay = Duration.ofMillis(50);
+
+        /** Upper bound of the hedge delay. */
+        private Duration maxDelay = Duration.ofSeconds(10);
+
+        /** Samples a model needs in the latency window before it is hedged. */
+        private int minSamples = 50;
+
+        /** Length of the window the latency distribution is learned from. */
+        private Duration window = Duration.ofMinutes(5);
+
+        /** Maximum number of hedged requests per minute across all models. */
+        private int maxPerMinute = 60;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getQuantile() {
+            return quantile;
+        }
+
+        public void setQuantile(double quantile) {
+            this.quantile = quantile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getMaxPerMinute() {
+            return maxPerMinute;
+        }
+
+        public void setMaxPerMinute(int maxPerMinute) {
+            this.maxPerMinute = maxPerMinute;
+        }
+    }
+
+    /**
+     * Outbound limiting keeps the calls to each provider model within the
+     * provider's quota. Concurrency is adapted additively on success and
+     * multiplicatively on throttling, and calls are held back while the
+     * provider reports the remaining budget as exhausted.
+     */
+    public static class Outbound {
+
+        /** Flag enabling the outbound limiter. */
+        private boolean enabled = true;
+
+        /** Concurrency limit a model starts with. */
+        private int initialLimit = 32;
+
+        /** Lower bound of the concurrency limit. */
+        private int minLimit = 1;
+
+        /** Upper bound of the concurrency limit. */
+        private int maxLimit = 256;
+
+        /** Factor applied to the concurrency limit when the provider throttles a call. */
+        private double backoffRatio = 0.5;
+
+        /** Maximum number of calls waiting per model. */
+        private int maxQueueSize = 100;
+
+        /** Time a call waits for capacity when no fallback model is left. */
+        private Duration maxQueueWait = Duration.ofSeconds(5);
+
+        /** Time a call waits for capacity before spilling over to the next fallback model. */
+        private Duration spilloverWait = Duration.ZERO;
+
+        /** Pause applied after HTTP 429 responses without a {@code Retry-After} header. */
+        private Duration defaultRetryAfter = Duration.ofSeconds(1);
+
+        /** Remaining token budget below which calls wait for the budget to reset. */
+        private long minRemainingTokens = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public int getMaxQueueSize() {
+            return maxQueueSize;
+        }
+
+        public void setMaxQueueSize(int maxQueueSize) {
+            this.maxQueueSize = maxQueueSize;
+        }
+
+        public Duration getMaxQueueWait() {
+            return maxQueueWait;
+        }
+
+        public void setMaxQueueWait(Duration maxQueueWait) {
+            this.maxQueueWait = maxQueueWait;
+        }
+
+        public Duration getSpilloverWait() {
+            return spilloverWait;
+        }
+
+        public void setSpilloverWait(Duration spilloverWait) {
+            this.spilloverWait = spilloverWait;
+        }
+
+        public Duration getDefaultRetryAfter() {
+            return defaultRetryAfter;
+        }
+
+        public void setDefaultRetryAfter(Duration defaultRetryAfter) {
+            this.defaultRetryAfter = defaultRetryAfter;
+        }
+
+        public long getMinRemainingTokens() {
+            return minRemainingTokens;
+        }
+
+        public void setMinRemainingTokens(long minRemainingTokens) {
+            this.minRemainingTokens = minRemainingTokens;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.gateway.clients.config;
 
+import com.example.gateway.clients.quota.OutboundLimiter;
+import com.example.gateway.clients.transport.ProviderTransport;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -9,16 +12,26 @@ import org.springframework.web.reactive.function.client.WebClient;
 
 /**
  * Provides the {@link WebClient} bean used to communicate with Google Gemini.
+ * Calls go through a dedicated {@link ProviderTransport} and responses are
+ * reported to the {@link OutboundLimiter}.
  */
 @Configuration
 @EnableConfigurationProperties(GeminiClientProperties.class)
 public class GeminiClientConfiguration {
 
+    @Bean
+    ProviderTransport geminiTransport(GeminiClientProperties properties, MeterRegistry meterRegistry) {
+        return new ProviderTransport("gemini", properties.getBaseUrl(), properties.getTransport(), meterRegistry);
+    }
+
     @Bean
     @Qualifier("geminiWebClient")
-    WebClient geminiWebClient(WebClient.Builder builder, GeminiClientProperties properties) {
+    WebClient geminiWebClient(WebClient.Builder builder, GeminiClientProperties properties,
+                              @Qualifier("geminiTransport") ProviderTransport transport, OutboundLimiter outboundLimiter) {
         return builder.clone()
             .baseUrl(properties.getBaseUrl())
+            .clientConnector(transport.connector())
+            .filter(outboundLimiter.exchangeFilter())
             .exchangeStrategies(ExchangeStrategies.builder()
                 .codecs(cfg -> cfg.defaultCodecs().maxInMemorySize(4 * 1024 * 1024))
                 .build())
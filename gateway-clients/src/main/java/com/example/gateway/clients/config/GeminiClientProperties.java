@@ -9,6 +9,9 @@ public class GeminiClientProperties {
     private String baseUrl = "https://generativelanguage.googleapis.com/v1beta/models";
     private String defaultModel = "gemini-1.5-flash";
 
+    /** Connection pool and HTTP settings. */
+    private final HttpTransportProperties transport = new HttpTransportProperties();
+
     public String getApiKey() {
         return apiKey;
     }
@@ -32,4 +35,8 @@ public class GeminiClientProperties {
     public void setDefaultModel(String defaultModel) {
         this.defaultModel = defaultModel;
     }
+
+    public HttpTransportProperties getTransport() {
+        return transport;
+    }
 }
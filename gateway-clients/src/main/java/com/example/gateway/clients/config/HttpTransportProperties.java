@@ -0,0 +1,135 @@
+package com.example.gateway.clients.config;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and HTTP settings of one provider's transport. Each
+ * provider gets a dedicated pool so a burst against one provider cannot
+ * starve the others.
+ */
+public class HttpTransportProperties {
+
+    /** Maximum number of connections to the provider. */
+    private int maxConnections = 100;
+
+    /** Maximum number of requests waiting for a connection. */
+    private int pendingAcquireMaxCount = 500;
+
+    /** Time a request waits for a connection before failing. */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    /** Time after which an idle connection is closed. */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    /** Maximum lifetime of a connection, so DNS changes are picked up. */
+    private Duration maxLifeTime = Duration.ofMinutes(10);
+
+    /** Interval of the background eviction of idle and expired connections. */
+    private Duration evictionInterval = Duration.ofSeconds(15);
+
+    /** TCP connect timeout. */
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    /** Flag negotiating HTTP/2 (with HTTP/1.1 fallback) so calls share multiplexed connections. */
+    private boolean http2;
+
+    /** Maximum concurrent streams per HTTP/2 connection. */
+    private long maxConcurrentStreams = 100;
+
+    /** Flag warming up event loops, DNS resolution and connections at startup. */
+    private boolean warmup = true;
+
+    /**
+     * Connections opened during warm-up; with HTTP/2 also the number of
+     * connections kept open.
+     */
+    private int warmupConnections = 2;
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getPendingAcquireMaxCount() {
+        return pendingAcquireMaxCount;
+    }
+
+    public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+        this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+    }
+
+    public Duration getPendingAcquireTimeout() {
+        return pendingAcquireTimeout;
+    }
+
+    public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+        this.pendingAcquireTimeout = pendingAcquireTimeout;
+    }
+
+    public Duration getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    public void setMaxIdleTime(Duration maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    public Duration getMaxLifeTime() {
+        return maxLifeTime;
+    }
+
+    public void setMaxLifeTime(Duration maxLifeTime) {
+        this.maxLifeTime = maxLifeTime;
+    }
+
+    public Duration getEvictionInterval() {
+        return evictionInterval;
+    }
+
+    public void setEvictionInterval(Duration evictionInterval) {
+        this.evictionInterval = evictionInterval;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    public void setHttp2(boolean http2) {
+        this.http2 = http2;
+    }
+
+    public long getMaxConcurrentStreams() {
+        return maxConcurrentStreams;
+    }
+
+    public void setMaxConcurrentStreams(long maxConcurrentStreams) {
+        this.maxConcurrentStreams = maxConcurrentStreams;
+    }
+
+    public boolean isWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(boolean warmup) {
+        this.warmup = warmup;
+    }
+
+    public int getWarmupConnections() {
+        return warmupConnections;
+    }
+
+    public void setWarmupConnections(int warmupConnections) {
+        this.warmupConnections = warmupConnections;
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.gateway.clients.config;
 
+import com.example.gateway.clients.quota.OutboundLimiter;
+import com.example.gateway.clients.transport.ProviderTransport;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -9,16 +12,26 @@ import org.springframework.web.reactive.function.client.WebClient;
 
 /**
  * Provides the {@link WebClient} bean used to communicate with OpenAI models.
+ * Calls go through a dedicated {@link ProviderTransport} and responses are
+ * reported to the {@link OutboundLimiter}.
  */
 @Configuration
 @EnableConfigurationProperties(OpenAiClientProperties.class)
 public class OpenAiClientConfiguration {
 
+    @Bean
+    ProviderTransport openAiTransport(OpenAiClientProperties properties, MeterRegistry meterRegistry) {
+        return new ProviderTransport("openai", properties.getBaseUrl(), properties.getTransport(), meterRegistry);
+    }
+
     @Bean
     @Qualifier("openAiWebClient")
-    WebClient openAiWebClient(WebClient.Builder builder, OpenAiClientProperties properties) {
+    WebClient openAiWebClient(WebClient.Builder builder, OpenAiClientProperties properties,
+                              @Qualifier("openAiTransport") ProviderTransport transport, OutboundLimiter outboundLimiter) {
         return builder.clone()
             .baseUrl(properties.getBaseUrl())
+            .clientConnector(transport.connector())
+            .filter(outboundLimiter.exchangeFilter())
             .exchangeStrategies(ExchangeStrategies.builder()
                 .codecs(cfg -> cfg.defaultCodecs().maxInMemorySize(4 * 1024 * 1024))
                 .build())
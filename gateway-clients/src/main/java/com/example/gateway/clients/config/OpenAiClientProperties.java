@@ -11,6 +11,11 @@ public class OpenAiClientProperties {
     private String apiKey;
     private String baseUrl = "https://api.openai.com/v1/chat/completions";
     private String defaultModel = "gpt-4o-mini";
+    private String embeddingsUrl = "https://api.openai.com/v1/embeddings";
+    private String embeddingModel = "text-embedding-3-small";
+
+    /** Connection pool and HTTP settings. */
+    private final HttpTransportProperties transport = new HttpTransportProperties();
 
     public String getApiKey() {
         return apiKey;
@@ -35,4 +40,24 @@ public class OpenAiClientProperties {
     public void setDefaultModel(String defaultModel) {
         this.defaultModel = defaultModel;
     }
+
+    public String getEmbeddingsUrl() {
+        return embeddingsUrl;
+    }
+
+    public void setEmbeddingsUrl(String embeddingsUrl) {
+        this.embeddingsUrl = embeddingsUrl;
+    }
+
+    public String getEmbeddingModel() {
+        return embeddingModel;
+    }
+
+    public void setEmbeddingModel(String embeddingModel) {
+        this.embeddingModel = embeddingModel;
+    }
+
+    public HttpTransportProperties getTransport() {
+        return transport;
+    }
 }
@@ -1,26 +1,42 @@
 package com.example.gateway.clients.gemini;
 
 import com.example.gateway.clients.config.GeminiClientProperties;
+import com.example.gateway.clients.passthrough.UsageScanner;
+import com.example.gateway.clients.quota.OutboundLimiter;
 import com.example.gateway.core.client.ModelClient;
 import com.example.gateway.core.model.ModelDescriptor;
+import com.example.gateway.core.pipeline.InvocationAttributes;
+import com.example.gateway.core.pipeline.InvocationChunk;
 import com.example.gateway.core.pipeline.InvocationContext;
 import com.example.gateway.core.pipeline.InvocationResponse;
+import com.example.gateway.core.pipeline.NormalizationLevel;
+import com.example.gateway.core.pipeline.TokenUsage;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Component
 public class GeminiChatModelClient implements ModelClient {
 
+    private static final ParameterizedTypeReference<ServerSentEvent<GenerateContentResponse>> SSE_TYPE =
+        new ParameterizedTypeReference<>() { };
+    private static final UsageScanner USAGE_SCANNER =
+        new UsageScanner("usageMetadata", "promptTokenCount", "candidatesTokenCount");
+
     private final WebClient webClient;
     private final GeminiClientProperties properties;
 
@@ -52,7 +68,8 @@ public class GeminiChatModelClient implements ModelClient {
         Instant start = Instant.now();
 
         return webClient.post()
-            .uri(uriBuilder -> buildUri(uriBuilder, modelId))
+            .uri(uriBuilder -> buildUri(uriBuilder, modelId, ":generateContent").build())
+            .attribute(OutboundLimiter.MODEL_KEY_ATTRIBUTE, OutboundLimiter.key("gemini", modelId))
             .contentType(MediaType.APPLICATION_JSON)
             .body(BodyInserters.fromValue(request))
             .retrieve()
@@ -60,23 +77,106 @@ public class GeminiChatModelClient implements ModelClient {
             .map(response -> buildResponse(context, response, Duration.between(start, Instant.now()), modelId));
     }
 
+    /**
+     * Streams the completion via {@code streamGenerateContent} using the SSE
+     * framing ({@code alt=sse}). Each event carries a partial candidate and
+     * the cumulative usage metadata, so the last observed usage is published
+     * on the terminal chunk.
+     */
+    @Override
+    public Flux<InvocationChunk> stream(InvocationContext context) {
+        if (!StringUtils.hasText(properties.getApiKey())) {
+            return Flux.error(new IllegalStateException("Gemini API key is not configured"));
+        }
+
+        Object prompt = context.getRequest().getPayload().get("prompt");
+        if (!(prompt instanceof String promptText) || promptText.isBlank()) {
+            return Flux.error(new IllegalArgumentException("Chat payload requires a non-empty 'prompt' field"));
+        }
+
+        String modelId = context.getModel() != null ? context.getModel().getModelId() : properties.getDefaultModel();
+        GenerateContentRequest request = new GenerateContentRequest(List.of(new Content(List.of(new Part(promptText)))));
+
+        return Flux.defer(() -> {
+            AtomicReference<UsageMetadata> usage = new AtomicReference<>();
+            return webClient.post()
+                .uri(uriBuilder -> buildUri(uriBuilder, modelId, ":streamGenerateContent").queryParam("alt", "sse").build())
+                .attribute(OutboundLimiter.MODEL_KEY_ATTRIBUTE, OutboundLimiter.key("gemini", modelId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .body(BodyInserters.fromValue(request))
+                .retrieve()
+                .bodyToFlux(SSE_TYPE)
+                .mapNotNull(ServerSentEvent::data)
+                .doOnNext(response -> {
+                    if (response.usageMetadata() != null) {
+                        usage.set(response.usageMetadata());
+                    }
+                })
+                .map(GenerateContentResponse::firstText)
+                .filter(content -> !content.isEmpty())
+                .map(InvocationChunk::of)
+                .concatWith(Mono.fromSupplier(() -> InvocationChunk.builder()
+                    .metadata(buildMetadata(context, usage.get(), modelId))
+                    .usage(tokenUsage(usage.get()))
+                    .last(true)
+                    .build()));
+        });
+    }
+
+    /**
+     * Forwards the {@code generateContent} body as returned by Gemini; the
+     * usage is read from the top-level {@code usageMetadata} object.
+     */
+    @Override
+    public Flux<DataBuffer> passThrough(InvocationContext context, NormalizationLevel level) {
+        if (!StringUtils.hasText(properties.getApiKey())) {
+            return Flux.error(new IllegalStateException("Gemini API key is not configured"));
+        }
+
+        Object prompt = context.getRequest().getPayload().get("prompt");
+        if (!(prompt instanceof String promptText) || promptText.isBlank()) {
+            return Flux.error(new IllegalArgumentException("Chat payload requires a non-empty 'prompt' field"));
+        }
+
+        String modelId = context.getModel() != null ? context.getModel().getModelId() : properties.getDefaultModel();
+        GenerateContentRequest request = new GenerateContentRequest(List.of(new Content(List.of(new Part(promptText)))));
+
+        Flux<DataBuffer> body = webClient.post()
+            .uri(uriBuilder -> buildUri(uriBuilder, modelId, ":generateContent").build())
+            .attribute(OutboundLimiter.MODEL_KEY_ATTRIBUTE, OutboundLimiter.key("gemini", modelId))
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(BodyInserters.fromValue(request))
+            .retrieve()
+            .bodyToFlux(DataBuffer.class);
+        return level == NormalizationLevel.USAGE
+            ? USAGE_SCANNER.scan(body, usage -> context.setAttribute(InvocationAttributes.USAGE, usage))
+            : body;
+    }
+
     private InvocationResponse buildResponse(InvocationContext context, GenerateContentResponse response, Duration latency, String modelId) {
         String content = response.firstText();
-        Map<String, Object> usageMetadata = response.usageMetadata() != null ? response.usageMetadata().asMap() : Map.of();
-        Map<String, Object> metadata = Map.of(
+        return new InvocationResponse(Map.of("content", content), buildMetadata(context, response.usageMetadata(), modelId),
+            tokenUsage(response.usageMetadata()), latency);
+    }
+
+    private static TokenUsage tokenUsage(UsageMetadata usageMetadata) {
+        return usageMetadata != null ? usageMetadata.toTokenUsage() : TokenUsage.EMPTY;
+    }
+
+    private Map<String, Object> buildMetadata(InvocationContext context, UsageMetadata usageMetadata, String modelId) {
+        return Map.of(
             "model", modelId,
             "provider", context.getProvider() != null ? context.getProvider().getId() : "gemini",
-            "usage", usageMetadata
+            "usage", usageMetadata != null ? usageMetadata.asMap() : Map.of()
         );
-        return new InvocationResponse(Map.of("content", content), metadata, latency);
     }
 
-    private java.net.URI buildUri(UriBuilder builder, String modelId) {
+    private UriBuilder buildUri(UriBuilder builder, String modelId, String method) {
         return builder
             .pathSegment(modelId)
-            .path(":generateContent")
-            .queryParam("key", properties.getApiKey())
-            .build();
+            .path(method)
+            .queryParam("key", properties.getApiKey());
     }
 
     private record GenerateContentRequest(List<Content> contents) { }
@@ -110,5 +210,10 @@ public class GeminiChatModelClient implements ModelClient {
                 "totalTokens", totalTokenCount != null ? totalTokenCount : 0
             );
         }
+
+        TokenUsage toTokenUsage() {
+            return new TokenUsage(promptTokenCount != null ? promptTokenCount : 0,
+                candidatesTokenCount != null ? candidatesTokenCount : 0);
+        }
     }
 }
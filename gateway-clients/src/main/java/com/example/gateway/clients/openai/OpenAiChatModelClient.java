@@ -1,37 +1,60 @@
 package com.example.gateway.clients.openai;
 
 import com.example.gateway.clients.config.OpenAiClientProperties;
+import com.example.gateway.clients.passthrough.UsageScanner;
+import com.example.gateway.clients.quota.OutboundLimiter;
 import com.example.gateway.core.client.ModelClient;
 import com.example.gateway.core.model.ModelDescriptor;
+import com.example.gateway.core.pipeline.InvocationAttributes;
+import com.example.gateway.core.pipeline.InvocationChunk;
 import com.example.gateway.core.pipeline.InvocationContext;
 import com.example.gateway.core.pipeline.InvocationResponse;
+import com.example.gateway.core.pipeline.NormalizationLevel;
+import com.example.gateway.core.pipeline.TokenUsage;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * {@link ModelClient} implementation that invokes OpenAI chat completions via
  * the REST API. The client is intentionally lightweight and only models the
- * fields the gateway needs.
+ * fields the gateway needs. Streaming invocations use {@code stream: true} and
+ * decode the server-sent chunk events incrementally.
  */
 @Component
 public class OpenAiChatModelClient implements ModelClient {
 
+    private static final String DONE_EVENT = "[DONE]";
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE = new ParameterizedTypeReference<>() { };
+    private static final UsageScanner USAGE_SCANNER = new UsageScanner("usage", "prompt_tokens", "completion_tokens");
+
     private final WebClient webClient;
     private final OpenAiClientProperties properties;
+    private final ObjectMapper objectMapper;
 
-    public OpenAiChatModelClient(@Qualifier("openAiWebClient") WebClient webClient, OpenAiClientProperties properties) {
+    public OpenAiChatModelClient(@Qualifier("openAiWebClient") WebClient webClient, OpenAiClientProperties properties,
+                                 ObjectMapper objectMapper) {
         this.webClient = webClient;
         this.properties = properties;
+        this.objectMapper = objectMapper;
     }
 
     @Override
@@ -53,7 +76,7 @@ public class OpenAiChatModelClient implements ModelClient {
         }
 
         String model = context.getModel() != null ? context.getModel().getModelId() : properties.getDefaultModel();
-        ChatCompletionRequest request = new ChatCompletionRequest(model, List.of(new Message("user", promptText)));
+        ChatCompletionRequest request = new ChatCompletionRequest(model, List.of(new Message("user", promptText)), null, null);
         Instant start = Instant.now();
 
         /*
@@ -62,6 +85,7 @@ public class OpenAiChatModelClient implements ModelClient {
          * marshals the minimal response shape defined below.
          */
         return webClient.post()
+            .attribute(OutboundLimiter.MODEL_KEY_ATTRIBUTE, OutboundLimiter.key("openai", model))
             .header(HttpHeaders.AUTHORIZATION, "Bearer " + properties.getApiKey())
             .contentType(MediaType.APPLICATION_JSON)
             .body(BodyInserters.fromValue(request))
@@ -70,17 +94,123 @@ public class OpenAiChatModelClient implements ModelClient {
             .map(response -> buildResponse(context, response, Duration.between(start, Instant.now())));
     }
 
-    private InvocationResponse buildResponse(InvocationContext context, ChatCompletionResponse response, Duration latency) {
-        String content = response.firstMessageContent();
-        Map<String, Object> metadata = Map.of(
+    @Override
+    public Flux<InvocationChunk> stream(InvocationContext context) {
+        if (!StringUtils.hasText(properties.getApiKey())) {
+            return Flux.error(new IllegalStateException("OpenAI API key is not configured"));
+        }
+
+        Object prompt = context.getRequest().getPayload().get("prompt");
+        if (!(prompt instanceof String promptText) || promptText.isBlank()) {
+            return Flux.error(new IllegalArgumentException("Chat payload requires a non-empty 'prompt' field"));
+        }
+
+        String model = context.getModel() != null ? context.getModel().getModelId() : properties.getDefaultModel();
+        ChatCompletionRequest request = new ChatCompletionRequest(model, List.of(new Message("user", promptText)),
+            Boolean.TRUE, new StreamOptions(true));
+
+        /*
+         * With include_usage the final event before [DONE] carries the token
+         * usage and an empty choices array. Usage is held back and published
+         * on the terminal chunk together with the routing metadata.
+         */
+        return Flux.defer(() -> {
+            AtomicReference<Map<String, Object>> usage = new AtomicReference<>(Map.of());
+            return webClient.post()
+                .attribute(OutboundLimiter.MODEL_KEY_ATTRIBUTE, OutboundLimiter.key("openai", model))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + properties.getApiKey())
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .body(BodyInserters.fromValue(request))
+                .retrieve()
+                .bodyToFlux(SSE_TYPE)
+                .mapNotNull(ServerSentEvent::data)
+                .takeWhile(data -> !DONE_EVENT.equals(data))
+                .<ChatCompletionChunk>handle((data, sink) -> {
+                    try {
+                        sink.next(objectMapper.readValue(data, ChatCompletionChunk.class));
+                    } catch (JsonProcessingException ex) {
+                        sink.error(ex);
+                    }
+                })
+                .doOnNext(chunk -> {
+                    if (chunk.usage() != null) {
+                        usage.set(chunk.usage());
+                    }
+                })
+                .map(ChatCompletionChunk::firstDeltaContent)
+                .filter(content -> !content.isEmpty())
+                .map(InvocationChunk::of)
+                .concatWith(Mono.fromSupplier(() -> InvocationChunk.builder()
+                    .metadata(buildMetadata(context, usage.get()))
+                    .usage(tokenUsage(usage.get()))
+                    .last(true)
+                    .build()));
+        });
+    }
+
+    /**
+     * Forwards the chat completion body as returned by OpenAI. Only unary
+     * completions are passed through; the usage is read from the top-level
+     * {@code usage} object.
+     */
+    @Override
+    public Flux<DataBuffer> passThrough(InvocationContext context, NormalizationLevel level) {
+        if (!StringUtils.hasText(properties.getApiKey())) {
+            return Flux.error(new IllegalStateException("OpenAI API key is not configured"));
+        }
+
+        Object prompt = context.getRequest().getPayload().get("prompt");
+        if (!(prompt instanceof String promptText) || promptText.isBlank()) {
+            return Flux.error(new IllegalArgumentException("Chat payload requires a non-empty 'prompt' field"));
+        }
+
+        String model = context.getModel() != null ? context.getModel().getModelId() : properties.getDefaultModel();
+        ChatCompletionRequest request = new ChatCompletionRequest(model, List.of(new Message("user", promptText)), null, null);
+
+        Flux<DataBuffer> body = webClient.post()
+            .attribute(OutboundLimiter.MODEL_KEY_ATTRIBUTE, OutboundLimiter.key("openai", model))
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + properties.getApiKey())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(BodyInserters.fromValue(request))
+            .retrieve()
+            .bodyToFlux(DataBuffer.class);
+        return level == NormalizationLevel.USAGE
+            ? USAGE_SCANNER.scan(body, usage -> context.setAttribute(InvocationAttributes.USAGE, usage))
+            : body;
+    }
+
+    private Map<String, Object> buildMetadata(InvocationContext context, Map<String, Object> usage) {
+        return Map.of(
             "model", context.getModel() != null ? context.getModel().getModelId() : properties.getDefaultModel(),
             "provider", context.getProvider() != null ? context.getProvider().getId() : "openai",
-            "usage", response.usage() != null ? response.usage() : Map.of()
+            "usage", usage != null ? usage : Map.of()
         );
-        return new InvocationResponse(Map.of("content", content), metadata, latency);
     }
 
-    private record ChatCompletionRequest(String model, List<Message> messages) { }
+    private InvocationResponse buildResponse(InvocationContext context, ChatCompletionResponse response, Duration latency) {
+        String content = response.firstMessageContent();
+        return new InvocationResponse(Map.of("content", content), buildMetadata(context, response.usage()),
+            tokenUsage(response.usage()), latency);
+    }
+
+    /** Reads the token counts of an OpenAI {@code usage} object. */
+    private static TokenUsage tokenUsage(Map<String, Object> usage) {
+        if (usage == null) {
+            return TokenUsage.EMPTY;
+        }
+        return new TokenUsage(count(usage.get("prompt_tokens")), count(usage.get("completion_tokens")));
+    }
+
+    private static long count(Object value) {
+        return value instanceof Number number ? Math.max(0, number.longValue()) : 0;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private record ChatCompletionRequest(String model, List<Message> messages, Boolean stream,
+                                         @JsonProperty("stream_options") StreamOptions streamOptions) { }
+
+    private record StreamOptions(@JsonProperty("include_usage") boolean includeUsage) { }
 
     private record Message(String role, String content) { }
 
@@ -95,4 +225,18 @@ public class OpenAiChatModelClient implements ModelClient {
     }
 
     private record Choice(Message message, Integer index, Map<String, Object> logprobs, String finish_reason) { }
+
+    private record ChatCompletionChunk(List<ChunkChoice> choices, Map<String, Object> usage) {
+        String firstDeltaContent() {
+            if (choices == null || choices.isEmpty()) {
+                return "";
+            }
+            Delta delta = choices.get(0).delta();
+            return delta != null && delta.content() != null ? delta.content() : "";
+        }
+    }
+
+    private record ChunkChoice(Delta delta, Integer index, String finish_reason) { }
+
+    private record Delta(String role, String content) { }
 }
@@ -0,0 +1,57 @@
+package com.example.gateway.clients.openai;
+
+import com.example.gateway.clients.config.OpenAiClientProperties;
+import com.example.gateway.core.client.EmbeddingClient;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link EmbeddingClient} backed by the OpenAI embeddings REST API. The
+ * absolute embeddings URL overrides the chat completions base URL of the
+ * shared OpenAI {@link WebClient}.
+ */
+@Component
+public class OpenAiEmbeddingClient implements EmbeddingClient {
+
+    private final WebClient webClient;
+    private final OpenAiClientProperties properties;
+
+    public OpenAiEmbeddingClient(@Qualifier("openAiWebClient") WebClient webClient, OpenAiClientProperties properties) {
+        this.webClient = webClient;
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<float[]> embed(String text) {
+        if (!StringUtils.hasText(properties.getApiKey())) {
+            return Mono.error(new IllegalStateException("OpenAI API key is not configured"));
+        }
+        return webClient.post()
+            .uri(properties.getEmbeddingsUrl())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + properties.getApiKey())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(BodyInserters.fromValue(new EmbeddingRequest(properties.getEmbeddingModel(), text)))
+            .retrieve()
+            .bodyToMono(EmbeddingResponse.class)
+            .<float[]>handle((response, sink) -> {
+                if (response.data() == null || response.data().isEmpty() || response.data().get(0).embedding() == null) {
+                    sink.error(new IllegalStateException("OpenAI embeddings response did not contain an embedding"));
+                    return;
+                }
+                sink.next(response.data().get(0).embedding());
+            });
+    }
+
+    private record EmbeddingRequest(String model, String input) { }
+
+    private record EmbeddingResponse(List<EmbeddingData> data) { }
+
+    private record EmbeddingData(float[] embedding) { }
+}
@@ -0,0 +1,169 @@
+package com.example.gateway.clients.passthrough;
+
+import com.example.gateway.core.pipeline.TokenUsage;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reads the token usage of a JSON provider response while the response body
+ * is forwarded. Buffers are fed to a non-blocking Jackson parser without
+ * being copied or consumed; only the tokens of the top-level usage object are
+ * inspected and nothing else of the document is materialised.
+ *
+ * <p>A body that cannot be parsed is still forwarded unchanged; its usage is
+ * simply not reported.
+ */
+public final class UsageScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(UsageScanner.class);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String usageField;
+    private final String inputField;
+    private final String outputField;
+
+    /**
+     * @param usageField  top-level field holding the usage object
+     * @param inputField  usage field holding the input token count
+     * @param outputField usage field holding the output token count
+     */
+    public UsageScanner(String usageField, String inputField, String outputField) {
+        this.usageField = Objects.requireNonNull(usageField, "usageField must not be null");
+        this.inputField = Objects.requireNonNull(inputField, "inputField must not be null");
+        this.outputField = Objects.requireNonNull(outputField, "outputField must not be null");
+    }
+
+    /**
+     * Forwards {@code body} and passes the usage found in it to
+     * {@code onUsage} when the body completes. {@code onUsage} is not called
+     * when the body carries no usage, fails, is cancelled or is not valid JSON.
+     */
+    public Flux<DataBuffer> scan(Flux<DataBuffer> body, Consumer<TokenUsage> onUsage) {
+        return Flux.defer(() -> {
+            Scan scan = new Scan();
+            return body
+                .doOnNext(scan::feed)
+                .doOnComplete(() -> {
+                    TokenUsage usage = scan.finish();
+                    if (usage != null) {
+                        onUsage.accept(usage);
+                    }
+                })
+                .doFinally(signal -> scan.close());
+        });
+    }
+
+    /** Parser state of one response body. */
+    private final class Scan {
+
+        private JsonParser parser;
+        private boolean failed;
+        private int depth;
+        private int usageDepth = -1;
+        private boolean usageNext;
+        private String usageKey;
+        private long inputTokens = -1;
+        private long outputTokens = -1;
+
+        void feed(DataBuffer buffer) {
+            if (failed) {
+                return;
+            }
+            try {
+                if (parser == null) {
+                    parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+                }
+                ByteBufferFeeder feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+                try (DataBuffer.ByteBufferIterator buffers = buffer.readableByteBuffers()) {
+                    while (buffers.hasNext()) {
+                        feeder.feedInput(buffers.next());
+                        drain();
+                    }
+                }
+            } catch (IOException | RuntimeException ex) {
+                // Stop inspecting; the body itself is forwarded regardless.
+                logger.debug("Unable to read usage from response body", ex);
+                failed = true;
+                close();
+            }
+        }
+
+        TokenUsage finish() {
+            if (failed || parser == null) {
+                return null;
+            }
+            try {
+                ((ByteBufferFeeder) parser.getNonBlockingInputFeeder()).endOfInput();
+                drain();
+            } catch (IOException | RuntimeException ex) {
+                logger.debug("Unable to read usage from response body", ex);
+                return null;
+            }
+            if (inputTokens < 0 && outputTokens < 0) {
+                return null;
+            }
+            return new TokenUsage(Math.max(0, inputTokens), Math.max(0, outputTokens));
+        }
+
+        void close() {
+            if (parser != null) {
+                try {
+                    parser.close();
+                } catch (IOException ex) {
+                    logger.debug("Unable to close usage parser", ex);
+                }
+                parser = null;
+            }
+        }
+
+        private void drain() throws IOException {
+            JsonToken token;
+            while (parser != null && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                onToken(token);
+            }
+        }
+
+        private void onToken(JsonToken token) throws IOException {
+            switch (token) {
+                case START_OBJECT, START_ARRAY -> {
+                    depth++;
+                    if (usageNext && token == JsonToken.START_OBJECT) {
+                        usageDepth = depth;
+                    }
+                    usageNext = false;
+                }
+                case END_OBJECT, END_ARRAY -> {
+                    if (depth == usageDepth) {
+                        usageDepth = -1;
+                    }
+                    depth--;
+                }
+                case FIELD_NAME -> {
+                    String name = parser.currentName();
+                    usageNext = depth == 1 && usageField.equals(name);
+                    usageKey = depth == usageDepth ? name : null;
+                }
+                case VALUE_NUMBER_INT -> {
+                    if (depth == usageDepth) {
+                        if (inputField.equals(usageKey)) {
+                            inputTokens = parser.getLongValue();
+                        } else if (outputField.equals(usageKey)) {
+                            outputTokens = parser.getLongValue();
+                        }
+                    }
+                    usageNext = false;
+                }
+                default -> usageNext = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.gateway.clients.quota;
+
+import com.example.gateway.clients.config.ClientResilienceProperties;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Outbound limiter state of one provider model. Calls are admitted while
+ * <ul>
+ *   <li>fewer calls than the concurrency limit are in flight,</li>
+ *   <li>no {@code Retry-After} pause is active, and</li>
+ *   <li>the remaining request and token budgets last reported by the
+ *       provider are not exhausted, or their reset time has passed.</li>
+ * </ul>
+ * The concurrency limit grows by one per window of successful responses
+ * while it is fully used, and is cut by the backoff ratio when the provider
+ * throttles a call (AIMD). The remaining request budget is decremented
+ * locally for every call sent, so it stays accurate between responses.
+ *
+ * <p>Calls that cannot be admitted wait in a FIFO queue. State changes are
+ * short and guarded by the instance monitor; waiters are completed outside
+ * of it.
+ */
+final class ModelQuota {
+
+    private final String key;
+    private final ClientResilienceProperties.Outbound settings;
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private long remainingRequests = -1;
+    private long requestsResetAt;
+    private long remainingTokens = -1;
+    private long tokensResetAt;
+    private long pausedUntil = System.nanoTime();
+    private boolean wakeupScheduled;
+
+    ModelQuota(String key, ClientResilienceProperties.Outbound settings) {
+        this.key = key;
+        this.settings = settings;
+        this.limit = settings.getInitialLimit();
+    }
+
+    /**
+     * Acquires a permit, waiting up to {@code maxWait} for capacity.
+     * Fails with {@link OutboundQuotaExceededException} when the queue is
+     * full or the wait times out.
+     */
+    Mono<OutboundPermit> acquire(Duration maxWait) {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                if (waiters.isEmpty() && canSend(System.nanoTime())) {
+                    return Mono.just(grant());
+                }
+                if (maxWait.isZero() || waiters.size() >= settings.getMaxQueueSize()) {
+                    return Mono.error(rejected("saturated"));
+                }
+            }
+            return Mono.<OutboundPermit>create(sink -> {
+                    Waiter waiter = new Waiter(sink);
+                    sink.onCancel(() -> cancel(waiter));
+                    synchronized (this) {
+                        waiters.addLast(waiter);
+                    }
+                    drain();
+                })
+                .timeout(maxWait, Mono.error(() -> rejected("timed out")));
+        });
+    }
+
+    /**
+     * Updates the budget from a provider response and adapts the concurrency
+     * limit: throttled (429) and overloaded (503) responses cut the limit,
+     * successful responses grow it while it is fully used.
+     */
+    void onResponse(int status, HttpHeaders headers) {
+        synchronized (this) {
+            long now = System.nanoTime();
+            long requests = RateLimitHeaders.count(headers, RateLimitHeaders.REMAINING_REQUESTS);
+            if (requests >= 0) {
+                // Calls still in flight were sent after the provider counted this one.
+                remainingRequests = Math.max(0, requests - Math.max(0, inFlight - 1));
+                requestsResetAt = resetAt(now, RateLimitHeaders.resetNanos(headers, RateLimitHeaders.RESET_REQUESTS));
+            }
+            long tokens = RateLimitHeaders.count(headers, RateLimitHeaders.REMAINING_TOKENS);
+            if (tokens >= 0) {
+                remainingTokens = tokens;
+                tokensResetAt = resetAt(now, RateLimitHeaders.resetNanos(headers, RateLimitHeaders.RESET_TOKENS));
+            }
+            if (status == 429 || status == 503) {
+                limit = Math.max(settings.getMinLimit(), limit * settings.getBackoffRatio());
+                if (status == 429) {
+                    long retryAfter = RateLimitHeaders.retryAfterNanos(headers);
+                    long pause = retryAfter >= 0 ? retryAfter : settings.getDefaultRetryAfter().toNanos();
+                    if (now + pause - pausedUntil > 0) {
+                        pausedUntil = now + pause;
+                    }
+                }
+            } else if (status < 300 && inFlight >= (int) limit) {
+                limit = Math.min(settings.getMaxLimit(), limit + 1 / limit);
+            }
+        }
+        drain();
+    }
+
+    void release() {
+        synchronized (this) {
+            inFlight--;
+        }
+        drain();
+    }
+
+    synchronized double limit() {
+        return limit;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    synchronized int queued() {
+        return waiters.size();
+    }
+
+    /** Grants permits to waiters in order while capacity is available. */
+    private void drain() {
+        List<Waiter> granted = null;
+        synchronized (this) {
+            long now = System.nanoTime();
+            while (!waiters.isEmpty() && canSend(now)) {
+                Waiter waiter = waiters.pollFirst();
+                waiter.permit = grant();
+                if (granted == null) {
+                    granted = new ArrayList<>();
+                }
+                granted.add(waiter);
+            }
+            if (!waiters.isEmpty()) {
+                scheduleWakeup(now);
+            }
+        }
+        if (granted != null) {
+            for (Waiter waiter : granted) {
+                waiter.sink.success(waiter.permit);
+            }
+        }
+    }
+
+    private void cancel(Waiter waiter) {
+        OutboundPermit permit;
+        synchronized (this) {
+            if (waiters.remove(waiter)) {
+                return;
+            }
+            permit = waiter.permit;
+        }
+        // Granted concurrently with the cancellation; hand the slot back.
+        if (permit != null) {
+            permit.release();
+        }
+    }
+
+    /**
+     * Wakes the queue when a time-based block ends; blocks on concurrency are
+     * lifted by {@link #release()}.
+     */
+    private void scheduleWakeup(long now) {
+        long wakeAt = blockedUntil(now);
+        if (wakeupScheduled || wakeAt - now <= 0) {
+            return;
+        }
+        wakeupScheduled = true;
+        Schedulers.parallel().schedule(() -> {
+            synchronized (this) {
+                wakeupScheduled = false;
+            }
+            drain();
+        }, wakeAt - now, TimeUnit.NANOSECONDS);
+    }
+
+    private boolean canSend(long now) {
+        return inFlight < Math.max(1, (int) limit) && blockedUntil(now) - now <= 0;
+    }
+
+    /** Time until which budget or pause blocks calls, or {@code now} when not blocked. */
+    private long blockedUntil(long now) {
+        long until = now;
+        if (pausedUntil - until > 0) {
+            until = pausedUntil;
+        }
+        if (remainingRequests == 0 && requestsResetAt - until > 0) {
+            until = requestsResetAt;
+        }
+        if (remainingTokens >= 0 && remainingTokens < settings.getMinRemainingTokens() && tokensResetAt - until > 0) {
+            until = tokensResetAt;
+        }
+        return until;
+    }
+
+    private OutboundPermit grant() {
+        inFlight++;
+        if (remainingRequests > 0) {
+            remainingRequests--;
+        }
+        return new OutboundPermit(this);
+    }
+
+    private OutboundQuotaExceededException rejected(String reason) {
+        return new OutboundQuotaExceededException("Outbound limit of " + key + " " + reason);
+    }
+
+    private static long resetAt(long now, long resetNanos) {
+        return resetNanos >= 0 ? now + resetNanos : now;
+    }
+
+    private static final class Waiter {
+
+        private final MonoSink<OutboundPermit> sink;
+        private OutboundPermit permit;
+
+        private Waiter(MonoSink<OutboundPermit> sink) {
+            this.sink = sink;
+        }
+    }
+}
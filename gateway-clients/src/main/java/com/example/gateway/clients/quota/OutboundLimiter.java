@@ -0,0 +1,107 @@
+package com.example.gateway.clients.quota;
+
+import com.example.gateway.clients.config.ClientResilienceProperties;
+import com.example.gateway.core.model.ModelDescriptor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Adaptive limiter for outbound provider calls, keeping each provider model
+ * within its quota instead of learning about it from HTTP 429 responses.
+ *
+ * <p>Callers acquire an {@link OutboundPermit} before a call and release it
+ * when the call ends. The provider's view of the quota is fed back through
+ * {@link #exchangeFilter()}, which client {@link WebClient}s install to read
+ * the rate limit headers and status of every response. Model clients tag
+ * their requests with {@link #MODEL_KEY_ATTRIBUTE} so responses can be
+ * attributed to a model.
+ *
+ * <p>Exposes the {@code gateway.client.outbound.limit},
+ * {@code gateway.client.outbound.in.flight} and
+ * {@code gateway.client.outbound.queued} gauges per model.
+ */
+@Component
+public class OutboundLimiter {
+
+    /** {@link ClientRequest} attribute holding the {@linkplain #key model key} of a provider call. */
+    public static final String MODEL_KEY_ATTRIBUTE = OutboundLimiter.class.getName() + ".modelKey";
+
+    private final ClientResilienceProperties.Outbound settings;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ModelQuota> quotas = new ConcurrentHashMap<>();
+
+    public OutboundLimiter(ClientResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getOutbound();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Builds the key identifying a provider model. */
+    public static String key(String providerId, String modelId) {
+        return providerId + "/" + modelId;
+    }
+
+    /**
+     * Acquires a permit for a call to {@code model}.
+     *
+     * @param model   called model
+     * @param maxWait time to wait for capacity, zero to fail immediately
+     * @return permit, or an {@link OutboundQuotaExceededException} when no
+     *         capacity became available in time
+     */
+    public Mono<OutboundPermit> acquire(ModelDescriptor model, Duration maxWait) {
+        if (!settings.isEnabled()) {
+            return Mono.just(OutboundPermit.NOOP);
+        }
+        return quota(key(model.getProviderId(), model.getModelId())).acquire(maxWait)
+            .doOnError(OutboundQuotaExceededException.class, ex -> meterRegistry.counter("gateway.client.outbound.rejected",
+                "provider", model.getProviderId(), "model", model.getModelId()).increment());
+    }
+
+    /**
+     * Returns the filter reporting provider responses to the limiter. Requests
+     * without {@link #MODEL_KEY_ATTRIBUTE} pass through untouched.
+     */
+    public ExchangeFilterFunction exchangeFilter() {
+        return (request, next) -> {
+            Object key = request.attribute(MODEL_KEY_ATTRIBUTE).orElse(null);
+            if (!settings.isEnabled() || !(key instanceof String modelKey)) {
+                return next.exchange(request);
+            }
+            return next.exchange(request)
+                .doOnNext(response -> quota(modelKey).onResponse(response.statusCode().value(), response.headers().asHttpHeaders()));
+        };
+    }
+
+    private ModelQuota quota(String key) {
+        ModelQuota quota = quotas.get(key);
+        return quota != null ? quota : quotas.computeIfAbsent(key, this::register);
+    }
+
+    private ModelQuota register(String key) {
+        ModelQuota quota = new ModelQuota(key, settings);
+        int separator = key.indexOf('/');
+        String provider = key.substring(0, separator);
+        String model = key.substring(separator + 1);
+        Gauge.builder("gateway.client.outbound.limit", quota, ModelQuota::limit)
+            .description("Adaptive concurrency limit of outbound calls")
+            .tags("provider", provider, "model", model)
+            .register(meterRegistry);
+        Gauge.builder("gateway.client.outbound.in.flight", quota, ModelQuota::inFlight)
+            .description("Outbound calls in flight")
+            .tags("provider", provider, "model", model)
+            .register(meterRegistry);
+        Gauge.builder("gateway.client.outbound.queued", quota, ModelQuota::queued)
+            .description("Calls waiting for outbound capacity")
+            .tags("provider", provider, "model", model)
+            .register(meterRegistry);
+        return quota;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.gateway.clients.quota;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Slot of a model's outbound concurrency limit, held for the duration of one
+ * provider call. Releasing is idempotent.
+ */
+public final class OutboundPermit {
+
+    /** Permit of a disabled limiter. */
+    public static final OutboundPermit NOOP = new OutboundPermit(null);
+
+    private final ModelQuota quota;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    OutboundPermit(ModelQuota quota) {
+        this.quota = quota;
+    }
+
+    /** Returns the slot once the call has finished, failed or was cancelled. */
+    public void release() {
+        if (quota != null && released.compareAndSet(false, true)) {
+            quota.release();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.gateway.clients.quota;
+
+import com.example.gateway.core.exception.ProviderUnavailableException;
+
+/**
+ * Thrown when a call is not sent because the target model's outbound limit
+ * is saturated and the call could not wait for capacity. Like other
+ * unavailability errors, it makes the call fall back to the next model.
+ */
+public class OutboundQuotaExceededException extends ProviderUnavailableException {
+
+    public OutboundQuotaExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.gateway.clients.quota;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Parses the rate limit headers providers attach to their responses. The
+ * OpenAI {@code x-ratelimit-*} family reports the remaining request and token
+ * budget and the time until each resets, as durations such as {@code 6m0s}
+ * or {@code 20ms}. {@code Retry-After} is read in seconds, or in milliseconds
+ * from {@code retry-after-ms} when present.
+ */
+final class RateLimitHeaders {
+
+    static final String REMAINING_REQUESTS = "x-ratelimit-remaining-requests";
+    static final String REMAINING_TOKENS = "x-ratelimit-remaining-tokens";
+    static final String RESET_REQUESTS = "x-ratelimit-reset-requests";
+    static final String RESET_TOKENS = "x-ratelimit-reset-tokens";
+    static final String RETRY_AFTER_MS = "retry-after-ms";
+
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+
+    private RateLimitHeaders() {
+    }
+
+    /** Returns a non-negative integer header value, or {@code -1} when absent or malformed. */
+    static long count(HttpHeaders headers, String name) {
+        String value = headers.getFirst(name);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /** Returns a reset duration header in nanoseconds, or {@code -1} when absent or malformed. */
+    static long resetNanos(HttpHeaders headers, String name) {
+        String value = headers.getFirst(name);
+        return value != null ? parseDuration(value.trim()) : -1;
+    }
+
+    /** Returns the retry delay requested by the provider in nanoseconds, or {@code -1}. */
+    static long retryAfterNanos(HttpHeaders headers) {
+        String millis = headers.getFirst(RETRY_AFTER_MS);
+        if (millis != null) {
+            try {
+                return (long) (Double.parseDouble(millis.trim()) * 1_000_000);
+            } catch (NumberFormatException ex) {
+                // fall through to Retry-After
+            }
+        }
+        String seconds = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (seconds != null) {
+            try {
+                return (long) (Double.parseDouble(seconds.trim()) * 1_000_000_000);
+            } catch (NumberFormatException ex) {
+                // HTTP dates are not used by the supported providers
+            }
+        }
+        return -1;
+    }
+
+    /** Parses durations such as {@code 1s}, {@code 6m0s}, {@code 1.5s} or {@code 20ms}. */
+    static long parseDuration(String value) {
+        Matcher matcher = DURATION_PART.matcher(value);
+        double nanos = 0;
+        int end = 0;
+        while (matcher.find()) {
+            if (matcher.start() != end) {
+                return -1;
+            }
+            double amount = Double.parseDouble(matcher.group(1));
+            nanos += switch (matcher.group(2)) {
+                case "h" -> amount * 3_600_000_000_000d;
+                case "m" -> amount * 60_000_000_000d;
+                case "s" -> amount * 1_000_000_000d;
+                default -> amount * 1_000_000d;
+            };
+            end = matcher.end();
+        }
+        return end > 0 && end == value.length() ? (long) nanos : -1;
+    }
+}
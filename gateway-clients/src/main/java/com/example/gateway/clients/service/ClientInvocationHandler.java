@@ -1,28 +1,68 @@
 package com.example.gateway.clients.service;
 
 import com.example.gateway.core.client.ModelClient;
+import com.example.gateway.core.pipeline.InvocationAttributes;
+import com.example.gateway.core.pipeline.InvocationChunk;
 import com.example.gateway.core.pipeline.InvocationContext;
 import com.example.gateway.core.pipeline.InvocationResponse;
+import com.example.gateway.core.pipeline.NormalizationLevel;
 import com.example.gateway.core.pipeline.ReactiveInvocationHandler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * Terminal handler that delegates the invocation to the resolved
- * {@link ModelClient} implementation.
+ * {@link ModelClient} implementation. Calls run through the
+ * {@link FallbackExecutor}, which retries failed calls against the model's
+ * fallback chain.
+ *
+ * <p>Pass-through invocations at {@link NormalizationLevel#FULL} are invoked
+ * like unary calls and return the encoded {@link InvocationResponse}; lower
+ * levels forward the provider body.
  */
 @Component
 public class ClientInvocationHandler implements ReactiveInvocationHandler {
 
     private final ModelClientRegistry registry;
+    private final FallbackExecutor fallbackExecutor;
+    private final ObjectMapper objectMapper;
 
-    public ClientInvocationHandler(ModelClientRegistry registry) {
+    public ClientInvocationHandler(ModelClientRegistry registry, FallbackExecutor fallbackExecutor, ObjectMapper objectMapper) {
         this.registry = registry;
+        this.fallbackExecutor = fallbackExecutor;
+        this.objectMapper = objectMapper;
     }
 
     @Override
     public Mono<InvocationResponse> invoke(InvocationContext context) {
-        ModelClient client = registry.resolve(context.getModel());
-        return client.invoke(context);
+        return fallbackExecutor.invoke(context, attempt -> registry.resolve(attempt.getModel()).invoke(attempt));
+    }
+
+    @Override
+    public Flux<InvocationChunk> stream(InvocationContext context) {
+        return fallbackExecutor.stream(context, attempt -> registry.resolve(attempt.getModel()).stream(attempt));
+    }
+
+    @Override
+    public Flux<DataBuffer> passThrough(InvocationContext context) {
+        NormalizationLevel level = InvocationAttributes.normalizationLevel(context);
+        if (level == NormalizationLevel.FULL) {
+            return invoke(context)
+                .doOnNext(response -> context.setAttribute(InvocationAttributes.USAGE, response.getUsage()))
+                .<DataBuffer>handle((response, sink) -> {
+                    try {
+                        sink.next(DefaultDataBufferFactory.sharedInstance.wrap(objectMapper.writeValueAsBytes(response)));
+                    } catch (JsonProcessingException ex) {
+                        sink.error(ex);
+                    }
+                })
+                .flux();
+        }
+        return fallbackExecutor.passThrough(context, attempt -> registry.resolve(attempt.getModel()).passThrough(attempt, level));
     }
 }
@@ -0,0 +1,532 @@
+package com.example.gateway.clients.service;
+
+import com.example.gateway.clients.config.ClientResilienceProperties;
+import com.example.gateway.clients.quota.OutboundLimiter;
+import com.example.gateway.clients.quota.OutboundPermit;
+import com.example.gateway.clients.quota.OutboundQuotaExceededException;
+import com.example.gateway.core.exception.ProviderUnavailableException;
+import com.example.gateway.core.health.HealthPermit;
+import com.example.gateway.core.health.ProviderHealthRegistry;
+import com.example.gateway.core.pipeline.AbandonedAttempt;
+import com.example.gateway.core.pipeline.InvocationAttributes;
+import com.example.gateway.core.model.ModelDescriptor;
+import com.example.gateway.core.model.ProviderDescriptor;
+import com.example.gateway.core.pipeline.InvocationChunk;
+import com.example.gateway.core.pipeline.InvocationContext;
+import com.example.gateway.core.pipeline.InvocationResponse;
+import com.example.gateway.core.registry.ProviderRegistry;
+import com.example.gateway.core.registry.RouteCandidate;
+import com.example.gateway.core.registry.RouteIndex;
+import com.example.gateway.core.routing.RouteStatistics;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Executes client calls along the routed model's fallback chain
+ * ({@link ModelDescriptor#getFallbackPriority()}). An attempt that fails with
+ * a retryable error (HTTP 429 or 5xx, a transport error or an attempt
+ * timeout) is followed, after a randomised ("full jitter") exponential
+ * backoff, by an attempt against the next model of the chain. All attempts
+ * and delays share one latency budget.
+ *
+ * <p>Each attempt runs on a {@linkplain InvocationContext#fork() fork} of the
+ * context. Once an attempt succeeds, the serving provider and model are
+ * written back to the original context, so filters such as spend tracking
+ * see the model that actually served the request, and the response metadata
+ * records the number of attempts. Streams fall back only until the first
+ * chunk has been emitted.
+ *
+ * <p>When hedging is enabled, a unary call whose routed model has not answered
+ * within a configured quantile of its recent latency is raced against the
+ * first fallback model; the first successful response wins and the other
+ * call is cancelled. A call cancelled in flight is recorded as an
+ * {@link AbandonedAttempt} so spend tracking can charge it; a call that had
+ * already failed is recorded as failed. Hedges are capped
+ * per minute. Streams are not hedged.
+ *
+ * <p>Every call is admitted by the {@link ProviderHealthRegistry} and reports
+ * its outcome back to it; fallbacks whose circuit breaker is open are left out
+ * of the plan. Only retryable errors count as provider failures. Streams
+ * report success once the first chunk arrives. Calls in flight and latencies
+ * are also reported to {@link RouteStatistics} for latency-aware routing.
+ *
+ * <p>Before the health check, every call takes a permit from the
+ * {@link OutboundLimiter}. While another model remains in the plan, a call
+ * waits at most the spillover wait for capacity and then moves on to the next
+ * model without backoff; the last model of the plan may queue longer.
+ */
+@Component
+public class FallbackExecutor {
+
+    /** Metadata key holding the number of attempts made. */
+    public static final String ATTEMPTS_KEY = "attempts";
+
+    /** Metadata key holding the originally routed model when a fallback served the request. */
+    public static final String FALLBACK_FROM_KEY = "fallbackFrom";
+
+    /** Metadata key set when a hedged request was sent for the invocation. */
+    public static final String HEDGED_KEY = "hedged";
+
+    private static final Logger logger = LoggerFactory.getLogger(FallbackExecutor.class);
+
+    private final ProviderRegistry providerRegistry;
+    private final ModelClientRegistry clientRegistry;
+    private final ClientResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ProviderHealthRegistry healthRegistry;
+    private final RouteStatistics routeStatistics;
+    private final OutboundLimiter outboundLimiter;
+    private final HedgeBudget hedgeBudget;
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    public FallbackExecutor(ProviderRegistry providerRegistry, ModelClientRegistry clientRegistry,
+                            ClientResilienceProperties properties, MeterRegistry meterRegistry,
+                            ProviderHealthRegistry healthRegistry, RouteStatistics routeStatistics,
+                            OutboundLimiter outboundLimiter) {
+        this.providerRegistry = providerRegistry;
+        this.clientRegistry = clientRegistry;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.healthRegistry = healthRegistry;
+        this.routeStatistics = routeStatistics;
+        this.outboundLimiter = outboundLimiter;
+        this.hedgeBudget = new HedgeBudget(properties.getHedging().getMaxPerMinute());
+    }
+
+    /**
+     * Invokes {@code call} for the routed model and, on retryable failures,
+     * for its fallbacks.
+     */
+    public Mono<InvocationResponse> invoke(InvocationContext context, Function<InvocationContext, Mono<InvocationResponse>> call) {
+        if (context.getModel() == null) {
+            return call.apply(context);
+        }
+        if (!properties.isEnabled()) {
+            return tracked(context, call, null, properties.getOutbound().getMaxQueueWait());
+        }
+        return Mono.defer(() -> attempt(context, plan(context), 0, deadline(), false, call));
+    }
+
+    /**
+     * Streams {@code call} for the routed model and, on retryable failures
+     * before the first chunk, for its fallbacks.
+     */
+    public Flux<InvocationChunk> stream(InvocationContext context, Function<InvocationContext, Flux<InvocationChunk>> call) {
+        if (context.getModel() == null) {
+            return call.apply(context);
+        }
+        if (!properties.isEnabled()) {
+            return trackedStream(context, call, null, properties.getOutbound().getMaxQueueWait());
+        }
+        return Flux.defer(() -> streamAttempt(context, plan(context), 0, deadline(), false, call));
+    }
+
+    /**
+     * Forwards the raw response body of {@code call} for the routed model.
+     * Provider bodies differ in format, so pass-through calls do not fall back
+     * to other models; they are still admitted by the outbound limiter and the
+     * health registry, and bounded by the attempt timeout until the first
+     * buffer arrives.
+     */
+    public Flux<DataBuffer> passThrough(InvocationContext context, Function<InvocationContext, Flux<DataBuffer>> call) {
+        if (context.getModel() == null) {
+            return call.apply(context);
+        }
+        return Flux.defer(() -> trackedStream(context, call,
+            properties.isEnabled() ? remaining(deadline()) : null, properties.getOutbound().getMaxQueueWait()));
+    }
+
+    private Mono<InvocationResponse> attempt(InvocationContext context, List<RouteCandidate> plan, int index, long deadline,
+                                             boolean spillover, Function<InvocationContext, Mono<InvocationResponse>> call) {
+        return backoff(index, deadline, spillover).then(Mono.defer(() -> {
+            long hedgeDelay = index == 0 ? hedgeDelay(plan, deadline) : -1;
+            if (hedgeDelay >= 0) {
+                return hedged(context, plan, deadline, hedgeDelay, call);
+            }
+            RouteCandidate candidate = plan.get(index);
+            InvocationContext attempt = forkFor(context, candidate);
+            long start = System.nanoTime();
+            return tracked(attempt, call, remaining(deadline), queueWait(plan, index))
+                .doOnNext(response -> recordLatency(candidate, System.nanoTime() - start))
+                .map(response -> response.withMetadata(served(context, attempt, index)))
+                .onErrorResume(ex -> {
+                    if (!shouldRetry(ex, plan, index, deadline)) {
+                        recordAttempt(candidate, "failed");
+                        return Mono.error(ex);
+                    }
+                    recordAttempt(candidate, "retried");
+                    logger.debug("Attempt {} against {}/{} failed, falling back", index + 1,
+                        candidate.provider().getId(), candidate.model().getModelId(), ex);
+                    return attempt(context, plan, index + 1, deadline, ex instanceof OutboundQuotaExceededException, call);
+                });
+        }));
+    }
+
+    /**
+     * Races the routed model against the first fallback, which is only called
+     * once {@code hedgeDelay} has passed without a response from the routed
+     * model and the hedge budget allows it. If both calls fail, the plan
+     * continues after the fallback that was hedged to.
+     */
+    private Mono<InvocationResponse> hedged(InvocationContext context, List<RouteCandidate> plan, long deadline,
+                                            long hedgeDelay, Function<InvocationContext, Mono<InvocationResponse>> call) {
+        RouteCandidate primary = plan.get(0);
+        RouteCandidate secondary = plan.get(1);
+        InvocationContext primaryAttempt = forkFor(context, primary);
+        InvocationContext secondaryAttempt = forkFor(context, secondary);
+        AtomicBoolean hedgeSent = new AtomicBoolean();
+        AtomicReference<Throwable> lastError = new AtomicReference<>();
+        Sinks.One<Boolean> primaryFailed = Sinks.one();
+        AtomicBoolean primaryErrored = new AtomicBoolean();
+        AtomicBoolean secondaryErrored = new AtomicBoolean();
+        long start = System.nanoTime();
+
+        Mono<HedgeOutcome> primaryCall = tracked(primaryAttempt, call, remaining(deadline), queueWait(plan, 0))
+            .map(response -> new HedgeOutcome(0, primaryAttempt, response))
+            .doOnNext(outcome -> recordLatency(primary, System.nanoTime() - start))
+            .doOnError(ex -> {
+                lastError.set(ex);
+                primaryErrored.set(true);
+                primaryFailed.tryEmitValue(Boolean.TRUE);
+            })
+            // A primary cancelled by a faster hedge was at least this slow.
+            .doOnCancel(() -> recordLatency(primary, System.nanoTime() - start));
+        Mono<HedgeOutcome> secondaryCall = Mono.delay(Duration.ofNanos(hedgeDelay))
+            .takeUntilOther(primaryFailed.asMono())
+            .filter(tick -> acquireHedge())
+            .flatMap(tick -> {
+                hedgeSent.set(true);
+                long hedgeStart = System.nanoTime();
+                return tracked(secondaryAttempt, call, remaining(deadline), queueWait(plan, 1))
+                    .map(response -> new HedgeOutcome(1, secondaryAttempt, response))
+                    .doOnNext(outcome -> recordLatency(secondary, System.nanoTime() - hedgeStart))
+                    .doOnError(ex -> {
+                        lastError.set(ex);
+                        secondaryErrored.set(true);
+                    });
+            });
+
+        return Mono.firstWithValue(primaryCall, secondaryCall)
+            .map(outcome -> {
+                Map<String, Object> metadata = served(context, outcome.attempt(), outcome.index());
+                if (hedgeSent.get()) {
+                    RouteCandidate loser = outcome.index() == 0 ? secondary : primary;
+                    // Only a loser still in flight was cancelled and may be charged.
+                    if ((outcome.index() == 0 ? secondaryErrored : primaryErrored).get()) {
+                        recordAttempt(loser, "failed");
+                    } else {
+                        InvocationAttributes.addAbandonedAttempt(context,
+                            new AbandonedAttempt(loser.provider(), loser.model(), "hedge"));
+                        recordAttempt(loser, "cancelled");
+                    }
+                    recordHedge(outcome.index() == 0 ? "lost" : "won");
+                    metadata.put(HEDGED_KEY, true);
+                }
+                return outcome.response().withMetadata(metadata);
+            })
+            .onErrorResume(ex -> {
+                Throwable failure = lastError.get() != null ? lastError.get() : ex;
+                int failedIndex = hedgeSent.get() ? 1 : 0;
+                if (hedgeSent.get()) {
+                    recordAttempt(primary, "failed");
+                    recordHedge("failed");
+                }
+                if (!shouldRetry(failure, plan, failedIndex, deadline)) {
+                    recordAttempt(plan.get(failedIndex), "failed");
+                    return Mono.error(failure);
+                }
+                recordAttempt(plan.get(failedIndex), "retried");
+                logger.debug("Hedged attempt against {}/{} failed, falling back", primary.provider().getId(),
+                    primary.model().getModelId(), failure);
+                return attempt(context, plan, failedIndex + 1, deadline, failure instanceof OutboundQuotaExceededException, call);
+            });
+    }
+
+    private Flux<InvocationChunk> streamAttempt(InvocationContext context, List<RouteCandidate> plan, int index, long deadline,
+                                                boolean spillover, Function<InvocationContext, Flux<InvocationChunk>> call) {
+        return backoff(index, deadline, spillover).thenMany(Flux.defer(() -> {
+            RouteCandidate candidate = plan.get(index);
+            InvocationContext attempt = forkFor(context, candidate);
+            AtomicBoolean started = new AtomicBoolean();
+            Map<String, Object> servedMetadata = new HashMap<>();
+            return trackedStream(attempt, call, remaining(deadline), queueWait(plan, index))
+                .map(chunk -> {
+                    if (started.compareAndSet(false, true)) {
+                        servedMetadata.putAll(served(context, attempt, index));
+                    }
+                    return chunk.isLast() ? chunk.withMetadata(servedMetadata) : chunk;
+                })
+                .onErrorResume(ex -> {
+                    if (started.get() || !shouldRetry(ex, plan, index, deadline)) {
+                        recordAttempt(candidate, "failed");
+                        return Flux.error(ex);
+                    }
+                    recordAttempt(candidate, "retried");
+                    logger.debug("Streaming attempt {} against {}/{} failed, falling back", index + 1,
+                        candidate.provider().getId(), candidate.model().getModelId(), ex);
+                    return streamAttempt(context, plan, index + 1, deadline, ex instanceof OutboundQuotaExceededException, call);
+                });
+        }));
+    }
+
+    /**
+     * Runs a call admitted by the outbound limiter and the health registry and
+     * reports its outcome.
+     *
+     * @param timeout   timeout of the call, or {@code null} for none
+     * @param queueWait time the call may wait for outbound capacity
+     */
+    private Mono<InvocationResponse> tracked(InvocationContext attempt, Function<InvocationContext, Mono<InvocationResponse>> call,
+                                             Duration timeout, Duration queueWait) {
+        return outboundLimiter.acquire(attempt.getModel(), queueWait).flatMap(outbound -> {
+            HealthPermit permit = healthRegistry.acquire(attempt.getModel());
+            if (permit == null) {
+                outbound.release();
+                return Mono.error(unavailable(attempt));
+            }
+            ModelDescriptor model = attempt.getModel();
+            long start = System.nanoTime();
+            routeStatistics.onStart(model);
+            Mono<InvocationResponse> response = Mono.defer(() -> call.apply(attempt));
+            if (timeout != null) {
+                response = response.timeout(timeout);
+            }
+            return response
+                .doOnSuccess(value -> {
+                    long latency = System.nanoTime() - start;
+                    permit.onSuccess(latency);
+                    routeStatistics.onLatency(model, latency);
+                })
+                .doOnError(ex -> complete(permit, ex))
+                .doOnCancel(permit::release)
+                .doFinally(signal -> finish(model, outbound));
+        });
+    }
+
+    /**
+     * Streaming variant of {@link #tracked}; the outcome is decided by the
+     * first element.
+     *
+     * @param timeout   time allowed until the first element, or {@code null} for none
+     * @param queueWait time the call may wait for outbound capacity
+     */
+    private <T> Flux<T> trackedStream(InvocationContext attempt, Function<InvocationContext, Flux<T>> call,
+                                      Duration timeout, Duration queueWait) {
+        return outboundLimiter.acquire(attempt.getModel(), queueWait).flatMapMany(outbound -> {
+            HealthPermit permit = healthRegistry.acquire(attempt.getModel());
+            if (permit == null) {
+                outbound.release();
+                return Flux.error(unavailable(attempt));
+            }
+            ModelDescriptor model = attempt.getModel();
+            long start = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            routeStatistics.onStart(model);
+            Flux<T> chunks = Flux.defer(() -> call.apply(attempt));
+            if (timeout != null) {
+                chunks = chunks.timeout(Mono.delay(timeout), chunk -> Mono.never());
+            }
+            return chunks
+                .doOnNext(chunk -> {
+                    if (first.compareAndSet(true, false)) {
+                        long latency = System.nanoTime() - start;
+                        permit.onSuccess(latency);
+                        routeStatistics.onLatency(model, latency);
+                    }
+                })
+                .doOnComplete(() -> permit.onSuccess(System.nanoTime() - start))
+                .doOnError(ex -> complete(permit, ex))
+                .doOnCancel(permit::release)
+                .doFinally(signal -> finish(model, outbound));
+        });
+    }
+
+    private void finish(ModelDescriptor model, OutboundPermit outbound) {
+        routeStatistics.onFinish(model);
+        outbound.release();
+    }
+
+    /**
+     * Returns how long an attempt may wait for outbound capacity: briefly
+     * while a fallback remains, otherwise up to the queue limit.
+     */
+    private Duration queueWait(List<RouteCandidate> plan, int index) {
+        ClientResilienceProperties.Outbound outbound = properties.getOutbound();
+        return index + 1 < plan.size() ? outbound.getSpilloverWait() : outbound.getMaxQueueWait();
+    }
+
+    private static void complete(HealthPermit permit, Throwable ex) {
+        if (isRetryable(ex)) {
+            permit.onFailure();
+        } else {
+            permit.release();
+        }
+    }
+
+    private static ProviderUnavailableException unavailable(InvocationContext attempt) {
+        return new ProviderUnavailableException("Circuit breaker open for model " + attempt.getModel().getModelId()
+            + " of provider " + attempt.getModel().getProviderId());
+    }
+
+    /**
+     * Builds the attempt plan: the routed model followed by the resolved
+     * fallback chain, skipping models without a provider or client and
+     * unhealthy models, capped at the configured number of attempts.
+     */
+    private List<RouteCandidate> plan(InvocationContext context) {
+        ModelDescriptor primary = context.getModel();
+        RouteIndex index = providerRegistry.getRouteIndex();
+        List<RouteCandidate> plan = new ArrayList<>();
+        plan.add(new RouteCandidate(context.getProvider(), primary));
+        for (ModelDescriptor fallback : index.findFallbackChain(primary)) {
+            if (plan.size() >= properties.getMaxAttempts()) {
+                break;
+            }
+            ProviderDescriptor provider = index.findProvider(fallback.getProviderId());
+            if (provider == null || isSameModel(fallback, primary) || !clientRegistry.supports(fallback)
+                || !healthRegistry.isAvailable(fallback)) {
+                continue;
+            }
+            plan.add(new RouteCandidate(provider, fallback));
+        }
+        return plan;
+    }
+
+    /**
+     * Returns the delay after which the routed model is hedged, or {@code -1}
+     * when hedging is disabled, there is no fallback, or too little latency
+     * history is available.
+     */
+    private long hedgeDelay(List<RouteCandidate> plan, long deadline) {
+        ClientResilienceProperties.Hedging hedging = properties.getHedging();
+        if (!hedging.isEnabled() || plan.size() < 2) {
+            return -1;
+        }
+        long quantile = histogram(plan.get(0)).quantileNanos(hedging.getQuantile(), hedging.getMinSamples());
+        if (quantile < 0) {
+            return -1;
+        }
+        long delay = Math.max(hedging.getMinDelay().toNanos(), Math.min(hedging.getMaxDelay().toNanos(), quantile));
+        return System.nanoTime() + delay < deadline ? delay : -1;
+    }
+
+    private boolean acquireHedge() {
+        if (hedgeBudget.tryAcquire()) {
+            recordHedge("sent");
+            return true;
+        }
+        recordHedge("budget_exhausted");
+        return false;
+    }
+
+    private LatencyHistogram histogram(RouteCandidate candidate) {
+        return latencies.computeIfAbsent(candidate.model().getProviderId() + "/" + candidate.model().getModelId(),
+            key -> new LatencyHistogram(properties.getHedging().getWindow().toNanos()));
+    }
+
+    private void recordLatency(RouteCandidate candidate, long nanos) {
+        if (properties.getHedging().isEnabled()) {
+            histogram(candidate).record(nanos);
+        }
+    }
+
+    private boolean shouldRetry(Throwable ex, List<RouteCandidate> plan, int index, long deadline) {
+        return index + 1 < plan.size() && System.nanoTime() < deadline && isRetryable(ex);
+    }
+
+    /**
+     * Returns whether the failure is likely transient or specific to the
+     * provider, so another model may succeed.
+     */
+    static boolean isRetryable(Throwable ex) {
+        if (ex instanceof TimeoutException || ex instanceof WebClientRequestException
+            || ex instanceof ProviderUnavailableException) {
+            return true;
+        }
+        if (ex instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status == 429 || status >= 500;
+        }
+        return false;
+    }
+
+    private Mono<Void> backoff(int index, long deadline, boolean spillover) {
+        if (index == 0 || spillover) {
+            return Mono.empty();
+        }
+        long capNanos = Math.min(properties.getMaxBackoff().toNanos(),
+            properties.getInitialBackoff().toNanos() << Math.min(index - 1, 20));
+        long delayNanos = Math.min(ThreadLocalRandom.current().nextLong(capNanos + 1), Math.max(0, deadline - System.nanoTime()));
+        return delayNanos > 0 ? Mono.delay(Duration.ofNanos(delayNanos)).then() : Mono.empty();
+    }
+
+    private long deadline() {
+        return System.nanoTime() + properties.getTotalBudget().toNanos();
+    }
+
+    private Duration remaining(long deadline) {
+        long remainingNanos = Math.max(1, deadline - System.nanoTime());
+        return Duration.ofNanos(Math.min(properties.getAttemptTimeout().toNanos(), remainingNanos));
+    }
+
+    private static boolean isSameModel(ModelDescriptor left, ModelDescriptor right) {
+        return left.getProviderId().equals(right.getProviderId()) && left.getModelId().equals(right.getModelId());
+    }
+
+    private static InvocationContext forkFor(InvocationContext context, RouteCandidate candidate) {
+        InvocationContext attempt = context.fork();
+        attempt.setProvider(candidate.provider());
+        attempt.setModel(candidate.model());
+        return attempt;
+    }
+
+    private Map<String, Object> served(InvocationContext context, InvocationContext attempt, int index) {
+        ModelDescriptor routed = context.getModel();
+        context.setProvider(attempt.getProvider());
+        context.setModel(attempt.getModel());
+        context.getAttributes().putAll(attempt.getAttributes());
+        recordAttempt(new RouteCandidate(attempt.getProvider(), attempt.getModel()), "success");
+        meterRegistry.counter("gateway.client.served",
+            "provider", attempt.getModel().getProviderId(),
+            "model", attempt.getModel().getModelId(),
+            "fallback", Boolean.toString(index > 0)).increment();
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put(ATTEMPTS_KEY, index + 1);
+        if (index > 0) {
+            metadata.put(FALLBACK_FROM_KEY, routed.getModelId());
+        }
+        return metadata;
+    }
+
+    private void recordAttempt(RouteCandidate candidate, String outcome) {
+        meterRegistry.counter("gateway.client.attempts",
+            "provider", candidate.model().getProviderId(),
+            "model", candidate.model().getModelId(),
+            "outcome", outcome).increment();
+    }
+
+    private void recordHedge(String outcome) {
+        meterRegistry.counter("gateway.client.hedges", "outcome", outcome).increment();
+    }
+
+    private record HedgeOutcome(int index, InvocationContext attempt, InvocationResponse response) { }
+}
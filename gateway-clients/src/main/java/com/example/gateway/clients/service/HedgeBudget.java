@@ -0,0 +1,32 @@
+package com.example.gateway.clients.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-window limit on the number of hedged requests per minute, which caps
+ * the extra provider spend hedging can cause.
+ */
+final class HedgeBudget {
+
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final int maxPerMinute;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger used = new AtomicInteger();
+
+    HedgeBudget(int maxPerMinute) {
+        this.maxPerMinute = maxPerMinute;
+    }
+
+    /** Takes one hedge from the budget, returning {@code false} when exhausted. */
+    boolean tryAcquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        return used.incrementAndGet() <= maxPerMinute;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.gateway.clients.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free, log-linear latency histogram over a sliding window. Values are
+ * bucketed by their binary exponent with four linear sub-buckets each
+ * (roughly 20% relative precision). Recording is a single atomic increment;
+ * the histogram keeps the current and the previous window, so percentiles
+ * reflect between one and two windows of recent traffic.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final long windowNanos;
+    private final AtomicReference<Windows> windows;
+
+    LatencyHistogram(long windowNanos) {
+        this.windowNanos = windowNanos;
+        this.windows = new AtomicReference<>(new Windows(new Window(System.nanoTime()), new Window(System.nanoTime())));
+    }
+
+    /** Records a latency. */
+    void record(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        current(System.nanoTime()).counts.incrementAndGet(bucket(micros));
+    }
+
+    /**
+     * Returns the latency at the given quantile, or {@code -1} when fewer than
+     * {@code minSamples} values were recorded in the retained windows.
+     *
+     * @param quantile quantile between 0 and 1
+     * @return upper bound of the bucket containing the quantile, in nanoseconds
+     */
+    long quantileNanos(double quantile, long minSamples) {
+        Windows snapshot = windows.get();
+        current(System.nanoTime());
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = snapshot.current.counts.get(i) + snapshot.previous.counts.get(i);
+            total += counts[i];
+        }
+        if (total == 0 || total < minSamples) {
+            return -1;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return TimeUnit.MICROSECONDS.toNanos(upperBound(i));
+            }
+        }
+        return TimeUnit.MICROSECONDS.toNanos(upperBound(BUCKETS - 1));
+    }
+
+    private Window current(long now) {
+        while (true) {
+            Windows snapshot = windows.get();
+            if (now - snapshot.current.start < windowNanos) {
+                return snapshot.current;
+            }
+            // Losing threads retry against the winner's rotation.
+            if (windows.compareAndSet(snapshot, new Windows(new Window(now), snapshot.current))) {
+                return windows.get().current;
+            }
+        }
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKETS - 1, exponent * SUB_BUCKETS + subBucket);
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS;
+        int subBucket = bucket % SUB_BUCKETS;
+        if (exponent >= 62) {
+            return Long.MAX_VALUE;
+        }
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    private record Windows(Window current, Window previous) { }
+
+    private static final class Window {
+
+        private final long start;
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        Window(long start) {
+            this.start = start;
+        }
+    }
+}
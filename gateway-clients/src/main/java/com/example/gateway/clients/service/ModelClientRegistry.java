@@ -33,4 +33,19 @@ public class ModelClientRegistry {
             .findFirst()
             .orElseThrow(() -> new IllegalStateException("No client registered for model " + descriptor.getModelId()));
     }
+
+    /**
+     * Indicates whether any registered client supports the descriptor.
+     *
+     * @param descriptor model descriptor
+     * @return {@code true} if {@link #resolve(ModelDescriptor)} would succeed
+     */
+    public boolean supports(ModelDescriptor descriptor) {
+        for (ModelClient delegate : delegates) {
+            if (delegate.supports(descriptor)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,64 @@
+package com.example.gateway.clients.transport;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Publishes the connection pools of a provider transport to the application's
+ * {@link MeterRegistry}. Reactor Netty creates one pool per remote address and
+ * reports each here; gauges are tagged with the provider and remote address
+ * and removed when the pool is disposed.
+ */
+final class PoolMeterRegistrar implements ConnectionProvider.MeterRegistrar {
+
+    private final String provider;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, List<Meter>> meters = new ConcurrentHashMap<>();
+
+    PoolMeterRegistrar(String provider, MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        Tags tags = Tags.of("provider", provider, "remote", String.valueOf(remoteAddress));
+        meters.put(id, List.of(
+            Gauge.builder("gateway.client.pool.active", metrics, ConnectionPoolMetrics::acquiredSize)
+                .description("Connections (or HTTP/2 streams) in use")
+                .tags(tags)
+                .register(meterRegistry),
+            Gauge.builder("gateway.client.pool.idle", metrics, ConnectionPoolMetrics::idleSize)
+                .description("Idle connections")
+                .tags(tags)
+                .register(meterRegistry),
+            Gauge.builder("gateway.client.pool.pending", metrics, ConnectionPoolMetrics::pendingAcquireSize)
+                .description("Requests waiting for a connection")
+                .tags(tags)
+                .register(meterRegistry),
+            Gauge.builder("gateway.client.pool.allocated", metrics, ConnectionPoolMetrics::allocatedSize)
+                .description("Open connections")
+                .tags(tags)
+                .register(meterRegistry),
+            Gauge.builder("gateway.client.pool.max", metrics, ConnectionPoolMetrics::maxAllocatedSize)
+                .description("Maximum number of connections")
+                .tags(tags)
+                .register(meterRegistry)));
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        List<Meter> registered = meters.remove(id);
+        if (registered != null) {
+            registered.forEach(meterRegistry::remove);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.gateway.clients.transport;
+
+import com.example.gateway.clients.config.HttpTransportProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Dedicated HTTP transport of one provider: a Reactor Netty
+ * {@link ConnectionProvider} sized by {@link HttpTransportProperties} and the
+ * {@link HttpClient} built on it. All {@code WebClient}s of the provider
+ * share the transport through {@link #connector()}.
+ *
+ * <p>With HTTP/2 enabled, the protocol is negotiated via ALPN (or prior
+ * knowledge for plain-text URLs) and calls are multiplexed as streams over
+ * a few connections; HTTP/1.1 remains the fallback. Pool gauges are
+ * published as {@code gateway.client.pool.*}.
+ *
+ * <p>On startup the transport initialises its event loops and resolver and
+ * opens connections to the provider in the background, so the first calls do
+ * not pay for DNS and TLS handshakes. Warm-up failures are only logged.
+ */
+public class ProviderTransport implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderTransport.class);
+
+    private final String provider;
+    private final URI warmupUri;
+    private final HttpTransportProperties properties;
+    private final ConnectionProvider connectionProvider;
+    private final HttpClient httpClient;
+    private volatile Disposable warmup;
+
+    /**
+     * Creates the transport.
+     *
+     * @param provider      provider id, used for pool names and metric tags
+     * @param baseUrl       provider endpoint, used for warm-up and protocol selection
+     * @param properties    transport settings
+     * @param meterRegistry registry receiving pool metrics
+     */
+    public ProviderTransport(String provider, String baseUrl, HttpTransportProperties properties, MeterRegistry meterRegistry) {
+        this.provider = Objects.requireNonNull(provider, "provider must not be null");
+        this.warmupUri = URI.create(Objects.requireNonNull(baseUrl, "baseUrl must not be null"));
+        this.properties = Objects.requireNonNull(properties, "properties must not be null");
+        this.connectionProvider = connectionProvider(provider, properties, meterRegistry);
+        this.httpClient = httpClient(connectionProvider, properties, "https".equalsIgnoreCase(warmupUri.getScheme()));
+    }
+
+    /** Connector for {@code WebClient.Builder#clientConnector}. */
+    public ClientHttpConnector connector() {
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!properties.isWarmup()) {
+            return;
+        }
+        int connections = Math.max(0, properties.getWarmupConnections());
+        warmup = httpClient.warmup()
+            .thenMany(Flux.range(0, connections)
+                .flatMap(i -> httpClient.head().uri(warmupUri).response().then(), Math.max(1, connections)))
+            .then()
+            .subscribe(
+                unused -> { },
+                ex -> logger.warn("Warm-up of {} transport failed", provider, ex),
+                () -> logger.debug("Warmed up {} transport with {} connections", provider, connections));
+    }
+
+    @Override
+    public void destroy() {
+        Disposable current = warmup;
+        if (current != null) {
+            current.dispose();
+        }
+        connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+    }
+
+    private static ConnectionProvider connectionProvider(String provider, HttpTransportProperties properties,
+                                                         MeterRegistry meterRegistry) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("gateway-" + provider)
+            .maxConnections(properties.getMaxConnections())
+            .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+            .maxIdleTime(properties.getMaxIdleTime())
+            .maxLifeTime(properties.getMaxLifeTime())
+            .evictInBackground(properties.getEvictionInterval())
+            .metrics(true, () -> new PoolMeterRegistrar(provider, meterRegistry));
+        if (properties.isHttp2()) {
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                .maxConnections(properties.getMaxConnections())
+                .minConnections(Math.min(properties.getWarmupConnections(), properties.getMaxConnections()))
+                .maxConcurrentStreams(properties.getMaxConcurrentStreams())
+                .build());
+        }
+        return builder.build();
+    }
+
+    private static HttpClient httpClient(ConnectionProvider connectionProvider, HttpTransportProperties properties, boolean secure) {
+        HttpClient client = HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+            .option(ChannelOption.SO_KEEPALIVE, true)
+            .keepAlive(true);
+        if (!properties.isHttp2()) {
+            return client;
+        }
+        if (!secure) {
+            return client.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        return client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+            .secure(spec -> spec.sslContext(Http2SslContextSpec.forClient()));
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.gateway.core.client;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Contract for clients that turn text into embedding vectors, e.g. for
+ * semantic caching or retrieval.
+ */
+public interface EmbeddingClient {
+
+    /**
+     * Computes the embedding of the supplied text.
+     *
+     * @param text input text
+     * @return embedding vector publisher
+     */
+    Mono<float[]> embed(String text);
+}
@@ -1,8 +1,12 @@
 package com.example.gateway.core.client;
 
 import com.example.gateway.core.model.ModelDescriptor;
+import com.example.gateway.core.pipeline.InvocationChunk;
 import com.example.gateway.core.pipeline.InvocationContext;
 import com.example.gateway.core.pipeline.InvocationResponse;
+import com.example.gateway.core.pipeline.NormalizationLevel;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -20,10 +24,40 @@ public interface ModelClient {
     boolean supports(ModelDescriptor descriptor);
 
     /**
-     * Performs the model invocation and returns a reactive response.
+     * Performs the model invocation and returns a reactive response carrying
+     * the provider-reported {@linkplain InvocationResponse#getUsage() usage}.
      *
      * @param context invocation context with model and provider information
      * @return response publisher
      */
     Mono<InvocationResponse> invoke(InvocationContext context);
+
+    /**
+     * Performs the model invocation and streams the response as it is
+     * generated. The last emitted chunk carries the response metadata and
+     * usage. Clients without native streaming support emit the buffered
+     * response as a single chunk.
+     *
+     * @param context invocation context with model and provider information
+     * @return publisher of response chunks
+     */
+    default Flux<InvocationChunk> stream(InvocationContext context) {
+        return invoke(context).map(InvocationChunk::fromResponse).flux();
+    }
+
+    /**
+     * Performs the model invocation and forwards the provider's response body
+     * without decoding it into an {@link InvocationResponse}. At
+     * {@link NormalizationLevel#USAGE}, the token usage is read from the body
+     * as it passes and stored on the context once the body completed. Not
+     * supported by default.
+     *
+     * @param context invocation context with model and provider information
+     * @param level   {@link NormalizationLevel#USAGE} or {@link NormalizationLevel#NONE}
+     * @return publisher of the raw response body
+     */
+    default Flux<DataBuffer> passThrough(InvocationContext context, NormalizationLevel level) {
+        return Flux.error(new IllegalArgumentException("Pass-through is not supported for model "
+            + (context.getModel() != null ? context.getModel().getModelId() : "unknown")));
+    }
 }
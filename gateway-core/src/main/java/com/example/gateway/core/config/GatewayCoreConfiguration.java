@@ -1,27 +1,43 @@
 package com.example.gateway.core.config;
 
+import com.example.gateway.core.pipeline.FilterScope;
 import com.example.gateway.core.pipeline.InvocationFilter;
 import com.example.gateway.core.pipeline.InvocationPipeline;
 import com.example.gateway.core.pipeline.ReactiveInvocationHandler;
+import com.example.gateway.core.registry.ProviderRegistry;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
- * Core configuration wiring the invocation pipeline and provider registry
- * properties.
+ * Core configuration wiring the invocation pipeline and the provider registry,
+ * health, routing and pipeline properties.
  */
 @Configuration
-@EnableConfigurationProperties(ProviderRegistryProperties.class)
+@EnableConfigurationProperties({ProviderRegistryProperties.class, ProviderHealthProperties.class,
+    RoutingProperties.class, PipelineProperties.class})
 public class GatewayCoreConfiguration {
 
     /**
      * Builds the {@link InvocationPipeline} from registered filters and the
-     * terminal handler.
+     * terminal handler. Scopes configured under {@code gateway.pipeline.scopes}
+     * are keyed by filter bean name and replace the filters' own scopes.
      */
     @Bean
-    InvocationPipeline invocationPipeline(List<InvocationFilter> filters, ReactiveInvocationHandler handler) {
-        return new InvocationPipeline(filters, handler);
+    InvocationPipeline invocationPipeline(List<InvocationFilter> filters, Map<String, InvocationFilter> filtersByName,
+                                          ReactiveInvocationHandler handler, ProviderRegistry providerRegistry,
+                                          PipelineProperties properties) {
+        Map<InvocationFilter, FilterScope> scopeOverrides = new IdentityHashMap<>();
+        properties.getScopes().forEach((name, scope) -> {
+            InvocationFilter filter = filtersByName.get(name);
+            if (filter == null) {
+                throw new IllegalStateException("No invocation filter bean named " + name);
+            }
+            scopeOverrides.put(filter, scope.toScope());
+        });
+        return new InvocationPipeline(filters, handler, providerRegistry, scopeOverrides);
     }
 }
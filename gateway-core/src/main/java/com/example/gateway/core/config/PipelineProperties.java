@@ -0,0 +1,116 @@
+package com.example.gateway.core.config;
+
+import com.example.gateway.core.pipeline.FilterScope;
+import com.example.gateway.core.pipeline.NormalizationLevel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Invocation pipeline settings bound to {@code gateway.pipeline}.
+ */
+@ConfigurationProperties("gateway.pipeline")
+public class PipelineProperties {
+
+    /**
+     * Filter scopes keyed by filter bean name. Filters without an entry run
+     * for all traffic unless they declare their own scope.
+     */
+    private Map<String, ScopeConfig> scopes = new LinkedHashMap<>();
+
+    /**
+     * Normalization level of pass-through invocations that do not request one.
+     */
+    private NormalizationLevel normalization = NormalizationLevel.USAGE;
+
+    public Map<String, ScopeConfig> getScopes() {
+        return scopes;
+    }
+
+    public void setScopes(Map<String, ScopeConfig> scopes) {
+        this.scopes = scopes;
+    }
+
+    public NormalizationLevel getNormalization() {
+        return normalization;
+    }
+
+    public void setNormalization(NormalizationLevel normalization) {
+        this.normalization = normalization;
+    }
+
+    /**
+     * Traffic a filter applies to. Each list holds alternatives; empty lists
+     * do not restrict.
+     */
+    public static class ScopeConfig {
+
+        /** Provider ids. */
+        private List<String> providers = new ArrayList<>();
+
+        /** Model ids. */
+        private List<String> models = new ArrayList<>();
+
+        /** Model types, e.g. {@code chat}. */
+        private List<String> modelTypes = new ArrayList<>();
+
+        /** Capabilities, of which the model must advertise at least one. */
+        private List<String> capabilities = new ArrayList<>();
+
+        /** Context attributes that must have the given values. */
+        private Map<String, String> attributes = new LinkedHashMap<>();
+
+        public List<String> getProviders() {
+            return providers;
+        }
+
+        public void setProviders(List<String> providers) {
+            this.providers = providers;
+        }
+
+        public List<String> getModels() {
+            return models;
+        }
+
+        public void setModels(List<String> models) {
+            this.models = models;
+        }
+
+        public List<String> getModelTypes() {
+            return modelTypes;
+        }
+
+        public void setModelTypes(List<String> modelTypes) {
+            this.modelTypes = modelTypes;
+        }
+
+        public List<String> getCapabilities() {
+            return capabilities;
+        }
+
+        public void setCapabilities(List<String> capabilities) {
+            this.capabilities = capabilities;
+        }
+
+        public Map<String, String> getAttributes() {
+            return attributes;
+        }
+
+        public void setAttributes(Map<String, String> attributes) {
+            this.attributes = attributes;
+        }
+
+        /** Converts the configuration into a {@link FilterScope}. */
+        public FilterScope toScope() {
+            FilterScope.Builder builder = FilterScope.builder()
+                .providers(providers)
+                .models(models)
+                .modelTypes(modelTypes)
+                .capabilities(capabilities);
+            attributes.forEach(builder::attribute);
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.gateway.core.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the per-model circuit breakers and outlier ejection, bound to
+ * {@code gateway.health}.
+ */
+@ConfigurationProperties("gateway.health")
+public class ProviderHealthProperties {
+
+    /** Flag enabling health tracking; when disabled every model is always routable. */
+    private boolean enabled = true;
+
+    /** Length of the sliding window failure and slow-call rates are computed over. */
+    private Duration window = Duration.ofSeconds(30);
+
+    /** Number of buckets the sliding window is divided into. */
+    private int windowBuckets = 10;
+
+    /** Calls the window must contain before its rates can open the breaker. */
+    private int minimumCalls = 20;
+
+    /** Failure rate (0-1) at which the breaker opens. */
+    private double failureRateThreshold = 0.5;
+
+    /** Duration after which a successful call counts as slow. */
+    private Duration slowCallDuration = Duration.ofSeconds(20);
+
+    /** Slow-call rate (0-1) at which the breaker opens. */
+    private double slowCallRateThreshold = 0.8;
+
+    /** Time an open breaker rejects calls before admitting probes. */
+    private Duration openDuration = Duration.ofSeconds(30);
+
+    /** Probe calls admitted while half-open; all must succeed to close the breaker. */
+    private int halfOpenCalls = 3;
+
+    /** Outlier ejection settings. */
+    private final Ejection ejection = new Ejection();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getWindowBuckets() {
+        return windowBuckets;
+    }
+
+    public void setWindowBuckets(int windowBuckets) {
+        this.windowBuckets = windowBuckets;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(double failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public Duration getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    public void setSlowCallDuration(Duration slowCallDuration) {
+        this.slowCallDuration = slowCallDuration;
+    }
+
+    public double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(double slowCallRateThreshold) {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    public void setOpenDuration(Duration openDuration) {
+        this.openDuration = openDuration;
+    }
+
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    public void setHalfOpenCalls(int halfOpenCalls) {
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    public Ejection getEjection() {
+        return ejection;
+    }
+
+    /**
+     * Outlier ejection removes a model from routing after consecutive
+     * failures, without waiting for the window to fill. Repeated ejections
+     * last longer, up to {@link #maxDuration}.
+     */
+    public static class Ejection {
+
+        /** Consecutive failures that eject a model; {@code 0} disables ejection. */
+        private int consecutiveFailures = 5;
+
+        /** Ejection time, multiplied by the number of recent ejections. */
+        private Duration baseDuration = Duration.ofSeconds(30);
+
+        /** Upper bound of a single ejection. */
+        private Duration maxDuration = Duration.ofMinutes(5);
+
+        public int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        public void setConsecutiveFailures(int consecutiveFailures) {
+            this.consecutiveFailures = consecutiveFailures;
+        }
+
+        public Duration getBaseDuration() {
+            return baseDuration;
+        }
+
+        public void setBaseDuration(Duration baseDuration) {
+            this.baseDuration = baseDuration;
+        }
+
+        public Duration getMaxDuration() {
+            return maxDuration;
+        }
+
+        public void setMaxDuration(Duration maxDuration) {
+            this.maxDuration = maxDuration;
+        }
+    }
+}
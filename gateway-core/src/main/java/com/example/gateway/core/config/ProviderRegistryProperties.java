@@ -4,10 +4,13 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 /**
@@ -59,6 +62,9 @@ public class ProviderRegistryProperties {
         @NotEmpty
         private List<ModelConfig> models = new ArrayList<>();
 
+        /** Response caching defaults applied to every model of the provider. */
+        private CacheConfig cache = new CacheConfig();
+
         public String getId() {
             return id;
         }
@@ -90,6 +96,14 @@ public class ProviderRegistryProperties {
         public void setModels(List<ModelConfig> models) {
             this.models = models;
         }
+
+        public CacheConfig getCache() {
+            return cache;
+        }
+
+        public void setCache(CacheConfig cache) {
+            this.cache = cache;
+        }
     }
 
     /**
@@ -123,6 +137,16 @@ public class ProviderRegistryProperties {
          */
         private List<String> fallbackPriority = new ArrayList<>();
 
+        /** Response caching overrides; unset values inherit the provider settings. */
+        private CacheConfig cache = new CacheConfig();
+
+        /**
+         * Relative share of traffic when several providers expose the same
+         * model id and the weighted round robin strategy is used.
+         */
+        @PositiveOrZero
+        private int weight = 1;
+
         public String getId() {
             return id;
         }
@@ -162,6 +186,51 @@ public class ProviderRegistryProperties {
         public void setFallbackPriority(List<String> fallbackPriority) {
             this.fallbackPriority = fallbackPriority;
         }
+
+        public CacheConfig getCache() {
+            return cache;
+        }
+
+        public void setCache(CacheConfig cache) {
+            this.cache = cache;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public void setWeight(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Response caching settings. Unset values fall back to the next level
+     * (model, then provider, then the gateway-wide cache defaults).
+     */
+    public static class CacheConfig {
+
+        /** Time-to-live for cached responses; must be positive. */
+        private Duration ttl;
+
+        /** Responses whose serialised size exceeds this limit are not cached; must be positive. */
+        private DataSize maxEntrySize;
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public DataSize getMaxEntrySize() {
+            return maxEntrySize;
+        }
+
+        public void setMaxEntrySize(DataSize maxEntrySize) {
+            this.maxEntrySize = maxEntrySize;
+        }
     }
 
     /**
@@ -0,0 +1,60 @@
+package com.example.gateway.core.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Selection of the routing strategy used when several providers expose the
+ * requested model, bound to {@code gateway.routing}.
+ */
+@ConfigurationProperties("gateway.routing")
+public class RoutingProperties {
+
+    /**
+     * Name of the routing strategy: {@code first-match}, {@code least-latency},
+     * {@code weighted-round-robin}, {@code cheapest-within-slo} or the name of
+     * a custom strategy bean.
+     */
+    private String strategy = "first-match";
+
+    /** Weight of the newest sample in the latency moving average (0-1). */
+    private double ewmaWeight = 0.2;
+
+    /** Latency objective for {@code cheapest-within-slo}. */
+    private Duration latencySlo = Duration.ofSeconds(5);
+
+    /** Expected output tokens per input token, used to blend input and output prices. */
+    private double outputTokenRatio = 0.5;
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(String strategy) {
+        this.strategy = strategy;
+    }
+
+    public double getEwmaWeight() {
+        return ewmaWeight;
+    }
+
+    public void setEwmaWeight(double ewmaWeight) {
+        this.ewmaWeight = ewmaWeight;
+    }
+
+    public Duration getLatencySlo() {
+        return latencySlo;
+    }
+
+    public void setLatencySlo(Duration latencySlo) {
+        this.latencySlo = latencySlo;
+    }
+
+    public double getOutputTokenRatio() {
+        return outputTokenRatio;
+    }
+
+    public void setOutputTokenRatio(double outputTokenRatio) {
+        this.outputTokenRatio = outputTokenRatio;
+    }
+}
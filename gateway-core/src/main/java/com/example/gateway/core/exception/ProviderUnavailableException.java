@@ -0,0 +1,12 @@
+package com.example.gateway.core.exception;
+
+/**
+ * Thrown when a call is rejected because the target model's circuit breaker
+ * is open and no fallback could serve the request.
+ */
+public class ProviderUnavailableException extends RuntimeException {
+
+    public ProviderUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.gateway.core.exception;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Thrown when an invocation is rejected because a caller exceeded one of its
+ * configured rate limits.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = Objects.requireNonNull(retryAfter, "retryAfter must not be null");
+    }
+
+    /** Time after which the rejected invocation would be admitted. */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.gateway.core.health;
+
+/**
+ * State of a model's circuit breaker. The ordinal is exported as the
+ * {@code gateway.provider.circuit.state} gauge value.
+ */
+public enum CircuitState {
+
+    /** Calls flow normally. */
+    CLOSED,
+
+    /** Calls are rejected until the open duration has elapsed. */
+    OPEN,
+
+    /** A limited number of probe calls decide whether the breaker closes again. */
+    HALF_OPEN
+}
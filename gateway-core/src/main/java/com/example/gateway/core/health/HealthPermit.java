@@ -0,0 +1,45 @@
+package com.example.gateway.core.health;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission of one call by {@link ProviderHealthRegistry}. Exactly one of the
+ * completion methods must be called once the call ends; later calls are
+ * ignored.
+ */
+public final class HealthPermit {
+
+    /** Permit used when health tracking is disabled. */
+    static final HealthPermit NOOP = new HealthPermit(null);
+
+    private final HealthTracker tracker;
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    HealthPermit(HealthTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    /** Records a successful call with the given latency. */
+    public void onSuccess(long latencyNanos) {
+        if (tracker != null && completed.compareAndSet(false, true)) {
+            tracker.onSuccess(System.nanoTime(), latencyNanos);
+        }
+    }
+
+    /** Records a call that failed because of the provider. */
+    public void onFailure() {
+        if (tracker != null && completed.compareAndSet(false, true)) {
+            tracker.onFailure(System.nanoTime());
+        }
+    }
+
+    /**
+     * Releases the permit without recording an outcome, e.g. for cancelled
+     * calls or errors caused by the request itself.
+     */
+    public void release() {
+        if (tracker != null && completed.compareAndSet(false, true)) {
+            tracker.release();
+        }
+    }
+}
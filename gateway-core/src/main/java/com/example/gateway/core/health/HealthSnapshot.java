@@ -0,0 +1,20 @@
+package com.example.gateway.core.health;
+
+import java.time.Duration;
+
+/**
+ * Point-in-time health of a provider/model pair, as exposed by the
+ * {@code providerhealth} actuator endpoint.
+ *
+ * @param providerId    provider identifier
+ * @param modelId       model identifier
+ * @param state         circuit breaker state
+ * @param calls         calls in the sliding window
+ * @param failureRate   failure rate in the sliding window
+ * @param slowCallRate  slow-call rate in the sliding window
+ * @param ejected       whether the model is currently ejected from routing
+ * @param ejectionLeft  remaining ejection time, zero when not ejected
+ */
+public record HealthSnapshot(String providerId, String modelId, CircuitState state, long calls, double failureRate,
+                             double slowCallRate, boolean ejected, Duration ejectionLeft) {
+}
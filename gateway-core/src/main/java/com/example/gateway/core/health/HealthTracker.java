@@ -0,0 +1,206 @@
+package com.example.gateway.core.health;
+
+import com.example.gateway.core.config.ProviderHealthProperties;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Health of a single provider/model pair: a circuit breaker driven by the
+ * failure and slow-call rates of a sliding window, plus outlier ejection
+ * driven by consecutive failures. All state changes are compare-and-set on
+ * immutable snapshots, so the request path never blocks.
+ */
+final class HealthTracker {
+
+    private final String providerId;
+    private final String modelId;
+    private final ProviderHealthProperties properties;
+    private final Consumer<CircuitState> transitionListener;
+    private final SlidingWindow window;
+    private final AtomicReference<Breaker> breaker;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger ejections = new AtomicInteger();
+    private final AtomicLong ejectedUntil = new AtomicLong(System.nanoTime());
+
+    HealthTracker(String providerId, String modelId, ProviderHealthProperties properties,
+                  Consumer<CircuitState> transitionListener) {
+        this.providerId = providerId;
+        this.modelId = modelId;
+        this.properties = properties;
+        this.transitionListener = transitionListener;
+        this.window = new SlidingWindow(properties.getWindow().toNanos(), properties.getWindowBuckets());
+        this.breaker = new AtomicReference<>(new Breaker(CircuitState.CLOSED, System.nanoTime(), 0, 0));
+    }
+
+    /**
+     * Returns whether a call would currently be admitted, without taking a
+     * half-open probe permit.
+     */
+    boolean isAvailable(long now) {
+        if (isEjected(now)) {
+            return false;
+        }
+        Breaker current = breaker.get();
+        return switch (current.state()) {
+            case CLOSED -> true;
+            case OPEN -> now - current.since() >= openNanos();
+            case HALF_OPEN -> current.permits() > 0 || isStale(current, now);
+        };
+    }
+
+    /**
+     * Admits a call. An open breaker whose open duration has elapsed moves to
+     * half-open; half-open breakers admit a limited number of probes. Ejected
+     * models are not checked here, so explicitly targeted calls still run.
+     *
+     * @return {@code true} when the call may proceed
+     */
+    boolean tryAcquire(long now) {
+        while (true) {
+            Breaker current = breaker.get();
+            Breaker next;
+            switch (current.state()) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (now - current.since() < openNanos()) {
+                        return false;
+                    }
+                    next = new Breaker(CircuitState.HALF_OPEN, now, properties.getHalfOpenCalls() - 1, 0);
+                    break;
+                default:
+                    if (current.permits() > 0) {
+                        next = new Breaker(CircuitState.HALF_OPEN, current.since(), current.permits() - 1, current.successes());
+                    } else if (isStale(current, now)) {
+                        // Probes that never reported back; admit a new round.
+                        next = new Breaker(CircuitState.HALF_OPEN, now, properties.getHalfOpenCalls() - 1, 0);
+                    } else {
+                        return false;
+                    }
+                    break;
+            }
+            if (breaker.compareAndSet(current, next)) {
+                if (current.state() != next.state()) {
+                    transitionListener.accept(next.state());
+                }
+                return true;
+            }
+        }
+    }
+
+    void onSuccess(long now, long latencyNanos) {
+        window.record(now, false, latencyNanos >= properties.getSlowCallDuration().toNanos());
+        consecutiveFailures.set(0);
+        if (ejections.get() > 0 && now - ejectedUntil.get() > properties.getEjection().getMaxDuration().toNanos()) {
+            ejections.set(0);
+        }
+        while (true) {
+            Breaker current = breaker.get();
+            if (current.state() != CircuitState.HALF_OPEN) {
+                break;
+            }
+            int successes = current.successes() + 1;
+            Breaker next = successes >= properties.getHalfOpenCalls()
+                ? new Breaker(CircuitState.CLOSED, now, 0, 0)
+                : new Breaker(CircuitState.HALF_OPEN, current.since(), current.permits(), successes);
+            if (breaker.compareAndSet(current, next)) {
+                if (next.state() == CircuitState.CLOSED) {
+                    window.reset();
+                    transitionListener.accept(CircuitState.CLOSED);
+                }
+                return;
+            }
+        }
+        evaluate(now);
+    }
+
+    void onFailure(long now) {
+        window.record(now, true, false);
+        int ejectAfter = properties.getEjection().getConsecutiveFailures();
+        if (ejectAfter > 0 && consecutiveFailures.incrementAndGet() >= ejectAfter) {
+            consecutiveFailures.set(0);
+            long duration = Math.min(properties.getEjection().getMaxDuration().toNanos(),
+                properties.getEjection().getBaseDuration().toNanos() * ejections.incrementAndGet());
+            ejectedUntil.set(now + duration);
+        }
+        while (true) {
+            Breaker current = breaker.get();
+            if (current.state() == CircuitState.HALF_OPEN) {
+                if (breaker.compareAndSet(current, new Breaker(CircuitState.OPEN, now, 0, 0))) {
+                    transitionListener.accept(CircuitState.OPEN);
+                    return;
+                }
+                continue;
+            }
+            break;
+        }
+        evaluate(now);
+    }
+
+    /** Returns a half-open permit taken for a call that never completed. */
+    void release() {
+        while (true) {
+            Breaker current = breaker.get();
+            if (current.state() != CircuitState.HALF_OPEN || current.permits() >= properties.getHalfOpenCalls()) {
+                return;
+            }
+            Breaker next = new Breaker(CircuitState.HALF_OPEN, current.since(), current.permits() + 1, current.successes());
+            if (breaker.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    CircuitState state() {
+        return breaker.get().state();
+    }
+
+    boolean isEjected(long now) {
+        return now - ejectedUntil.get() < 0;
+    }
+
+    HealthSnapshot snapshot(long now) {
+        SlidingWindow.Counts counts = window.counts(now);
+        long ejectedNanos = Math.max(0, ejectedUntil.get() - now);
+        return new HealthSnapshot(providerId, modelId, state(), counts.calls(), counts.failureRate(),
+            counts.slowCallRate(), ejectedNanos > 0, Duration.ofNanos(ejectedNanos));
+    }
+
+    double failureRate(long now) {
+        return window.counts(now).failureRate();
+    }
+
+    private void evaluate(long now) {
+        Breaker current = breaker.get();
+        if (current.state() != CircuitState.CLOSED) {
+            return;
+        }
+        SlidingWindow.Counts counts = window.counts(now);
+        if (counts.calls() < properties.getMinimumCalls()) {
+            return;
+        }
+        if (counts.failureRate() >= properties.getFailureRateThreshold()
+            || counts.slowCallRate() >= properties.getSlowCallRateThreshold()) {
+            if (breaker.compareAndSet(current, new Breaker(CircuitState.OPEN, now, 0, 0))) {
+                transitionListener.accept(CircuitState.OPEN);
+            }
+        }
+    }
+
+    private boolean isStale(Breaker current, long now) {
+        return current.permits() <= 0 && now - current.since() >= openNanos();
+    }
+
+    private long openNanos() {
+        return properties.getOpenDuration().toNanos();
+    }
+
+    /**
+     * Immutable breaker state. {@code permits} and {@code successes} are only
+     * meaningful while half-open.
+     */
+    private record Breaker(CircuitState state, long since, int permits, int successes) { }
+}
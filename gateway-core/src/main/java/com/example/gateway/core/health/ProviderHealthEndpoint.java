@@ -0,0 +1,36 @@
+package com.example.gateway.core.health;
+
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint ({@code /actuator/providerhealth}) listing circuit breaker
+ * and ejection state per provider/model pair.
+ */
+@Component
+@Endpoint(id = "providerhealth")
+public class ProviderHealthEndpoint {
+
+    private final ProviderHealthRegistry healthRegistry;
+
+    public ProviderHealthEndpoint(ProviderHealthRegistry healthRegistry) {
+        this.healthRegistry = healthRegistry;
+    }
+
+    /** Returns the health of all tracked models. */
+    @ReadOperation
+    public List<HealthSnapshot> models() {
+        return healthRegistry.snapshots();
+    }
+
+    /** Returns the health of the models of one provider. */
+    @ReadOperation
+    public List<HealthSnapshot> provider(@Selector String providerId) {
+        return healthRegistry.snapshots().stream()
+            .filter(snapshot -> snapshot.providerId().equals(providerId))
+            .toList();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.gateway.core.health;
+
+import com.example.gateway.core.config.ProviderHealthProperties;
+import com.example.gateway.core.model.ModelDescriptor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks the health of every provider/model pair that receives traffic.
+ * {@code RoutingFilter} and the client layer consult the registry before
+ * choosing a target: a model is unavailable while its circuit breaker is open
+ * or while it is ejected as an outlier after consecutive failures.
+ *
+ * <p>Trackers are created on first use. Breaker state, ejection and failure
+ * rate are published as gauges tagged with provider and model, and the
+ * current state is available from the {@code providerhealth} actuator
+ * endpoint.
+ */
+@Component
+public class ProviderHealthRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderHealthRegistry.class);
+
+    private final ProviderHealthProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<ModelKey, HealthTracker> trackers = new ConcurrentHashMap<>();
+
+    public ProviderHealthRegistry(ProviderHealthProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns whether the model may currently be chosen as a routing target.
+     * Does not take a half-open probe permit.
+     */
+    public boolean isAvailable(ModelDescriptor model) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        HealthTracker tracker = trackers.get(ModelKey.of(model));
+        return tracker == null || tracker.isAvailable(System.nanoTime());
+    }
+
+    /**
+     * Admits a call to the model.
+     *
+     * @return permit to complete once the call ends, or {@code null} when the
+     *     model's circuit breaker rejects the call
+     */
+    public HealthPermit acquire(ModelDescriptor model) {
+        if (!properties.isEnabled()) {
+            return HealthPermit.NOOP;
+        }
+        HealthTracker tracker = tracker(model);
+        return tracker.tryAcquire(System.nanoTime()) ? new HealthPermit(tracker) : null;
+    }
+
+    /** Returns the health of all tracked models ordered by provider and model. */
+    public List<HealthSnapshot> snapshots() {
+        long now = System.nanoTime();
+        List<HealthSnapshot> snapshots = new ArrayList<>(trackers.size());
+        for (HealthTracker tracker : trackers.values()) {
+            snapshots.add(tracker.snapshot(now));
+        }
+        snapshots.sort(Comparator.comparing(HealthSnapshot::providerId).thenComparing(HealthSnapshot::modelId));
+        return snapshots;
+    }
+
+    private HealthTracker tracker(ModelDescriptor model) {
+        ModelKey key = ModelKey.of(model);
+        HealthTracker tracker = trackers.get(key);
+        return tracker != null ? tracker : trackers.computeIfAbsent(key, this::newTracker);
+    }
+
+    private HealthTracker newTracker(ModelKey key) {
+        HealthTracker tracker = new HealthTracker(key.providerId(), key.modelId(), properties, state -> {
+            logger.info("Circuit breaker for {}/{} is now {}", key.providerId(), key.modelId(), state);
+            meterRegistry.counter("gateway.provider.circuit.transitions",
+                "provider", key.providerId(), "model", key.modelId(), "state", state.name().toLowerCase()).increment();
+        });
+        Gauge.builder("gateway.provider.circuit.state", tracker, value -> value.state().ordinal())
+            .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+            .tags("provider", key.providerId(), "model", key.modelId())
+            .register(meterRegistry);
+        Gauge.builder("gateway.provider.ejected", tracker, value -> value.isEjected(System.nanoTime()) ? 1 : 0)
+            .tags("provider", key.providerId(), "model", key.modelId())
+            .register(meterRegistry);
+        Gauge.builder("gateway.provider.failure.rate", tracker, value -> value.failureRate(System.nanoTime()))
+            .tags("provider", key.providerId(), "model", key.modelId())
+            .register(meterRegistry);
+        return tracker;
+    }
+
+    private record ModelKey(String providerId, String modelId) {
+
+        static ModelKey of(ModelDescriptor model) {
+            return new ModelKey(model.getProviderId(), model.getModelId());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.gateway.core.health;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free time-based sliding window of call outcomes. The window is a ring
+ * of buckets, each stamped with the time slot it counts; a bucket found with
+ * a stale stamp is claimed by compare-and-set and cleared before use.
+ * Increments that race with a bucket reset may be lost, which is acceptable
+ * for rate estimates.
+ */
+final class SlidingWindow {
+
+    private final long bucketNanos;
+    private final int size;
+    private final AtomicLongArray slots;
+    private final AtomicLongArray calls;
+    private final AtomicLongArray failures;
+    private final AtomicLongArray slowCalls;
+
+    SlidingWindow(long windowNanos, int buckets) {
+        this.size = Math.max(1, buckets);
+        this.bucketNanos = Math.max(1, windowNanos / size);
+        this.slots = new AtomicLongArray(size);
+        this.calls = new AtomicLongArray(size);
+        this.failures = new AtomicLongArray(size);
+        this.slowCalls = new AtomicLongArray(size);
+        reset();
+    }
+
+    void record(long now, boolean failure, boolean slow) {
+        long slot = Math.floorDiv(now, bucketNanos);
+        int index = (int) Math.floorMod(slot, (long) size);
+        long current = slots.get(index);
+        if (current != slot && slots.compareAndSet(index, current, slot)) {
+            calls.set(index, 0);
+            failures.set(index, 0);
+            slowCalls.set(index, 0);
+        }
+        calls.incrementAndGet(index);
+        if (failure) {
+            failures.incrementAndGet(index);
+        }
+        if (slow) {
+            slowCalls.incrementAndGet(index);
+        }
+    }
+
+    Counts counts(long now) {
+        long slot = Math.floorDiv(now, bucketNanos);
+        long totalCalls = 0;
+        long totalFailures = 0;
+        long totalSlow = 0;
+        for (int i = 0; i < size; i++) {
+            if (slots.get(i) > slot - size) {
+                totalCalls += calls.get(i);
+                totalFailures += failures.get(i);
+                totalSlow += slowCalls.get(i);
+            }
+        }
+        return new Counts(totalCalls, totalFailures, totalSlow);
+    }
+
+    void reset() {
+        for (int i = 0; i < size; i++) {
+            slots.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    record Counts(long calls, long failures, long slowCalls) {
+
+        double failureRate() {
+            return calls == 0 ? 0 : (double) failures / calls;
+        }
+
+        double slowCallRate() {
+            return calls == 0 ? 0 : (double) slowCalls / calls;
+        }
+    }
+}
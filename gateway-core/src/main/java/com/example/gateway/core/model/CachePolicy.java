@@ -0,0 +1,53 @@
+package com.example.gateway.core.model;
+
+import java.time.Duration;
+
+/**
+ * Immutable response caching policy declared for a model. Unset values are
+ * {@code null} and are filled in with gateway-wide defaults by the cache
+ * layer.
+ */
+public final class CachePolicy {
+
+    /** Policy without model- or provider-specific overrides. */
+    public static final CachePolicy UNSPECIFIED = new CachePolicy(null, null);
+
+    private final Duration ttl;
+    private final Long maxEntryBytes;
+
+    private CachePolicy(Duration ttl, Long maxEntryBytes) {
+        this.ttl = ttl;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    /**
+     * Creates a policy from optional overrides.
+     *
+     * @param ttl           time-to-live of cached responses, or {@code null}
+     * @param maxEntryBytes maximum serialised response size, or {@code null}
+     * @return policy instance
+     * @throws IllegalArgumentException if a value is zero or negative
+     */
+    public static CachePolicy of(Duration ttl, Long maxEntryBytes) {
+        if (ttl != null && (ttl.isZero() || ttl.isNegative())) {
+            throw new IllegalArgumentException("Cache ttl must be positive: " + ttl);
+        }
+        if (maxEntryBytes != null && maxEntryBytes <= 0) {
+            throw new IllegalArgumentException("Cache max entry size must be positive: " + maxEntryBytes);
+        }
+        if (ttl == null && maxEntryBytes == null) {
+            return UNSPECIFIED;
+        }
+        return new CachePolicy(ttl, maxEntryBytes);
+    }
+
+    /** Time-to-live for cached responses, or {@code null} when not overridden. */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /** Maximum serialised size of a cacheable response, or {@code null} when not overridden. */
+    public Long getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.gateway.core.model;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -12,14 +13,25 @@ import java.util.Objects;
  */
 public final class ModelDescriptor {
 
+    /**
+     * Decimal places of fixed-point costs: costs in picos are in units of
+     * 10<sup>-12</sup> of the {@linkplain #getCurrency() currency}, precise
+     * enough for per-token prices of fractions of a cent per million tokens.
+     */
+    public static final int COST_SCALE = 12;
+
     private final String providerId;
     private final String modelId;
     private final String type;
     private final List<String> capabilities;
     private final BigDecimal inputCost;
     private final BigDecimal outputCost;
+    private final long inputCostPicos;
+    private final long outputCostPicos;
     private final String currency;
     private final List<String> fallbackPriority;
+    private final CachePolicy cachePolicy;
+    private final int weight;
 
     private ModelDescriptor(Builder builder) {
         this.providerId = builder.providerId;
@@ -28,8 +40,12 @@ public final class ModelDescriptor {
         this.capabilities = List.copyOf(builder.capabilities);
         this.inputCost = builder.inputCost;
         this.outputCost = builder.outputCost;
+        this.inputCostPicos = toPicos(builder.inputCost, "inputCost");
+        this.outputCostPicos = toPicos(builder.outputCost, "outputCost");
         this.currency = builder.currency;
         this.fallbackPriority = List.copyOf(builder.fallbackPriority);
+        this.cachePolicy = builder.cachePolicy;
+        this.weight = builder.weight;
     }
 
     /** Identifier of the provider that owns the model. */
@@ -62,6 +78,39 @@ public final class ModelDescriptor {
         return outputCost;
     }
 
+    /** Cost per input token in picos, see {@link #COST_SCALE}. */
+    public long getInputCostPicos() {
+        return inputCostPicos;
+    }
+
+    /** Cost per output token in picos, see {@link #COST_SCALE}. */
+    public long getOutputCostPicos() {
+        return outputCostPicos;
+    }
+
+    /**
+     * Computes the cost of an invocation in picos with long arithmetic, so
+     * per-request cost accounting does not allocate. Saturates at
+     * {@link Long#MAX_VALUE}, which is far beyond any realistic request.
+     *
+     * @param inputTokens  input tokens consumed
+     * @param outputTokens output tokens produced
+     * @return cost in picos of the {@linkplain #getCurrency() currency}
+     */
+    public long costPicos(long inputTokens, long outputTokens) {
+        try {
+            return Math.addExact(Math.multiplyExact(inputTokens, inputCostPicos),
+                Math.multiplyExact(outputTokens, outputCostPicos));
+        } catch (ArithmeticException ex) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /** Converts a cost in picos into currency units. */
+    public static double picosToUnits(long picos) {
+        return picos / 1e12;
+    }
+
     /** Currency code for the cost values. */
     public String getCurrency() {
         return currency;
@@ -72,6 +121,27 @@ public final class ModelDescriptor {
         return fallbackPriority;
     }
 
+    /** Response caching overrides resolved from provider and model configuration. */
+    public CachePolicy getCachePolicy() {
+        return cachePolicy;
+    }
+
+    /** Relative share of traffic for weighted routing among models with the same id. */
+    public int getWeight() {
+        return weight;
+    }
+
+    private static long toPicos(BigDecimal cost, String name) {
+        if (cost.signum() < 0) {
+            throw new IllegalArgumentException(name + " must not be negative");
+        }
+        try {
+            return cost.setScale(COST_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException(name + " " + cost + " exceeds the supported range", ex);
+        }
+    }
+
     /** Creates a new builder for {@link ModelDescriptor}. */
     public static Builder builder() {
         return new Builder();
@@ -88,6 +158,8 @@ public final class ModelDescriptor {
         private BigDecimal outputCost = BigDecimal.ZERO;
         private String currency = "USD";
         private List<String> fallbackPriority = Collections.emptyList();
+        private CachePolicy cachePolicy = CachePolicy.UNSPECIFIED;
+        private int weight = 1;
 
         /**
          * Sets the provider identifier.
@@ -177,6 +249,28 @@ public final class ModelDescriptor {
             return this;
         }
 
+        /**
+         * Sets the response caching policy.
+         *
+         * @param cachePolicy caching overrides for the model
+         * @return this builder
+         */
+        public Builder cachePolicy(CachePolicy cachePolicy) {
+            this.cachePolicy = cachePolicy != null ? cachePolicy : CachePolicy.UNSPECIFIED;
+            return this;
+        }
+
+        /**
+         * Sets the routing weight.
+         *
+         * @param weight relative traffic share, zero to exclude the model from weighted routing
+         * @return this builder
+         */
+        public Builder weight(int weight) {
+            this.weight = weight;
+            return this;
+        }
+
         /**
          * Creates the immutable descriptor after validating mandatory fields.
          *
@@ -189,6 +283,9 @@ public final class ModelDescriptor {
             Objects.requireNonNull(inputCost, "inputCost must not be null");
             Objects.requireNonNull(outputCost, "outputCost must not be null");
             Objects.requireNonNull(currency, "currency must not be null");
+            if (weight < 0) {
+                throw new IllegalArgumentException("weight must not be negative");
+            }
             return new ModelDescriptor(this);
         }
     }
@@ -0,0 +1,16 @@
+package com.example.gateway.core.pipeline;
+
+import com.example.gateway.core.model.ModelDescriptor;
+import com.example.gateway.core.model.ProviderDescriptor;
+
+/**
+ * Provider call that was started for an invocation but did not produce its
+ * response, e.g. the losing side of a hedged request. The provider may still
+ * bill the call, so spend tracking charges it separately.
+ *
+ * @param provider provider the call was sent to
+ * @param model    model the call was sent to
+ * @param reason   short reason, e.g. {@code hedge}
+ */
+public record AbandonedAttempt(ProviderDescriptor provider, ModelDescriptor model, String reason) {
+}
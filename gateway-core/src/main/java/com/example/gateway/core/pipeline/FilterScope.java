@@ -0,0 +1,147 @@
+package com.example.gateway.core.pipeline;
+
+import com.example.gateway.core.model.ModelDescriptor;
+import com.example.gateway.core.model.ProviderDescriptor;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable declaration of the traffic an {@link InvocationFilter} applies
+ * to. Each dimension lists alternatives: a filter applies to a route when,
+ * for every non-empty dimension, the route matches at least one listed value.
+ * Attribute conditions require every listed context attribute to equal the
+ * given value.
+ *
+ * <p>Route conditions (provider, model, model type, capability) are resolved
+ * by {@link InvocationPipeline} when it compiles its chains, so a filter
+ * outside its scope is simply not linked into the chain of that route.
+ * Attribute conditions depend on the request and are checked once per
+ * invocation by the pipeline.
+ */
+public final class FilterScope {
+
+    /** Scope matching all traffic. */
+    public static final FilterScope ALL = builder().build();
+
+    private final Set<String> providers;
+    private final Set<String> models;
+    private final Set<String> modelTypes;
+    private final Set<String> capabilities;
+    private final String[] attributeKeys;
+    private final String[] attributeValues;
+
+    private FilterScope(Builder builder) {
+        this.providers = Set.copyOf(builder.providers);
+        this.models = Set.copyOf(builder.models);
+        this.modelTypes = Set.copyOf(builder.modelTypes);
+        this.capabilities = Set.copyOf(builder.capabilities);
+        this.attributeKeys = builder.attributes.keySet().toArray(new String[0]);
+        this.attributeValues = builder.attributes.values().toArray(new String[0]);
+    }
+
+    /** Whether the scope restricts providers, models, model types or capabilities. */
+    public boolean hasRouteConditions() {
+        return !providers.isEmpty() || !models.isEmpty() || !modelTypes.isEmpty() || !capabilities.isEmpty();
+    }
+
+    /** Whether the scope restricts request attributes. */
+    public boolean hasAttributeConditions() {
+        return attributeKeys.length > 0;
+    }
+
+    /**
+     * Returns whether the scope's route conditions admit the provider/model
+     * pair.
+     */
+    public boolean matches(ProviderDescriptor provider, ModelDescriptor model) {
+        if (!providers.isEmpty() && !providers.contains(provider.getId())) {
+            return false;
+        }
+        if (!models.isEmpty() && !models.contains(model.getModelId())) {
+            return false;
+        }
+        if (!modelTypes.isEmpty() && !modelTypes.contains(model.getType())) {
+            return false;
+        }
+        if (!capabilities.isEmpty()) {
+            for (String capability : model.getCapabilities()) {
+                if (capabilities.contains(capability)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /** Returns whether the context carries all required attribute values. */
+    public boolean matchesAttributes(InvocationContext context) {
+        for (int i = 0; i < attributeKeys.length; i++) {
+            Object value = context.getAttribute(attributeKeys[i]);
+            if (value == null || !attributeValues[i].equals(value.toString())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Creates a new builder instance. */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Builder for {@link FilterScope}. */
+    public static final class Builder {
+
+        private Collection<String> providers = Set.of();
+        private Collection<String> models = Set.of();
+        private Collection<String> modelTypes = Set.of();
+        private Collection<String> capabilities = Set.of();
+        private final Map<String, String> attributes = new LinkedHashMap<>();
+
+        /** Restricts the scope to the given provider ids. */
+        public Builder providers(Collection<String> providers) {
+            this.providers = providers != null ? providers : Set.of();
+            return this;
+        }
+
+        /** Restricts the scope to the given model ids. */
+        public Builder models(Collection<String> models) {
+            this.models = models != null ? models : Set.of();
+            return this;
+        }
+
+        /** Restricts the scope to the given model types. */
+        public Builder modelTypes(Collection<String> modelTypes) {
+            this.modelTypes = modelTypes != null ? modelTypes : Set.of();
+            return this;
+        }
+
+        /** Restricts the scope to models advertising any of the given capabilities. */
+        public Builder capabilities(Collection<String> capabilities) {
+            this.capabilities = capabilities != null ? capabilities : Set.of();
+            return this;
+        }
+
+        /**
+         * Requires a context attribute to have the given value.
+         *
+         * @param key   attribute key
+         * @param value required value, compared with the attribute's string form
+         * @return this builder
+         */
+        public Builder attribute(String key, String value) {
+            attributes.put(Objects.requireNonNull(key, "key must not be null"),
+                Objects.requireNonNull(value, "value must not be null"));
+            return this;
+        }
+
+        /** Builds the immutable scope. */
+        public FilterScope build() {
+            return new FilterScope(this);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.gateway.core.pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Well-known {@link InvocationContext} attribute keys shared between the web
+ * layer and pipeline filters.
+ */
+public final class InvocationAttributes {
+
+    /** Identifier of the tenant on whose behalf the invocation runs. */
+    public static final String TENANT_ID = "gateway.tenant.id";
+
+    /** API key the caller authenticated with, if any. */
+    public static final String API_KEY = "gateway.api.key";
+
+    /** {@code List<AbandonedAttempt>} of provider calls that did not serve the response. */
+    public static final String ABANDONED_ATTEMPTS = "gateway.attempts.abandoned";
+
+    /** Name of the routing strategy, or routing hint, that chose the target model. */
+    public static final String ROUTING_STRATEGY = "gateway.routing.strategy";
+
+    /** {@link NormalizationLevel} requested for a pass-through invocation. */
+    public static final String NORMALIZATION_LEVEL = "gateway.normalization.level";
+
+    /** {@link TokenUsage} of a pass-through invocation, set once the response completed. */
+    public static final String USAGE = "gateway.usage";
+
+    /** Tenant assumed when the caller does not identify one. */
+    public static final String DEFAULT_TENANT = "default";
+
+    private InvocationAttributes() {
+    }
+
+    /**
+     * Resolves the tenant of an invocation, falling back to
+     * {@link #DEFAULT_TENANT}.
+     */
+    public static String tenantId(InvocationContext context) {
+        Object tenant = context.getAttribute(TENANT_ID);
+        return tenant instanceof String value && !value.isBlank() ? value : DEFAULT_TENANT;
+    }
+
+    /** Records a provider call that was abandoned in favour of another one. */
+    public static void addAbandonedAttempt(InvocationContext context, AbandonedAttempt attempt) {
+        List<AbandonedAttempt> attempts = new ArrayList<>(abandonedAttempts(context));
+        attempts.add(attempt);
+        context.setAttribute(ABANDONED_ATTEMPTS, List.copyOf(attempts));
+    }
+
+    /** Returns the abandoned provider calls of an invocation, never {@code null}. */
+    @SuppressWarnings("unchecked")
+    public static List<AbandonedAttempt> abandonedAttempts(InvocationContext context) {
+        Object attempts = context.getAttribute(ABANDONED_ATTEMPTS);
+        return attempts instanceof List<?> list ? (List<AbandonedAttempt>) list : List.of();
+    }
+
+    /** Returns the normalization level of an invocation, {@link NormalizationLevel#FULL} unless requested otherwise. */
+    public static NormalizationLevel normalizationLevel(InvocationContext context) {
+        Object level = context.getAttribute(NORMALIZATION_LEVEL);
+        return level instanceof NormalizationLevel value ? value : NormalizationLevel.FULL;
+    }
+
+    /** Returns the usage recorded for a pass-through invocation, or {@code null}. */
+    public static TokenUsage usage(InvocationContext context) {
+        Object usage = context.getAttribute(USAGE);
+        return usage instanceof TokenUsage value ? value : null;
+    }
+}
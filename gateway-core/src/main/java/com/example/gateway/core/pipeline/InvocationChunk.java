@@ -0,0 +1,126 @@
+package com.example.gateway.core.pipeline;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable fragment of a streamed invocation response. Content chunks carry
+ * incremental text, while the terminal chunk carries the response metadata
+ * (provider, model) and the {@link TokenUsage} once they are known. Chunks can be reassembled into
+ * an {@link InvocationResponse} using {@link InvocationResponseAssembler}.
+ */
+public final class InvocationChunk {
+
+    private final String content;
+    private final Map<String, Object> metadata;
+    private final TokenUsage usage;
+    private final boolean last;
+
+    private InvocationChunk(Builder builder) {
+        this.content = builder.content;
+        this.metadata = Map.copyOf(builder.metadata);
+        this.usage = builder.usage;
+        this.last = builder.last;
+    }
+
+    /** Creates a content chunk without metadata. */
+    public static InvocationChunk of(String content) {
+        return builder().content(content).build();
+    }
+
+    /**
+     * Wraps a complete response as a single terminal chunk, e.g. for cache
+     * hits or clients without native streaming support.
+     */
+    public static InvocationChunk fromResponse(InvocationResponse response) {
+        Object content = response.getPayload().get("content");
+        return builder()
+            .content(content != null ? content.toString() : "")
+            .metadata(response.getMetadata())
+            .usage(response.getUsage())
+            .last(true)
+            .build();
+    }
+
+    /** Incremental text carried by the chunk, never {@code null}. */
+    public String getContent() {
+        return content;
+    }
+
+    /** Metadata attached to the chunk, typically only present on the last chunk. */
+    public Map<String, Object> getMetadata() {
+        return metadata;
+    }
+
+    /** Tokens consumed by the invocation, only reported on the last chunk. */
+    public TokenUsage getUsage() {
+        return usage;
+    }
+
+    /** Flag indicating whether this is the terminal chunk of the stream. */
+    public boolean isLast() {
+        return last;
+    }
+
+    /**
+     * Returns a copy of this chunk with additional metadata entries, which
+     * take precedence over existing entries with the same key.
+     */
+    public InvocationChunk withMetadata(Map<String, Object> additional) {
+        Map<String, Object> merged = new HashMap<>(metadata);
+        merged.putAll(additional);
+        return builder()
+            .content(content)
+            .metadata(merged)
+            .usage(usage)
+            .last(last)
+            .build();
+    }
+
+    /** Creates a new builder instance. */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Builder for {@link InvocationChunk}. */
+    public static final class Builder {
+
+        private String content = "";
+        private Map<String, Object> metadata = Collections.emptyMap();
+        private TokenUsage usage = TokenUsage.EMPTY;
+        private boolean last;
+
+        /** Sets the incremental content. */
+        public Builder content(String content) {
+            this.content = content != null ? content : "";
+            return this;
+        }
+
+        /** Sets the chunk metadata. */
+        public Builder metadata(Map<String, Object> metadata) {
+            this.metadata = metadata != null ? metadata : Collections.emptyMap();
+            return this;
+        }
+
+        /** Sets the token usage. */
+        public Builder usage(TokenUsage usage) {
+            this.usage = usage != null ? usage : TokenUsage.EMPTY;
+            return this;
+        }
+
+        /** Marks the chunk as the terminal chunk. */
+        public Builder last(boolean last) {
+            this.last = last;
+            return this;
+        }
+
+        /** Builds the immutable chunk. */
+        public InvocationChunk build() {
+            Objects.requireNonNull(content, "content must not be null");
+            Objects.requireNonNull(metadata, "metadata must not be null");
+            return new InvocationChunk(this);
+        }
+    }
+}
@@ -10,18 +10,22 @@ import java.util.Objects;
  * Mutable context shared between invocation filters. The context allows
  * filters to attach additional metadata without mutating the original
  * {@link InvocationRequest}.
+ *
+ * <p>Attributes are copy-on-write: until the first write, reads are served
+ * from the request's immutable attributes and no map is allocated. Prefer
+ * {@link #getAttribute} and {@link #setAttribute} over
+ * {@link #getAttributes()}, which always materialises the map.
  */
 public final class InvocationContext {
 
     private final InvocationRequest request;
     private ProviderDescriptor provider;
     private ModelDescriptor model;
-    private final Map<String, Object> attributes = new HashMap<>();
+    private Map<String, Object> attributes;
 
     /** Creates a new context derived from the incoming request. */
     public InvocationContext(InvocationRequest request) {
         this.request = Objects.requireNonNull(request, "request must not be null");
-        this.attributes.putAll(request.getAttributes());
     }
 
     /** Returns the original request. */
@@ -49,8 +53,42 @@ public final class InvocationContext {
         this.model = model;
     }
 
+    /** Returns an attribute value, or {@code null} when absent. */
+    public Object getAttribute(String key) {
+        return attributes != null ? attributes.get(key) : request.getAttributes().get(key);
+    }
+
+    /** Sets an attribute value visible to downstream filters. */
+    public void setAttribute(String key, Object value) {
+        mutableAttributes().put(key, value);
+    }
+
     /** Mutable attribute map available to downstream filters. */
     public Map<String, Object> getAttributes() {
-        return attributes;
+        return mutableAttributes();
+    }
+
+    private Map<String, Object> mutableAttributes() {
+        Map<String, Object> current = attributes;
+        if (current == null) {
+            current = new HashMap<>(request.getAttributes());
+            attributes = current;
+        }
+        return current;
+    }
+
+    /**
+     * Creates an independent copy of this context with the same request,
+     * provider, model and a snapshot of the attributes, e.g. for a retry
+     * against another model. Changes to the copy do not affect this context.
+     */
+    public InvocationContext fork() {
+        InvocationContext copy = new InvocationContext(request);
+        if (attributes != null) {
+            copy.attributes = new HashMap<>(attributes);
+        }
+        copy.provider = provider;
+        copy.model = model;
+        return copy;
     }
 }
@@ -1,10 +1,17 @@
 package com.example.gateway.core.pipeline;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * Contract for reactive invocation filters. Filters can inspect or mutate the
  * {@link InvocationContext} before delegating to the next element in the chain.
+ * Streaming invocations travel through {@link #filterStream}, which passes
+ * through by default so filters only override it when they need to observe
+ * the streamed chunks. Pass-through invocations, whose provider body is
+ * forwarded as raw bytes, travel through {@link #filterPassThrough} in the
+ * same way.
  */
 public interface InvocationFilter {
 
@@ -17,6 +24,30 @@ public interface InvocationFilter {
      */
     Mono<InvocationResponse> filter(InvocationContext context, Chain chain);
 
+    /**
+     * Applies the filter logic to a streaming invocation.
+     *
+     * @param context invocation context shared across filters
+     * @param chain continuation used to invoke the next filter or handler
+     * @return publisher of response chunks
+     */
+    default Flux<InvocationChunk> filterStream(InvocationContext context, Chain chain) {
+        return chain.stream(context);
+    }
+
+    /**
+     * Applies the filter logic to a pass-through invocation. The response is
+     * the provider body; the token usage, when extracted, is available from
+     * {@link InvocationAttributes#usage} once the body completed.
+     *
+     * @param context invocation context shared across filters
+     * @param chain continuation used to invoke the next filter or handler
+     * @return publisher of the raw response body
+     */
+    default Flux<DataBuffer> filterPassThrough(InvocationContext context, Chain chain) {
+        return chain.passThrough(context);
+    }
+
     /**
      * Continuation that advances the filter chain.
      */
@@ -28,5 +59,24 @@ public interface InvocationFilter {
          * @return response publisher
          */
         Mono<InvocationResponse> next(InvocationContext context);
+
+        /**
+         * Proceeds to the next filter or terminal handler in streaming mode.
+         *
+         * @param context invocation context
+         * @return publisher of response chunks
+         */
+        Flux<InvocationChunk> stream(InvocationContext context);
+
+        /**
+         * Proceeds to the next filter or terminal handler in pass-through
+         * mode. Chains that do not support pass-through fail.
+         *
+         * @param context invocation context
+         * @return publisher of the raw response body
+         */
+        default Flux<DataBuffer> passThrough(InvocationContext context) {
+            return Flux.error(new IllegalStateException("Pass-through is not supported by this chain"));
+        }
     }
 }
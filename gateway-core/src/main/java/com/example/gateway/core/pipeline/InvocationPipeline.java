@@ -1,57 +1,236 @@
 package com.example.gateway.core.pipeline;
 
+import com.example.gateway.core.model.ModelDescriptor;
+import com.example.gateway.core.model.ProviderDescriptor;
+import com.example.gateway.core.registry.ProviderRegistry;
+import com.example.gateway.core.registry.RouteCandidate;
+import com.example.gateway.core.registry.RouteIndex;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * Orchestrates invocation filters and the terminal handler. Filters are
  * executed in the order provided by Spring, typically ordered using
  * {@code Ordered} or {@code @Order} annotations.
+ *
+ * <p>The filter list is compiled once into a linked list of stateless
+ * {@link InvocationFilter.Chain} nodes, each bound to one filter and its
+ * successor. Passing a request through the pipeline therefore allocates no
+ * chain objects; the nodes are shared by all concurrent invocations.
+ *
+ * <p>Filters can be limited to part of the traffic with a {@link FilterScope}.
+ * When a {@link ProviderRegistry} is supplied, the pipeline compiles a chain
+ * per route from the registry snapshot and recompiles when the registry
+ * generation changes, so filters outside a route's scope are not linked into
+ * that route's chain at all:
+ * <ul>
+ *   <li>filters after the {@link RoutingFilter} are selected by the routed
+ *       provider/model pair;</li>
+ *   <li>filters up to the routing filter run before the model is known and
+ *       are selected by the request's model hint: a filter is linked if its
+ *       scope matches any provider serving that model id. Requests without
+ *       a known model hint only run filters without route conditions.</li>
+ * </ul>
+ * Routes with identical filter selections share their chain. Attribute
+ * conditions are checked by the chain node before calling the filter.
  */
 public class InvocationPipeline {
 
     private final List<InvocationFilter> filters;
     private final ReactiveInvocationHandler handler;
+    private final ProviderRegistry providerRegistry;
+    private final Map<InvocationFilter, FilterScope> scopes;
+    private final int routingIndex;
+    private volatile CompiledChains compiled;
 
     /**
-     * Creates a new pipeline instance.
+     * Creates a new pipeline instance without route-specific chains. Route
+     * conditions of filter scopes cannot be resolved, so scoped filters with
+     * route conditions never run.
      *
      * @param filters ordered list of filters
      * @param handler terminal handler
      */
     public InvocationPipeline(List<InvocationFilter> filters, ReactiveInvocationHandler handler) {
+        this(filters, handler, null, Collections.emptyMap());
+    }
+
+    /**
+     * Creates a new pipeline instance compiling chains per route.
+     *
+     * @param filters          ordered list of filters
+     * @param handler          terminal handler
+     * @param providerRegistry registry providing the routes, or {@code null}
+     * @param scopeOverrides   scopes replacing the filters' own scopes, keyed by filter instance
+     */
+    public InvocationPipeline(List<InvocationFilter> filters, ReactiveInvocationHandler handler,
+                              ProviderRegistry providerRegistry, Map<InvocationFilter, FilterScope> scopeOverrides) {
         this.filters = filters != null ? List.copyOf(filters) : Collections.emptyList();
         this.handler = Objects.requireNonNull(handler, "handler must not be null");
+        this.providerRegistry = providerRegistry;
+        this.scopes = new IdentityHashMap<>();
+        int routing = -1;
+        for (int i = 0; i < this.filters.size(); i++) {
+            InvocationFilter filter = this.filters.get(i);
+            if (filter instanceof RoutingFilter) {
+                routing = i;
+                this.scopes.put(filter, FilterScope.ALL);
+            } else if (scopeOverrides != null && scopeOverrides.containsKey(filter)) {
+                this.scopes.put(filter, scopeOverrides.get(filter));
+            } else if (filter instanceof ScopedInvocationFilter scoped) {
+                this.scopes.put(filter, Objects.requireNonNull(scoped.getScope(), "scope must not be null"));
+            } else {
+                this.scopes.put(filter, FilterScope.ALL);
+            }
+        }
+        this.routingIndex = routing;
+        this.compiled = compile(providerRegistry != null ? providerRegistry.getRouteIndex() : null);
     }
 
     /**
      * Executes the pipeline for the supplied request.
      */
     public Mono<InvocationResponse> invoke(InvocationRequest request) {
+        return chains().head(request).next(new InvocationContext(request));
+    }
+
+    /**
+     * Executes the pipeline for the supplied request in streaming mode.
+     */
+    public Flux<InvocationChunk> stream(InvocationRequest request) {
+        return chains().head(request).stream(new InvocationContext(request));
+    }
+
+    /**
+     * Executes the pipeline for the supplied request in pass-through mode,
+     * returning the provider's response body.
+     *
+     * @param request invocation request
+     * @param level   how much of the provider body the gateway decodes
+     */
+    public Flux<DataBuffer> passThrough(InvocationRequest request, NormalizationLevel level) {
+        Objects.requireNonNull(level, "level must not be null");
         InvocationContext context = new InvocationContext(request);
-        return new DefaultChain(0).next(context);
+        context.setAttribute(InvocationAttributes.NORMALIZATION_LEVEL, level);
+        return chains().head(request).passThrough(context);
+    }
+
+    private CompiledChains chains() {
+        CompiledChains current = compiled;
+        if (providerRegistry != null && current.generation() != providerRegistry.getGeneration()) {
+            current = recompile();
+        }
+        return current;
+    }
+
+    private synchronized CompiledChains recompile() {
+        RouteIndex routeIndex = providerRegistry.getRouteIndex();
+        CompiledChains current = compiled;
+        if (current.generation() != routeIndex.getGeneration()) {
+            current = compile(routeIndex);
+            compiled = current;
+        }
+        return current;
     }
 
-    /** Default chain implementation that walks the filter list. */
-    private class DefaultChain implements InvocationFilter.Chain {
+    /**
+     * Builds the chains for all routes of the index. Chains selecting the same
+     * filters are built once and shared.
+     */
+    private CompiledChains compile(RouteIndex routeIndex) {
+        InvocationFilter.Chain handlerNode = new HandlerNode(handler);
+        List<InvocationFilter> preRouting = routingIndex >= 0 ? filters.subList(0, routingIndex + 1) : filters;
+        List<InvocationFilter> postRouting = routingIndex >= 0 ? filters.subList(routingIndex + 1, filters.size()) : List.of();
 
-        private final int index;
+        Map<ModelDescriptor, InvocationFilter.Chain> routedChains = new IdentityHashMap<>();
+        Map<BitSet, InvocationFilter.Chain> sharedRouted = new HashMap<>();
+        InvocationFilter.Chain unroutedChain = link(postRouting, scope -> !scope.hasRouteConditions(), handlerNode, sharedRouted);
+        Map<String, InvocationFilter.Chain> heads = new HashMap<>();
+        Map<BitSet, InvocationFilter.Chain> sharedHeads = new HashMap<>();
+        InvocationFilter.Chain tail = routingIndex >= 0
+            ? new RouteDispatchNode(this, routedChains, unroutedChain, handlerNode)
+            : handlerNode;
+        InvocationFilter.Chain defaultHead = link(preRouting, scope -> !scope.hasRouteConditions(), tail, sharedHeads);
+
+        if (routeIndex == null) {
+            return new CompiledChains(-1, heads, defaultHead);
+        }
+        Set<String> modelIds = new LinkedHashSet<>();
+        for (ProviderDescriptor provider : routeIndex.getProviders()) {
+            for (ModelDescriptor model : provider.getModels()) {
+                modelIds.add(model.getModelId());
+            }
+        }
+        for (String modelId : modelIds) {
+            List<RouteCandidate> candidates = routeIndex.findCandidates(modelId);
+            if (candidates.isEmpty()) {
+                continue;
+            }
+            heads.put(modelId, link(preRouting, scope -> matchesAny(scope, candidates), tail, sharedHeads));
+            for (RouteCandidate candidate : candidates) {
+                routedChains.put(candidate.model(), link(postRouting,
+                    scope -> scope.matches(candidate.provider(), candidate.model()), handlerNode, sharedRouted));
+            }
+        }
+        return new CompiledChains(routeIndex.getGeneration(), heads, defaultHead);
+    }
 
-        private DefaultChain(int index) {
-            this.index = index;
+    /**
+     * Links the filters of a segment whose scope passes the selector in front
+     * of {@code tail}, reusing a chain from {@code shared} when the same
+     * filters were selected before.
+     */
+    private InvocationFilter.Chain link(List<InvocationFilter> segment, Predicate<FilterScope> selector,
+                                        InvocationFilter.Chain tail, Map<BitSet, InvocationFilter.Chain> shared) {
+        BitSet selected = new BitSet(segment.size());
+        for (int i = 0; i < segment.size(); i++) {
+            if (selector.test(scopes.get(segment.get(i)))) {
+                selected.set(i);
+            }
         }
+        InvocationFilter.Chain existing = shared.get(selected);
+        if (existing != null) {
+            return existing;
+        }
+        InvocationFilter.Chain chain = tail;
+        for (int i = segment.size() - 1; i >= 0; i--) {
+            if (selected.get(i)) {
+                InvocationFilter filter = segment.get(i);
+                FilterScope scope = scopes.get(filter);
+                chain = scope.hasAttributeConditions()
+                    ? new GuardedFilterNode(filter, scope, chain)
+                    : new FilterNode(filter, chain);
+            }
+        }
+        shared.put(selected, chain);
+        return chain;
+    }
 
-        @Override
-        public Mono<InvocationResponse> next(InvocationContext context) {
-            if (index < filters.size()) {
-                InvocationFilter filter = filters.get(index);
-                return filter.filter(context, new DefaultChain(index + 1));
+    /** Links the post-routing filters for a route missing from the compiled chains. */
+    private InvocationFilter.Chain linkRoute(ProviderDescriptor provider, ModelDescriptor model, InvocationFilter.Chain handlerNode) {
+        List<InvocationFilter> postRouting = filters.subList(routingIndex + 1, filters.size());
+        return link(postRouting, scope -> scope.matches(provider, model), handlerNode, new HashMap<>());
+    }
+
+    private static boolean matchesAny(FilterScope scope, List<RouteCandidate> candidates) {
+        for (RouteCandidate candidate : candidates) {
+            if (scope.matches(candidate.provider(), candidate.model())) {
+                return true;
             }
-            return handler.invoke(context);
         }
+        return false;
     }
 
     /**
@@ -63,6 +242,146 @@ public class InvocationPipeline {
         List<InvocationFilter> newFilters = new ArrayList<>();
         newFilters.add(filter);
         newFilters.addAll(this.filters);
-        return new InvocationPipeline(newFilters, this.handler);
+        return new InvocationPipeline(newFilters, this.handler, this.providerRegistry, this.scopes);
+    }
+
+    /** Chains compiled for one registry generation. */
+    private record CompiledChains(long generation, Map<String, InvocationFilter.Chain> heads,
+                                  InvocationFilter.Chain defaultHead) {
+
+        InvocationFilter.Chain head(InvocationRequest request) {
+            String modelHint = request.getModelHint();
+            if (modelHint == null) {
+                return defaultHead;
+            }
+            InvocationFilter.Chain head = heads.get(modelHint);
+            return head != null ? head : defaultHead;
+        }
+    }
+
+    /** Chain node invoking one filter with the node of its successor. */
+    private static final class FilterNode implements InvocationFilter.Chain {
+
+        private final InvocationFilter filter;
+        private final InvocationFilter.Chain next;
+
+        private FilterNode(InvocationFilter filter, InvocationFilter.Chain next) {
+            this.filter = filter;
+            this.next = next;
+        }
+
+        @Override
+        public Mono<InvocationResponse> next(InvocationContext context) {
+            return filter.filter(context, next);
+        }
+
+        @Override
+        public Flux<InvocationChunk> stream(InvocationContext context) {
+            return filter.filterStream(context, next);
+        }
+
+        @Override
+        public Flux<DataBuffer> passThrough(InvocationContext context) {
+            return filter.filterPassThrough(context, next);
+        }
+    }
+
+    /** Terminal chain node delegating to the handler. */
+    private static final class HandlerNode implements InvocationFilter.Chain {
+
+        private final ReactiveInvocationHandler handler;
+
+        private HandlerNode(ReactiveInvocationHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public Mono<InvocationResponse> next(InvocationContext context) {
+            return handler.invoke(context);
+        }
+
+        @Override
+        public Flux<InvocationChunk> stream(InvocationContext context) {
+            return handler.stream(context);
+        }
+
+        @Override
+        public Flux<DataBuffer> passThrough(InvocationContext context) {
+            return handler.passThrough(context);
+        }
+    }
+
+    /** Chain node skipping its filter when the context attributes are out of scope. */
+    private static final class GuardedFilterNode implements InvocationFilter.Chain {
+
+        private final InvocationFilter filter;
+        private final FilterScope scope;
+        private final InvocationFilter.Chain next;
+
+        private GuardedFilterNode(InvocationFilter filter, FilterScope scope, InvocationFilter.Chain next) {
+            this.filter = filter;
+            this.scope = scope;
+            this.next = next;
+        }
+
+        @Override
+        public Mono<InvocationResponse> next(InvocationContext context) {
+            return scope.matchesAttributes(context) ? filter.filter(context, next) : next.next(context);
+        }
+
+        @Override
+        public Flux<InvocationChunk> stream(InvocationContext context) {
+            return scope.matchesAttributes(context) ? filter.filterStream(context, next) : next.stream(context);
+        }
+
+        @Override
+        public Flux<DataBuffer> passThrough(InvocationContext context) {
+            return scope.matchesAttributes(context) ? filter.filterPassThrough(context, next) : next.passThrough(context);
+        }
+    }
+
+    /**
+     * Chain node following the routing filter; continues with the chain
+     * compiled for the routed model.
+     */
+    private static final class RouteDispatchNode implements InvocationFilter.Chain {
+
+        private final InvocationPipeline pipeline;
+        private final Map<ModelDescriptor, InvocationFilter.Chain> routedChains;
+        private final InvocationFilter.Chain unroutedChain;
+        private final InvocationFilter.Chain handlerNode;
+
+        private RouteDispatchNode(InvocationPipeline pipeline, Map<ModelDescriptor, InvocationFilter.Chain> routedChains,
+                                  InvocationFilter.Chain unroutedChain, InvocationFilter.Chain handlerNode) {
+            this.pipeline = pipeline;
+            this.routedChains = routedChains;
+            this.unroutedChain = unroutedChain;
+            this.handlerNode = handlerNode;
+        }
+
+        @Override
+        public Mono<InvocationResponse> next(InvocationContext context) {
+            return resolve(context).next(context);
+        }
+
+        @Override
+        public Flux<InvocationChunk> stream(InvocationContext context) {
+            return resolve(context).stream(context);
+        }
+
+        @Override
+        public Flux<DataBuffer> passThrough(InvocationContext context) {
+            return resolve(context).passThrough(context);
+        }
+
+        private InvocationFilter.Chain resolve(InvocationContext context) {
+            ModelDescriptor model = context.getModel();
+            if (model == null || context.getProvider() == null) {
+                return unroutedChain;
+            }
+            InvocationFilter.Chain chain = routedChains.get(model);
+            // Routed against a newer registry snapshot than these chains were compiled for.
+            return chain != null ? chain : pipeline.linkRoute(context.getProvider(), model, handlerNode);
+        }
     }
 }
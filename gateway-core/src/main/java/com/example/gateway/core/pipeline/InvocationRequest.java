@@ -1,24 +1,29 @@
 package com.example.gateway.core.pipeline;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Immutable representation of an inbound invocation request passed through the
- * gateway pipeline. The request carries optional provider/model hints,
- * provider-agnostic payload data, and contextual attributes.
+ * gateway pipeline. The request carries optional provider/model hints or
+ * required capabilities, provider-agnostic payload data, and contextual
+ * attributes.
  */
 public final class InvocationRequest {
 
     private final String providerHint;
     private final String modelHint;
+    private final Set<String> capabilities;
     private final Map<String, Object> payload;
     private final Map<String, Object> attributes;
 
     private InvocationRequest(Builder builder) {
         this.providerHint = builder.providerHint;
         this.modelHint = builder.modelHint;
+        this.capabilities = Set.copyOf(builder.capabilities);
         this.payload = Map.copyOf(builder.payload);
         this.attributes = Map.copyOf(builder.attributes);
     }
@@ -33,6 +38,14 @@ public final class InvocationRequest {
         return modelHint;
     }
 
+    /**
+     * Capabilities the serving model must advertise, used for routing when no
+     * model hint is given. Never {@code null}.
+     */
+    public Set<String> getCapabilities() {
+        return capabilities;
+    }
+
     /** Provider-agnostic payload that is forwarded to the model client. */
     public Map<String, Object> getPayload() {
         return payload;
@@ -53,6 +66,7 @@ public final class InvocationRequest {
 
         private String providerHint;
         private String modelHint;
+        private Collection<String> capabilities = Collections.emptySet();
         private Map<String, Object> payload = Collections.emptyMap();
         private Map<String, Object> attributes = Collections.emptyMap();
 
@@ -68,6 +82,20 @@ public final class InvocationRequest {
             return this;
         }
 
+        /**
+         * Sets the capabilities the serving model must advertise. Null and
+         * blank entries, e.g. from a client-supplied list, are ignored.
+         *
+         * @param capabilities required capabilities
+         * @return this builder
+         */
+        public Builder capabilities(Collection<String> capabilities) {
+            this.capabilities = capabilities != null
+                ? capabilities.stream().filter(capability -> capability != null && !capability.isBlank()).toList()
+                : Collections.emptySet();
+            return this;
+        }
+
         /**
          * Supplies the request payload map.
          *
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.Duration;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -15,8 +16,16 @@ public final class InvocationResponse {
 
     private final Map<String, Object> payload;
     private final Map<String, Object> metadata;
+    private final TokenUsage usage;
     private final Duration latency;
 
+    /**
+     * Creates a response without reported usage.
+     */
+    public InvocationResponse(Map<String, Object> payload, Map<String, Object> metadata, Duration latency) {
+        this(payload, metadata, TokenUsage.EMPTY, latency);
+    }
+
     /**
      * Jackson creator used for cache (de-)serialisation.
      */
@@ -24,15 +33,18 @@ public final class InvocationResponse {
     public InvocationResponse(
         @JsonProperty("payload") Map<String, Object> payload,
         @JsonProperty("metadata") Map<String, Object> metadata,
+        @JsonProperty("usage") TokenUsage usage,
         @JsonProperty("latency") Duration latency) {
         this.payload = Map.copyOf(payload != null ? payload : Collections.emptyMap());
         this.metadata = Map.copyOf(metadata != null ? metadata : Collections.emptyMap());
+        this.usage = usage != null ? usage : TokenUsage.EMPTY;
         this.latency = latency != null ? latency : Duration.ZERO;
     }
 
     private InvocationResponse(Builder builder) {
         this.payload = Map.copyOf(builder.payload);
         this.metadata = Map.copyOf(builder.metadata);
+        this.usage = builder.usage;
         this.latency = builder.latency;
     }
 
@@ -41,16 +53,31 @@ public final class InvocationResponse {
         return payload;
     }
 
-    /** Metadata such as provider, model, token usage, or cost. */
+    /** Metadata such as provider, model, or the provider's raw usage report. */
     public Map<String, Object> getMetadata() {
         return metadata;
     }
 
+    /** Tokens consumed by the invocation, {@link TokenUsage#EMPTY} when not reported. */
+    public TokenUsage getUsage() {
+        return usage;
+    }
+
     /** Time spent processing the invocation end-to-end. */
     public Duration getLatency() {
         return latency;
     }
 
+    /**
+     * Returns a copy of this response with additional metadata entries, which
+     * take precedence over existing entries with the same key.
+     */
+    public InvocationResponse withMetadata(Map<String, Object> additional) {
+        Map<String, Object> merged = new HashMap<>(metadata);
+        merged.putAll(additional);
+        return new InvocationResponse(payload, merged, usage, latency);
+    }
+
     /** Creates a builder for constructing responses programmatically. */
     public static Builder builder() {
         return new Builder();
@@ -61,6 +88,7 @@ public final class InvocationResponse {
 
         private Map<String, Object> payload = Collections.emptyMap();
         private Map<String, Object> metadata = Collections.emptyMap();
+        private TokenUsage usage = TokenUsage.EMPTY;
         private Duration latency = Duration.ZERO;
 
         /** Sets the response payload. */
@@ -75,6 +103,12 @@ public final class InvocationResponse {
             return this;
         }
 
+        /** Sets the token usage. */
+        public Builder usage(TokenUsage usage) {
+            this.usage = usage != null ? usage : TokenUsage.EMPTY;
+            return this;
+        }
+
         /** Sets the latency field. */
         public Builder latency(Duration latency) {
             this.latency = latency != null ? latency : Duration.ZERO;
@@ -85,6 +119,7 @@ public final class InvocationResponse {
         public InvocationResponse build() {
             Objects.requireNonNull(payload, "payload must not be null");
             Objects.requireNonNull(metadata, "metadata must not be null");
+            Objects.requireNonNull(usage, "usage must not be null");
             Objects.requireNonNull(latency, "latency must not be null");
             return new InvocationResponse(this);
         }
@@ -0,0 +1,47 @@
+package com.example.gateway.core.pipeline;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Accumulates streamed {@link InvocationChunk}s into a complete
+ * {@link InvocationResponse} so filters such as caching and spend tracking can
+ * operate on the assembled stream. Instances are bound to a single stream and
+ * rely on Reactor's serialised {@code onNext} signals, so they are not
+ * thread-safe.
+ */
+public final class InvocationResponseAssembler {
+
+    private final StringBuilder content = new StringBuilder();
+    private final Map<String, Object> metadata = new LinkedHashMap<>();
+    private TokenUsage usage = TokenUsage.EMPTY;
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Appends a chunk. Later metadata values override earlier ones, and
+     * reported usage replaces earlier usage.
+     *
+     * @param chunk streamed chunk
+     */
+    public void append(InvocationChunk chunk) {
+        content.append(chunk.getContent());
+        metadata.putAll(chunk.getMetadata());
+        if (!chunk.getUsage().equals(TokenUsage.EMPTY)) {
+            usage = chunk.getUsage();
+        }
+    }
+
+    /**
+     * Builds the response seen so far. Latency is measured from the creation
+     * of the assembler.
+     */
+    public InvocationResponse toResponse() {
+        return InvocationResponse.builder()
+            .payload(Map.of("content", content.toString()))
+            .metadata(metadata)
+            .usage(usage)
+            .latency(Duration.ofNanos(System.nanoTime() - startNanos))
+            .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.gateway.core.pipeline;
+
+/**
+ * How much of a provider response the gateway decodes before returning it.
+ */
+public enum NormalizationLevel {
+
+    /**
+     * The provider body is decoded into the provider-neutral
+     * {@link InvocationResponse} payload and metadata.
+     */
+    FULL,
+
+    /**
+     * The provider body is forwarded unchanged; only the token usage is read
+     * from it, incrementally and without materialising the document.
+     */
+    USAGE,
+
+    /** The provider body is forwarded unchanged and not inspected. */
+    NONE
+}
@@ -1,5 +1,7 @@
 package com.example.gateway.core.pipeline;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -16,4 +18,27 @@ public interface ReactiveInvocationHandler {
      * @return response publisher
      */
     Mono<InvocationResponse> invoke(InvocationContext context);
+
+    /**
+     * Executes the provider call in streaming mode. The default implementation
+     * emits the buffered response as a single terminal chunk.
+     *
+     * @param context invocation context
+     * @return publisher of response chunks
+     */
+    default Flux<InvocationChunk> stream(InvocationContext context) {
+        return invoke(context).map(InvocationChunk::fromResponse).flux();
+    }
+
+    /**
+     * Executes the provider call in pass-through mode, at the context's
+     * {@linkplain InvocationAttributes#normalizationLevel normalization level}.
+     * Not supported by default.
+     *
+     * @param context invocation context
+     * @return publisher of the raw response body
+     */
+    default Flux<DataBuffer> passThrough(InvocationContext context) {
+        return Flux.error(new IllegalStateException("Pass-through is not supported by " + getClass().getSimpleName()));
+    }
 }
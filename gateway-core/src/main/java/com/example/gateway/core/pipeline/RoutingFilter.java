@@ -1,67 +1,186 @@
 package com.example.gateway.core.pipeline;
 
+import com.example.gateway.core.config.RoutingProperties;
 import com.example.gateway.core.exception.ModelNotFoundException;
+import com.example.gateway.core.health.ProviderHealthRegistry;
 import com.example.gateway.core.model.ModelDescriptor;
 import com.example.gateway.core.model.ProviderDescriptor;
 import com.example.gateway.core.registry.ProviderRegistry;
-import java.util.Optional;
+import com.example.gateway.core.registry.RouteCandidate;
+import com.example.gateway.core.registry.RouteIndex;
+import com.example.gateway.core.routing.RoutingStrategy;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * Filter responsible for resolving the provider/model combination that should
  * handle the invocation. Provider hints take precedence, otherwise the filter
- * attempts to locate a matching model across all enabled providers.
+ * attempts to locate a matching model across all enabled providers using the
+ * registry's precomputed {@link RouteIndex}. Requests without a model hint are
+ * routed to a model advertising all requested capabilities. All lookups for a
+ * request use a single registry snapshot whose generation is recorded on the
+ * context.
+ *
+ * <p>When several providers expose the model, or several models match the
+ * capabilities, the configured {@link RoutingStrategy} chooses among the
+ * candidates whose circuit breaker is closed and that are not ejected as
+ * outliers. When no candidate is healthy, the first one is used anyway so the
+ * client layer can reject it quickly and walk the fallback chain. The strategy
+ * that made the decision is reported in the {@value #ROUTING_STRATEGY_KEY}
+ * response metadata entry.
  */
 @Component
 public class RoutingFilter implements InvocationFilter, Ordered {
 
+    /** Metadata key holding the name of the routing decision. */
+    public static final String ROUTING_STRATEGY_KEY = "routingStrategy";
+
+    /** Decision name reported when the request named its provider. */
+    public static final String PROVIDER_HINT = "provider-hint";
+
+    private static final Map<String, Object> PROVIDER_HINT_DECISION = Map.of(ROUTING_STRATEGY_KEY, PROVIDER_HINT);
+
     private final ProviderRegistry providerRegistry;
+    private final RoutingStrategy strategy;
+    private final Map<String, Object> strategyDecision;
+    private final Predicate<RouteCandidate> healthy;
 
-    public RoutingFilter(ProviderRegistry providerRegistry) {
+    public RoutingFilter(ProviderRegistry providerRegistry, ProviderHealthRegistry healthRegistry,
+                         List<RoutingStrategy> strategies, RoutingProperties properties) {
         this.providerRegistry = providerRegistry;
+        this.strategy = strategies.stream()
+            .filter(candidate -> candidate.getName().equals(properties.getStrategy()))
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("Unknown routing strategy " + properties.getStrategy()));
+        this.strategyDecision = Map.of(ROUTING_STRATEGY_KEY, strategy.getName());
+        this.healthy = candidate -> healthRegistry.isAvailable(candidate.model());
     }
 
     @Override
     public Mono<InvocationResponse> filter(InvocationContext context, Chain chain) {
+        ModelNotFoundException failure = route(context);
+        if (failure != null) {
+            return Mono.error(failure);
+        }
+        Map<String, Object> decision = decision(context);
+        return chain.next(context).map(response -> response.withMetadata(decision));
+    }
+
+    @Override
+    public Flux<InvocationChunk> filterStream(InvocationContext context, Chain chain) {
+        ModelNotFoundException failure = route(context);
+        if (failure != null) {
+            return Flux.error(failure);
+        }
+        Map<String, Object> decision = decision(context);
+        return chain.stream(context).map(chunk -> chunk.isLast() ? chunk.withMetadata(decision) : chunk);
+    }
+
+    /**
+     * Routes a pass-through invocation. The provider body is forwarded as is,
+     * so the decision is only available from the
+     * {@link InvocationAttributes#ROUTING_STRATEGY} context attribute.
+     */
+    @Override
+    public Flux<DataBuffer> filterPassThrough(InvocationContext context, Chain chain) {
+        ModelNotFoundException failure = route(context);
+        if (failure != null) {
+            return Flux.error(failure);
+        }
+        return chain.passThrough(context);
+    }
+
+    /**
+     * Resolves the provider/model pair and stores it on the context.
+     *
+     * @return {@code null} on success, otherwise the routing failure
+     */
+    private ModelNotFoundException route(InvocationContext context) {
         InvocationRequest request = context.getRequest();
         String providerHint = request.getProviderHint();
         String modelHint = request.getModelHint();
 
-        if (modelHint == null) {
-            return Mono.error(new ModelNotFoundException("Model hint is required to route the request"));
+        if (modelHint == null && request.getCapabilities().isEmpty()) {
+            return new ModelNotFoundException("Model hint or capabilities are required to route the request");
         }
 
+        RouteIndex routeIndex = providerRegistry.getRouteIndex();
+        context.setAttribute(ProviderRegistry.GENERATION_ATTRIBUTE, routeIndex.getGeneration());
+        if (modelHint == null) {
+            return routeByCapabilities(context, routeIndex, providerHint, request.getCapabilities());
+        }
         if (providerHint != null) {
-            Optional<ProviderDescriptor> provider = providerRegistry.findProvider(providerHint);
-            Optional<ModelDescriptor> model = providerRegistry.findModel(providerHint, modelHint);
-            if (provider.isPresent() && model.isPresent()) {
-                return chainNext(chain, context, provider.get(), model.get());
+            ProviderDescriptor provider = routeIndex.findProvider(providerHint);
+            ModelDescriptor model = routeIndex.findModel(providerHint, modelHint);
+            if (provider != null && model != null) {
+                context.setAttribute(InvocationAttributes.ROUTING_STRATEGY, PROVIDER_HINT);
+                select(context, provider, model);
+                return null;
             }
-            return Mono.error(new ModelNotFoundException("Model " + modelHint + " not available for provider " + providerHint));
+            return new ModelNotFoundException("Model " + modelHint + " not available for provider " + providerHint);
         }
 
-        return providerRegistry.listProviders().stream()
-            .filter(ProviderDescriptor::isEnabled)
-            .flatMap(provider -> provider.getModels().stream()
-                .filter(model -> model.getModelId().equals(modelHint))
-                .map(model -> new ProviderModelPair(provider, model)))
-            .findFirst()
-            .map(pair -> chainNext(chain, context, pair.provider(), pair.model()))
-            .orElseGet(() -> Mono.error(new ModelNotFoundException("Model " + modelHint + " not configured")));
+        List<RouteCandidate> candidates = routeIndex.findCandidates(modelHint);
+        if (candidates.isEmpty()) {
+            return new ModelNotFoundException("Model " + modelHint + " not configured");
+        }
+        selectCandidate(context, candidates);
+        return null;
     }
 
-    private Mono<InvocationResponse> chainNext(Chain chain, InvocationContext context, ProviderDescriptor provider, ModelDescriptor model) {
+    /**
+     * Routes to a model advertising all requested capabilities, optionally
+     * restricted to the hinted provider.
+     */
+    private ModelNotFoundException routeByCapabilities(InvocationContext context, RouteIndex routeIndex, String providerHint,
+                                                       Set<String> capabilities) {
+        List<RouteCandidate> candidates = routeIndex.findCandidatesByCapabilities(capabilities);
+        if (providerHint != null) {
+            candidates = candidates.stream()
+                .filter(candidate -> candidate.provider().getId().equals(providerHint))
+                .toList();
+        }
+        if (candidates.isEmpty()) {
+            return new ModelNotFoundException("No model supports capabilities " + capabilities
+                + (providerHint != null ? " for provider " + providerHint : ""));
+        }
+        selectCandidate(context, candidates);
+        return null;
+    }
+
+    private void selectCandidate(InvocationContext context, List<RouteCandidate> candidates) {
+        RouteCandidate candidate = candidates.size() == 1 ? candidates.get(0) : strategy.select(candidates, healthy);
+        if (candidate == null) {
+            candidate = candidates.get(0);
+        }
+        context.setAttribute(InvocationAttributes.ROUTING_STRATEGY, strategy.getName());
+        select(context, candidate.provider(), candidate.model());
+    }
+
+    /**
+     * Returns the precomputed metadata of the decision made for the context,
+     * so reporting it allocates nothing per request.
+     */
+    private Map<String, Object> decision(InvocationContext context) {
+        return PROVIDER_HINT.equals(context.getAttribute(InvocationAttributes.ROUTING_STRATEGY))
+            ? PROVIDER_HINT_DECISION
+            : strategyDecision;
+    }
+
+    private void select(InvocationContext context, ProviderDescriptor provider, ModelDescriptor model) {
         context.setProvider(provider);
         context.setModel(model);
-        return chain.next(context);
     }
 
     @Override
     public int getOrder() {
         return Ordered.HIGHEST_PRECEDENCE + 10;
     }
-
-    private record ProviderModelPair(ProviderDescriptor provider, ModelDescriptor model) { }
 }
@@ -0,0 +1,13 @@
+package com.example.gateway.core.pipeline;
+
+/**
+ * {@link InvocationFilter} that only applies to part of the traffic. The
+ * pipeline leaves the filter out of the chains of routes outside its
+ * {@link #getScope() scope}. A scope configured under
+ * {@code gateway.pipeline.scopes} for the filter's bean takes precedence.
+ */
+public interface ScopedInvocationFilter extends InvocationFilter {
+
+    /** Traffic the filter applies to. */
+    FilterScope getScope();
+}
@@ -0,0 +1,24 @@
+package com.example.gateway.core.pipeline;
+
+/**
+ * Tokens consumed by a model invocation, as reported by the provider.
+ *
+ * @param inputTokens  prompt tokens
+ * @param outputTokens completion tokens
+ */
+public record TokenUsage(long inputTokens, long outputTokens) {
+
+    /** Usage of an invocation that reported none. */
+    public static final TokenUsage EMPTY = new TokenUsage(0, 0);
+
+    public TokenUsage {
+        if (inputTokens < 0 || outputTokens < 0) {
+            throw new IllegalArgumentException("token counts must not be negative");
+        }
+    }
+
+    /** Sum of input and output tokens. */
+    public long totalTokens() {
+        return inputTokens + outputTokens;
+    }
+}
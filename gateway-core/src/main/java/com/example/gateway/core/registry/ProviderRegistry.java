@@ -1,29 +1,35 @@
 package com.example.gateway.core.registry;
 
 import com.example.gateway.core.config.ProviderRegistryProperties;
+import com.example.gateway.core.model.CachePolicy;
 import com.example.gateway.core.model.ModelDescriptor;
 import com.example.gateway.core.model.ProviderDescriptor;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Thread-safe in-memory registry that exposes provider and model metadata to
  * the rest of the gateway. The registry is loaded from
  * {@link ProviderRegistryProperties} at construction and can be refreshed when
- * configuration changes are detected.
+ * configuration changes are detected. All lookups are served from an
+ * immutable {@link RouteIndex} snapshot; refreshes build a complete new
+ * snapshot off to the side and swap it in with a single volatile write, so
+ * readers never observe an empty or partially populated registry and never
+ * contend on a lock.
  */
 @Component
 public class ProviderRegistry {
 
-    private final Map<String, ProviderDescriptor> providers = new ConcurrentHashMap<>();
+    /** Context attribute carrying the generation of the snapshot that routed a request. */
+    public static final String GENERATION_ATTRIBUTE = "gateway.registry.generation";
+
+    private volatile RouteIndex routeIndex;
 
     /**
      * Creates a new registry instance backed by the supplied configuration
@@ -40,74 +46,72 @@ public class ProviderRegistry {
      * Returns an immutable snapshot of all configured providers.
      */
     public List<ProviderDescriptor> listProviders() {
-        return List.copyOf(providers.values());
+        return routeIndex.getProviders();
     }
 
     /**
      * Resolves the provider descriptor by id if present.
      */
     public Optional<ProviderDescriptor> findProvider(String providerId) {
-        return Optional.ofNullable(providers.get(providerId));
+        return Optional.ofNullable(routeIndex.findProvider(providerId));
     }
 
     /**
      * Finds a model descriptor for the given provider/model combination.
      */
     public Optional<ModelDescriptor> findModel(String providerId, String modelId) {
-        return findProvider(providerId)
-            .flatMap(provider -> provider.getModels().stream()
-                .filter(model -> model.getModelId().equals(modelId))
-                .findFirst());
+        return Optional.ofNullable(routeIndex.findModel(providerId, modelId));
+    }
+
+    /**
+     * Returns the enabled provider/model pairs exposing the model id, in
+     * configuration order.
+     */
+    public List<RouteCandidate> findRouteCandidates(String modelId) {
+        return routeIndex.findCandidates(modelId);
     }
 
     /**
      * Returns all models that advertise a given capability.
      */
     public List<ModelDescriptor> findModelsByCapability(String capability) {
-        if (capability == null) {
-            return Collections.emptyList();
-        }
-        return providers.values().stream()
-            .flatMap(provider -> provider.getModels().stream())
-            .filter(model -> model.getCapabilities().contains(capability))
-            .collect(Collectors.toUnmodifiableList());
+        return routeIndex.findModelsByCapability(capability);
     }
 
     /**
      * Resolves fallback candidates for a model respecting configured priority.
      */
     public List<ModelDescriptor> findFallbackCandidates(ModelDescriptor model) {
-        if (model == null) {
-            return Collections.emptyList();
-        }
-        List<String> fallbackPriority = model.getFallbackPriority();
-        if (fallbackPriority.isEmpty()) {
-            return Collections.emptyList();
-        }
-        /*
-         * The loop preserves the order in the fallback list by resolving each
-         * model id independently. This prevents random ordering that would be
-         * introduced by using Set-based lookups.
-         */
-        List<ModelDescriptor> descriptors = new ArrayList<>();
-        for (String candidateId : fallbackPriority) {
-            providers.values().stream()
-                .map(ProviderDescriptor::getModels)
-                .flatMap(Collection::stream)
-                .filter(candidate -> candidate.getModelId().equals(candidateId))
-                .findFirst()
-                .ifPresent(descriptors::add);
-        }
-        return List.copyOf(descriptors);
+        return routeIndex.findFallbackChain(model);
+    }
+
+    /**
+     * Returns the route index currently used to serve lookups. Callers that
+     * perform several lookups for one request should capture the snapshot
+     * once so all lookups observe the same generation.
+     */
+    public RouteIndex getRouteIndex() {
+        return routeIndex;
     }
 
     /**
-     * Rebuilds the internal provider cache from the supplied configuration.
-     * This method can be reused by configuration change listeners to refresh
-     * the registry without recreating the bean.
+     * Generation of the currently published snapshot. The counter starts at
+     * one and increases by one for every successful refresh.
      */
-    public final void refresh(ProviderRegistryProperties properties) {
-        providers.clear();
+    public long getGeneration() {
+        return routeIndex.getGeneration();
+    }
+
+    /**
+     * Rebuilds the provider snapshot from the supplied configuration and
+     * publishes it atomically. This method can be reused by configuration
+     * change listeners to refresh the registry without recreating the bean.
+     * If the configuration cannot be converted the exception propagates and
+     * the previously published snapshot stays in place.
+     */
+    public final synchronized void refresh(ProviderRegistryProperties properties) {
+        Objects.requireNonNull(properties, "properties");
+        List<ProviderDescriptor> descriptors = new ArrayList<>();
         for (ProviderRegistryProperties.ProviderConfig providerConfig : properties.getProviders()) {
             List<ModelDescriptor> models = providerConfig.getModels().stream()
                 .map(modelConfig -> ModelDescriptor.builder()
@@ -119,6 +123,8 @@ public class ProviderRegistry {
                     .outputCost(modelConfig.getPricing().getOutputCost())
                     .currency(modelConfig.getPricing().getCurrency())
                     .fallbackPriority(modelConfig.getFallbackPriority())
+                    .cachePolicy(cachePolicy(providerConfig, modelConfig))
+                    .weight(modelConfig.getWeight())
                     .build())
                 .collect(Collectors.toUnmodifiableList());
 
@@ -128,7 +134,33 @@ public class ProviderRegistry {
                 .enabled(providerConfig.isEnabled())
                 .models(models)
                 .build();
-            providers.put(descriptor.getId(), descriptor);
+            descriptors.add(descriptor);
+        }
+        RouteIndex current = routeIndex;
+        routeIndex = RouteIndex.build(current != null ? current.getGeneration() + 1 : 1, descriptors);
+    }
+
+    /**
+     * Resolves the model's cache overrides, model settings taking precedence
+     * over provider settings. Non-positive values are rejected here, so a
+     * refresh with such a value fails instead of failing cache writes later.
+     */
+    private static CachePolicy cachePolicy(ProviderRegistryProperties.ProviderConfig providerConfig,
+                                           ProviderRegistryProperties.ModelConfig modelConfig) {
+        ProviderRegistryProperties.CacheConfig provider = providerConfig.getCache();
+        ProviderRegistryProperties.CacheConfig model = modelConfig.getCache();
+        Duration ttl = firstNonNull(model != null ? model.getTtl() : null, provider != null ? provider.getTtl() : null);
+        DataSize maxEntrySize = firstNonNull(model != null ? model.getMaxEntrySize() : null,
+            provider != null ? provider.getMaxEntrySize() : null);
+        try {
+            return CachePolicy.of(ttl, maxEntrySize != null ? maxEntrySize.toBytes() : null);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cache settings for model " + providerConfig.getId() + "/"
+                + modelConfig.getId() + ": " + ex.getMessage(), ex);
         }
     }
+
+    private static <T> T firstNonNull(T first, T second) {
+        return first != null ? first : second;
+    }
 }
@@ -0,0 +1,72 @@
+package com.example.gateway.core.registry;
+
+import com.example.gateway.core.config.ProviderRegistryProperties;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.bind.BindResult;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hot-reloads the {@link ProviderRegistry} when {@code gateway.providers}
+ * properties change at runtime (e.g. via {@code /actuator/refresh} or a config
+ * server push). The listener binds a fresh {@link ProviderRegistryProperties}
+ * instance from the environment instead of relying on the rebound bean, so
+ * the result does not depend on listener ordering. Invalid configurations are
+ * rejected and the previous snapshot keeps serving traffic.
+ */
+@Component
+public class ProviderRegistryRefreshListener implements ApplicationListener<EnvironmentChangeEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderRegistryRefreshListener.class);
+    private static final String PREFIX = "gateway.providers";
+
+    private final ProviderRegistry providerRegistry;
+    private final Environment environment;
+    private final ObjectProvider<Validator> validator;
+
+    public ProviderRegistryRefreshListener(ProviderRegistry providerRegistry, Environment environment,
+                                           ObjectProvider<Validator> validator) {
+        this.providerRegistry = providerRegistry;
+        this.environment = environment;
+        this.validator = validator;
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith(PREFIX))) {
+            return;
+        }
+
+        BindResult<ProviderRegistryProperties> result = Binder.get(environment).bind(PREFIX, ProviderRegistryProperties.class);
+        if (!result.isBound()) {
+            logger.warn("Ignoring provider registry refresh: no '{}' properties bound", PREFIX);
+            return;
+        }
+
+        ProviderRegistryProperties properties = result.get();
+        Validator available = validator.getIfAvailable();
+        if (available != null) {
+            Set<ConstraintViolation<ProviderRegistryProperties>> violations = available.validate(properties);
+            if (!violations.isEmpty()) {
+                logger.warn("Ignoring provider registry refresh, keeping generation {}: {}",
+                    providerRegistry.getGeneration(), violations);
+                return;
+            }
+        }
+
+        try {
+            providerRegistry.refresh(properties);
+            logger.info("Provider registry refreshed to generation {}", providerRegistry.getGeneration());
+        } catch (RuntimeException ex) {
+            logger.warn("Provider registry refresh failed, keeping generation {}", providerRegistry.getGeneration(), ex);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.gateway.core.registry;
+
+import com.example.gateway.core.model.ModelDescriptor;
+import com.example.gateway.core.model.ProviderDescriptor;
+import java.util.Objects;
+
+/**
+ * Provider/model pair that can serve an invocation. Candidates are created
+ * once per {@link RouteIndex} build and shared by all requests routed through
+ * that index.
+ *
+ * @param provider provider owning the model
+ * @param model    model descriptor
+ */
+public record RouteCandidate(ProviderDescriptor provider, ModelDescriptor model) {
+
+    public RouteCandidate {
+        Objects.requireNonNull(provider, "provider must not be null");
+        Objects.requireNonNull(model, "model must not be null");
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.gateway.core.registry;
+
+import com.example.gateway.core.model.ModelDescriptor;
+import com.example.gateway.core.model.ProviderDescriptor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable lookup structure derived from the configured providers. The index
+ * is rebuilt on every registry refresh and published as a whole, so readers
+ * always observe a consistent view without scanning provider or model lists
+ * on the request path. Each index is a complete registry snapshot tagged with
+ * the generation that produced it.
+ *
+ * <p>Capability matching uses one bitset per capability over the enabled
+ * candidates. A capability set is matched by intersecting those bitsets, and
+ * results are memoized per distinct capability set for the lifetime of the
+ * index.
+ */
+public final class RouteIndex {
+
+    /** Upper bound of memoized capability sets per index. */
+    private static final int MAX_MEMOIZED_CAPABILITY_SETS = 1024;
+
+    private final long generation;
+    private final List<ProviderDescriptor> providers;
+    private final Map<String, ProviderDescriptor> providersById;
+    private final Map<String, Map<String, ModelDescriptor>> modelsByProvider;
+    private final Map<String, List<RouteCandidate>> candidatesByModel;
+    private final Map<String, List<ModelDescriptor>> modelsByCapability;
+    private final Map<ModelDescriptor, List<ModelDescriptor>> fallbackChains;
+    private final RouteCandidate[] capabilityCandidates;
+    private final Map<String, long[]> candidateBitsByCapability;
+    private final Map<Set<String>, List<RouteCandidate>> capabilityMatches = new ConcurrentHashMap<>();
+
+    private RouteIndex(long generation,
+                       List<ProviderDescriptor> providers,
+                       Map<String, ProviderDescriptor> providersById,
+                       Map<String, Map<String, ModelDescriptor>> modelsByProvider,
+                       Map<String, List<RouteCandidate>> candidatesByModel,
+                       Map<String, List<ModelDescriptor>> modelsByCapability,
+                       Map<ModelDescriptor, List<ModelDescriptor>> fallbackChains,
+                       RouteCandidate[] capabilityCandidates,
+                       Map<String, long[]> candidateBitsByCapability) {
+        this.generation = generation;
+        this.providers = providers;
+        this.providersById = providersById;
+        this.modelsByProvider = modelsByProvider;
+        this.candidatesByModel = candidatesByModel;
+        this.modelsByCapability = modelsByCapability;
+        this.fallbackChains = fallbackChains;
+        this.capabilityCandidates = capabilityCandidates;
+        this.candidateBitsByCapability = candidateBitsByCapability;
+    }
+
+    /**
+     * Builds an index for the supplied providers. Provider order is preserved
+     * so that route candidates are returned in configuration order.
+     *
+     * @param generation monotonically increasing registry generation
+     * @param providers  providers in configuration order
+     * @return immutable index
+     */
+    public static RouteIndex build(long generation, List<ProviderDescriptor> providers) {
+        Map<String, ProviderDescriptor> providersById = new HashMap<>();
+        Map<String, Map<String, ModelDescriptor>> modelsByProvider = new HashMap<>();
+        Map<String, List<RouteCandidate>> candidatesByModel = new LinkedHashMap<>();
+        Map<String, List<ModelDescriptor>> modelsByCapability = new LinkedHashMap<>();
+        List<RouteCandidate> capabilityCandidates = new ArrayList<>();
+
+        for (ProviderDescriptor provider : providers) {
+            if (providersById.putIfAbsent(provider.getId(), provider) != null) {
+                throw new IllegalArgumentException("Duplicate provider id " + provider.getId());
+            }
+            Map<String, ModelDescriptor> models = new HashMap<>();
+            for (ModelDescriptor model : provider.getModels()) {
+                models.putIfAbsent(model.getModelId(), model);
+                for (String capability : model.getCapabilities()) {
+                    modelsByCapability.computeIfAbsent(capability, key -> new ArrayList<>()).add(model);
+                }
+                if (provider.isEnabled()) {
+                    RouteCandidate candidate = new RouteCandidate(provider, model);
+                    candidatesByModel.computeIfAbsent(model.getModelId(), key -> new ArrayList<>()).add(candidate);
+                    capabilityCandidates.add(candidate);
+                }
+            }
+            modelsByProvider.put(provider.getId(), Map.copyOf(models));
+        }
+
+        /*
+         * Fallback chains are resolved against the enabled candidates only and
+         * keep the declared priority order. Unknown or disabled fallback ids
+         * are skipped rather than failing the whole refresh.
+         */
+        Map<ModelDescriptor, List<ModelDescriptor>> fallbackChains = new HashMap<>();
+        for (ProviderDescriptor provider : providers) {
+            for (ModelDescriptor model : provider.getModels()) {
+                fallbackChains.put(model, resolveFallbacks(model, candidatesByModel));
+            }
+        }
+
+        int words = (capabilityCandidates.size() + 63) >>> 6;
+        Map<String, long[]> candidateBitsByCapability = new HashMap<>();
+        for (int i = 0; i < capabilityCandidates.size(); i++) {
+            for (String capability : capabilityCandidates.get(i).model().getCapabilities()) {
+                candidateBitsByCapability.computeIfAbsent(capability, key -> new long[words])[i >>> 6] |= 1L << i;
+            }
+        }
+
+        return new RouteIndex(generation,
+            List.copyOf(providers),
+            Map.copyOf(providersById),
+            Map.copyOf(modelsByProvider),
+            copyOfLists(candidatesByModel),
+            copyOfLists(modelsByCapability),
+            Collections.unmodifiableMap(fallbackChains),
+            capabilityCandidates.toArray(new RouteCandidate[0]),
+            Map.copyOf(candidateBitsByCapability));
+    }
+
+    /** Generation of the registry snapshot this index was built from. */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /** Providers in configuration order. */
+    public List<ProviderDescriptor> getProviders() {
+        return providers;
+    }
+
+    /** Resolves a provider by id, returning {@code null} when unknown. */
+    public ProviderDescriptor findProvider(String providerId) {
+        return providerId != null ? providersById.get(providerId) : null;
+    }
+
+    /**
+     * Returns the enabled provider/model pairs exposing the given model id in
+     * configuration order.
+     */
+    public List<RouteCandidate> findCandidates(String modelId) {
+        if (modelId == null) {
+            return Collections.emptyList();
+        }
+        return candidatesByModel.getOrDefault(modelId, Collections.emptyList());
+    }
+
+    /**
+     * Resolves the model descriptor for the given provider/model combination.
+     */
+    public ModelDescriptor findModel(String providerId, String modelId) {
+        if (providerId == null || modelId == null) {
+            return null;
+        }
+        Map<String, ModelDescriptor> models = modelsByProvider.get(providerId);
+        return models != null ? models.get(modelId) : null;
+    }
+
+    /** Returns all models that advertise the capability. */
+    public List<ModelDescriptor> findModelsByCapability(String capability) {
+        if (capability == null) {
+            return Collections.emptyList();
+        }
+        return modelsByCapability.getOrDefault(capability, Collections.emptyList());
+    }
+
+    /**
+     * Returns the enabled provider/model pairs whose model advertises every
+     * given capability, in configuration order.
+     *
+     * @param capabilities required capabilities
+     * @return matching candidates, empty when none match or no capability is given
+     */
+    public List<RouteCandidate> findCandidatesByCapabilities(Set<String> capabilities) {
+        if (capabilities == null || capabilities.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<RouteCandidate> matches = capabilityMatches.get(capabilities);
+        if (matches != null) {
+            return matches;
+        }
+        matches = matchCapabilities(capabilities);
+        if (capabilityMatches.size() < MAX_MEMOIZED_CAPABILITY_SETS) {
+            capabilityMatches.putIfAbsent(Set.copyOf(capabilities), matches);
+        }
+        return matches;
+    }
+
+    private List<RouteCandidate> matchCapabilities(Set<String> capabilities) {
+        long[] matching = null;
+        for (String capability : capabilities) {
+            long[] bits = candidateBitsByCapability.get(capability);
+            if (bits == null) {
+                return Collections.emptyList();
+            }
+            if (matching == null) {
+                matching = bits.clone();
+            } else {
+                for (int word = 0; word < matching.length; word++) {
+                    matching[word] &= bits[word];
+                }
+            }
+        }
+        List<RouteCandidate> matches = new ArrayList<>();
+        for (int word = 0; word < matching.length; word++) {
+            long bits = matching[word];
+            while (bits != 0) {
+                matches.add(capabilityCandidates[(word << 6) + Long.numberOfTrailingZeros(bits)]);
+                bits &= bits - 1;
+            }
+        }
+        return List.copyOf(matches);
+    }
+
+    /**
+     * Returns the resolved fallback chain for a model. Descriptors that were
+     * not produced by this index are resolved on demand.
+     */
+    public List<ModelDescriptor> findFallbackChain(ModelDescriptor model) {
+        if (model == null) {
+            return Collections.emptyList();
+        }
+        List<ModelDescriptor> chain = fallbackChains.get(model);
+        return chain != null ? chain : resolveFallbacks(model, candidatesByModel);
+    }
+
+    private static List<ModelDescriptor> resolveFallbacks(ModelDescriptor model, Map<String, List<RouteCandidate>> candidatesByModel) {
+        List<String> fallbackPriority = model.getFallbackPriority();
+        if (fallbackPriority.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ModelDescriptor> descriptors = new ArrayList<>(fallbackPriority.size());
+        for (String candidateId : fallbackPriority) {
+            List<RouteCandidate> candidates = candidatesByModel.get(candidateId);
+            if (candidates != null && !candidates.isEmpty()) {
+                descriptors.add(candidates.get(0).model());
+            }
+        }
+        return List.copyOf(descriptors);
+    }
+
+    private static <T> Map<String, List<T>> copyOfLists(Map<String, List<T>> source) {
+        Map<String, List<T>> copy = new HashMap<>(source.size() * 2);
+        source.forEach((key, values) -> copy.put(key, List.copyOf(values)));
+        return Collections.unmodifiableMap(copy);
+    }
+}
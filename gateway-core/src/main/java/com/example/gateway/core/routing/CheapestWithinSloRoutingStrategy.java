@@ -0,0 +1,70 @@
+package com.example.gateway.core.routing;
+
+import com.example.gateway.core.config.RoutingProperties;
+import com.example.gateway.core.model.ModelDescriptor;
+import com.example.gateway.core.registry.RouteCandidate;
+import java.util.List;
+import java.util.function.Predicate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Strategy choosing the cheapest candidate whose moving average latency
+ * meets the configured objective. Prices blend
+ * {@link ModelDescriptor#getInputCost()} and
+ * {@link ModelDescriptor#getOutputCost()} using the expected output/input
+ * token ratio. Candidates without latency samples are assumed to meet the
+ * objective. If no candidate does, the fastest one is chosen.
+ */
+@Component
+public class CheapestWithinSloRoutingStrategy implements RoutingStrategy {
+
+    /** Strategy name. */
+    public static final String NAME = "cheapest-within-slo";
+
+    private final RouteStatistics statistics;
+    private final double latencySloNanos;
+    private final double outputTokenRatio;
+
+    public CheapestWithinSloRoutingStrategy(RouteStatistics statistics, RoutingProperties properties) {
+        this.statistics = statistics;
+        this.latencySloNanos = properties.getLatencySlo().toNanos();
+        this.outputTokenRatio = properties.getOutputTokenRatio();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public RouteCandidate select(List<RouteCandidate> candidates, Predicate<RouteCandidate> eligible) {
+        RouteCandidate cheapest = null;
+        double cheapestCost = Double.MAX_VALUE;
+        RouteCandidate fastest = null;
+        double fastestLatency = Double.MAX_VALUE;
+        for (int i = 0; i < candidates.size(); i++) {
+            RouteCandidate candidate = candidates.get(i);
+            if (!eligible.test(candidate)) {
+                continue;
+            }
+            ModelStatistics modelStatistics = statistics.find(candidate.model());
+            double latency = modelStatistics != null ? modelStatistics.ewmaNanos() : -1;
+            if (latency < fastestLatency) {
+                fastest = candidate;
+                fastestLatency = latency;
+            }
+            if (latency <= latencySloNanos) {
+                double cost = blendedCost(candidate.model());
+                if (cost < cheapestCost) {
+                    cheapest = candidate;
+                    cheapestCost = cost;
+                }
+            }
+        }
+        return cheapest != null ? cheapest : fastest;
+    }
+
+    private double blendedCost(ModelDescriptor model) {
+        return model.getInputCost().doubleValue() + model.getOutputCost().doubleValue() * outputTokenRatio;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.gateway.core.routing;
+
+import com.example.gateway.core.registry.RouteCandidate;
+import java.util.List;
+import java.util.function.Predicate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default strategy choosing the first eligible candidate in configuration
+ * order.
+ */
+@Component
+public class FirstMatchRoutingStrategy implements RoutingStrategy {
+
+    /** Strategy name. */
+    public static final String NAME = "first-match";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public RouteCandidate select(List<RouteCandidate> candidates, Predicate<RouteCandidate> eligible) {
+        for (int i = 0; i < candidates.size(); i++) {
+            RouteCandidate candidate = candidates.get(i);
+            if (eligible.test(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.gateway.core.routing;
+
+import com.example.gateway.core.registry.RouteCandidate;
+import java.util.List;
+import java.util.function.Predicate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Strategy choosing the candidate with the lowest expected wait: the moving
+ * average latency multiplied by the number of calls in flight plus one. Slow
+ * providers and providers with many outstanding calls therefore receive less
+ * traffic. Candidates without latency samples score zero, so new providers
+ * are tried first.
+ */
+@Component
+public class LeastLatencyRoutingStrategy implements RoutingStrategy {
+
+    /** Strategy name. */
+    public static final String NAME = "least-latency";
+
+    private final RouteStatistics statistics;
+
+    public LeastLatencyRoutingStrategy(RouteStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public RouteCandidate select(List<RouteCandidate> candidates, Predicate<RouteCandidate> eligible) {
+        RouteCandidate best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < candidates.size(); i++) {
+            RouteCandidate candidate = candidates.get(i);
+            if (!eligible.test(candidate)) {
+                continue;
+            }
+            ModelStatistics modelStatistics = statistics.find(candidate.model());
+            double score = 0;
+            if (modelStatistics != null) {
+                score = Math.max(0, modelStatistics.ewmaNanos()) * (modelStatistics.outstanding() + 1);
+            }
+            if (score < bestScore) {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.gateway.core.routing;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live load statistics of one provider/model pair: the number of calls in
+ * flight and an exponentially weighted moving average of the call latency.
+ * Updates are lock-free.
+ */
+public final class ModelStatistics {
+
+    private static final long NO_SAMPLES = Double.doubleToRawLongBits(-1);
+
+    private final double weight;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong ewmaBits = new AtomicLong(NO_SAMPLES);
+
+    ModelStatistics(double weight) {
+        this.weight = weight;
+    }
+
+    /** Calls currently in flight. */
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    /** Moving average latency in nanoseconds, or {@code -1} before the first sample. */
+    public double ewmaNanos() {
+        return Double.longBitsToDouble(ewmaBits.get());
+    }
+
+    void started() {
+        outstanding.incrementAndGet();
+    }
+
+    void finished() {
+        outstanding.decrementAndGet();
+    }
+
+    void sample(long latencyNanos) {
+        while (true) {
+            long bits = ewmaBits.get();
+            double current = Double.longBitsToDouble(bits);
+            double next = current < 0 ? latencyNanos : current + weight * (latencyNanos - current);
+            if (ewmaBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+}
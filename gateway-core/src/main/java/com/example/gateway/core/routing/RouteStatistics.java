@@ -0,0 +1,53 @@
+package com.example.gateway.core.routing;
+
+import com.example.gateway.core.config.RoutingProperties;
+import com.example.gateway.core.model.ModelDescriptor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Load statistics per provider/model pair, fed by the client layer and read
+ * by latency-aware routing strategies. Statistics are keyed by provider and
+ * model id, so they survive registry refreshes, and lookups do not allocate.
+ */
+@Component
+public class RouteStatistics {
+
+    private final double ewmaWeight;
+    private final Map<String, Map<String, ModelStatistics>> statistics = new ConcurrentHashMap<>();
+
+    public RouteStatistics(RoutingProperties properties) {
+        this.ewmaWeight = properties.getEwmaWeight();
+    }
+
+    /** Returns the statistics of the model, or {@code null} if it was never called. */
+    public ModelStatistics find(ModelDescriptor model) {
+        Map<String, ModelStatistics> models = statistics.get(model.getProviderId());
+        return models != null ? models.get(model.getModelId()) : null;
+    }
+
+    /** Records the start of a call. Every call must be matched by {@link #onFinish}. */
+    public void onStart(ModelDescriptor model) {
+        statisticsFor(model).started();
+    }
+
+    /** Records the latency of a call, or the time to first chunk of a stream. */
+    public void onLatency(ModelDescriptor model, long latencyNanos) {
+        statisticsFor(model).sample(latencyNanos);
+    }
+
+    /** Records the end of a call, whatever its outcome. */
+    public void onFinish(ModelDescriptor model) {
+        statisticsFor(model).finished();
+    }
+
+    private ModelStatistics statisticsFor(ModelDescriptor model) {
+        ModelStatistics existing = find(model);
+        if (existing != null) {
+            return existing;
+        }
+        return statistics.computeIfAbsent(model.getProviderId(), key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(model.getModelId(), key -> new ModelStatistics(ewmaWeight));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.gateway.core.routing;
+
+import com.example.gateway.core.registry.RouteCandidate;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Chooses the provider that serves a request when several providers expose
+ * the requested model. Strategies are Spring beans selected by
+ * {@link #getName()} through {@code gateway.routing.strategy}, so custom
+ * strategies can be plugged in by declaring another bean.
+ *
+ * <p>{@link #select} runs for every routed request. Implementations must be
+ * thread-safe and should not allocate.
+ */
+public interface RoutingStrategy {
+
+    /** Name used to select the strategy and reported in response metadata. */
+    String getName();
+
+    /**
+     * Chooses one of the candidates.
+     *
+     * @param candidates candidates in configuration order, never empty
+     * @param eligible   test for candidates that are currently healthy
+     * @return chosen candidate, or {@code null} when no candidate is eligible
+     */
+    RouteCandidate select(List<RouteCandidate> candidates, Predicate<RouteCandidate> eligible);
+}
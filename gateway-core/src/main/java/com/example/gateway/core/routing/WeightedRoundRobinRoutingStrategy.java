@@ -0,0 +1,64 @@
+package com.example.gateway.core.routing;
+
+import com.example.gateway.core.registry.RouteCandidate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Strategy distributing requests across the eligible candidates in
+ * proportion to {@link com.example.gateway.core.model.ModelDescriptor#getWeight()}.
+ * A counter per model id is mapped onto the cumulative weights, so each
+ * cycle of total-weight requests visits every candidate exactly its weight's
+ * number of times. Candidates with weight zero are never chosen.
+ */
+@Component
+public class WeightedRoundRobinRoutingStrategy implements RoutingStrategy {
+
+    /** Strategy name. */
+    public static final String NAME = "weighted-round-robin";
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public RouteCandidate select(List<RouteCandidate> candidates, Predicate<RouteCandidate> eligible) {
+        long totalWeight = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            RouteCandidate candidate = candidates.get(i);
+            if (candidate.model().getWeight() > 0 && eligible.test(candidate)) {
+                totalWeight += candidate.model().getWeight();
+            }
+        }
+        if (totalWeight == 0) {
+            return null;
+        }
+        long point = Math.floorMod(counter(candidates.get(0).model().getModelId()).getAndIncrement(), totalWeight);
+        RouteCandidate last = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            RouteCandidate candidate = candidates.get(i);
+            int weight = candidate.model().getWeight();
+            if (weight > 0 && eligible.test(candidate)) {
+                last = candidate;
+                point -= weight;
+                if (point < 0) {
+                    return candidate;
+                }
+            }
+        }
+        // Eligibility changed between the two passes.
+        return last;
+    }
+
+    private AtomicLong counter(String modelId) {
+        AtomicLong counter = counters.get(modelId);
+        return counter != null ? counter : counters.computeIfAbsent(modelId, key -> new AtomicLong());
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.gateway.core.web;
 
 import com.example.gateway.core.exception.ModelNotFoundException;
+import com.example.gateway.core.exception.ProviderUnavailableException;
+import com.example.gateway.core.exception.RateLimitExceededException;
 import java.util.Map;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -24,6 +27,33 @@ public class GatewayExceptionHandler {
             ));
     }
 
+    /** Handles calls rejected because every candidate model's circuit breaker is open. */
+    @ExceptionHandler(ProviderUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleProviderUnavailable(ProviderUnavailableException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .body(Map.of(
+                "error", "provider-unavailable",
+                "message", exception.getMessage()
+            ));
+    }
+
+    /**
+     * Handles invocations throttled by a rate limit. {@code Retry-After} is
+     * rounded up to whole seconds so clients never retry too early.
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleRateLimitExceeded(RateLimitExceededException exception) {
+        long millis = exception.getRetryAfter().toMillis();
+        long retryAfterSeconds = Math.max(1, (millis + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+            .body(Map.of(
+                "error", "rate-limited",
+                "message", exception.getMessage(),
+                "retryAfterSeconds", retryAfterSeconds
+            ));
+    }
+
     /** Handles generic validation errors thrown by filters or controllers. */
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException exception) {
@@ -0,0 +1,23 @@
+package com.example.gateway.finops.cache;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Fully resolved write policy for a single cache entry.
+ *
+ * @param ttl           time-to-live of the entry
+ * @param maxEntryBytes maximum serialised size; larger responses are not cached
+ */
+public record CacheEntryPolicy(Duration ttl, long maxEntryBytes) {
+
+    public CacheEntryPolicy {
+        Objects.requireNonNull(ttl, "ttl must not be null");
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        if (maxEntryBytes <= 0) {
+            throw new IllegalArgumentException("maxEntryBytes must be positive");
+        }
+    }
+}
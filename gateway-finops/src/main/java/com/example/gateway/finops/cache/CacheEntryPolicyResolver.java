@@ -0,0 +1,34 @@
+package com.example.gateway.finops.cache;
+
+import com.example.gateway.core.model.CachePolicy;
+import com.example.gateway.core.model.ModelDescriptor;
+import com.example.gateway.core.pipeline.InvocationContext;
+
+/**
+ * Resolves the {@link CacheEntryPolicy} for an invocation from the model's
+ * {@link CachePolicy} (model overrides provider) and the gateway-wide
+ * defaults.
+ */
+public class CacheEntryPolicyResolver {
+
+    private final CacheEntryPolicy defaults;
+
+    public CacheEntryPolicyResolver(CacheEntryPolicy defaults) {
+        this.defaults = defaults;
+    }
+
+    /**
+     * Returns the write policy for the routed model, or the defaults when the
+     * context has not been routed.
+     */
+    public CacheEntryPolicy resolve(InvocationContext context) {
+        ModelDescriptor model = context.getModel();
+        if (model == null || model.getCachePolicy() == CachePolicy.UNSPECIFIED) {
+            return defaults;
+        }
+        CachePolicy policy = model.getCachePolicy();
+        return new CacheEntryPolicy(
+            policy.getTtl() != null ? policy.getTtl() : defaults.ttl(),
+            policy.getMaxEntryBytes() != null ? policy.getMaxEntryBytes() : defaults.maxEntryBytes());
+    }
+}
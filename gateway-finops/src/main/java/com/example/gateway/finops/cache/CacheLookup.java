@@ -0,0 +1,19 @@
+package com.example.gateway.finops.cache;
+
+import com.example.gateway.core.pipeline.InvocationResponse;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Cached response together with the time it remains valid.
+ *
+ * @param response     cached response
+ * @param remainingTtl time until the entry expires, or {@code null} when the
+ *                     entry does not expire or the tier does not know
+ */
+public record CacheLookup(InvocationResponse response, Duration remainingTtl) {
+
+    public CacheLookup {
+        Objects.requireNonNull(response, "response must not be null");
+    }
+}
@@ -15,7 +15,22 @@ public interface CacheService {
     Mono<InvocationResponse> get(String key);
 
     /**
-     * Stores a response using the supplied key.
+     * Retrieves a cached response together with its remaining time-to-live,
+     * so tiers copying the entry can expire their copy no later than the
+     * original. The default implementation reports the lifetime as unknown.
      */
-    Mono<Void> put(String key, InvocationResponse response);
+    default Mono<CacheLookup> lookup(String key) {
+        return get(key).map(response -> new CacheLookup(response, null));
+    }
+
+    /**
+     * Stores a response using the supplied key. Implementations honour the
+     * policy's time-to-live and skip responses exceeding its size limit.
+     */
+    Mono<Void> put(String key, InvocationResponse response, CacheEntryPolicy policy);
+
+    /**
+     * Removes the entry stored under the supplied key, if any.
+     */
+    Mono<Void> evict(String key);
 }
@@ -1,31 +1,73 @@
 package com.example.gateway.finops.cache;
 
+import com.example.gateway.core.pipeline.InvocationChunk;
 import com.example.gateway.core.pipeline.InvocationContext;
 import com.example.gateway.core.pipeline.InvocationFilter;
 import com.example.gateway.core.pipeline.InvocationResponse;
+import com.example.gateway.core.pipeline.InvocationResponseAssembler;
+import java.util.function.Supplier;
 import org.springframework.core.Ordered;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * Early pipeline filter that attempts to serve responses from cache before
- * contacting upstream providers.
+ * contacting upstream providers. Streaming invocations share the same cache
+ * entries: hits are replayed as a single chunk and misses are cached once the
+ * stream completes successfully. Concurrent identical misses on the buffered
+ * path are collapsed into a single upstream call when an
+ * {@link InFlightRequestCoalescer} is configured. The filter runs before
+ * routing, so the write policy is resolved once the downstream chain has
+ * selected the model.
  */
 public class CachingInvocationFilter implements InvocationFilter, Ordered {
 
     private final CacheService cacheService;
     private final RequestFingerprintCalculator fingerprintCalculator;
+    private final CacheEntryPolicyResolver policyResolver;
+    private final InFlightRequestCoalescer coalescer;
 
-    public CachingInvocationFilter(CacheService cacheService, RequestFingerprintCalculator fingerprintCalculator) {
+    public CachingInvocationFilter(CacheService cacheService, RequestFingerprintCalculator fingerprintCalculator,
+                                   CacheEntryPolicyResolver policyResolver) {
+        this(cacheService, fingerprintCalculator, policyResolver, null);
+    }
+
+    /**
+     * Creates a caching filter that deduplicates concurrent misses.
+     *
+     * @param policyResolver resolves TTL and size limits for the routed model
+     * @param coalescer      in-flight deduplication helper, or {@code null} to disable coalescing
+     */
+    public CachingInvocationFilter(CacheService cacheService, RequestFingerprintCalculator fingerprintCalculator,
+                                   CacheEntryPolicyResolver policyResolver, InFlightRequestCoalescer coalescer) {
         this.cacheService = cacheService;
         this.fingerprintCalculator = fingerprintCalculator;
+        this.policyResolver = policyResolver;
+        this.coalescer = coalescer;
     }
 
     @Override
     public Mono<InvocationResponse> filter(InvocationContext context, Chain chain) {
+        String fingerprint = fingerprintCalculator.fingerprint(context.getRequest());
+        Supplier<Mono<InvocationResponse>> upstream = () -> chain.next(context)
+            .flatMap(response -> cacheService.put(fingerprint, response, policyResolver.resolve(context)).thenReturn(response));
+        return cacheService.get(fingerprint)
+            .switchIfEmpty(coalescer != null ? coalescer.execute(fingerprint, upstream) : Mono.defer(upstream));
+    }
+
+    @Override
+    public Flux<InvocationChunk> filterStream(InvocationContext context, Chain chain) {
         String fingerprint = fingerprintCalculator.fingerprint(context.getRequest());
         return cacheService.get(fingerprint)
-            .switchIfEmpty(chain.next(context)
-                .flatMap(response -> cacheService.put(fingerprint, response).thenReturn(response)));
+            .map(InvocationChunk::fromResponse)
+            .flux()
+            .switchIfEmpty(Flux.defer(() -> {
+                InvocationResponseAssembler assembler = new InvocationResponseAssembler();
+                return chain.stream(context)
+                    .doOnNext(assembler::append)
+                    .concatWith(Mono.defer(() -> cacheService.put(fingerprint, assembler.toResponse(), policyResolver.resolve(context)))
+                        .then(Mono.<InvocationChunk>empty()));
+            }));
     }
 
     @Override
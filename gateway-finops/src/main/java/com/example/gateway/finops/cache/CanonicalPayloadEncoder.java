@@ -0,0 +1,276 @@
+package com.example.gateway.finops.cache;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+/**
+ * Streams a canonical binary form of request payloads into a
+ * {@link FingerprintHasher}. Logically equal payloads encode to the same
+ * bytes regardless of map implementation or iteration order:
+ * <ul>
+ *     <li>map entries are written in ascending key order;</li>
+ *     <li>numbers are normalised, so {@code 1}, {@code 1L}, {@code 1.0} and
+ *     {@code 1.00} are equal, while {@code 0.1} is written as its shortest
+ *     decimal form;</li>
+ *     <li>every value is prefixed with a type tag and containers and strings
+ *     with their size, so the encoding is unambiguous;</li>
+ *     <li>unordered sets are written in ascending order of their elements'
+ *     string form.</li>
+ * </ul>
+ * Strings are UTF-8 encoded directly into a reusable scratch buffer, which is
+ * flushed to the hasher when full, so no intermediate strings or byte arrays
+ * are created for the payload. Instances are not thread-safe and are meant to
+ * be confined to a thread.
+ */
+final class CanonicalPayloadEncoder {
+
+    private static final byte TAG_NULL = 'N';
+    private static final byte TAG_TRUE = 'T';
+    private static final byte TAG_FALSE = 'F';
+    private static final byte TAG_INTEGRAL = 'I';
+    private static final byte TAG_DECIMAL = 'D';
+    private static final byte TAG_STRING = 'S';
+    private static final byte TAG_MAP = 'M';
+    private static final byte TAG_LIST = 'L';
+
+    private static final int BUFFER_SIZE = 4096;
+    private static final VarHandle INT_BE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final Comparator<Map.Entry<?, ?>> KEY_ORDER =
+        Comparator.comparing(entry -> String.valueOf(entry.getKey()));
+    private static final Comparator<Object> STRING_ORDER = Comparator.comparing(String::valueOf);
+
+    private final FingerprintHasher hasher;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    CanonicalPayloadEncoder(FingerprintHasher hasher) {
+        this.hasher = hasher;
+    }
+
+    /** Discards any partially encoded input, e.g. after a failed fingerprint. */
+    void reset() {
+        position = 0;
+        hasher.reset();
+    }
+
+    /** Writes a raw byte, e.g. a format version marker. */
+    void writeByte(byte value) {
+        ensureCapacity(1);
+        buffer[position++] = value;
+    }
+
+    /** Writes the canonical form of a payload value. */
+    void writeValue(Object value) {
+        if (value == null) {
+            writeByte(TAG_NULL);
+        } else if (value instanceof CharSequence text) {
+            writeString(text);
+        } else if (value instanceof Map<?, ?> map) {
+            writeMap(map);
+        } else if (value instanceof Collection<?> collection) {
+            writeCollection(collection);
+        } else if (value instanceof Number number) {
+            writeNumber(number);
+        } else if (value instanceof Boolean bool) {
+            writeByte(bool ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Object[] array) {
+            writeList(Arrays.asList(array));
+        } else if (value instanceof Enum<?> constant) {
+            writeString(constant.name());
+        } else {
+            writeString(value.toString());
+        }
+    }
+
+    /** Flushes buffered bytes and returns the hex encoded hash. */
+    String finish() {
+        flush();
+        return hasher.finish();
+    }
+
+    private void writeString(CharSequence text) {
+        int length = text.length();
+        writeTagAndSize(TAG_STRING, length);
+        for (int i = 0; i < length; i++) {
+            ensureCapacity(4);
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xc0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate, replaced like String#getBytes does.
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xe0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+    }
+
+    private void writeMap(Map<?, ?> map) {
+        int size = map.size();
+        writeTagAndSize(TAG_MAP, size);
+        if (size == 0) {
+            return;
+        }
+        if (size == 1 || (map instanceof SortedMap<?, ?> sorted && sorted.comparator() == null && allStringKeys(map))) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeEntry(entry);
+            }
+            return;
+        }
+        Map.Entry<?, ?>[] entries = map.entrySet().toArray(new Map.Entry<?, ?>[0]);
+        Arrays.sort(entries, KEY_ORDER);
+        for (Map.Entry<?, ?> entry : entries) {
+            writeEntry(entry);
+        }
+    }
+
+    private void writeEntry(Map.Entry<?, ?> entry) {
+        Object key = entry.getKey();
+        writeString(key instanceof CharSequence text ? text : String.valueOf(key));
+        writeValue(entry.getValue());
+    }
+
+    private void writeCollection(Collection<?> collection) {
+        if (collection instanceof Set<?> && !(collection instanceof SortedSet<?>) && !(collection instanceof LinkedHashSet<?>)
+            && collection.size() > 1) {
+            Object[] elements = collection.toArray();
+            Arrays.sort(elements, STRING_ORDER);
+            writeList(Arrays.asList(elements));
+            return;
+        }
+        writeList(collection);
+    }
+
+    private void writeList(Collection<?> elements) {
+        writeTagAndSize(TAG_LIST, elements.size());
+        if (elements instanceof List<?> list && list instanceof RandomAccess) {
+            for (int i = 0, size = list.size(); i < size; i++) {
+                writeValue(list.get(i));
+            }
+            return;
+        }
+        for (Object element : elements) {
+            writeValue(element);
+        }
+    }
+
+    private void writeNumber(Number number) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+            writeIntegral(number.longValue());
+        } else if (number instanceof Double || number instanceof Float) {
+            double value = number.doubleValue();
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                writeString(number.toString());
+            } else if (value == Math.rint(value) && Math.abs(value) < 0x1p63) {
+                // Whole numbers skip the BigDecimal conversion below.
+                writeIntegral((long) value);
+            } else {
+                writeDecimal(number instanceof Float ? new BigDecimal(number.toString()) : BigDecimal.valueOf(value));
+            }
+        } else if (number instanceof BigDecimal decimal) {
+            writeDecimal(decimal);
+        } else if (number instanceof BigInteger integer) {
+            if (integer.bitLength() < Long.SIZE) {
+                writeIntegral(integer.longValue());
+            } else {
+                writeDecimal(new BigDecimal(integer));
+            }
+        } else {
+            try {
+                writeDecimal(new BigDecimal(number.toString()));
+            } catch (NumberFormatException ex) {
+                writeString(number.toString());
+            }
+        }
+    }
+
+    private void writeDecimal(BigDecimal decimal) {
+        BigDecimal normalized = decimal.stripTrailingZeros();
+        if (normalized.signum() == 0) {
+            writeIntegral(0);
+            return;
+        }
+        // precision - scale is the number of integer digits; up to 18 always fits a long.
+        if (normalized.scale() <= 0 && normalized.precision() - normalized.scale() <= 18) {
+            writeIntegral(normalized.longValueExact());
+            return;
+        }
+        byte[] unscaled = normalized.unscaledValue().toByteArray();
+        writeTagAndSize(TAG_DECIMAL, unscaled.length);
+        writeBytes(unscaled);
+        ensureCapacity(Integer.BYTES);
+        INT_BE.set(buffer, position, normalized.scale());
+        position += Integer.BYTES;
+    }
+
+    private void writeIntegral(long value) {
+        ensureCapacity(1 + Long.BYTES);
+        buffer[position++] = TAG_INTEGRAL;
+        LONG_BE.set(buffer, position, value);
+        position += Long.BYTES;
+    }
+
+    private void writeTagAndSize(byte tag, int size) {
+        ensureCapacity(1 + Integer.BYTES);
+        buffer[position++] = tag;
+        INT_BE.set(buffer, position, size);
+        position += Integer.BYTES;
+    }
+
+    private void writeBytes(byte[] bytes) {
+        if (bytes.length > buffer.length - position) {
+            flush();
+            hasher.update(bytes, 0, bytes.length);
+            return;
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.length - position < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (position > 0) {
+            hasher.update(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static boolean allStringKeys(Map<?, ?> map) {
+        for (Object key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.gateway.finops.cache;
+
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * {@link FingerprintHasher} backed by a reusable JCA {@link MessageDigest}.
+ */
+final class DigestFingerprintHasher implements FingerprintHasher {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final MessageDigest digest;
+
+    DigestFingerprintHasher(MessageDigest digest) {
+        this.digest = digest;
+    }
+
+    @Override
+    public void update(byte[] bytes, int offset, int length) {
+        digest.update(bytes, offset, length);
+    }
+
+    @Override
+    public String finish() {
+        // digest() resets the instance for the next fingerprint.
+        return HEX.formatHex(digest.digest());
+    }
+
+    @Override
+    public void reset() {
+        digest.reset();
+    }
+}
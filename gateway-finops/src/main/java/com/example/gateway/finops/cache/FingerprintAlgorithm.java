@@ -0,0 +1,36 @@
+package com.example.gateway.finops.cache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Hash functions available for request fingerprints.
+ */
+public enum FingerprintAlgorithm {
+
+    /** SHA-256; collision resistant, safe when callers can craft payloads. */
+    SHA_256 {
+        @Override
+        FingerprintHasher newHasher() {
+            try {
+                return new DigestFingerprintHasher(MessageDigest.getInstance("SHA-256"));
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("SHA-256 not available", ex);
+            }
+        }
+    },
+
+    /**
+     * MurmurHash3 x64 128-bit; considerably cheaper but not collision
+     * resistant against adversarial input.
+     */
+    MURMUR3_128 {
+        @Override
+        FingerprintHasher newHasher() {
+            return new Murmur3FingerprintHasher();
+        }
+    };
+
+    /** Creates a new, not thread-safe hasher instance. */
+    abstract FingerprintHasher newHasher();
+}
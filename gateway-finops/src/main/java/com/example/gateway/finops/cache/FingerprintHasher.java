@@ -0,0 +1,17 @@
+package com.example.gateway.finops.cache;
+
+/**
+ * Incremental hash function fed by {@link CanonicalPayloadEncoder}.
+ * Implementations are stateful and not thread-safe.
+ */
+interface FingerprintHasher {
+
+    /** Feeds {@code length} bytes of {@code bytes} starting at {@code offset}. */
+    void update(byte[] bytes, int offset, int length);
+
+    /** Completes the hash, returns it hex encoded and resets the hasher. */
+    String finish();
+
+    /** Discards any input fed since the last {@link #finish()}. */
+    void reset();
+}
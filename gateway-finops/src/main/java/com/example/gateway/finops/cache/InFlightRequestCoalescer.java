@@ -0,0 +1,110 @@
+package com.example.gateway.finops.cache;
+
+import com.example.gateway.core.pipeline.InvocationResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Single-flight helper that collapses concurrent upstream loads for the same
+ * cache key. The first subscriber for a key becomes the leader and performs
+ * the load; subscribers arriving while the load is in flight follow the
+ * leader's result instead of calling the provider again.
+ *
+ * <p>Followers that wait longer than the configured maximum fall back to
+ * their own upstream call. When the leader fails, followers either receive
+ * the same error or retry independently, depending on configuration. A
+ * cancelled leader releases its followers, which then load on their own.
+ */
+public class InFlightRequestCoalescer {
+
+    private final Map<String, Sinks.One<InvocationResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Duration maxWait;
+    private final boolean propagateFailures;
+    private final Counter leaders;
+    private final Counter collapsed;
+    private final Counter timeouts;
+    private final Counter retries;
+
+    public InFlightRequestCoalescer(Duration maxWait, boolean propagateFailures, MeterRegistry meterRegistry) {
+        this.maxWait = Objects.requireNonNull(maxWait, "maxWait must not be null");
+        this.propagateFailures = propagateFailures;
+        this.leaders = Counter.builder("gateway.cache.coalescing.leaders")
+            .description("Upstream loads performed on behalf of coalesced requests")
+            .register(meterRegistry);
+        this.collapsed = Counter.builder("gateway.cache.coalescing.collapsed")
+            .description("Requests served by an in-flight upstream load instead of their own")
+            .register(meterRegistry);
+        this.timeouts = Counter.builder("gateway.cache.coalescing.timeouts")
+            .description("Followers that stopped waiting for the leader and loaded upstream")
+            .register(meterRegistry);
+        this.retries = Counter.builder("gateway.cache.coalescing.retries")
+            .description("Followers that loaded upstream after the leader failed")
+            .register(meterRegistry);
+        Gauge.builder("gateway.cache.coalescing.in-flight", inFlight, Map::size)
+            .description("Keys with an upstream load in flight")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Executes the upstream load for the key, or joins the load already in
+     * flight for it.
+     *
+     * @param key      cache key identifying identical requests
+     * @param upstream supplier of the upstream load, invoked lazily
+     * @return response publisher
+     */
+    public Mono<InvocationResponse> execute(String key, Supplier<Mono<InvocationResponse>> upstream) {
+        return Mono.defer(() -> {
+            Sinks.One<InvocationResponse> sink = Sinks.one();
+            Sinks.One<InvocationResponse> leader = inFlight.putIfAbsent(key, sink);
+            return leader == null ? lead(key, sink, upstream) : follow(leader, upstream);
+        });
+    }
+
+    private Mono<InvocationResponse> lead(String key, Sinks.One<InvocationResponse> sink, Supplier<Mono<InvocationResponse>> upstream) {
+        leaders.increment();
+        return Mono.defer(upstream)
+            .doOnSuccess(response -> {
+                if (response != null) {
+                    sink.tryEmitValue(response);
+                } else {
+                    sink.tryEmitEmpty();
+                }
+            })
+            .doOnError(sink::tryEmitError)
+            .doFinally(signal -> {
+                inFlight.remove(key, sink);
+                if (signal == SignalType.CANCEL) {
+                    sink.tryEmitEmpty();
+                }
+            });
+    }
+
+    private Mono<InvocationResponse> follow(Sinks.One<InvocationResponse> leader, Supplier<Mono<InvocationResponse>> upstream) {
+        collapsed.increment();
+        return leader.asMono()
+            .timeout(maxWait)
+            .onErrorResume(ex -> {
+                if (ex instanceof TimeoutException) {
+                    timeouts.increment();
+                    return Mono.defer(upstream);
+                }
+                if (propagateFailures) {
+                    return Mono.error(ex);
+                }
+                retries.increment();
+                return Mono.defer(upstream);
+            })
+            .switchIfEmpty(Mono.defer(upstream));
+    }
+}
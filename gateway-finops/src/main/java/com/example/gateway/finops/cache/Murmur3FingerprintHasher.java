@@ -0,0 +1,122 @@
+package com.example.gateway.finops.cache;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.HexFormat;
+
+/**
+ * Streaming MurmurHash3 x64 128-bit (seed 0). Input is consumed in 16 byte
+ * blocks; a partial block is carried over between {@link #update} calls, so
+ * the result is identical to hashing the concatenated input in one go.
+ */
+final class Murmur3FingerprintHasher implements FingerprintHasher {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final int BLOCK = 16;
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final byte[] tail = new byte[BLOCK];
+    private int tailLength;
+    private long totalLength;
+    private long h1;
+    private long h2;
+
+    @Override
+    public void update(byte[] bytes, int offset, int length) {
+        totalLength += length;
+        if (tailLength > 0) {
+            int fill = Math.min(BLOCK - tailLength, length);
+            System.arraycopy(bytes, offset, tail, tailLength, fill);
+            tailLength += fill;
+            offset += fill;
+            length -= fill;
+            if (tailLength < BLOCK) {
+                return;
+            }
+            mixBlock((long) LONG_LE.get(tail, 0), (long) LONG_LE.get(tail, 8));
+            tailLength = 0;
+        }
+        while (length >= BLOCK) {
+            mixBlock((long) LONG_LE.get(bytes, offset), (long) LONG_LE.get(bytes, offset + 8));
+            offset += BLOCK;
+            length -= BLOCK;
+        }
+        if (length > 0) {
+            System.arraycopy(bytes, offset, tail, 0, length);
+            tailLength = length;
+        }
+    }
+
+    @Override
+    public String finish() {
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = tailLength - 1; i >= 8; i--) {
+            k2 ^= (tail[i] & 0xffL) << ((i - 8) * 8);
+        }
+        for (int i = Math.min(tailLength, 8) - 1; i >= 0; i--) {
+            k1 ^= (tail[i] & 0xffL) << (i * 8);
+        }
+        if (tailLength > 8) {
+            k2 *= C2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= C1;
+            h2 ^= k2;
+        }
+        if (tailLength > 0) {
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            h1 ^= k1;
+        }
+
+        long r1 = h1 ^ totalLength;
+        long r2 = h2 ^ totalLength;
+        r1 += r2;
+        r2 += r1;
+        r1 = fmix(r1);
+        r2 = fmix(r2);
+        r1 += r2;
+        r2 += r1;
+        reset();
+        return HEX.toHexDigits(r1) + HEX.toHexDigits(r2);
+    }
+
+    @Override
+    public void reset() {
+        h1 = 0;
+        h2 = 0;
+        tailLength = 0;
+        totalLength = 0;
+    }
+
+    private void mixBlock(long k1, long k2) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        h1 ^= k1;
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= C1;
+        h2 ^= k2;
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -3,23 +3,39 @@ package com.example.gateway.finops.cache;
 import com.example.gateway.core.pipeline.InvocationResponse;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
 /**
  * Reactive Redis-backed implementation of {@link CacheService}. Payloads are
- * serialised using Jackson for portability.
+ * serialised using Jackson for portability. Every entry is written with an
+ * expiry so the Redis footprint stays bounded and volatile eviction policies
+ * (e.g. {@code volatile-lfu}) can pick victims; responses larger than the
+ * policy limit are not written at all.
  */
 @Component
 public class RedisCacheService implements CacheService {
 
     private final ReactiveStringRedisTemplate redisTemplate;
     private final ObjectMapper objectMapper;
+    private final DistributionSummary writeBytes;
+    private final Counter oversizedSkips;
 
-    public RedisCacheService(ReactiveStringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+    public RedisCacheService(ReactiveStringRedisTemplate redisTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
         this.redisTemplate = redisTemplate;
         this.objectMapper = objectMapper;
+        this.writeBytes = DistributionSummary.builder("gateway.cache.write.bytes")
+            .description("Serialised size of responses written to Redis")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.oversizedSkips = Counter.builder("gateway.cache.write.skipped")
+            .description("Responses not cached because they exceeded the maximum entry size")
+            .tag("reason", "oversized")
+            .register(meterRegistry);
     }
 
     @Override
@@ -29,13 +45,37 @@ public class RedisCacheService implements CacheService {
             .flatMap(this::deserialize);
     }
 
+    /**
+     * Reads the entry and its {@code PTTL} in one pipelined round trip. An
+     * entry that expires between both commands is reported as a miss.
+     */
     @Override
-    public Mono<Void> put(String key, InvocationResponse response) {
+    public Mono<CacheLookup> lookup(String key) {
+        return Mono.zip(get(key), redisTemplate.getExpire(key))
+            // Redis reports entries without expiry as a zero duration.
+            .map(hit -> new CacheLookup(hit.getT1(), hit.getT2().isZero() ? null : hit.getT2()));
+    }
+
+    @Override
+    public Mono<Void> put(String key, InvocationResponse response, CacheEntryPolicy policy) {
         return serialize(response)
-            .flatMap(serialized -> redisTemplate.opsForValue().set(key, serialized).then())
+            .flatMap(serialized -> {
+                long size = utf8Length(serialized);
+                if (size > policy.maxEntryBytes()) {
+                    oversizedSkips.increment();
+                    return Mono.empty();
+                }
+                writeBytes.record(size);
+                return redisTemplate.opsForValue().set(key, serialized, policy.ttl()).then();
+            })
             .onErrorResume(JsonProcessingException.class, ex -> Mono.empty());
     }
 
+    @Override
+    public Mono<Void> evict(String key) {
+        return redisTemplate.delete(key).then();
+    }
+
     private Mono<InvocationResponse> deserialize(String serialized) {
         return Mono.fromCallable(() -> objectMapper.readValue(serialized, InvocationResponse.class));
     }
@@ -43,4 +83,23 @@ public class RedisCacheService implements CacheService {
     private Mono<String> serialize(InvocationResponse response) {
         return Mono.fromCallable(() -> objectMapper.writeValueAsString(response));
     }
+
+    /** Computes the UTF-8 encoded length without materialising the bytes. */
+    private static long utf8Length(String value) {
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
 }
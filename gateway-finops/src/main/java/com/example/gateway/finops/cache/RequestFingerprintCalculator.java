@@ -1,43 +1,66 @@
 package com.example.gateway.finops.cache;
 
 import com.example.gateway.core.pipeline.InvocationRequest;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.HexFormat;
-import org.springframework.stereotype.Component;
+import java.util.Objects;
 
 /**
- * Creates deterministic cache keys for invocation requests using SHA-256
- * hashes. The fingerprint combines provider/model hints with the request
- * payload to maximise cache hit rates while avoiding collisions.
+ * Creates deterministic cache keys for invocation requests. The fingerprint
+ * combines provider/model hints with a canonical encoding of the request
+ * payload (see {@link CanonicalPayloadEncoder}), so logically identical
+ * payloads share a key regardless of map ordering or number representation.
+ *
+ * <p>The payload is streamed straight into the hash function through a
+ * per-thread encoder and hasher, avoiding per-request allocation of an
+ * intermediate payload string.
  */
-@Component
 public class RequestFingerprintCalculator {
 
-    private static final HexFormat HEX = HexFormat.of();
+    /** Bumped whenever the canonical encoding changes, so old and new keys never collide. */
+    private static final byte FORMAT_VERSION = 1;
+
+    private final FingerprintAlgorithm algorithm;
+    private final ThreadLocal<CanonicalPayloadEncoder> encoders;
+
+    /** Creates a calculator producing SHA-256 fingerprints. */
+    public RequestFingerprintCalculator() {
+        this(FingerprintAlgorithm.SHA_256);
+    }
+
+    /**
+     * Creates a calculator using the given hash function.
+     *
+     * @param algorithm hash function used for fingerprints
+     */
+    public RequestFingerprintCalculator(FingerprintAlgorithm algorithm) {
+        this.algorithm = Objects.requireNonNull(algorithm, "algorithm must not be null");
+        this.encoders = ThreadLocal.withInitial(() -> new CanonicalPayloadEncoder(algorithm.newHasher()));
+    }
+
+    /** Hash function used by this calculator. */
+    public FingerprintAlgorithm getAlgorithm() {
+        return algorithm;
+    }
 
     /**
      * Generates a fingerprint for the provided request.
      */
     public String fingerprint(InvocationRequest request) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            /*
-             * Provider/model hints and payload content are combined to ensure
-             * that requests targeting different models do not reuse cached
-             * responses. Null hints are treated as empty strings.
-             */
-            digest.update(safeBytes(request.getProviderHint()));
-            digest.update(safeBytes(request.getModelHint()));
-            digest.update(request.getPayload().toString().getBytes(StandardCharsets.UTF_8));
-            return HEX.formatHex(digest.digest());
-        } catch (NoSuchAlgorithmException ex) {
-            throw new IllegalStateException("SHA-256 not available", ex);
+        CanonicalPayloadEncoder encoder = encoders.get();
+        encoder.reset();
+        /*
+         * Provider/model hints and payload content are combined to ensure
+         * that requests targeting different models do not reuse cached
+         * responses. Absent hints are encoded distinctly from empty ones.
+         * Capabilities are only appended when present, which keeps the keys
+         * of model-routed requests unchanged.
+         */
+        encoder.writeByte(FORMAT_VERSION);
+        encoder.writeValue(request.getProviderHint());
+        encoder.writeValue(request.getModelHint());
+        encoder.writeValue(request.getPayload());
+        if (!request.getCapabilities().isEmpty()) {
+            encoder.writeValue(request.getCapabilities());
         }
-    }
-
-    private byte[] safeBytes(String value) {
-        return value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        return encoder.finish();
     }
 }
@@ -0,0 +1,61 @@
+package com.example.gateway.finops.cache;
+
+import com.example.gateway.core.pipeline.InvocationResponse;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Cheap heap-footprint estimate for cached responses. The estimate walks the
+ * payload and metadata maps once and approximates object headers and string
+ * storage; it is meant for weighing cache entries, not for exact accounting.
+ */
+final class ResponseSizeEstimator {
+
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int REFERENCE = 8;
+    private static final int MAP_ENTRY_OVERHEAD = 32;
+    private static final int MAX_DEPTH = 16;
+
+    private ResponseSizeEstimator() {
+    }
+
+    /**
+     * Estimates the retained size of the response in bytes.
+     */
+    static long estimate(InvocationResponse response) {
+        return OBJECT_OVERHEAD * 2L
+            + estimateValue(response.getPayload(), 0)
+            + estimateValue(response.getMetadata(), 0);
+    }
+
+    private static long estimateValue(Object value, int depth) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence text) {
+            // String object + backing array; Latin-1 strings use one byte per char.
+            return OBJECT_OVERHEAD * 2L + text.length();
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return OBJECT_OVERHEAD + REFERENCE;
+        }
+        if (depth >= MAX_DEPTH) {
+            return OBJECT_OVERHEAD;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = OBJECT_OVERHEAD;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += MAP_ENTRY_OVERHEAD + estimateValue(entry.getKey(), depth + 1) + estimateValue(entry.getValue(), depth + 1);
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = OBJECT_OVERHEAD;
+            for (Object element : collection) {
+                size += REFERENCE + estimateValue(element, depth + 1);
+            }
+            return size;
+        }
+        return OBJECT_OVERHEAD * 2L;
+    }
+}
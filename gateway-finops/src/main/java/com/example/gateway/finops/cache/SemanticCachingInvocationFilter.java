@@ -0,0 +1,295 @@
+package com.example.gateway.finops.cache;
+
+import com.example.gateway.core.client.EmbeddingClient;
+import com.example.gateway.core.pipeline.InvocationAttributes;
+import com.example.gateway.core.pipeline.InvocationChunk;
+import com.example.gateway.core.pipeline.InvocationContext;
+import com.example.gateway.core.pipeline.InvocationFilter;
+import com.example.gateway.core.pipeline.InvocationResponse;
+import com.example.gateway.core.pipeline.InvocationResponseAssembler;
+import com.example.gateway.storage.vector.VectorStoreClient;
+import com.example.gateway.storage.vector.VectorStoreRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.Ordered;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Optional cache stage that serves near-duplicate prompts. The prompt is
+ * embedded and the nearest stored prompts are retrieved from the
+ * {@link VectorStoreClient}; the stored response of the closest one is
+ * returned when its cosine similarity reaches the configured threshold.
+ *
+ * <p>Entries are scoped per tenant and per routed model, so the filter runs
+ * right after routing, while the exact-match {@link CachingInvocationFilter}
+ * still runs first. Responses are stored together with their expiry time
+ * ({@link VectorStoreClient#EXPIRES_AT_KEY}); the vector store skips expired
+ * entries when searching, and the filter deletes them every sweep interval
+ * while it is running. Embedding or vector store failures degrade to a cache
+ * miss.
+ */
+public class SemanticCachingInvocationFilter implements InvocationFilter, Ordered, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(SemanticCachingInvocationFilter.class);
+    private static final String NAMESPACE_PREFIX = "semantic-cache";
+    private static final String RESPONSE_KEY = "response";
+
+    private final EmbeddingClient embeddingClient;
+    private final VectorStoreClient vectorStoreClient;
+    private final RequestFingerprintCalculator fingerprintCalculator;
+    private final ObjectMapper objectMapper;
+    private final double similarityThreshold;
+    private final Duration ttl;
+    private final int topK;
+    private final Duration sweepInterval;
+    private final Clock clock;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter errors;
+    private final DistributionSummary similarity;
+    private final Counter expired;
+    private volatile boolean running;
+    private Disposable sweeper;
+
+    /**
+     * Creates the semantic cache stage.
+     *
+     * @param similarityThreshold minimum cosine similarity for a hit, between 0 and 1
+     * @param ttl                 lifetime of stored responses
+     * @param topK                number of nearest neighbours inspected per lookup
+     * @param sweepInterval       interval between deletions of expired entries
+     */
+    public SemanticCachingInvocationFilter(EmbeddingClient embeddingClient, VectorStoreClient vectorStoreClient,
+                                           RequestFingerprintCalculator fingerprintCalculator, ObjectMapper objectMapper,
+                                           double similarityThreshold, Duration ttl, int topK, Duration sweepInterval,
+                                           MeterRegistry meterRegistry) {
+        this(embeddingClient, vectorStoreClient, fingerprintCalculator, objectMapper, similarityThreshold, ttl, topK,
+            sweepInterval, meterRegistry, Clock.systemUTC());
+    }
+
+    SemanticCachingInvocationFilter(EmbeddingClient embeddingClient, VectorStoreClient vectorStoreClient,
+                                    RequestFingerprintCalculator fingerprintCalculator, ObjectMapper objectMapper,
+                                    double similarityThreshold, Duration ttl, int topK, Duration sweepInterval,
+                                    MeterRegistry meterRegistry, Clock clock) {
+        if (similarityThreshold < 0 || similarityThreshold > 1) {
+            throw new IllegalArgumentException("similarityThreshold must be between 0 and 1");
+        }
+        if (topK < 1) {
+            throw new IllegalArgumentException("topK must be positive");
+        }
+        Objects.requireNonNull(sweepInterval, "sweepInterval must not be null");
+        if (sweepInterval.isZero() || sweepInterval.isNegative()) {
+            throw new IllegalArgumentException("sweepInterval must be positive");
+        }
+        this.embeddingClient = Objects.requireNonNull(embeddingClient, "embeddingClient must not be null");
+        this.vectorStoreClient = Objects.requireNonNull(vectorStoreClient, "vectorStoreClient must not be null");
+        this.fingerprintCalculator = Objects.requireNonNull(fingerprintCalculator, "fingerprintCalculator must not be null");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper must not be null");
+        this.ttl = Objects.requireNonNull(ttl, "ttl must not be null");
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        this.similarityThreshold = similarityThreshold;
+        this.topK = topK;
+        this.sweepInterval = sweepInterval;
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        this.errors = lookupCounter(meterRegistry, "error");
+        this.similarity = DistributionSummary.builder("gateway.cache.semantic.similarity")
+            .description("Cosine similarity of the closest stored prompt")
+            .publishPercentileHistogram()
+            .minimumExpectedValue(0.0)
+            .maximumExpectedValue(1.0)
+            .register(meterRegistry);
+        this.expired = Counter.builder("gateway.cache.semantic.expired")
+            .description("Expired semantic cache entries deleted from the vector store")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<InvocationResponse> filter(InvocationContext context, Chain chain) {
+        String prompt = promptText(context);
+        if (prompt == null || context.getModel() == null) {
+            return chain.next(context);
+        }
+        String namespace = namespace(context);
+        return lookup(namespace, prompt).flatMap(lookup -> {
+            if (lookup.hit() != null) {
+                return Mono.just(lookup.hit());
+            }
+            return chain.next(context)
+                .flatMap(response -> store(namespace, context, lookup.embedding(), response).thenReturn(response));
+        });
+    }
+
+    @Override
+    public Flux<InvocationChunk> filterStream(InvocationContext context, Chain chain) {
+        String prompt = promptText(context);
+        if (prompt == null || context.getModel() == null) {
+            return chain.stream(context);
+        }
+        String namespace = namespace(context);
+        return lookup(namespace, prompt).flatMapMany(lookup -> {
+            if (lookup.hit() != null) {
+                return Flux.just(InvocationChunk.fromResponse(lookup.hit()));
+            }
+            InvocationResponseAssembler assembler = new InvocationResponseAssembler();
+            return chain.stream(context)
+                .doOnNext(assembler::append)
+                .concatWith(Mono.defer(() -> store(namespace, context, lookup.embedding(), assembler.toResponse()))
+                    .then(Mono.<InvocationChunk>empty()));
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // After routing, so the entry can be scoped to the selected model.
+        return Ordered.HIGHEST_PRECEDENCE + 20;
+    }
+
+    @Override
+    public void start() {
+        sweeper = Flux.interval(sweepInterval, sweepInterval)
+            .onBackpressureDrop()
+            .concatMap(tick -> sweep(), 1)
+            .subscribe();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (sweeper != null) {
+            sweeper.dispose();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private Mono<Long> sweep() {
+        return vectorStoreClient.deleteExpired()
+            .doOnNext(deleted -> {
+                expired.increment(deleted);
+                logger.debug("Deleted {} expired semantic cache entries", deleted);
+            })
+            .onErrorResume(ex -> {
+                logger.warn("Failed to delete expired semantic cache entries", ex);
+                return Mono.empty();
+            });
+    }
+
+    private Mono<Lookup> lookup(String namespace, String prompt) {
+        return embeddingClient.embed(prompt)
+            .flatMap(embedding -> vectorStoreClient.search(namespace, embedding, topK)
+                .collectList()
+                .map(candidates -> new Lookup(embedding, bestMatch(embedding, candidates))))
+            .doOnNext(lookup -> (lookup.hit() != null ? hits : misses).increment())
+            .onErrorResume(ex -> {
+                logger.warn("Semantic cache lookup failed for namespace {}", namespace, ex);
+                errors.increment();
+                return Mono.just(Lookup.UNAVAILABLE);
+            })
+            .defaultIfEmpty(Lookup.UNAVAILABLE);
+    }
+
+    private InvocationResponse bestMatch(float[] embedding, List<VectorStoreRecord> candidates) {
+        long now = clock.millis();
+        VectorStoreRecord best = null;
+        double bestSimilarity = -1;
+        for (VectorStoreRecord candidate : candidates) {
+            if (candidate.getEmbedding() == null || isExpired(candidate, now)) {
+                continue;
+            }
+            double candidateSimilarity = VectorMath.cosineSimilarity(embedding, candidate.getEmbedding());
+            if (candidateSimilarity > bestSimilarity) {
+                best = candidate;
+                bestSimilarity = candidateSimilarity;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        similarity.record(Math.max(0, bestSimilarity));
+        if (bestSimilarity < similarityThreshold) {
+            return null;
+        }
+        Object serialized = best.getMetadata().get(RESPONSE_KEY);
+        if (!(serialized instanceof String json)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, InvocationResponse.class);
+        } catch (JsonProcessingException ex) {
+            logger.warn("Discarding unreadable semantic cache entry {}", best.getId(), ex);
+            return null;
+        }
+    }
+
+    private Mono<Void> store(String namespace, InvocationContext context, float[] embedding, InvocationResponse response) {
+        if (embedding == null) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> {
+                VectorStoreRecord record = new VectorStoreRecord();
+                record.setId(namespace + ":" + fingerprintCalculator.fingerprint(context.getRequest()));
+                record.setTenantId(namespace);
+                record.setEmbedding(embedding);
+                record.setMetadata(Map.of(
+                    RESPONSE_KEY, objectMapper.writeValueAsString(response),
+                    VectorStoreClient.EXPIRES_AT_KEY, clock.millis() + ttl.toMillis()));
+                return record;
+            })
+            .flatMap(vectorStoreClient::upsert)
+            .onErrorResume(ex -> {
+                logger.warn("Failed to store semantic cache entry for namespace {}", namespace, ex);
+                return Mono.empty();
+            });
+    }
+
+    private static boolean isExpired(VectorStoreRecord record, long now) {
+        Map<String, Object> metadata = record.getMetadata();
+        Object expiresAt = metadata != null ? metadata.get(VectorStoreClient.EXPIRES_AT_KEY) : null;
+        return !(expiresAt instanceof Number number) || number.longValue() <= now;
+    }
+
+    private static String promptText(InvocationContext context) {
+        Object prompt = context.getRequest().getPayload().get("prompt");
+        return prompt instanceof String text && !text.isBlank() ? text : null;
+    }
+
+    private static String namespace(InvocationContext context) {
+        return NAMESPACE_PREFIX + ":" + InvocationAttributes.tenantId(context)
+            + ":" + context.getModel().getProviderId()
+            + ":" + context.getModel().getModelId();
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.cache.semantic.lookups")
+            .description("Semantic cache lookups by result")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Lookup outcome; the embedding is kept so a miss can be stored without
+     * embedding the prompt twice.
+     */
+    private record Lookup(float[] embedding, InvocationResponse hit) {
+
+        static final Lookup UNAVAILABLE = new Lookup(null, null);
+    }
+}
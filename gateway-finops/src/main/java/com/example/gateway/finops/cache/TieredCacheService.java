@@ -0,0 +1,191 @@
+package com.example.gateway.finops.cache;
+
+import com.example.gateway.core.pipeline.InvocationResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Two-tier {@link CacheService} that keeps hot responses in a bounded in-heap
+ * L1 tier in front of a shared L2 store (typically {@link RedisCacheService}).
+ * L1 hits skip both the network round trip and JSON deserialisation.
+ *
+ * <p>The L1 tier is a Caffeine cache, which uses W-TinyLFU admission and
+ * eviction, weighted by an estimate of each response's heap footprint. Entries
+ * expire individually. Writes and evictions are fanned out to other gateway
+ * nodes through Redis pub/sub so their L1 copies are dropped; L2 remains the
+ * source of truth. If the subscription drops, the local tier is cleared
+ * because invalidations may have been missed.
+ */
+public class TieredCacheService implements CacheService, InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(TieredCacheService.class);
+    private static final char SEPARATOR = '|';
+
+    private final CacheService l2;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String invalidationChannel;
+    private final Duration ttl;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Cache<String, L1Entry> l1;
+    private volatile Disposable subscription;
+
+    /**
+     * Creates the tiered cache.
+     *
+     * @param l2                  shared cache tier
+     * @param redisTemplate       template used for invalidation pub/sub
+     * @param maxWeightBytes      upper bound for the estimated L1 footprint
+     * @param ttl                 maximum time an entry stays in L1, capped by the entry's policy TTL
+     * @param invalidationChannel pub/sub channel shared by all gateway nodes
+     * @param meterRegistry       registry receiving L1 statistics
+     */
+    public TieredCacheService(CacheService l2, ReactiveStringRedisTemplate redisTemplate, long maxWeightBytes,
+                              Duration ttl, String invalidationChannel, MeterRegistry meterRegistry) {
+        this.l2 = Objects.requireNonNull(l2, "l2 must not be null");
+        this.redisTemplate = Objects.requireNonNull(redisTemplate, "redisTemplate must not be null");
+        this.ttl = Objects.requireNonNull(ttl, "ttl must not be null");
+        this.invalidationChannel = Objects.requireNonNull(invalidationChannel, "invalidationChannel must not be null");
+        this.l1 = Caffeine.newBuilder()
+            .maximumWeight(maxWeightBytes)
+            .weigher((String key, L1Entry entry) -> entry.weight())
+            .expireAfter(new EntryExpiry())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, l1, "gateway.cache.l1");
+    }
+
+    @Override
+    public Mono<InvocationResponse> get(String key) {
+        return lookup(key).map(CacheLookup::response);
+    }
+
+    /**
+     * Serves the entry from L1, or from L2 and keeps a local copy for at most
+     * the smaller of the L1 TTL and the time the L2 entry has left, so the
+     * copy never outlives the original.
+     */
+    @Override
+    public Mono<CacheLookup> lookup(String key) {
+        L1Entry entry = l1.getIfPresent(key);
+        if (entry != null) {
+            return Mono.just(new CacheLookup(entry.response(), Duration.ofNanos(Math.max(0, entry.expiresAt() - System.nanoTime()))));
+        }
+        return l2.lookup(key)
+            .doOnNext(hit -> {
+                Duration remaining = hit.remainingTtl();
+                if (remaining == null || remaining.compareTo(ttl) >= 0) {
+                    l1.put(key, newEntry(key, hit.response(), ttl));
+                } else if (!remaining.isZero() && !remaining.isNegative()) {
+                    l1.put(key, newEntry(key, hit.response(), remaining));
+                }
+            });
+    }
+
+    /**
+     * Writes through to L2 and keeps a local copy for at most the smaller of
+     * the policy TTL and the L1 TTL. Responses whose estimated size exceeds
+     * the policy limit are not kept locally.
+     */
+    @Override
+    public Mono<Void> put(String key, InvocationResponse response, CacheEntryPolicy policy) {
+        return l2.put(key, response, policy)
+            .then(Mono.fromRunnable(() -> {
+                L1Entry entry = newEntry(key, response, policy.ttl().compareTo(ttl) < 0 ? policy.ttl() : ttl);
+                if (entry.weight() <= policy.maxEntryBytes()) {
+                    l1.put(key, entry);
+                } else {
+                    l1.invalidate(key);
+                }
+            }))
+            .then(publishInvalidation(key));
+    }
+
+    @Override
+    public Mono<Void> evict(String key) {
+        return Mono.fromRunnable(() -> l1.invalidate(key))
+            .then(l2.evict(key))
+            .then(publishInvalidation(key));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        subscription = redisTemplate.listenToChannel(invalidationChannel)
+            .doOnNext(message -> onInvalidation(message.getMessage()))
+            .doOnError(ex -> {
+                logger.warn("L1 cache invalidation subscription failed, clearing local tier", ex);
+                l1.invalidateAll();
+            })
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+            .subscribe();
+    }
+
+    @Override
+    public void destroy() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    private void onInvalidation(String message) {
+        int separator = message.indexOf(SEPARATOR);
+        if (separator < 0 || (separator == nodeId.length() && message.startsWith(nodeId))) {
+            // Malformed or published by this node, whose L1 is already up to date.
+            return;
+        }
+        l1.invalidate(message.substring(separator + 1));
+    }
+
+    private Mono<Void> publishInvalidation(String key) {
+        return redisTemplate.convertAndSend(invalidationChannel, nodeId + SEPARATOR + key)
+            .onErrorResume(ex -> {
+                logger.warn("Failed to publish L1 invalidation for key {}", key, ex);
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private L1Entry newEntry(String key, InvocationResponse response, Duration entryTtl) {
+        long weight = ResponseSizeEstimator.estimate(response) + key.length() * 2L;
+        return new L1Entry(response, (int) Math.min(Integer.MAX_VALUE, weight), System.nanoTime() + entryTtl.toNanos());
+    }
+
+    /**
+     * @param expiresAt {@link System#nanoTime()} at which the entry expires,
+     *                  the time source Caffeine uses by default
+     */
+    private record L1Entry(InvocationResponse response, int weight, long expiresAt) { }
+
+    /** Per-entry expiry; reads do not extend the lifetime of an entry. */
+    private static final class EntryExpiry implements Expiry<String, L1Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, L1Entry value, long currentTime) {
+            return Math.max(0, value.expiresAt() - currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, L1Entry value, long currentTime, long currentDuration) {
+            return Math.max(0, value.expiresAt() - currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, L1Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
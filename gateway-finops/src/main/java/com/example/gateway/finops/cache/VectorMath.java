@@ -0,0 +1,32 @@
+package com.example.gateway.finops.cache;
+
+/**
+ * Small vector helpers used by the semantic cache.
+ */
+final class VectorMath {
+
+    private VectorMath() {
+    }
+
+    /**
+     * Computes the cosine similarity of two vectors. Vectors of different
+     * dimensions or with zero magnitude have a similarity of {@code 0}.
+     */
+    static double cosineSimilarity(float[] left, float[] right) {
+        if (left.length != right.length || left.length == 0) {
+            return 0;
+        }
+        double dot = 0;
+        double leftNorm = 0;
+        double rightNorm = 0;
+        for (int i = 0; i < left.length; i++) {
+            dot += left[i] * right[i];
+            leftNorm += left[i] * left[i];
+            rightNorm += right[i] * right[i];
+        }
+        if (leftNorm == 0 || rightNorm == 0) {
+            return 0;
+        }
+        return dot / Math.sqrt(leftNorm * rightNorm);
+    }
+}
@@ -1,26 +1,158 @@
 package com.example.gateway.finops.config;
 
+import com.example.gateway.core.client.EmbeddingClient;
+import com.example.gateway.finops.cache.CacheEntryPolicy;
+import com.example.gateway.finops.cache.CacheEntryPolicyResolver;
 import com.example.gateway.finops.cache.CacheService;
 import com.example.gateway.finops.cache.CachingInvocationFilter;
+import com.example.gateway.finops.cache.InFlightRequestCoalescer;
+import com.example.gateway.finops.cache.RedisCacheService;
 import com.example.gateway.finops.cache.RequestFingerprintCalculator;
+import com.example.gateway.finops.cache.SemanticCachingInvocationFilter;
+import com.example.gateway.finops.cache.TieredCacheService;
+import com.example.gateway.finops.ratelimit.LocalRateLimiter;
+import com.example.gateway.finops.ratelimit.RateLimitDimension;
+import com.example.gateway.finops.ratelimit.RateLimitPolicy;
+import com.example.gateway.finops.ratelimit.RateLimiter;
+import com.example.gateway.finops.ratelimit.RateLimitingInvocationFilter;
+import com.example.gateway.finops.ratelimit.RedisRateLimiter;
+import com.example.gateway.finops.usage.AsyncUsageRecorder;
 import com.example.gateway.finops.usage.SpendTrackingInvocationFilter;
+import com.example.gateway.finops.usage.UsageExporter;
 import com.example.gateway.finops.usage.UsageRecorder;
+import com.example.gateway.finops.usage.export.LedgerUsageExporter;
+import com.example.gateway.finops.usage.export.LoggingUsageExporter;
+import com.example.gateway.finops.usage.export.RedisStreamUsageExporter;
+import com.example.gateway.finops.usage.export.RollingFileUsageExporter;
+import com.example.gateway.storage.usage.UsageLedger;
+import com.example.gateway.storage.vector.VectorStoreClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 
 /**
  * FinOps module configuration exposing caching and spend tracking filters.
+ * The cache topology is selected with {@code gateway.finops.cache.tier}:
+ * {@code redis} (default) uses {@link RedisCacheService} directly, while
+ * {@code tiered} puts an in-process L1 tier in front of it. The semantic cache
+ * stage is opt-in via {@code gateway.finops.cache.semantic.enabled}, and rate
+ * limiting via {@code gateway.finops.rate-limit.enabled}. Usage records are
+ * buffered by the {@link AsyncUsageRecorder} and exported in batches to the
+ * exporters enabled under {@code gateway.finops.usage.exporters}.
  */
 @Configuration
+@EnableConfigurationProperties(FinOpsProperties.class)
 public class FinOpsConfiguration {
 
     @Bean
-    CachingInvocationFilter cachingInvocationFilter(CacheService cacheService, RequestFingerprintCalculator fingerprintCalculator) {
-        return new CachingInvocationFilter(cacheService, fingerprintCalculator);
+    CachingInvocationFilter cachingInvocationFilter(CacheService cacheService, RequestFingerprintCalculator fingerprintCalculator,
+                                                    FinOpsProperties properties, MeterRegistry meterRegistry) {
+        FinOpsProperties.Cache cache = properties.getCache();
+        CacheEntryPolicyResolver policyResolver = new CacheEntryPolicyResolver(
+            new CacheEntryPolicy(cache.getDefaultTtl(), cache.getMaxEntrySize().toBytes()));
+        FinOpsProperties.Coalescing coalescing = cache.getCoalescing();
+        InFlightRequestCoalescer coalescer = coalescing.isEnabled()
+            ? new InFlightRequestCoalescer(coalescing.getMaxWait(), coalescing.isPropagateFailures(), meterRegistry)
+            : null;
+        return new CachingInvocationFilter(cacheService, fingerprintCalculator, policyResolver, coalescer);
+    }
+
+    @Bean
+    RequestFingerprintCalculator requestFingerprintCalculator(FinOpsProperties properties) {
+        return new RequestFingerprintCalculator(properties.getCache().getFingerprint().getAlgorithm());
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "gateway.finops.cache", name = "tier", havingValue = "tiered")
+    TieredCacheService tieredCacheService(RedisCacheService redisCacheService, ReactiveStringRedisTemplate redisTemplate,
+                                          FinOpsProperties properties, MeterRegistry meterRegistry) {
+        FinOpsProperties.L1 l1 = properties.getCache().getL1();
+        return new TieredCacheService(redisCacheService, redisTemplate, l1.getMaxSize().toBytes(), l1.getTtl(),
+            l1.getInvalidationChannel(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "gateway.finops.cache.semantic", name = "enabled", havingValue = "true")
+    SemanticCachingInvocationFilter semanticCachingInvocationFilter(EmbeddingClient embeddingClient, VectorStoreClient vectorStoreClient,
+                                                                    RequestFingerprintCalculator fingerprintCalculator,
+                                                                    ObjectMapper objectMapper, FinOpsProperties properties,
+                                                                    MeterRegistry meterRegistry) {
+        FinOpsProperties.Semantic semantic = properties.getCache().getSemantic();
+        return new SemanticCachingInvocationFilter(embeddingClient, vectorStoreClient, fingerprintCalculator, objectMapper,
+            semantic.getSimilarityThreshold(), semantic.getTtl(), semantic.getTopK(), semantic.getSweepInterval(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "gateway.finops.rate-limit", name = "enabled", havingValue = "true")
+    RateLimitingInvocationFilter rateLimitingInvocationFilter(ReactiveStringRedisTemplate redisTemplate, FinOpsProperties properties,
+                                                              MeterRegistry meterRegistry) {
+        FinOpsProperties.RateLimiting rateLimit = properties.getRateLimit();
+        LocalRateLimiter localRateLimiter = new LocalRateLimiter(rateLimit.getMaxKeys(), rateLimit.getIdleExpiry());
+        RateLimiter rateLimiter = rateLimit.getMode() == FinOpsProperties.RateLimitMode.REDIS
+            ? new RedisRateLimiter(redisTemplate, rateLimit.getKeyPrefix(), localRateLimiter, meterRegistry)
+            : localRateLimiter;
+        RateLimitPolicy.Builder policy = RateLimitPolicy.builder()
+            .defaultQuota(RateLimitDimension.TENANT, quota(rateLimit.getTenant()))
+            .defaultQuota(RateLimitDimension.API_KEY, quota(rateLimit.getApiKey()))
+            .defaultQuota(RateLimitDimension.MODEL, quota(rateLimit.getModel()));
+        rateLimit.getTenants().forEach((tenantId, limits) -> policy.quota(RateLimitDimension.TENANT, tenantId, quota(limits)));
+        rateLimit.getModels().forEach((modelId, limits) -> policy.quota(RateLimitDimension.MODEL, modelId, quota(limits)));
+        return new RateLimitingInvocationFilter(rateLimiter, policy.build(), meterRegistry);
     }
 
     @Bean
     SpendTrackingInvocationFilter spendTrackingInvocationFilter(UsageRecorder usageRecorder) {
         return new SpendTrackingInvocationFilter(usageRecorder);
     }
+
+    @Bean
+    AsyncUsageRecorder usageRecorder(List<UsageExporter> exporters, FinOpsProperties properties, MeterRegistry meterRegistry) {
+        FinOpsProperties.Usage usage = properties.getUsage();
+        return AsyncUsageRecorder.builder(meterRegistry)
+            .exporters(exporters)
+            .capacity(usage.getCapacity())
+            .batchSize(usage.getBatchSize())
+            .flushInterval(usage.getFlushInterval())
+            .overflowWait(usage.getOverflowWait())
+            .exportTimeout(usage.getExportTimeout())
+            .shutdownTimeout(usage.getShutdownTimeout())
+            .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "gateway.finops.usage.exporters.log", name = "enabled", havingValue = "true", matchIfMissing = true)
+    LoggingUsageExporter loggingUsageExporter() {
+        return new LoggingUsageExporter();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "gateway.finops.usage.exporters.ledger", name = "enabled", havingValue = "true")
+    LedgerUsageExporter ledgerUsageExporter(UsageLedger usageLedger) {
+        return new LedgerUsageExporter(usageLedger);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "gateway.finops.usage.exporters.redis", name = "enabled", havingValue = "true")
+    RedisStreamUsageExporter redisStreamUsageExporter(ReactiveStringRedisTemplate redisTemplate, FinOpsProperties properties) {
+        FinOpsProperties.RedisExporter redis = properties.getUsage().getExporters().getRedis();
+        return new RedisStreamUsageExporter(redisTemplate, redis.getStream(), redis.getMaxLength());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "gateway.finops.usage.exporters.file", name = "enabled", havingValue = "true")
+    RollingFileUsageExporter rollingFileUsageExporter(ObjectMapper objectMapper, FinOpsProperties properties) {
+        FinOpsProperties.FileExporter file = properties.getUsage().getExporters().getFile();
+        return new RollingFileUsageExporter(file.getDirectory(), file.getMaxFileSize().toBytes(), file.getMaxFiles(), objectMapper);
+    }
+
+    private static RateLimitPolicy.Quota quota(FinOpsProperties.Limits limits) {
+        return RateLimitPolicy.Quota.of(limits.getRequestsPerSecond(), limits.getTokensPerMinute());
+    }
 }
@@ -0,0 +1,670 @@
+package com.example.gateway.finops.config;
+
+import com.example.gateway.finops.cache.FingerprintAlgorithm;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration properties for the FinOps module mirroring the
+ * {@code gateway.finops} property tree.
+ */
+@ConfigurationProperties("gateway.finops")
+public class FinOpsProperties {
+
+    /** Response cache settings. */
+    private final Cache cache = new Cache();
+
+    /** Admission control settings. */
+    private final RateLimiting rateLimit = new RateLimiting();
+
+    /** Usage recording and export settings. */
+    private final Usage usage = new Usage();
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public RateLimiting getRateLimit() {
+        return rateLimit;
+    }
+
+    public Usage getUsage() {
+        return usage;
+    }
+
+    /**
+     * Settings for the response cache filter.
+     */
+    public static class Cache {
+
+        /** Cache topology used by the caching filter. */
+        private Tier tier = Tier.REDIS;
+
+        /** Default time-to-live for cached responses without a provider or model override. */
+        private Duration defaultTtl = Duration.ofHours(1);
+
+        /** Default maximum serialised response size; larger responses are not cached. */
+        private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+
+        /** In-process tier settings, used when {@link Tier#TIERED} is selected. */
+        private final L1 l1 = new L1();
+
+        /** Deduplication of concurrent identical requests that miss the cache. */
+        private final Coalescing coalescing = new Coalescing();
+
+        /** Cache key derivation settings. */
+        private final Fingerprint fingerprint = new Fingerprint();
+
+        /** Similarity-based cache stage for paraphrased prompts. */
+        private final Semantic semantic = new Semantic();
+
+        public Tier getTier() {
+            return tier;
+        }
+
+        public void setTier(Tier tier) {
+            this.tier = tier;
+        }
+
+        public Duration getDefaultTtl() {
+            return defaultTtl;
+        }
+
+        public void setDefaultTtl(Duration defaultTtl) {
+            this.defaultTtl = defaultTtl;
+        }
+
+        public DataSize getMaxEntrySize() {
+            return maxEntrySize;
+        }
+
+        public void setMaxEntrySize(DataSize maxEntrySize) {
+            this.maxEntrySize = maxEntrySize;
+        }
+
+        public L1 getL1() {
+            return l1;
+        }
+
+        public Coalescing getCoalescing() {
+            return coalescing;
+        }
+
+        public Fingerprint getFingerprint() {
+            return fingerprint;
+        }
+
+        public Semantic getSemantic() {
+            return semantic;
+        }
+    }
+
+    /**
+     * Available cache topologies.
+     */
+    public enum Tier {
+        /** Every lookup goes to Redis. */
+        REDIS,
+        /** Bounded in-process L1 tier in front of Redis. */
+        TIERED
+    }
+
+    /**
+     * Settings for the in-process L1 cache tier.
+     */
+    public static class L1 {
+
+        /** Upper bound for the estimated heap footprint of cached responses. */
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+
+        /** Maximum time an entry is served from the local tier. */
+        private Duration ttl = Duration.ofMinutes(1);
+
+        /** Redis pub/sub channel used to fan out invalidations across nodes. */
+        private String invalidationChannel = "gateway:cache:invalidations";
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public String getInvalidationChannel() {
+            return invalidationChannel;
+        }
+
+        public void setInvalidationChannel(String invalidationChannel) {
+            this.invalidationChannel = invalidationChannel;
+        }
+    }
+
+    /**
+     * Single-flight settings. While one request (the leader) is fetching a
+     * response upstream, identical requests wait for its result instead of
+     * issuing their own provider call.
+     */
+    public static class Coalescing {
+
+        /** Flag enabling in-flight request deduplication. */
+        private boolean enabled = true;
+
+        /**
+         * Maximum time a follower waits for the leader before issuing its own
+         * upstream call.
+         */
+        private Duration maxWait = Duration.ofSeconds(30);
+
+        /**
+         * Whether a leader failure is propagated to its followers. When
+         * disabled, followers retry upstream independently.
+         */
+        private boolean propagateFailures = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public boolean isPropagateFailures() {
+            return propagateFailures;
+        }
+
+        public void setPropagateFailures(boolean propagateFailures) {
+            this.propagateFailures = propagateFailures;
+        }
+    }
+
+    /**
+     * Settings for request fingerprints used as cache keys.
+     */
+    public static class Fingerprint {
+
+        /**
+         * Hash function applied to the canonical request encoding. The
+         * non-cryptographic {@code murmur3-128} is cheaper but should only be
+         * used when callers cannot deliberately craft colliding payloads.
+         */
+        private FingerprintAlgorithm algorithm = FingerprintAlgorithm.SHA_256;
+
+        public FingerprintAlgorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(FingerprintAlgorithm algorithm) {
+            this.algorithm = algorithm;
+        }
+    }
+
+    /**
+     * Settings for the semantic cache stage, which serves stored responses
+     * for prompts whose embedding is close to a previously answered prompt.
+     */
+    public static class Semantic {
+
+        /** Flag enabling the semantic cache stage. */
+        private boolean enabled;
+
+        /** Minimum cosine similarity between prompt embeddings for a cache hit. */
+        private double similarityThreshold = 0.95;
+
+        /** Lifetime of stored responses. */
+        private Duration ttl = Duration.ofHours(1);
+
+        /** Number of nearest stored prompts inspected per lookup. */
+        private int topK = 3;
+
+        /** Interval between deletions of expired entries from the vector store. */
+        private Duration sweepInterval = Duration.ofMinutes(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSimilarityThreshold() {
+            return similarityThreshold;
+        }
+
+        public void setSimilarityThreshold(double similarityThreshold) {
+            this.similarityThreshold = similarityThreshold;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public int getTopK() {
+            return topK;
+        }
+
+        public void setTopK(int topK) {
+            this.topK = topK;
+        }
+
+        public Duration getSweepInterval() {
+            return sweepInterval;
+        }
+
+        public void setSweepInterval(Duration sweepInterval) {
+            this.sweepInterval = sweepInterval;
+        }
+    }
+
+    /**
+     * Settings for the rate limiting filter. Limits of {@code 0} are
+     * disabled.
+     */
+    public static class RateLimiting {
+
+        /** Flag enabling the rate limiting filter. */
+        private boolean enabled;
+
+        /** Where limiter state is kept. */
+        private RateLimitMode mode = RateLimitMode.LOCAL;
+
+        /** Prefix of limiter keys in Redis. */
+        private String keyPrefix = "gateway:ratelimit:";
+
+        /** Maximum number of buckets kept in memory by the local limiter. */
+        private long maxKeys = 100_000;
+
+        /**
+         * Time after which an unused local bucket is dropped; must exceed the
+         * longest limit period (one minute for token limits).
+         */
+        private Duration idleExpiry = Duration.ofMinutes(2);
+
+        /** Limits applied to every tenant. */
+        private final Limits tenant = new Limits();
+
+        /** Limits applied to every API key. */
+        private final Limits apiKey = new Limits();
+
+        /** Limits applied to every routed model. */
+        private final Limits model = new Limits();
+
+        /** Per-tenant overrides keyed by tenant id. */
+        private Map<String, Limits> tenants = new LinkedHashMap<>();
+
+        /** Per-model overrides keyed by model id. */
+        private Map<String, Limits> models = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public RateLimitMode getMode() {
+            return mode;
+        }
+
+        public void setMode(RateLimitMode mode) {
+            this.mode = mode;
+        }
+
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+
+        public void setKeyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+
+        public long getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(long maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        public Duration getIdleExpiry() {
+            return idleExpiry;
+        }
+
+        public void setIdleExpiry(Duration idleExpiry) {
+            this.idleExpiry = idleExpiry;
+        }
+
+        public Limits getTenant() {
+            return tenant;
+        }
+
+        public Limits getApiKey() {
+            return apiKey;
+        }
+
+        public Limits getModel() {
+            return model;
+        }
+
+        public Map<String, Limits> getTenants() {
+            return tenants;
+        }
+
+        public void setTenants(Map<String, Limits> tenants) {
+            this.tenants = tenants;
+        }
+
+        public Map<String, Limits> getModels() {
+            return models;
+        }
+
+        public void setModels(Map<String, Limits> models) {
+            this.models = models;
+        }
+    }
+
+    /**
+     * Available rate limiter state stores.
+     */
+    public enum RateLimitMode {
+        /** Each node enforces the limits on its own traffic. */
+        LOCAL,
+        /** Limits are shared by all nodes through Redis. */
+        REDIS
+    }
+
+    /**
+     * Request and token rates of one limited dimension.
+     */
+    public static class Limits {
+
+        /** Sustained invocations per second; also the burst size. */
+        private long requestsPerSecond;
+
+        /** Input and output tokens per minute. */
+        private long tokensPerMinute;
+
+        public long getRequestsPerSecond() {
+            return requestsPerSecond;
+        }
+
+        public void setRequestsPerSecond(long requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+        }
+
+        public long getTokensPerMinute() {
+            return tokensPerMinute;
+        }
+
+        public void setTokensPerMinute(long tokensPerMinute) {
+            this.tokensPerMinute = tokensPerMinute;
+        }
+    }
+
+    /**
+     * Settings for the asynchronous usage recorder. Records are buffered and
+     * written to the enabled exporters in batches.
+     */
+    public static class Usage {
+
+        /** Maximum number of buffered records, rounded up to a power of two. */
+        private int capacity = 8192;
+
+        /** Maximum number of records per export batch. */
+        private int batchSize = 500;
+
+        /** Interval after which a partial batch is exported. */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        /**
+         * Time a record may wait for buffer space when the buffer is full
+         * before it is dropped; {@code 0} drops it immediately.
+         */
+        private Duration overflowWait = Duration.ZERO;
+
+        /** Time allowed for one exporter to write a batch. */
+        private Duration exportTimeout = Duration.ofSeconds(10);
+
+        /** Time allowed for exporting the buffered records on shutdown. */
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+        /** Exporter settings. */
+        private final Exporters exporters = new Exporters();
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public Duration getOverflowWait() {
+            return overflowWait;
+        }
+
+        public void setOverflowWait(Duration overflowWait) {
+            this.overflowWait = overflowWait;
+        }
+
+        public Duration getExportTimeout() {
+            return exportTimeout;
+        }
+
+        public void setExportTimeout(Duration exportTimeout) {
+            this.exportTimeout = exportTimeout;
+        }
+
+        public Duration getShutdownTimeout() {
+            return shutdownTimeout;
+        }
+
+        public void setShutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+        }
+
+        public Exporters getExporters() {
+            return exporters;
+        }
+    }
+
+    /**
+     * Usage exporters; each enabled exporter receives every batch.
+     */
+    public static class Exporters {
+
+        /** Logs each record. */
+        private final LogExporter log = new LogExporter();
+
+        /** Appends records to the usage ledger and its spend rollups. */
+        private final LedgerExporter ledger = new LedgerExporter();
+
+        /** Appends records to a Redis stream. */
+        private final RedisExporter redis = new RedisExporter();
+
+        /** Appends records to rolling local JSON lines files. */
+        private final FileExporter file = new FileExporter();
+
+        public LogExporter getLog() {
+            return log;
+        }
+
+        public LedgerExporter getLedger() {
+            return ledger;
+        }
+
+        public RedisExporter getRedis() {
+            return redis;
+        }
+
+        public FileExporter getFile() {
+            return file;
+        }
+    }
+
+    /**
+     * Settings for the logging usage exporter.
+     */
+    public static class LogExporter {
+
+        /** Flag enabling the exporter. */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * Settings for the usage ledger exporter.
+     */
+    public static class LedgerExporter {
+
+        /** Flag enabling the exporter. */
+        private boolean enabled;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * Settings for the Redis stream usage exporter.
+     */
+    public static class RedisExporter {
+
+        /** Flag enabling the exporter. */
+        private boolean enabled;
+
+        /** Key of the stream. */
+        private String stream = "gateway:usage";
+
+        /** Approximate number of entries kept in the stream, {@code 0} for no limit. */
+        private long maxLength = 1_000_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getStream() {
+            return stream;
+        }
+
+        public void setStream(String stream) {
+            this.stream = stream;
+        }
+
+        public long getMaxLength() {
+            return maxLength;
+        }
+
+        public void setMaxLength(long maxLength) {
+            this.maxLength = maxLength;
+        }
+    }
+
+    /**
+     * Settings for the rolling file usage exporter.
+     */
+    public static class FileExporter {
+
+        /** Flag enabling the exporter. */
+        private boolean enabled;
+
+        /** Directory the files are written to. */
+        private Path directory = Path.of("usage");
+
+        /** Size after which a new file is started. */
+        private DataSize maxFileSize = DataSize.ofMegabytes(64);
+
+        /** Number of files retained, {@code 0} to keep all. */
+        private int maxFiles = 30;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getMaxFileSize() {
+            return maxFileSize;
+        }
+
+        public void setMaxFileSize(DataSize maxFileSize) {
+            this.maxFileSize = maxFileSize;
+        }
+
+        public int getMaxFiles() {
+            return maxFiles;
+        }
+
+        public void setMaxFiles(int maxFiles) {
+            this.maxFiles = maxFiles;
+        }
+    }
+}
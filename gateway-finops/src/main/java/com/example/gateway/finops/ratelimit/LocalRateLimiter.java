@@ -0,0 +1,81 @@
+package com.example.gateway.finops.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-process {@link RateLimiter}. Each bucket is a single {@link AtomicLong}
+ * holding its theoretical arrival time, updated with a compare-and-set loop,
+ * so acquisitions never block. Buckets are kept in a bounded Caffeine cache
+ * and dropped once idle; an idle bucket is full, so dropping it loses nothing
+ * as long as the idle expiry exceeds the longest limit period.
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * Creates the limiter.
+     *
+     * @param maxKeys    maximum number of buckets kept in memory
+     * @param idleExpiry time after which an unused bucket is dropped
+     */
+    public LocalRateLimiter(long maxKeys, Duration idleExpiry) {
+        Objects.requireNonNull(idleExpiry, "idleExpiry must not be null");
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(idleExpiry)
+            .build();
+    }
+
+    @Override
+    public Mono<RateLimitDecision> tryAcquire(String key, RateLimit limit, long permits) {
+        return Mono.fromSupplier(() -> acquire(key, limit, permits));
+    }
+
+    @Override
+    public Mono<Void> charge(String key, RateLimit limit, long permits) {
+        return Mono.fromRunnable(() -> forceAcquire(key, limit, permits));
+    }
+
+    /** Synchronous variant of {@link #tryAcquire}. */
+    public RateLimitDecision acquire(String key, RateLimit limit, long permits) {
+        AtomicLong arrival = bucket(key);
+        long increment = permits * limit.emissionIntervalNanos();
+        long tolerance = limit.toleranceNanos();
+        while (true) {
+            long now = System.nanoTime();
+            long current = arrival.get();
+            long next = Math.max(current, now) + increment;
+            long excess = next - now - tolerance;
+            if (excess > 0) {
+                return RateLimitDecision.rejected(excess);
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return RateLimitDecision.ALLOWED;
+            }
+        }
+    }
+
+    /** Synchronous variant of {@link #charge}. */
+    public void forceAcquire(String key, RateLimit limit, long permits) {
+        AtomicLong arrival = bucket(key);
+        long increment = permits * limit.emissionIntervalNanos();
+        while (true) {
+            long now = System.nanoTime();
+            long current = arrival.get();
+            if (arrival.compareAndSet(current, Math.max(current, now) + increment)) {
+                return;
+            }
+        }
+    }
+
+    private AtomicLong bucket(String key) {
+        // An arrival time of now means the bucket is full.
+        return buckets.get(key, k -> new AtomicLong(System.nanoTime()));
+    }
+}
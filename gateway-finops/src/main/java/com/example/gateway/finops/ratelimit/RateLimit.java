@@ -0,0 +1,39 @@
+package com.example.gateway.finops.ratelimit;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Token bucket of {@code capacity} permits refilled evenly over
+ * {@code period}. A full bucket admits a burst of {@code capacity} permits.
+ *
+ * <p>Limiters store the bucket as a single theoretical arrival time (the
+ * generic cell rate algorithm): each permit advances it by the emission
+ * interval, and a request fits while the arrival time stays within one period
+ * of the current time.
+ *
+ * @param capacity permits per period, must be positive
+ * @param period   refill period, must be positive
+ */
+public record RateLimit(long capacity, Duration period) {
+
+    public RateLimit {
+        Objects.requireNonNull(period, "period must not be null");
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+    }
+
+    /** Time one permit takes to refill, at least one nanosecond. */
+    public long emissionIntervalNanos() {
+        return Math.max(1, period.toNanos() / capacity);
+    }
+
+    /** How far ahead of the current time the arrival time may run. */
+    public long toleranceNanos() {
+        return period.toNanos();
+    }
+}
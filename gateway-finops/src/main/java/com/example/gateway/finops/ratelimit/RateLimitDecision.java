@@ -0,0 +1,18 @@
+package com.example.gateway.finops.ratelimit;
+
+/**
+ * Outcome of a rate limiter acquisition.
+ *
+ * @param allowed         whether the permits were granted
+ * @param retryAfterNanos time until the permits would be granted, {@code 0} when allowed
+ */
+public record RateLimitDecision(boolean allowed, long retryAfterNanos) {
+
+    /** Decision for granted permits. */
+    public static final RateLimitDecision ALLOWED = new RateLimitDecision(true, 0);
+
+    /** Creates a rejection that may be retried after the given delay. */
+    public static RateLimitDecision rejected(long retryAfterNanos) {
+        return new RateLimitDecision(false, Math.max(1, retryAfterNanos));
+    }
+}
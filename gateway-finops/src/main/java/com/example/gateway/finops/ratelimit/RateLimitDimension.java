@@ -0,0 +1,28 @@
+package com.example.gateway.finops.ratelimit;
+
+/**
+ * Attribute of an invocation that rate limits are applied to. Each distinct
+ * value, such as each tenant, gets its own buckets.
+ */
+public enum RateLimitDimension {
+
+    /** Tenant on whose behalf the invocation runs. */
+    TENANT("tenant"),
+
+    /** API key the caller authenticated with. */
+    API_KEY("api-key"),
+
+    /** Model the invocation was routed to. */
+    MODEL("model");
+
+    private final String label;
+
+    RateLimitDimension(String label) {
+        this.label = label;
+    }
+
+    /** Label used in bucket keys, metrics and error messages. */
+    public String getLabel() {
+        return label;
+    }
+}
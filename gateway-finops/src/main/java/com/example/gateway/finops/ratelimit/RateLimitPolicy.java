@@ -0,0 +1,108 @@
+package com.example.gateway.finops.ratelimit;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable set of quotas per {@link RateLimitDimension}: a default quota
+ * applied to every value of a dimension, optionally overridden for specific
+ * values such as a single tenant or model id.
+ */
+public final class RateLimitPolicy {
+
+    private final Map<RateLimitDimension, Quota> defaults;
+    private final Map<RateLimitDimension, Map<String, Quota>> overrides;
+
+    private RateLimitPolicy(Builder builder) {
+        this.defaults = new EnumMap<>(builder.defaults);
+        this.overrides = new EnumMap<>(RateLimitDimension.class);
+        builder.overrides.forEach((dimension, quotas) -> this.overrides.put(dimension, Map.copyOf(quotas)));
+    }
+
+    /**
+     * Resolves the quota for one value of a dimension.
+     *
+     * @param dimension limited dimension
+     * @param id        value of the dimension, such as the tenant id
+     * @return quota, {@link Quota#UNLIMITED} when none is configured
+     */
+    public Quota resolve(RateLimitDimension dimension, String id) {
+        Map<String, Quota> dimensionOverrides = overrides.get(dimension);
+        if (dimensionOverrides != null) {
+            Quota quota = dimensionOverrides.get(id);
+            if (quota != null) {
+                return quota;
+            }
+        }
+        return defaults.getOrDefault(dimension, Quota.UNLIMITED);
+    }
+
+    /** Whether any quota limits the dimension. */
+    public boolean isLimited(RateLimitDimension dimension) {
+        return !defaults.getOrDefault(dimension, Quota.UNLIMITED).isUnlimited()
+            || overrides.containsKey(dimension);
+    }
+
+    /** Creates a new builder instance. */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Request and token limits of one bucket owner. Either limit may be
+     * {@code null} when that unit is not limited.
+     *
+     * @param requests limit on the number of invocations
+     * @param tokens   limit on consumed input and output tokens
+     */
+    public record Quota(RateLimit requests, RateLimit tokens) {
+
+        /** Quota without any limit. */
+        public static final Quota UNLIMITED = new Quota(null, null);
+
+        /**
+         * Creates a quota from per-second request and per-minute token rates,
+         * where {@code 0} disables the respective limit.
+         */
+        public static Quota of(long requestsPerSecond, long tokensPerMinute) {
+            return new Quota(
+                requestsPerSecond > 0 ? new RateLimit(requestsPerSecond, Duration.ofSeconds(1)) : null,
+                tokensPerMinute > 0 ? new RateLimit(tokensPerMinute, Duration.ofMinutes(1)) : null);
+        }
+
+        /** Whether the quota limits nothing. */
+        public boolean isUnlimited() {
+            return requests == null && tokens == null;
+        }
+    }
+
+    /** Builder used to construct immutable {@link RateLimitPolicy} instances. */
+    public static final class Builder {
+
+        private final Map<RateLimitDimension, Quota> defaults = new EnumMap<>(RateLimitDimension.class);
+        private final Map<RateLimitDimension, Map<String, Quota>> overrides = new EnumMap<>(RateLimitDimension.class);
+
+        /** Sets the quota applied to every value of a dimension. */
+        public Builder defaultQuota(RateLimitDimension dimension, Quota quota) {
+            defaults.put(Objects.requireNonNull(dimension, "dimension must not be null"),
+                Objects.requireNonNull(quota, "quota must not be null"));
+            return this;
+        }
+
+        /** Sets the quota for one value of a dimension. */
+        public Builder quota(RateLimitDimension dimension, String id, Quota quota) {
+            Objects.requireNonNull(dimension, "dimension must not be null");
+            overrides.computeIfAbsent(dimension, d -> new HashMap<>())
+                .put(Objects.requireNonNull(id, "id must not be null"), Objects.requireNonNull(quota, "quota must not be null"));
+            return this;
+        }
+
+        /** Builds the policy. */
+        public RateLimitPolicy build() {
+            return new RateLimitPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.gateway.finops.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Keyed token bucket store used by {@link RateLimitingInvocationFilter}.
+ */
+public interface RateLimiter {
+
+    /**
+     * Takes permits from a bucket if they fit. Acquiring zero permits only
+     * checks that the bucket is not overdrawn.
+     *
+     * @param key     bucket key
+     * @param limit   bucket size and refill rate
+     * @param permits number of permits to take
+     * @return decision, never empty
+     */
+    Mono<RateLimitDecision> tryAcquire(String key, RateLimit limit, long permits);
+
+    /**
+     * Takes permits from a bucket unconditionally, overdrawing it if needed.
+     * Used for costs that are only known after the fact, such as consumed
+     * tokens; an overdrawn bucket rejects acquisitions until it has refilled.
+     *
+     * @param key     bucket key
+     * @param limit   bucket size and refill rate
+     * @param permits number of permits to take
+     * @return completion signal
+     */
+    Mono<Void> charge(String key, RateLimit limit, long permits);
+}
@@ -0,0 +1,193 @@
+package com.example.gateway.finops.ratelimit;
+
+import com.example.gateway.core.exception.RateLimitExceededException;
+import com.example.gateway.core.model.ModelDescriptor;
+import com.example.gateway.core.pipeline.InvocationAttributes;
+import com.example.gateway.core.pipeline.InvocationChunk;
+import com.example.gateway.core.pipeline.InvocationContext;
+import com.example.gateway.core.pipeline.InvocationFilter;
+import com.example.gateway.core.pipeline.InvocationResponse;
+import com.example.gateway.core.pipeline.TokenUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Admission control filter limiting invocations per tenant, API key and
+ * routed model, in requests per second and tokens per minute.
+ *
+ * <p>Request limits take one permit before the call. Token counts are only
+ * known afterwards, so token limits admit a call while the bucket is not
+ * overdrawn and are charged with the reported input and output tokens once
+ * the response (or the assembled stream, or the pass-through body) completes.
+ * A caller exceeding a limit gets a {@link RateLimitExceededException}
+ * carrying the time until the limit admits it again.
+ *
+ * <p>The filter runs after routing so model limits apply to the model that
+ * serves the call, and after both cache stages, so exact-match and semantic
+ * cache hits are answered before and do not count against any limit. API keys are hashed before they are used in bucket
+ * keys so they are not stored in Redis.
+ */
+public class RateLimitingInvocationFilter implements InvocationFilter, Ordered {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitPolicy policy;
+    private final Map<RateLimitDimension, Counter> requestRejections = new EnumMap<>(RateLimitDimension.class);
+    private final Map<RateLimitDimension, Counter> tokenRejections = new EnumMap<>(RateLimitDimension.class);
+
+    public RateLimitingInvocationFilter(RateLimiter rateLimiter, RateLimitPolicy policy, MeterRegistry meterRegistry) {
+        this.rateLimiter = Objects.requireNonNull(rateLimiter, "rateLimiter must not be null");
+        this.policy = Objects.requireNonNull(policy, "policy must not be null");
+        for (RateLimitDimension dimension : RateLimitDimension.values()) {
+            requestRejections.put(dimension, rejectionCounter(meterRegistry, dimension, "requests"));
+            tokenRejections.put(dimension, rejectionCounter(meterRegistry, dimension, "tokens"));
+        }
+    }
+
+    @Override
+    public Mono<InvocationResponse> filter(InvocationContext context, Chain chain) {
+        List<Bucket> buckets = buckets(context);
+        if (buckets.isEmpty()) {
+            return chain.next(context);
+        }
+        return admit(buckets)
+            .then(Mono.defer(() -> chain.next(context)))
+            .flatMap(response -> charge(buckets, response.getUsage().totalTokens()).thenReturn(response));
+    }
+
+    @Override
+    public Flux<InvocationChunk> filterStream(InvocationContext context, Chain chain) {
+        List<Bucket> buckets = buckets(context);
+        if (buckets.isEmpty()) {
+            return chain.stream(context);
+        }
+        return admit(buckets).thenMany(Flux.defer(() -> {
+            AtomicLong tokens = new AtomicLong();
+            return chain.stream(context)
+                .doOnNext(chunk -> {
+                    if (chunk.isLast()) {
+                        tokens.set(chunk.getUsage().totalTokens());
+                    }
+                })
+                .concatWith(Mono.defer(() -> charge(buckets, tokens.get())).then(Mono.<InvocationChunk>empty()));
+        }));
+    }
+
+    @Override
+    public Flux<DataBuffer> filterPassThrough(InvocationContext context, Chain chain) {
+        List<Bucket> buckets = buckets(context);
+        if (buckets.isEmpty()) {
+            return chain.passThrough(context);
+        }
+        return admit(buckets).thenMany(Flux.defer(() -> chain.passThrough(context)))
+            .concatWith(Mono.defer(() -> {
+                TokenUsage usage = InvocationAttributes.usage(context);
+                return usage != null ? charge(buckets, usage.totalTokens()) : Mono.empty();
+            }).then(Mono.<DataBuffer>empty()));
+    }
+
+    private List<Bucket> buckets(InvocationContext context) {
+        List<Bucket> buckets = new ArrayList<>(3);
+        if (policy.isLimited(RateLimitDimension.TENANT)) {
+            String tenantId = InvocationAttributes.tenantId(context);
+            addBucket(buckets, RateLimitDimension.TENANT, tenantId, tenantId);
+        }
+        Object apiKey = context.getAttribute(InvocationAttributes.API_KEY);
+        if (apiKey instanceof String key && !key.isBlank() && policy.isLimited(RateLimitDimension.API_KEY)) {
+            String keyId = hash(key);
+            addBucket(buckets, RateLimitDimension.API_KEY, keyId, keyId);
+        }
+        ModelDescriptor model = context.getModel();
+        if (model != null && policy.isLimited(RateLimitDimension.MODEL)) {
+            addBucket(buckets, RateLimitDimension.MODEL, model.getModelId(),
+                model.getProviderId() + '/' + model.getModelId());
+        }
+        return buckets;
+    }
+
+    private void addBucket(List<Bucket> buckets, RateLimitDimension dimension, String id, String keyId) {
+        RateLimitPolicy.Quota quota = policy.resolve(dimension, id);
+        if (!quota.isUnlimited()) {
+            buckets.add(new Bucket(dimension, dimension.getLabel() + ':' + keyId, quota));
+        }
+    }
+
+    /**
+     * Checks every token budget before taking any request permit. The token
+     * check acquires no permits, so a call rejected for its token budget
+     * does not also drain the request buckets.
+     */
+    private Mono<Void> admit(List<Bucket> buckets) {
+        Mono<Void> tokens = Flux.fromIterable(buckets)
+            .filter(bucket -> bucket.quota().tokens() != null)
+            .concatMap(bucket -> rateLimiter.tryAcquire(bucket.key() + ":tokens", bucket.quota().tokens(), 0)
+                .flatMap(decision -> check(decision, bucket, "Token", tokenRejections)))
+            .then();
+        Mono<Void> requests = Flux.fromIterable(buckets)
+            .filter(bucket -> bucket.quota().requests() != null)
+            .concatMap(bucket -> rateLimiter.tryAcquire(bucket.key() + ":requests", bucket.quota().requests(), 1)
+                .flatMap(decision -> check(decision, bucket, "Request", requestRejections)))
+            .then();
+        return tokens.then(requests);
+    }
+
+    private Mono<Void> check(RateLimitDecision decision, Bucket bucket, String unit, Map<RateLimitDimension, Counter> rejections) {
+        if (decision.allowed()) {
+            return Mono.empty();
+        }
+        rejections.get(bucket.dimension()).increment();
+        return Mono.error(new RateLimitExceededException(
+            unit + " rate limit exceeded for " + bucket.dimension().getLabel(), Duration.ofNanos(decision.retryAfterNanos())));
+    }
+
+    private Mono<Void> charge(List<Bucket> buckets, long tokens) {
+        if (tokens <= 0) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(buckets)
+            .filter(bucket -> bucket.quota().tokens() != null)
+            .concatMap(bucket -> rateLimiter.charge(bucket.key() + ":tokens", bucket.quota().tokens(), tokens))
+            .then();
+    }
+
+    private static String hash(String apiKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+            return HEX.formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, RateLimitDimension dimension, String unit) {
+        return Counter.builder("gateway.ratelimit.rejections")
+            .description("Invocations rejected by a rate limit")
+            .tag("dimension", dimension.getLabel())
+            .tag("unit", unit)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        // After the semantic cache, so its hits take no permit and are not charged.
+        return Ordered.HIGHEST_PRECEDENCE + 25;
+    }
+
+    private record Bucket(RateLimitDimension dimension, String key, RateLimitPolicy.Quota quota) { }
+}
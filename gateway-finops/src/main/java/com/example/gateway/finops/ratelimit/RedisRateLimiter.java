@@ -0,0 +1,127 @@
+package com.example.gateway.finops.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cluster-wide {@link RateLimiter} keeping each bucket's theoretical arrival
+ * time in Redis. Every acquisition is a single Lua script evaluation, so
+ * concurrent gateway nodes update a bucket atomically in one round trip, and
+ * the script reads Redis' own clock so node clock skew does not matter.
+ * Arrival times are stored in microseconds and expire once the bucket has
+ * refilled.
+ *
+ * <p>When Redis is unreachable, acquisitions fall back to a local limiter so
+ * each node still enforces the limits on its own traffic. Only the switch to
+ * and from the local limiter is logged; every fallback is counted in
+ * {@code gateway.ratelimit.fallbacks}.
+ */
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisRateLimiter.class);
+
+    private static final RedisScript<Long> GCRA_SCRIPT = RedisScript.of("""
+        local interval = tonumber(ARGV[1])
+        local tolerance = tonumber(ARGV[2])
+        local permits = tonumber(ARGV[3])
+        local time = redis.call('TIME')
+        local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+        local arrival = tonumber(redis.call('GET', KEYS[1])) or now
+        if arrival < now then
+            arrival = now
+        end
+        local updated = arrival + permits * interval
+        local excess = updated - now - tolerance
+        if excess > 0 and ARGV[4] ~= '1' then
+            return excess
+        end
+        redis.call('SET', KEYS[1], string.format('%d', updated), 'PX', math.floor((updated - now) / 1000) + 1)
+        return 0
+        """, Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+    private final LocalRateLimiter fallback;
+    private final Counter acquireFallbacks;
+    private final Counter chargeFallbacks;
+    private final AtomicBoolean degraded = new AtomicBoolean();
+
+    /**
+     * Creates the limiter.
+     *
+     * @param redisTemplate template used to evaluate the limiter script
+     * @param keyPrefix     prefix applied to all bucket keys
+     * @param fallback      limiter used while Redis is unavailable
+     * @param meterRegistry registry receiving the fallback counters
+     */
+    public RedisRateLimiter(ReactiveStringRedisTemplate redisTemplate, String keyPrefix, LocalRateLimiter fallback,
+                            MeterRegistry meterRegistry) {
+        this.redisTemplate = Objects.requireNonNull(redisTemplate, "redisTemplate must not be null");
+        this.keyPrefix = Objects.requireNonNull(keyPrefix, "keyPrefix must not be null");
+        this.fallback = Objects.requireNonNull(fallback, "fallback must not be null");
+        this.acquireFallbacks = fallbackCounter(meterRegistry, "acquire");
+        this.chargeFallbacks = fallbackCounter(meterRegistry, "charge");
+    }
+
+    @Override
+    public Mono<RateLimitDecision> tryAcquire(String key, RateLimit limit, long permits) {
+        return execute(key, limit, permits, false)
+            .map(excessMicros -> excessMicros > 0
+                ? RateLimitDecision.rejected(excessMicros * 1_000)
+                : RateLimitDecision.ALLOWED)
+            .onErrorResume(ex -> {
+                onFallback(acquireFallbacks, ex);
+                return Mono.just(fallback.acquire(key, limit, permits));
+            });
+    }
+
+    @Override
+    public Mono<Void> charge(String key, RateLimit limit, long permits) {
+        return execute(key, limit, permits, true)
+            .then()
+            .onErrorResume(ex -> {
+                onFallback(chargeFallbacks, ex);
+                fallback.forceAcquire(key, limit, permits);
+                return Mono.empty();
+            });
+    }
+
+    private void onFallback(Counter fallbacks, Throwable ex) {
+        fallbacks.increment();
+        if (degraded.compareAndSet(false, true)) {
+            logger.warn("Redis rate limiter unavailable, applying local limits until it recovers: {}", ex.toString());
+        }
+        logger.debug("Redis rate limiter call failed", ex);
+    }
+
+    private void onSuccess() {
+        if (degraded.compareAndSet(true, false)) {
+            logger.info("Redis rate limiter available again, leaving local limits");
+        }
+    }
+
+    private static Counter fallbackCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("gateway.ratelimit.fallbacks")
+            .description("Rate limiter calls served by the local limiter while Redis was unavailable")
+            .tag("operation", operation)
+            .register(meterRegistry);
+    }
+
+    private Mono<Long> execute(String key, RateLimit limit, long permits, boolean force) {
+        long intervalMicros = Math.max(1, limit.emissionIntervalNanos() / 1_000);
+        long toleranceMicros = limit.toleranceNanos() / 1_000;
+        return redisTemplate.execute(GCRA_SCRIPT, List.of(keyPrefix + key), List.of(
+                Long.toString(intervalMicros), Long.toString(toleranceMicros), Long.toString(permits), force ? "1" : "0"))
+            .next()
+            .defaultIfEmpty(0L)
+            .doOnNext(excessMicros -> onSuccess());
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.gateway.finops.usage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link UsageRecorder} that takes recording off the request path. Records
+ * are placed in a bounded lock-free ring buffer and written to the
+ * {@link UsageExporter}s in batches, once a full batch is buffered or the
+ * flush interval elapses, whichever comes first. Batches are exported one at
+ * a time, each to all exporters concurrently; an exporter that fails or times
+ * out loses the batch, the others are unaffected.
+ *
+ * <p>When the buffer is full, a record is dropped immediately, or, with an
+ * overflow wait, the caller is held back until space frees up or the wait
+ * ends. Drops are counted in {@code gateway.usage.dropped}, exports in
+ * {@code gateway.usage.exported} and {@code gateway.usage.export.duration},
+ * and the buffered records are published as {@code gateway.usage.queue.size}.
+ *
+ * <p>On shutdown, the recorder stops after the web server, so records of
+ * requests completed during graceful shutdown are kept, and flushes what is
+ * left within the shutdown timeout.
+ */
+public class AsyncUsageRecorder implements UsageRecorder, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncUsageRecorder.class);
+    private static final Duration OFFER_RETRY_INTERVAL = Duration.ofMillis(1);
+
+    private final List<UsageExporter> exporters;
+    private final UsageRingBuffer<UsageRecord> buffer;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration overflowWait;
+    private final Duration exportTimeout;
+    private final Duration shutdownTimeout;
+    private final MeterRegistry meterRegistry;
+    private final Counter queueFullDrops;
+    private final Counter shutdownDrops;
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private Disposable timer;
+
+    private AsyncUsageRecorder(Builder builder) {
+        this.exporters = List.copyOf(builder.exporters);
+        this.buffer = new UsageRingBuffer<>(builder.capacity);
+        this.batchSize = builder.batchSize;
+        this.flushInterval = builder.flushInterval;
+        this.overflowWait = builder.overflowWait;
+        this.exportTimeout = builder.exportTimeout;
+        this.shutdownTimeout = builder.shutdownTimeout;
+        this.meterRegistry = builder.meterRegistry;
+        this.queueFullDrops = dropCounter(meterRegistry, "queue-full");
+        this.shutdownDrops = dropCounter(meterRegistry, "shutdown");
+        Gauge.builder("gateway.usage.queue.size", buffer, UsageRingBuffer::size)
+            .description("Usage records waiting to be exported")
+            .register(meterRegistry);
+    }
+
+    /** Creates a builder reporting to {@code meterRegistry}. */
+    public static Builder builder(MeterRegistry meterRegistry) {
+        return new Builder(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> record(UsageRecord record) {
+        if (stopped) {
+            shutdownDrops.increment();
+            return Mono.empty();
+        }
+        if (buffer.offer(record)) {
+            afterOffer();
+            return Mono.empty();
+        }
+        flush(false);
+        if (overflowWait.isZero()) {
+            queueFullDrops.increment();
+            return Mono.empty();
+        }
+        return Mono.fromSupplier(() -> buffer.offer(record) ? Boolean.TRUE : null)
+            .repeatWhenEmpty(repeats -> repeats.delayElements(OFFER_RETRY_INTERVAL))
+            .timeout(overflowWait, Mono.<Boolean>fromRunnable(queueFullDrops::increment))
+            .doOnNext(offered -> afterOffer())
+            .then();
+    }
+
+    private void afterOffer() {
+        if (buffer.size() >= batchSize) {
+            flush(false);
+        }
+    }
+
+    /**
+     * Exports full batches, or everything buffered when {@code all} is set,
+     * unless a flush is already running.
+     */
+    private void flush(boolean all) {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        Mono.defer(this::exportNextBatch)
+            .repeat(() -> buffer.size() >= batchSize || (all && buffer.size() > 0))
+            .then()
+            .doFinally(signal -> {
+                flushing.set(false);
+                // Records offered while the flag was held did not trigger a flush.
+                if (!stopped && buffer.size() >= batchSize) {
+                    flush(false);
+                }
+            })
+            .subscribe(null, ex -> logger.warn("Usage flush failed", ex));
+    }
+
+    /** Drains and exports one batch; callers must hold the flushing flag. */
+    private Mono<Void> exportNextBatch() {
+        List<UsageRecord> batch = new ArrayList<>(Math.min(batchSize, buffer.size()));
+        if (buffer.drainTo(batch, batchSize) == 0) {
+            return Mono.empty();
+        }
+        List<UsageRecord> records = List.copyOf(batch);
+        return Flux.fromIterable(exporters)
+            .flatMap(exporter -> export(exporter, records))
+            .then();
+    }
+
+    private Mono<Void> export(UsageExporter exporter, List<UsageRecord> batch) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return Mono.defer(() -> exporter.export(batch))
+            .timeout(exportTimeout)
+            .doOnSuccess(done -> {
+                sample.stop(meterRegistry.timer("gateway.usage.export.duration", "exporter", exporter.getName()));
+                exported(exporter, "success", batch.size());
+            })
+            .onErrorResume(ex -> {
+                logger.warn("Usage exporter {} failed to write {} records", exporter.getName(), batch.size(), ex);
+                exported(exporter, "failure", batch.size());
+                return Mono.empty();
+            });
+    }
+
+    private void exported(UsageExporter exporter, String outcome, int records) {
+        meterRegistry.counter("gateway.usage.exported", "exporter", exporter.getName(), "outcome", outcome).increment(records);
+    }
+
+    @Override
+    public void start() {
+        timer = Flux.interval(flushInterval, flushInterval).subscribe(tick -> flush(true));
+        running = true;
+    }
+
+    /**
+     * Stops accepting records, waits for the running flush and exports the
+     * remaining records, all within the shutdown timeout.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        stopped = true;
+        if (timer != null) {
+            timer.dispose();
+        }
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        while (!flushing.compareAndSet(false, true)) {
+            if (System.nanoTime() - deadline > 0) {
+                logger.warn("Usage flush did not finish within {}, {} records not exported", shutdownTimeout, buffer.size());
+                return;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        try {
+            while (buffer.size() > 0 && deadline - System.nanoTime() > 0) {
+                exportNextBatch().block(Duration.ofNanos(deadline - System.nanoTime()));
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("Usage flush at shutdown failed", ex);
+        }
+        int remaining = buffer.size();
+        if (remaining > 0) {
+            shutdownDrops.increment(remaining);
+            logger.warn("{} usage records not exported at shutdown", remaining);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server (whose lifecycle phases are
+     * {@code DEFAULT_PHASE - 1024} and {@code - 2048}) has finished the
+     * requests in flight.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private static Counter dropCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("gateway.usage.dropped")
+            .description("Usage records dropped before export")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    /** Builder for {@link AsyncUsageRecorder}. */
+    public static final class Builder {
+
+        private final MeterRegistry meterRegistry;
+        private List<UsageExporter> exporters = List.of();
+        private int capacity = 8192;
+        private int batchSize = 500;
+        private Duration flushInterval = Duration.ofSeconds(1);
+        private Duration overflowWait = Duration.ZERO;
+        private Duration exportTimeout = Duration.ofSeconds(10);
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+        private Builder(MeterRegistry meterRegistry) {
+            this.meterRegistry = Objects.requireNonNull(meterRegistry, "meterRegistry must not be null");
+        }
+
+        /** Sets the exporters receiving each batch. */
+        public Builder exporters(List<UsageExporter> exporters) {
+            this.exporters = Objects.requireNonNull(exporters, "exporters must not be null");
+            return this;
+        }
+
+        /** Sets the buffer capacity, rounded up to a power of two. */
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /** Sets the maximum number of records per batch. */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /** Sets the interval after which partial batches are exported. */
+        public Builder flushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        /** Sets how long a record may wait for buffer space; zero drops it immediately. */
+        public Builder overflowWait(Duration overflowWait) {
+            this.overflowWait = overflowWait;
+            return this;
+        }
+
+        /** Sets the time allowed for one exporter to write a batch. */
+        public Builder exportTimeout(Duration exportTimeout) {
+            this.exportTimeout = exportTimeout;
+            return this;
+        }
+
+        /** Sets the time allowed for the final flush on shutdown. */
+        public Builder shutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+            return this;
+        }
+
+        /** Builds the recorder. */
+        public AsyncUsageRecorder build() {
+            Objects.requireNonNull(flushInterval, "flushInterval must not be null");
+            Objects.requireNonNull(overflowWait, "overflowWait must not be null");
+            Objects.requireNonNull(exportTimeout, "exportTimeout must not be null");
+            Objects.requireNonNull(shutdownTimeout, "shutdownTimeout must not be null");
+            if (exporters.isEmpty()) {
+                throw new IllegalArgumentException("At least one usage exporter is required");
+            }
+            if (batchSize < 1 || batchSize > capacity) {
+                throw new IllegalArgumentException("batchSize must be between 1 and the capacity");
+            }
+            if (flushInterval.isZero() || flushInterval.isNegative()) {
+                throw new IllegalArgumentException("flushInterval must be positive");
+            }
+            if (overflowWait.isNegative()) {
+                throw new IllegalArgumentException("overflowWait must not be negative");
+            }
+            return new AsyncUsageRecorder(this);
+        }
+    }
+}
@@ -1,16 +1,34 @@
 package com.example.gateway.finops.usage;
 
+import com.example.gateway.core.model.ModelDescriptor;
+import com.example.gateway.core.pipeline.AbandonedAttempt;
+import com.example.gateway.core.pipeline.InvocationAttributes;
+import com.example.gateway.core.pipeline.InvocationChunk;
 import com.example.gateway.core.pipeline.InvocationContext;
 import com.example.gateway.core.pipeline.InvocationFilter;
 import com.example.gateway.core.pipeline.InvocationResponse;
+import com.example.gateway.core.pipeline.TokenUsage;
 import java.time.Instant;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * Late-stage filter that records usage metrics after a successful provider
- * invocation. Recorded data can be used for dashboarding or billing.
+ * invocation. Recorded data can be used for dashboarding or billing. Streaming
+ * invocations are recorded once the stream completes, pass-through
+ * invocations once the provider body completed, with the usage read from it.
+ * Costs are computed from the serving model's per-token prices in fixed point
+ * (see {@link ModelDescriptor#costPicos}).
+ *
+ * <p>Provider calls that were sent but abandoned, such as the losing side of a
+ * hedged request, are recorded as separate entries. The provider still bills
+ * their prompt, so they are charged the served response's input tokens at the
+ * abandoned model's input price, without output tokens.
  */
 public class SpendTrackingInvocationFilter implements InvocationFilter, Ordered {
 
@@ -23,20 +41,67 @@ public class SpendTrackingInvocationFilter implements InvocationFilter, Ordered
     @Override
     public Mono<InvocationResponse> filter(InvocationContext context, Chain chain) {
         return chain.next(context)
-            .flatMap(response -> usageRecorder.record(buildRecord(context, response)).thenReturn(response));
+            .flatMap(response -> recordAll(context, response.getUsage()).thenReturn(response));
     }
 
-    private UsageRecord buildRecord(InvocationContext context, InvocationResponse response) {
-        Map<String, Object> metadata = response.getMetadata();
-        long inputTokens = ((Number) metadata.getOrDefault("inputTokens", 0)).longValue();
-        long outputTokens = ((Number) metadata.getOrDefault("outputTokens", 0)).longValue();
-        double cost = ((Number) metadata.getOrDefault("cost", 0.0)).doubleValue();
+    @Override
+    public Flux<InvocationChunk> filterStream(InvocationContext context, Chain chain) {
+        return Flux.defer(() -> {
+            AtomicReference<TokenUsage> usage = new AtomicReference<>(TokenUsage.EMPTY);
+            return chain.stream(context)
+                .doOnNext(chunk -> {
+                    if (chunk.isLast()) {
+                        usage.set(chunk.getUsage());
+                    }
+                })
+                .concatWith(Mono.defer(() -> recordAll(context, usage.get()))
+                    .then(Mono.<InvocationChunk>empty()));
+        });
+    }
+
+    @Override
+    public Flux<DataBuffer> filterPassThrough(InvocationContext context, Chain chain) {
+        return chain.passThrough(context)
+            .concatWith(Mono.defer(() -> {
+                TokenUsage usage = InvocationAttributes.usage(context);
+                return recordAll(context, usage != null ? usage : TokenUsage.EMPTY);
+            }).then(Mono.<DataBuffer>empty()));
+    }
+
+    private Mono<Void> recordAll(InvocationContext context, TokenUsage usage) {
+        UsageRecord served = buildRecord(context, usage);
+        List<AbandonedAttempt> abandoned = InvocationAttributes.abandonedAttempts(context);
+        if (abandoned.isEmpty()) {
+            return usageRecorder.record(served);
+        }
+        List<UsageRecord> records = new ArrayList<>(abandoned.size() + 1);
+        records.add(served);
+        for (AbandonedAttempt attempt : abandoned) {
+            records.add(buildAbandonedRecord(served.getTenantId(), attempt, served.getInputTokens()));
+        }
+        return Flux.fromIterable(records).concatMap(usageRecorder::record).then();
+    }
+
+    private UsageRecord buildAbandonedRecord(String tenantId, AbandonedAttempt attempt, long inputTokens) {
+        ModelDescriptor model = attempt.model();
+        long costPicos = model.costPicos(inputTokens, 0);
+        UsageRecord record = new UsageRecord(tenantId, model.getProviderId(), model.getModelId(), inputTokens, 0,
+            ModelDescriptor.picosToUnits(costPicos), Instant.now());
+        record.setCostPicos(costPicos);
+        return record;
+    }
+
+    private UsageRecord buildRecord(InvocationContext context, TokenUsage usage) {
+        ModelDescriptor model = context.getModel();
         UsageRecord record = new UsageRecord();
+        record.setTenantId(InvocationAttributes.tenantId(context));
         record.setProviderId(context.getProvider() != null ? context.getProvider().getId() : "unknown");
-        record.setModelId(context.getModel() != null ? context.getModel().getModelId() : "unknown");
-        record.setInputTokens(inputTokens);
-        record.setOutputTokens(outputTokens);
-        record.setCost(cost);
+        record.setModelId(model != null ? model.getModelId() : "unknown");
+        record.setInputTokens(usage.inputTokens());
+        record.setOutputTokens(usage.outputTokens());
+        long costPicos = model != null ? model.costPicos(usage.inputTokens(), usage.outputTokens()) : 0;
+        record.setCostPicos(costPicos);
+        record.setCost(ModelDescriptor.picosToUnits(costPicos));
         record.setTimestamp(Instant.now());
         return record;
     }
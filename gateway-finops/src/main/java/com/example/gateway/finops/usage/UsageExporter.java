@@ -0,0 +1,23 @@
+package com.example.gateway.finops.usage;
+
+import java.util.List;
+import reactor.core.publisher.Mono;
+
+/**
+ * Destination of batched usage records written by the
+ * {@link AsyncUsageRecorder}. Batches are exported one at a time per
+ * recorder; a failed batch is not retried.
+ */
+public interface UsageExporter {
+
+    /** Name identifying the exporter in logs and metrics. */
+    String getName();
+
+    /**
+     * Writes a batch of usage records.
+     *
+     * @param batch records in the order they were recorded, never empty
+     * @return completion of the write
+     */
+    Mono<Void> export(List<UsageRecord> batch);
+}
@@ -7,17 +7,21 @@ import java.time.Instant;
  */
 public class UsageRecord {
 
+    private String tenantId;
     private String providerId;
     private String modelId;
     private long inputTokens;
     private long outputTokens;
     private double cost;
+    private long costPicos;
     private Instant timestamp;
 
     public UsageRecord() {
     }
 
-    public UsageRecord(String providerId, String modelId, long inputTokens, long outputTokens, double cost, Instant timestamp) {
+    public UsageRecord(String tenantId, String providerId, String modelId, long inputTokens, long outputTokens, double cost,
+                       Instant timestamp) {
+        this.tenantId = tenantId;
         this.providerId = providerId;
         this.modelId = modelId;
         this.inputTokens = inputTokens;
@@ -26,6 +30,14 @@ public class UsageRecord {
         this.timestamp = timestamp;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
     public String getProviderId() {
         return providerId;
     }
@@ -66,6 +78,19 @@ public class UsageRecord {
         this.cost = cost;
     }
 
+    /**
+     * Exact cost in picos of the model's currency, see
+     * {@link com.example.gateway.core.model.ModelDescriptor#COST_SCALE};
+     * {@link #getCost()} is the same cost in currency units.
+     */
+    public long getCostPicos() {
+        return costPicos;
+    }
+
+    public void setCostPicos(long costPicos) {
+        this.costPicos = costPicos;
+    }
+
     public Instant getTimestamp() {
         return timestamp;
     }
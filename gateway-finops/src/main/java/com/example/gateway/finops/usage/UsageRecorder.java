@@ -8,7 +8,9 @@ import reactor.core.publisher.Mono;
 public interface UsageRecorder {
 
     /**
-     * Persists a usage record to the underlying store.
+     * Persists a usage record to the underlying store. Implementations may
+     * only enqueue the record and complete before it is stored, see
+     * {@link AsyncUsageRecorder}.
      */
     Mono<Void> record(UsageRecord record);
 }
@@ -0,0 +1,46 @@
+package com.example.gateway.finops.usage.export;
+
+import com.example.gateway.core.pipeline.InvocationAttributes;
+import com.example.gateway.finops.usage.UsageExporter;
+import com.example.gateway.finops.usage.UsageRecord;
+import com.example.gateway.storage.usage.UsageLedger;
+import com.example.gateway.storage.usage.UsageLedgerEntry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link UsageExporter} appending usage records to the {@link UsageLedger},
+ * which keeps them together with the minute, hour and day rollups that spend
+ * queries are answered from.
+ */
+public class LedgerUsageExporter implements UsageExporter {
+
+    private final UsageLedger usageLedger;
+
+    public LedgerUsageExporter(UsageLedger usageLedger) {
+        this.usageLedger = Objects.requireNonNull(usageLedger, "usageLedger must not be null");
+    }
+
+    @Override
+    public String getName() {
+        return "ledger";
+    }
+
+    @Override
+    public Mono<Void> export(List<UsageRecord> batch) {
+        return Mono.defer(() -> usageLedger.append(batch.stream().map(LedgerUsageExporter::toEntry).toList()));
+    }
+
+    private static UsageLedgerEntry toEntry(UsageRecord record) {
+        return new UsageLedgerEntry(
+            record.getTenantId() != null ? record.getTenantId() : InvocationAttributes.DEFAULT_TENANT,
+            record.getProviderId() != null ? record.getProviderId() : "unknown",
+            record.getModelId() != null ? record.getModelId() : "unknown",
+            record.getInputTokens(),
+            record.getOutputTokens(),
+            record.getCostPicos(),
+            record.getTimestamp() != null ? record.getTimestamp() : Instant.now());
+    }
+}
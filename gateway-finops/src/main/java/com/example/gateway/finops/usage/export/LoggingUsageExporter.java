@@ -0,0 +1,32 @@
+package com.example.gateway.finops.usage.export;
+
+import com.example.gateway.finops.usage.UsageExporter;
+import com.example.gateway.finops.usage.UsageRecord;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * Baseline {@link UsageExporter} that logs usage events, one line per record.
+ */
+public class LoggingUsageExporter implements UsageExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingUsageExporter.class);
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public Mono<Void> export(List<UsageRecord> batch) {
+        return Mono.fromRunnable(() -> {
+            for (UsageRecord record : batch) {
+                logger.info("Usage: tenant={}, provider={}, model={}, inputTokens={}, outputTokens={}, cost={}",
+                    record.getTenantId(), record.getProviderId(), record.getModelId(), record.getInputTokens(),
+                    record.getOutputTokens(), record.getCost());
+            }
+        });
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.gateway.finops.usage.export;
+
+import com.example.gateway.core.pipeline.InvocationAttributes;
+import com.example.gateway.finops.usage.UsageExporter;
+import com.example.gateway.finops.usage.UsageRecord;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link UsageExporter} appending usage records to a Redis stream, one entry
+ * per record, for consumers such as billing jobs reading through consumer
+ * groups. The entries of a batch are sent without waiting for each other's
+ * replies, so they share the connection's pipeline. When a maximum length is
+ * set, the stream is trimmed approximately after each batch.
+ */
+public class RedisStreamUsageExporter implements UsageExporter {
+
+    private static final int CONCURRENCY = 64;
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String streamKey;
+    private final long maxLength;
+
+    /**
+     * @param streamKey key of the stream
+     * @param maxLength approximate number of entries kept, {@code 0} for no limit
+     */
+    public RedisStreamUsageExporter(ReactiveStringRedisTemplate redisTemplate, String streamKey, long maxLength) {
+        this.redisTemplate = Objects.requireNonNull(redisTemplate, "redisTemplate must not be null");
+        this.streamKey = Objects.requireNonNull(streamKey, "streamKey must not be null");
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public String getName() {
+        return "redis";
+    }
+
+    @Override
+    public Mono<Void> export(List<UsageRecord> batch) {
+        Mono<Void> written = Flux.fromIterable(batch)
+            .flatMapSequential(record -> redisTemplate.opsForStream().add(StreamRecords.string(fields(record)).withStreamKey(streamKey)),
+                CONCURRENCY)
+            .then();
+        return maxLength > 0 ? written.then(redisTemplate.opsForStream().trim(streamKey, maxLength, true)).then() : written;
+    }
+
+    private static Map<String, String> fields(UsageRecord record) {
+        return Map.of(
+            "tenant", record.getTenantId() != null ? record.getTenantId() : InvocationAttributes.DEFAULT_TENANT,
+            "provider", String.valueOf(record.getProviderId()),
+            "model", String.valueOf(record.getModelId()),
+            "inputTokens", Long.toString(record.getInputTokens()),
+            "outputTokens", Long.toString(record.getOutputTokens()),
+            "cost", Double.toString(record.getCost()),
+            "timestamp", String.valueOf(record.getTimestamp())
+        );
+    }
+}
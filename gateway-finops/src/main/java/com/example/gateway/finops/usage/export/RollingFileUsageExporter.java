@@ -0,0 +1,145 @@
+package com.example.gateway.finops.usage.export;
+
+import com.example.gateway.finops.usage.UsageExporter;
+import com.example.gateway.finops.usage.UsageRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link UsageExporter} appending usage records as JSON lines to local files
+ * named {@code usage-<date>-<n>.jsonl}. A new file is started at UTC midnight
+ * and once the current file reaches the maximum size; the oldest files beyond
+ * the retained count are deleted. File IO runs on the bounded elastic
+ * scheduler.
+ */
+public class RollingFileUsageExporter implements UsageExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollingFileUsageExporter.class);
+    private static final Pattern FILE_NAME = Pattern.compile("usage-(\\d{4}-\\d{2}-\\d{2})-(\\d+)\\.jsonl");
+    private static final byte[] NEW_LINE = {'\n'};
+
+    private final Path directory;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final ObjectWriter writer;
+    private LocalDate currentDate;
+    private int currentIndex;
+
+    /**
+     * @param maxFileSize size in bytes after which a new file is started
+     * @param maxFiles    number of files retained, {@code 0} to keep all
+     */
+    public RollingFileUsageExporter(Path directory, long maxFileSize, int maxFiles, ObjectMapper objectMapper) {
+        this.directory = Objects.requireNonNull(directory, "directory must not be null");
+        if (maxFileSize < 1) {
+            throw new IllegalArgumentException("maxFileSize must be positive");
+        }
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+        this.writer = Objects.requireNonNull(objectMapper, "objectMapper must not be null").writerFor(UsageRecord.class);
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public Mono<Void> export(List<UsageRecord> batch) {
+        return Mono.<Void>fromRunnable(() -> write(batch)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private synchronized void write(List<UsageRecord> batch) {
+        try {
+            Path file = currentFile();
+            try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (UsageRecord record : batch) {
+                    out.write(writer.writeValueAsBytes(record));
+                    out.write(NEW_LINE);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /** Returns the file to append to, rolling over by date or size. */
+    private Path currentFile() throws IOException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (!today.equals(currentDate)) {
+            Files.createDirectories(directory);
+            currentDate = today;
+            currentIndex = lastIndex(today);
+        }
+        Path file = file(currentDate, currentIndex);
+        if (Files.exists(file) && Files.size(file) >= maxFileSize) {
+            file = file(currentDate, ++currentIndex);
+            deleteExpiredFiles();
+        } else if (!Files.exists(file)) {
+            deleteExpiredFiles();
+        }
+        return file;
+    }
+
+    private Path file(LocalDate date, int index) {
+        return directory.resolve("usage-" + date + "-" + index + ".jsonl");
+    }
+
+    /** Highest index already used for {@code date}, so restarts append to the latest file. */
+    private int lastIndex(LocalDate date) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> FILE_NAME.matcher(path.getFileName().toString()))
+                .filter(matcher -> matcher.matches() && matcher.group(1).equals(date.toString()))
+                .mapToInt(matcher -> Integer.parseInt(matcher.group(2)))
+                .max()
+                .orElse(0);
+        }
+    }
+
+    /** Deletes the oldest files so that, with the file about to be created, at most {@code maxFiles} remain. */
+    private void deleteExpiredFiles() throws IOException {
+        if (maxFiles < 1) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> listed = Files.list(directory)) {
+            files = listed.filter(path -> FILE_NAME.matcher(path.getFileName().toString()).matches())
+                .sorted((left, right) -> compare(left.getFileName().toString(), right.getFileName().toString()))
+                .toList();
+        }
+        for (int i = 0; i < files.size() - maxFiles + 1; i++) {
+            try {
+                Files.deleteIfExists(files.get(i));
+            } catch (IOException ex) {
+                logger.warn("Could not delete expired usage file {}", files.get(i), ex);
+            }
+        }
+    }
+
+    /** Orders file names by date, then numerically by index. */
+    private static int compare(String left, String right) {
+        Matcher first = FILE_NAME.matcher(left);
+        Matcher second = FILE_NAME.matcher(right);
+        first.matches();
+        second.matches();
+        int byDate = first.group(1).compareTo(second.group(1));
+        return byDate != 0 ? byDate : Integer.compare(Integer.parseInt(first.group(2)), Integer.parseInt(second.group(2)));
+    }
+}
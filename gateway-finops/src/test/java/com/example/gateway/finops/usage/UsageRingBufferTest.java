@@ -0,0 +1,128 @@
+package com.example.gateway.finops.usage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+class UsageRingBufferTest {
+
+    @Test
+    void roundsCapacityUpToPowerOfTwo() {
+        assertEquals(1, new UsageRingBuffer<Integer>(1).capacity());
+        assertEquals(8, new UsageRingBuffer<Integer>(5).capacity());
+        assertEquals(8, new UsageRingBuffer<Integer>(8).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new UsageRingBuffer<Integer>(0));
+        assertThrows(IllegalArgumentException.class, () -> new UsageRingBuffer<Integer>((1 << 30) + 1));
+    }
+
+    @Test
+    void rejectsOffersWhenFull() {
+        UsageRingBuffer<Integer> buffer = new UsageRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(1, buffer.drainTo(drained, 1));
+        assertTrue(buffer.offer(4));
+        assertFalse(buffer.offer(5));
+    }
+
+    @Test
+    void drainsInOfferOrderUpToLimit() {
+        UsageRingBuffer<Integer> buffer = new UsageRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(i);
+        }
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(drained, 3));
+        assertEquals(List.of(0, 1, 2), drained);
+        assertEquals(2, buffer.size());
+
+        assertEquals(2, buffer.drainTo(drained, 10));
+        assertEquals(List.of(0, 1, 2, 3, 4), drained);
+        assertEquals(0, buffer.size());
+        assertEquals(0, buffer.drainTo(drained, 10));
+    }
+
+    @Test
+    void wrapsAroundOverManyLaps() {
+        UsageRingBuffer<Integer> buffer = new UsageRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+        int next = 0;
+        for (int lap = 0; lap < 25; lap++) {
+            // Three per round, so slot positions shift against the capacity on every lap.
+            for (int i = 0; i < 3; i++) {
+                assertTrue(buffer.offer(next++));
+            }
+            buffer.drainTo(drained, 3);
+        }
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(next++));
+        }
+        assertFalse(buffer.offer(next));
+        buffer.drainTo(drained, 4);
+
+        assertEquals(next, drained.size());
+        for (int i = 0; i < next; i++) {
+            assertEquals(i, drained.get(i));
+        }
+    }
+
+    @Test
+    void concurrentProducersLoseAndDuplicateNothing() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 20_000;
+        UsageRingBuffer<long[]> buffer = new UsageRingBuffer<>(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    long[] element = {producer, i};
+                    while (!buffer.offer(element)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+
+        int[] nextExpected = new int[producers];
+        List<long[]> drained = new ArrayList<>();
+        int total = 0;
+        while (total < producers * perProducer) {
+            drained.clear();
+            total += buffer.drainTo(drained, 32);
+            for (long[] element : drained) {
+                int producer = (int) element[0];
+                // Each producer's elements arrive once and in the order it offered them.
+                assertEquals(nextExpected[producer]++, (int) element[1]);
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int p = 0; p < producers; p++) {
+            assertEquals(perProducer, nextExpected[p]);
+        }
+        assertEquals(0, buffer.size());
+    }
+}
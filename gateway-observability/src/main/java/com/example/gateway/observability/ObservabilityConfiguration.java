@@ -1,6 +1,9 @@
 package com.example.gateway.observability;
 
+import com.example.gateway.core.registry.ProviderRegistry;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -25,6 +28,18 @@ public class ObservabilityConfiguration {
         return new MeterRegistryCustomizer();
     }
 
+    /**
+     * Publishes the provider registry generation so hot reloads can be
+     * correlated with traffic.
+     */
+    @Bean
+    @ConditionalOnClass(MeterRegistry.class)
+    MeterBinder providerRegistryMetrics(ProviderRegistry providerRegistry) {
+        return registry -> Gauge.builder("gateway.registry.generation", providerRegistry, ProviderRegistry::getGeneration)
+            .description("Generation of the provider registry snapshot currently serving traffic")
+            .register(registry);
+    }
+
     /** Simple customiser that applies the gateway tag. */
     public static class MeterRegistryCustomizer implements org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer<MeterRegistry> {
 
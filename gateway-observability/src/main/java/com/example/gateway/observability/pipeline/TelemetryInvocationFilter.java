@@ -1,19 +1,26 @@
 package com.example.gateway.observability.pipeline;
 
+import com.example.gateway.core.pipeline.InvocationChunk;
 import com.example.gateway.core.pipeline.InvocationContext;
 import com.example.gateway.core.pipeline.InvocationFilter;
 import com.example.gateway.core.pipeline.InvocationResponse;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * Filter that records invocation duration metrics using Micrometer. The filter
  * runs late in the chain to capture latency regardless of cache hits or
- * failures.
+ * failures. Streaming invocations additionally record the time to the first
+ * chunk. Pass-through invocations are recorded with the {@code pass-through}
+ * mode.
  */
 @Component
 public class TelemetryInvocationFilter implements InvocationFilter, Ordered {
@@ -33,11 +40,51 @@ public class TelemetryInvocationFilter implements InvocationFilter, Ordered {
 
         return chain.next(context)
             .doOnError(throwable -> outcome.set("error"))
-            .doFinally(signalType -> sample.stop(Timer.builder("gateway.invocation.duration")
-                .tag("model", model != null ? model : "unknown")
-                .tag("provider", provider != null ? provider : "auto")
-                .tag("outcome", outcome.get())
-                .register(meterRegistry)));
+            .doFinally(signalType -> sample.stop(durationTimer(model, provider, "unary", outcome.get())));
+    }
+
+    @Override
+    public Flux<InvocationChunk> filterStream(InvocationContext context, Chain chain) {
+        String model = context.getRequest().getModelHint();
+        String provider = context.getRequest().getProviderHint();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long start = System.nanoTime();
+        AtomicReference<String> outcome = new AtomicReference<>("success");
+        AtomicBoolean firstChunk = new AtomicBoolean(true);
+
+        return chain.stream(context)
+            .doOnNext(chunk -> {
+                if (firstChunk.compareAndSet(true, false)) {
+                    Timer.builder("gateway.invocation.first-chunk")
+                        .tag("model", model != null ? model : "unknown")
+                        .tag("provider", provider != null ? provider : "auto")
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            })
+            .doOnError(throwable -> outcome.set("error"))
+            .doFinally(signalType -> sample.stop(durationTimer(model, provider, "stream", outcome.get())));
+    }
+
+    @Override
+    public Flux<DataBuffer> filterPassThrough(InvocationContext context, Chain chain) {
+        String model = context.getRequest().getModelHint();
+        String provider = context.getRequest().getProviderHint();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        AtomicReference<String> outcome = new AtomicReference<>("success");
+
+        return chain.passThrough(context)
+            .doOnError(throwable -> outcome.set("error"))
+            .doFinally(signalType -> sample.stop(durationTimer(model, provider, "pass-through", outcome.get())));
+    }
+
+    private Timer durationTimer(String model, String provider, String mode, String outcome) {
+        return Timer.builder("gateway.invocation.duration")
+            .tag("model", model != null ? model : "unknown")
+            .tag("provider", provider != null ? provider : "auto")
+            .tag("mode", mode)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
     }
 
     @Override
@@ -0,0 +1,79 @@
+package com.example.gateway.storage.config;
+
+import com.example.gateway.storage.vector.InMemoryVectorStoreClient;
+import com.example.gateway.storage.vector.PgVectorStoreClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Storage module configuration registering the vector store and usage ledger
+ * properties. The vector store backend is selected with
+ * {@code gateway.storage.vector.backend}: {@code postgres} (default) uses the
+ * pgvector client, while {@code in-memory} uses an exact in-process index
+ * instead. Exactly one client is registered, so an in-memory deployment does
+ * not need the pgvector client's database.
+ */
+@Configuration
+@EnableConfigurationProperties({VectorStoreProperties.class, UsageLedgerProperties.class})
+public class StorageConfiguration {
+
+    private static final String BACKEND_PROPERTY = "gateway.storage.vector.backend";
+
+    @Bean
+    @Conditional(PostgresBackend.class)
+    PgVectorStoreClient pgVectorStoreClient(ConnectionFactory connectionFactory, VectorStoreProperties properties,
+                                            ObjectMapper objectMapper) {
+        return new PgVectorStoreClient(connectionFactory, properties, objectMapper);
+    }
+
+    @Bean
+    @Conditional(InMemoryBackend.class)
+    InMemoryVectorStoreClient inMemoryVectorStoreClient(VectorStoreProperties properties, ObjectMapper objectMapper) {
+        VectorStoreProperties.InMemory inMemory = properties.getInMemory();
+        return new InMemoryVectorStoreClient(properties.getDimensions(), properties.getMetric(), inMemory.getInitialCapacity(),
+            inMemory.getSnapshotPath(), objectMapper);
+    }
+
+    /**
+     * Matches when the backend property binds to the given backend, so every
+     * spelling accepted by relaxed binding ({@code in-memory},
+     * {@code IN_MEMORY}, {@code in_memory}) selects the same client.
+     */
+    private abstract static class BackendCondition implements Condition {
+
+        private final VectorStoreProperties.Backend backend;
+
+        BackendCondition(VectorStoreProperties.Backend backend) {
+            this.backend = backend;
+        }
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return Binder.get(context.getEnvironment())
+                .bind(BACKEND_PROPERTY, VectorStoreProperties.Backend.class)
+                .orElse(VectorStoreProperties.Backend.POSTGRES) == backend;
+        }
+    }
+
+    static final class PostgresBackend extends BackendCondition {
+
+        PostgresBackend() {
+            super(VectorStoreProperties.Backend.POSTGRES);
+        }
+    }
+
+    static final class InMemoryBackend extends BackendCondition {
+
+        InMemoryBackend() {
+            super(VectorStoreProperties.Backend.IN_MEMORY);
+        }
+    }
+}
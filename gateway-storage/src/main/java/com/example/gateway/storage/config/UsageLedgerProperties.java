@@ -0,0 +1,85 @@
+package com.example.gateway.storage.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the usage ledger mirroring the
+ * {@code gateway.storage.usage} property tree.
+ */
+@ConfigurationProperties("gateway.storage.usage")
+public class UsageLedgerProperties {
+
+    /** Append-only table holding every usage entry. */
+    private String table = "usage_ledger";
+
+    /**
+     * Prefix of the rollup tables; {@code _minute}, {@code _hour} and
+     * {@code _day} are appended.
+     */
+    private String rollupTablePrefix = "usage_rollup";
+
+    /** Whether the ledger and rollup tables are created when missing. */
+    private boolean manageSchema = true;
+
+    /** Interval at which in-memory rollups are written to the rollup tables. */
+    private Duration flushInterval = Duration.ofSeconds(10);
+
+    /**
+     * Age after which rollup buckets are treated as complete; more recent
+     * usage is read from the ledger. Must exceed the flush interval plus the
+     * delay between an invocation and its ledger append.
+     */
+    private Duration settleTime = Duration.ofMinutes(1);
+
+    /** Time allowed for writing the in-memory rollups on shutdown. */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    public String getTable() {
+        return table;
+    }
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public String getRollupTablePrefix() {
+        return rollupTablePrefix;
+    }
+
+    public void setRollupTablePrefix(String rollupTablePrefix) {
+        this.rollupTablePrefix = rollupTablePrefix;
+    }
+
+    public boolean isManageSchema() {
+        return manageSchema;
+    }
+
+    public void setManageSchema(boolean manageSchema) {
+        this.manageSchema = manageSchema;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Duration getSettleTime() {
+        return settleTime;
+    }
+
+    public void setSettleTime(Duration settleTime) {
+        this.settleTime = settleTime;
+    }
+
+    public Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public void setShutdownTimeout(Duration shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+}
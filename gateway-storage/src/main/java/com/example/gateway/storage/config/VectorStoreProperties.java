@@ -0,0 +1,237 @@
+package com.example.gateway.storage.config;
+
+import com.example.gateway.storage.vector.DistanceMetric;
+import com.example.gateway.storage.vector.VectorIndexType;
+import java.nio.file.Path;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the pgvector store mirroring the
+ * {@code gateway.storage.vector} property tree.
+ */
+@ConfigurationProperties("gateway.storage.vector")
+public class VectorStoreProperties {
+
+    /** Store implementation backing {@code VectorStoreClient}. */
+    private Backend backend = Backend.POSTGRES;
+
+    /** Table holding the embeddings. */
+    private String table = "ai_embeddings";
+
+    /** Dimension of stored embeddings; must match the embedding model. */
+    private int dimensions = 1536;
+
+    /** Distance function used for ordering and for the index operator class. */
+    private DistanceMetric metric = DistanceMetric.COSINE;
+
+    /**
+     * Whether the store creates the extension, the tenant-partitioned table
+     * and per-tenant indexes on demand.
+     */
+    private boolean manageSchema = true;
+
+    /** Approximate nearest-neighbour index settings. */
+    private final Index index = new Index();
+
+    /** Bulk ingestion settings used by {@code upsertAll}. */
+    private final Ingest ingest = new Ingest();
+
+    /** Settings of the in-process store, used when {@link Backend#IN_MEMORY} is selected. */
+    private final InMemory inMemory = new InMemory();
+
+    public Backend getBackend() {
+        return backend;
+    }
+
+    public void setBackend(Backend backend) {
+        this.backend = backend;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public void setDimensions(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    public DistanceMetric getMetric() {
+        return metric;
+    }
+
+    public void setMetric(DistanceMetric metric) {
+        this.metric = metric;
+    }
+
+    public boolean isManageSchema() {
+        return manageSchema;
+    }
+
+    public void setManageSchema(boolean manageSchema) {
+        this.manageSchema = manageSchema;
+    }
+
+    public Index getIndex() {
+        return index;
+    }
+
+    public Ingest getIngest() {
+        return ingest;
+    }
+
+    public InMemory getInMemory() {
+        return inMemory;
+    }
+
+    /**
+     * Available vector store implementations.
+     */
+    public enum Backend {
+        /** PostgreSQL with the pgvector extension. */
+        POSTGRES,
+        /** Exact in-process index with optional snapshot persistence. */
+        IN_MEMORY
+    }
+
+    /**
+     * Index build and query-time tuning parameters.
+     */
+    public static class Index {
+
+        /** Index type created for each tenant partition. */
+        private VectorIndexType type = VectorIndexType.HNSW;
+
+        /** HNSW: maximum connections per layer. */
+        private int m = 16;
+
+        /** HNSW: candidate list size while building the graph. */
+        private int efConstruction = 64;
+
+        /** HNSW: candidate list size while searching; higher improves recall. */
+        private int efSearch = 40;
+
+        /** IVFFlat: number of inverted lists. */
+        private int lists = 100;
+
+        /** IVFFlat: number of lists probed while searching; higher improves recall. */
+        private int probes = 10;
+
+        public VectorIndexType getType() {
+            return type;
+        }
+
+        public void setType(VectorIndexType type) {
+            this.type = type;
+        }
+
+        public int getM() {
+            return m;
+        }
+
+        public void setM(int m) {
+            this.m = m;
+        }
+
+        public int getEfConstruction() {
+            return efConstruction;
+        }
+
+        public void setEfConstruction(int efConstruction) {
+            this.efConstruction = efConstruction;
+        }
+
+        public int getEfSearch() {
+            return efSearch;
+        }
+
+        public void setEfSearch(int efSearch) {
+            this.efSearch = efSearch;
+        }
+
+        public int getLists() {
+            return lists;
+        }
+
+        public void setLists(int lists) {
+            this.lists = lists;
+        }
+
+        public int getProbes() {
+            return probes;
+        }
+
+        public void setProbes(int probes) {
+            this.probes = probes;
+        }
+    }
+
+    /**
+     * Bulk ingestion settings.
+     */
+    public static class Ingest {
+
+        /**
+         * Records written per multi-row INSERT statement. PostgreSQL limits a
+         * statement to 65535 parameters, i.e. 16383 records.
+         */
+        private int batchSize = 500;
+
+        /** Maximum number of batches written concurrently. */
+        private int concurrency = 4;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+    }
+
+    /**
+     * In-process store settings.
+     */
+    public static class InMemory {
+
+        /** Initial number of vectors allocated per tenant segment. */
+        private int initialCapacity = 1024;
+
+        /**
+         * Snapshot file restored on startup and written on shutdown; the
+         * store is not persisted when unset.
+         */
+        private Path snapshotPath;
+
+        public int getInitialCapacity() {
+            return initialCapacity;
+        }
+
+        public void setInitialCapacity(int initialCapacity) {
+            this.initialCapacity = initialCapacity;
+        }
+
+        public Path getSnapshotPath() {
+            return snapshotPath;
+        }
+
+        public void setSnapshotPath(Path snapshotPath) {
+            this.snapshotPath = snapshotPath;
+        }
+    }
+}
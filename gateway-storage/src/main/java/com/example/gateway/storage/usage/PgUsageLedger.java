@@ -0,0 +1,340 @@
+package com.example.gateway.storage.usage;
+
+import com.example.gateway.core.model.ModelDescriptor;
+import com.example.gateway.storage.config.UsageLedgerProperties;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * PostgreSQL {@link UsageLedger} over R2DBC. Entries are appended to the
+ * ledger table with multi-row {@code INSERT} statements and added to
+ * in-memory minute, hour and day rollups, which are written every flush
+ * interval as additive upserts into one rollup table per granularity. Since
+ * upserts add to the stored buckets, any number of nodes can share the
+ * tables. Rows are upserted in key order so concurrent flushes of several
+ * nodes lock them in the same order.
+ *
+ * <p>Spend queries combine day, hour and minute buckets with the ledger
+ * entries of the partial minutes at the window edges (see
+ * {@link UsageQueryPlanner}) in one statement, so their cost does not depend
+ * on the length of the window or the size of the ledger. Usage more recent
+ * than the settle time is read from the ledger, because other nodes may not
+ * have flushed it yet. Dashboards can read the rollup tables directly.
+ *
+ * <p>Rollups not flushed when a node crashes are missing from the rollup
+ * tables, but not from the ledger they can be rebuilt from.
+ */
+@Component
+public class PgUsageLedger implements UsageLedger, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PgUsageLedger.class);
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]{0,55}");
+    private static final int LEDGER_COLUMNS = 7;
+    private static final int ROLLUP_COLUMNS = 8;
+    private static final int MAX_LEDGER_ROWS = 65535 / LEDGER_COLUMNS;
+    private static final int MAX_ROLLUP_ROWS = 65535 / ROLLUP_COLUMNS;
+    private static final Comparator<UsageRollups.Key> KEY_ORDER = Comparator.comparing(UsageRollups.Key::tenantId)
+        .thenComparing(UsageRollups.Key::bucketStart)
+        .thenComparing(UsageRollups.Key::providerId)
+        .thenComparing(UsageRollups.Key::modelId);
+
+    private final DatabaseClient databaseClient;
+    private final String table;
+    private final Map<UsageGranularity, String> rollupTables = new EnumMap<>(UsageGranularity.class);
+    private final UsageLedgerProperties properties;
+    private final UsageRollups rollups = new UsageRollups();
+    private final AtomicReference<Mono<Void>> schema = new AtomicReference<>();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private volatile boolean running;
+    private Disposable timer;
+
+    public PgUsageLedger(ConnectionFactory connectionFactory, UsageLedgerProperties properties) {
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+        this.properties = properties;
+        this.table = identifier(properties.getTable());
+        for (UsageGranularity granularity : UsageGranularity.values()) {
+            rollupTables.put(granularity,
+                identifier(properties.getRollupTablePrefix() + "_" + granularity.name().toLowerCase(Locale.ROOT)));
+        }
+        if (properties.getFlushInterval().isZero() || properties.getFlushInterval().isNegative()) {
+            throw new IllegalArgumentException("Usage rollup flush interval must be positive");
+        }
+    }
+
+    /**
+     * Inserts the entries in statements of up to {@value #MAX_LEDGER_ROWS}
+     * rows. Each statement's entries are added to the rollups once it
+     * succeeded, so the rollups never count entries the ledger lacks.
+     */
+    @Override
+    public Mono<Void> append(List<UsageLedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return Mono.empty();
+        }
+        return ensureSchema().then(Flux.range(0, (entries.size() + MAX_LEDGER_ROWS - 1) / MAX_LEDGER_ROWS)
+            .map(chunk -> entries.subList(chunk * MAX_LEDGER_ROWS, Math.min(entries.size(), (chunk + 1) * MAX_LEDGER_ROWS)))
+            .concatMap(chunk -> insert(chunk).then(Mono.fromRunnable(() -> rollups.add(chunk))))
+            .then());
+    }
+
+    private Mono<Void> insert(List<UsageLedgerEntry> entries) {
+        StringBuilder sql = new StringBuilder(128 + entries.size() * 40).append("INSERT INTO ").append(table)
+            .append(" (tenant_id, provider_id, model_id, input_tokens, output_tokens, cost_picos, recorded_at) VALUES ");
+        appendValues(sql, entries.size(), LEDGER_COLUMNS);
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        int parameter = 0;
+        for (UsageLedgerEntry entry : entries) {
+            spec = spec.bind(parameter++, entry.tenantId())
+                .bind(parameter++, entry.providerId())
+                .bind(parameter++, entry.modelId())
+                .bind(parameter++, entry.inputTokens())
+                .bind(parameter++, entry.outputTokens())
+                .bind(parameter++, entry.costPicos())
+                .bind(parameter++, entry.recordedAt());
+        }
+        return spec.then();
+    }
+
+    @Override
+    public Mono<UsageSpend> spend(UsageSpendQuery query) {
+        Instant horizon = UsageGranularity.MINUTE.floor(Instant.now().minus(properties.getSettleTime()));
+        List<UsageQueryPlanner.Segment> segments = UsageQueryPlanner.plan(query.from(), query.to(), horizon);
+        if (segments.isEmpty()) {
+            return Mono.just(UsageSpend.of(query, List.of()));
+        }
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(query.tenantId());
+        StringBuilder filter = new StringBuilder();
+        if (query.providerId() != null) {
+            parameters.add(query.providerId());
+            filter.append(" AND provider_id = $").append(parameters.size());
+        }
+        if (query.modelId() != null) {
+            parameters.add(query.modelId());
+            filter.append(" AND model_id = $").append(parameters.size());
+        }
+        StringBuilder sql = new StringBuilder("SELECT provider_id, model_id, SUM(requests)::bigint AS requests, ")
+            .append("SUM(input_tokens)::bigint AS input_tokens, SUM(output_tokens)::bigint AS output_tokens, ")
+            .append("SUM(cost_picos) AS cost_picos FROM (");
+        for (int i = 0; i < segments.size(); i++) {
+            UsageQueryPlanner.Segment segment = segments.get(i);
+            if (i > 0) {
+                sql.append(" UNION ALL ");
+            }
+            if (segment.granularity() == null) {
+                sql.append("SELECT provider_id, model_id, 1::bigint AS requests, input_tokens, output_tokens, ")
+                    .append("cost_picos::numeric AS cost_picos FROM ").append(table).append(" WHERE tenant_id = $1 AND recorded_at >= $");
+            } else {
+                sql.append("SELECT provider_id, model_id, requests, input_tokens, output_tokens, cost_picos FROM ")
+                    .append(rollupTables.get(segment.granularity())).append(" WHERE tenant_id = $1 AND bucket_start >= $");
+            }
+            parameters.add(segment.from());
+            sql.append(parameters.size()).append(segment.granularity() == null ? " AND recorded_at < $" : " AND bucket_start < $");
+            parameters.add(segment.to());
+            sql.append(parameters.size()).append(filter);
+        }
+        sql.append(") usage GROUP BY provider_id, model_id ORDER BY provider_id, model_id");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < parameters.size(); i++) {
+            spec = spec.bind(i, parameters.get(i));
+        }
+        return ensureSchema().then(spec.map((row, metadata) -> toModelSpend(row)).all().collectList())
+            .map(models -> UsageSpend.of(query, models));
+    }
+
+    private static UsageSpend.ModelSpend toModelSpend(Row row) {
+        BigDecimal costPicos = row.get("cost_picos", BigDecimal.class);
+        return new UsageSpend.ModelSpend(row.get("provider_id", String.class), row.get("model_id", String.class),
+            longValue(row, "requests"), longValue(row, "input_tokens"), longValue(row, "output_tokens"),
+            costPicos != null ? costPicos.movePointLeft(ModelDescriptor.COST_SCALE) : BigDecimal.ZERO);
+    }
+
+    private static long longValue(Row row, String column) {
+        Long value = row.get(column, Long.class);
+        return value != null ? value : 0;
+    }
+
+    /**
+     * Writes the pending rollups unless a flush is already running. Deltas
+     * that fail to be written are kept for the next flush.
+     */
+    Mono<Void> flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+                Map<UsageRollups.Key, UsageRollups.Totals> drained = rollups.drain();
+                if (drained.isEmpty()) {
+                    return Mono.<Void>empty();
+                }
+                return ensureSchema().then(upsertAll(drained))
+                    .doOnCancel(() -> rollups.restore(drained))
+                    .onErrorResume(ex -> {
+                        logger.warn("Usage rollup flush failed, retrying {} buckets with the next flush", drained.size(), ex);
+                        rollups.restore(drained);
+                        return Mono.empty();
+                    });
+            })
+            .doFinally(signal -> flushing.set(false));
+    }
+
+    private Mono<Void> upsertAll(Map<UsageRollups.Key, UsageRollups.Totals> drained) {
+        Map<UsageGranularity, List<UsageRollups.Key>> byGranularity = new EnumMap<>(UsageGranularity.class);
+        for (UsageRollups.Key key : drained.keySet()) {
+            byGranularity.computeIfAbsent(key.granularity(), granularity -> new ArrayList<>()).add(key);
+        }
+        return Flux.fromIterable(byGranularity.entrySet())
+            .concatMap(entry -> {
+                List<UsageRollups.Key> keys = entry.getValue();
+                keys.sort(KEY_ORDER);
+                return Flux.range(0, (keys.size() + MAX_ROLLUP_ROWS - 1) / MAX_ROLLUP_ROWS)
+                    .concatMap(chunk -> upsert(entry.getKey(),
+                        keys.subList(chunk * MAX_ROLLUP_ROWS, Math.min(keys.size(), (chunk + 1) * MAX_ROLLUP_ROWS)), drained));
+            })
+            .then();
+    }
+
+    private Mono<Void> upsert(UsageGranularity granularity, List<UsageRollups.Key> keys,
+                              Map<UsageRollups.Key, UsageRollups.Totals> totals) {
+        StringBuilder sql = new StringBuilder(256 + keys.size() * 48).append("INSERT INTO ").append(rollupTables.get(granularity))
+            .append(" AS r (tenant_id, bucket_start, provider_id, model_id, requests, input_tokens, output_tokens, cost_picos) VALUES ");
+        appendValues(sql, keys.size(), ROLLUP_COLUMNS);
+        sql.append(" ON CONFLICT (tenant_id, bucket_start, provider_id, model_id) DO UPDATE SET ")
+            .append("requests = r.requests + EXCLUDED.requests, input_tokens = r.input_tokens + EXCLUDED.input_tokens, ")
+            .append("output_tokens = r.output_tokens + EXCLUDED.output_tokens, cost_picos = r.cost_picos + EXCLUDED.cost_picos");
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        int parameter = 0;
+        for (UsageRollups.Key key : keys) {
+            UsageRollups.Totals bucket = totals.get(key);
+            spec = spec.bind(parameter++, key.tenantId())
+                .bind(parameter++, key.bucketStart())
+                .bind(parameter++, key.providerId())
+                .bind(parameter++, key.modelId())
+                .bind(parameter++, bucket.requests)
+                .bind(parameter++, bucket.inputTokens)
+                .bind(parameter++, bucket.outputTokens)
+                .bind(parameter++, BigDecimal.valueOf(bucket.costPicos));
+        }
+        return spec.then();
+    }
+
+    private static void appendValues(StringBuilder sql, int rows, int columns) {
+        for (int row = 0, parameter = 1; row < rows; row++) {
+            sql.append(row > 0 ? ", (" : "(");
+            for (int column = 0; column < columns; column++, parameter++) {
+                sql.append(column > 0 ? ", $" : "$").append(parameter);
+            }
+            sql.append(')');
+        }
+    }
+
+    /** Creates the tables once; a failed attempt is retried with the next call. */
+    private Mono<Void> ensureSchema() {
+        if (!properties.isManageSchema()) {
+            return Mono.empty();
+        }
+        Mono<Void> ready = schema.get();
+        if (ready != null) {
+            return ready;
+        }
+        Mono<Void> created = Mono.defer(this::createTables)
+            .doOnError(ex -> {
+                logger.warn("Usage ledger setup failed for {}", table, ex);
+                schema.set(null);
+            })
+            .cache();
+        return schema.updateAndGet(current -> current != null ? current : created);
+    }
+
+    private Mono<Void> createTables() {
+        Mono<Void> ledger = execute("CREATE TABLE IF NOT EXISTS " + table + " (tenant_id TEXT NOT NULL, provider_id TEXT NOT NULL, "
+                + "model_id TEXT NOT NULL, input_tokens BIGINT NOT NULL, output_tokens BIGINT NOT NULL, "
+                + "cost_picos BIGINT NOT NULL, recorded_at TIMESTAMPTZ NOT NULL)")
+            .then(execute("CREATE INDEX IF NOT EXISTS " + table + "_tenant_time_idx ON " + table + " (tenant_id, recorded_at)"));
+        return Flux.fromIterable(rollupTables.values())
+            .concatMap(rollupTable -> execute("CREATE TABLE IF NOT EXISTS " + rollupTable + " (tenant_id TEXT NOT NULL, "
+                + "bucket_start TIMESTAMPTZ NOT NULL, provider_id TEXT NOT NULL, model_id TEXT NOT NULL, requests BIGINT NOT NULL, "
+                + "input_tokens BIGINT NOT NULL, output_tokens BIGINT NOT NULL, cost_picos NUMERIC(38) NOT NULL, "
+                + "PRIMARY KEY (tenant_id, bucket_start, provider_id, model_id))"))
+            .then(ledger);
+    }
+
+    private Mono<Void> execute(String sql) {
+        return databaseClient.sql(sql).then();
+    }
+
+    private static String identifier(String name) {
+        if (!IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid usage table name: " + name);
+        }
+        return name;
+    }
+
+    @Override
+    public void start() {
+        Duration interval = properties.getFlushInterval();
+        timer = Flux.interval(interval, interval).subscribe(tick -> flush().subscribe());
+        running = true;
+    }
+
+    /**
+     * Waits for the running flush and writes the remaining rollups, within
+     * the shutdown timeout.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (timer != null) {
+            timer.dispose();
+        }
+        long deadline = System.nanoTime() + properties.getShutdownTimeout().toNanos();
+        while (flushing.get() && deadline - System.nanoTime() > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        try {
+            flush().block(Duration.ofNanos(Math.max(1, deadline - System.nanoTime())));
+        } catch (RuntimeException ex) {
+            logger.warn("Usage rollup flush at shutdown failed", ex);
+        }
+        if (!rollups.isEmpty()) {
+            logger.warn("Usage rollups not written at shutdown; rebuild them from {}", table);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops late, so that usage appended while other components shut down
+     * still reaches the rollup tables.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+}
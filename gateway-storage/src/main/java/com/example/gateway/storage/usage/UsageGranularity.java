@@ -0,0 +1,32 @@
+package com.example.gateway.storage.usage;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket sizes of the usage rollups. Buckets are tumbling windows aligned to
+ * UTC.
+ */
+public enum UsageGranularity {
+
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    UsageGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /** Start of the bucket containing {@code instant}. */
+    public Instant floor(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    /** Start of the first bucket starting at or after {@code instant}. */
+    public Instant ceil(Instant instant) {
+        Instant floor = floor(instant);
+        return floor.equals(instant) ? floor : floor.plus(1, unit);
+    }
+}
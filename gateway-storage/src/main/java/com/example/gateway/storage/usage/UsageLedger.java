@@ -0,0 +1,22 @@
+package com.example.gateway.storage.usage;
+
+import java.util.List;
+import reactor.core.publisher.Mono;
+
+/**
+ * Durable, append-only record of invocation usage with pre-aggregated
+ * rollups for spend queries.
+ */
+public interface UsageLedger {
+
+    /**
+     * Appends a batch of entries. Completes once the entries are stored; the
+     * rollups may be updated later.
+     */
+    Mono<Void> append(List<UsageLedgerEntry> entries);
+
+    /**
+     * Computes the spend matching {@code query}.
+     */
+    Mono<UsageSpend> spend(UsageSpendQuery query);
+}
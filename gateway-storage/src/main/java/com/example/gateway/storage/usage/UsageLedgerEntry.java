@@ -0,0 +1,22 @@
+package com.example.gateway.storage.usage;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * One invocation's token usage and cost as stored in the {@link UsageLedger}.
+ *
+ * @param costPicos  cost in picos of the model's currency, see
+ *                   {@link com.example.gateway.core.model.ModelDescriptor#COST_SCALE}
+ * @param recordedAt time the invocation completed
+ */
+public record UsageLedgerEntry(String tenantId, String providerId, String modelId, long inputTokens, long outputTokens,
+                               long costPicos, Instant recordedAt) {
+
+    public UsageLedgerEntry {
+        Objects.requireNonNull(tenantId, "tenantId must not be null");
+        Objects.requireNonNull(providerId, "providerId must not be null");
+        Objects.requireNonNull(modelId, "modelId must not be null");
+        Objects.requireNonNull(recordedAt, "recordedAt must not be null");
+    }
+}
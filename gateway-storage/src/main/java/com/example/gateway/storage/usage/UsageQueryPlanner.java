@@ -0,0 +1,74 @@
+package com.example.gateway.storage.usage;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a query window into the fewest segments that can be read from the
+ * rollups: whole days in the middle, hours and minutes towards the edges, and
+ * the partial minutes at both ends from the ledger. Usage after the rollup
+ * horizon, which the rollups may not contain yet, is read from the ledger as
+ * well. A window therefore reads at most two minutes of ledger entries plus
+ * the usage since the horizon, and at most 118 minute and 46 hour buckets,
+ * however long it is.
+ */
+final class UsageQueryPlanner {
+
+    private static final UsageGranularity[] LEVELS = UsageGranularity.values();
+
+    private UsageQueryPlanner() {
+    }
+
+    /**
+     * @param horizon minute-aligned instant up to which the rollups are complete
+     */
+    static List<Segment> plan(Instant from, Instant to, Instant horizon) {
+        List<Segment> segments = new ArrayList<>();
+        Instant rollupEnd = to.isAfter(horizon) ? horizon : to;
+        if (rollupEnd.isBefore(from)) {
+            rollupEnd = from;
+        }
+        split(from, rollupEnd, null, 0, segments);
+        add(segments, null, rollupEnd, to);
+        return segments;
+    }
+
+    /**
+     * Reads {@code [from, to)} from the buckets of {@code LEVELS[level]} as far
+     * as they fit and the remaining edges from {@code source}.
+     */
+    private static void split(Instant from, Instant to, UsageGranularity source, int level, List<Segment> segments) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        if (level == LEVELS.length) {
+            add(segments, source, from, to);
+            return;
+        }
+        UsageGranularity granularity = LEVELS[level];
+        Instant start = granularity.ceil(from);
+        Instant end = granularity.floor(to);
+        if (!start.isBefore(end)) {
+            add(segments, source, from, to);
+            return;
+        }
+        add(segments, source, from, start);
+        add(segments, source, end, to);
+        split(start, end, granularity, level + 1, segments);
+    }
+
+    private static void add(List<Segment> segments, UsageGranularity source, Instant from, Instant to) {
+        if (from.isBefore(to)) {
+            segments.add(new Segment(source, from, to));
+        }
+    }
+
+    /**
+     * Part of a window read from one source.
+     *
+     * @param granularity rollup granularity, or {@code null} for the ledger
+     */
+    record Segment(UsageGranularity granularity, Instant from, Instant to) {
+    }
+}
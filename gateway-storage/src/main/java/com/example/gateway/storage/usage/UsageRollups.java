@@ -0,0 +1,70 @@
+package com.example.gateway.storage.usage;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory rollup deltas not yet written to the rollup tables. Each entry
+ * is added to its minute, hour and day bucket, so the deltas grow with the
+ * number of distinct tenant and model combinations per flush, not with the
+ * number of entries.
+ */
+final class UsageRollups {
+
+    private Map<Key, Totals> pending = new HashMap<>();
+
+    synchronized void add(List<UsageLedgerEntry> entries) {
+        for (UsageLedgerEntry entry : entries) {
+            for (UsageGranularity granularity : UsageGranularity.values()) {
+                Key key = new Key(granularity, granularity.floor(entry.recordedAt()), entry.tenantId(), entry.providerId(),
+                    entry.modelId());
+                pending.computeIfAbsent(key, k -> new Totals()).add(1, entry.inputTokens(), entry.outputTokens(), entry.costPicos());
+            }
+        }
+    }
+
+    /** Removes and returns the pending deltas. */
+    synchronized Map<Key, Totals> drain() {
+        Map<Key, Totals> drained = pending;
+        pending = new HashMap<>();
+        return drained;
+    }
+
+    /** Puts back deltas that could not be written. */
+    synchronized void restore(Map<Key, Totals> drained) {
+        drained.forEach((key, totals) -> pending.computeIfAbsent(key, k -> new Totals())
+            .add(totals.requests, totals.inputTokens, totals.outputTokens, totals.costPicos));
+    }
+
+    synchronized boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * Rollup row identity: one bucket of one tenant's usage of one model.
+     */
+    record Key(UsageGranularity granularity, Instant bucketStart, String tenantId, String providerId, String modelId) {
+    }
+
+    /**
+     * Usage accumulated in a bucket.
+     */
+    static final class Totals {
+
+        long requests;
+        long inputTokens;
+        long outputTokens;
+        long costPicos;
+
+        void add(long requests, long inputTokens, long outputTokens, long costPicos) {
+            this.requests += requests;
+            this.inputTokens += inputTokens;
+            this.outputTokens += outputTokens;
+            long cost = this.costPicos + costPicos;
+            // Saturates like ModelDescriptor#costPicos instead of wrapping around.
+            this.costPicos = ((this.costPicos ^ cost) & (costPicos ^ cost)) < 0 ? Long.MAX_VALUE : cost;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.gateway.storage.usage;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spend of a tenant over a window, in total and per provider and model.
+ * Costs are in units of the models' currency.
+ */
+public record UsageSpend(String tenantId, Instant from, Instant to, long requests, long inputTokens, long outputTokens,
+                         BigDecimal cost, List<ModelSpend> models) {
+
+    public UsageSpend {
+        models = List.copyOf(models);
+    }
+
+    /** Combines per-model spend into the totals of the window. */
+    static UsageSpend of(UsageSpendQuery query, List<ModelSpend> models) {
+        long requests = 0;
+        long inputTokens = 0;
+        long outputTokens = 0;
+        BigDecimal cost = BigDecimal.ZERO;
+        for (ModelSpend model : models) {
+            requests += model.requests();
+            inputTokens += model.inputTokens();
+            outputTokens += model.outputTokens();
+            cost = cost.add(model.cost());
+        }
+        return new UsageSpend(query.tenantId(), query.from(), query.to(), requests, inputTokens, outputTokens, cost, models);
+    }
+
+    /**
+     * Spend on one model within the window.
+     */
+    public record ModelSpend(String providerId, String modelId, long requests, long inputTokens, long outputTokens,
+                             BigDecimal cost) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.gateway.storage.usage;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Window and filters of a spend query. The window is half-open,
+ * {@code [from, to)}, and may start and end at any instant.
+ *
+ * @param providerId provider to restrict the query to, or {@code null}
+ * @param modelId    model to restrict the query to, or {@code null}
+ */
+public record UsageSpendQuery(String tenantId, String providerId, String modelId, Instant from, Instant to) {
+
+    public UsageSpendQuery {
+        Objects.requireNonNull(tenantId, "tenantId must not be null");
+        Objects.requireNonNull(from, "from must not be null");
+        Objects.requireNonNull(to, "to must not be null");
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+    }
+}
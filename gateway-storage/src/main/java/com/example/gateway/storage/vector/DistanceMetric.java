@@ -0,0 +1,61 @@
+package com.example.gateway.storage.vector;
+
+/**
+ * pgvector distance functions supported by {@link PgVectorStoreClient}. Each
+ * metric maps to its distance operator and the operator class used for the
+ * approximate nearest-neighbour index; queries must use the same metric as the
+ * index for it to be used.
+ */
+public enum DistanceMetric {
+
+    /** Cosine distance; scores are cosine similarities in {@code [-1, 1]}. */
+    COSINE("<=>", "vector_cosine_ops") {
+        @Override
+        public double toScore(double distance) {
+            return 1 - distance;
+        }
+    },
+
+    /** Euclidean (L2) distance; scores are negated distances. */
+    EUCLIDEAN("<->", "vector_l2_ops") {
+        @Override
+        public double toScore(double distance) {
+            return -distance;
+        }
+    },
+
+    /**
+     * Inner product; pgvector returns the negative inner product, so scores
+     * are the inner products themselves.
+     */
+    INNER_PRODUCT("<#>", "vector_ip_ops") {
+        @Override
+        public double toScore(double distance) {
+            return -distance;
+        }
+    };
+
+    private final String operator;
+    private final String operatorClass;
+
+    DistanceMetric(String operator, String operatorClass) {
+        this.operator = operator;
+        this.operatorClass = operatorClass;
+    }
+
+    /** SQL distance operator. */
+    public String getOperator() {
+        return operator;
+    }
+
+    /** Index operator class matching the operator. */
+    public String getOperatorClass() {
+        return operatorClass;
+    }
+
+    /**
+     * Converts a distance returned by the operator into a score where higher
+     * values mean closer vectors.
+     */
+    public abstract double toScore(double distance);
+}
@@ -0,0 +1,149 @@
+package com.example.gateway.storage.vector;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Exact, in-process {@link VectorStoreClient} for small and medium tenants,
+ * avoiding a database round trip per lookup. Each tenant's vectors live in
+ * one contiguous primitive segment (see {@link TenantSegment}) searched by a
+ * brute-force scan, which returns exact top-K results with the same scores as
+ * {@link PgVectorStoreClient}.
+ *
+ * <p>When a snapshot path is configured, the store is restored from it on
+ * startup and written back on shutdown, so restarts do not have to re-read
+ * the vectors from Postgres. {@link #snapshot()} can also be called
+ * periodically.
+ */
+public class InMemoryVectorStoreClient implements VectorStoreClient, InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryVectorStoreClient.class);
+
+    private final int dimensions;
+    private final DistanceMetric metric;
+    private final int initialCapacity;
+    private final Path snapshotPath;
+    private final ObjectMapper objectMapper;
+    private final Map<String, TenantSegment> segments = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the store.
+     *
+     * @param dimensions      dimension of all stored embeddings
+     * @param metric          scoring function used by searches
+     * @param initialCapacity initial number of vectors allocated per tenant
+     * @param snapshotPath    snapshot file, or {@code null} to keep the store purely in memory
+     * @param objectMapper    mapper used to persist record metadata in snapshots
+     */
+    public InMemoryVectorStoreClient(int dimensions, DistanceMetric metric, int initialCapacity, Path snapshotPath,
+                                     ObjectMapper objectMapper) {
+        if (dimensions < 1) {
+            throw new IllegalArgumentException("dimensions must be positive");
+        }
+        this.dimensions = dimensions;
+        this.metric = Objects.requireNonNull(metric, "metric must not be null");
+        this.initialCapacity = initialCapacity;
+        this.snapshotPath = snapshotPath;
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper must not be null");
+    }
+
+    @Override
+    public Mono<Void> upsert(VectorStoreRecord record) {
+        return Mono.fromRunnable(() -> {
+            Objects.requireNonNull(record.getTenantId(), "tenantId must not be null");
+            Objects.requireNonNull(record.getId(), "id must not be null");
+            checkDimensions(record.getEmbedding());
+            Map<String, Object> metadata = record.getMetadata() != null
+                ? Collections.unmodifiableMap(new LinkedHashMap<>(record.getMetadata()))
+                : null;
+            segments.computeIfAbsent(record.getTenantId(), tenant -> new TenantSegment(dimensions, initialCapacity))
+                .upsert(record.getId(), record.getEmbedding(), metadata);
+        });
+    }
+
+    @Override
+    public Flux<VectorStoreRecord> search(String tenantId, float[] embedding, int topK) {
+        return Flux.defer(() -> {
+            checkDimensions(embedding);
+            TenantSegment segment = segments.get(tenantId);
+            if (segment == null) {
+                return Flux.empty();
+            }
+            return Flux.fromIterable(segment.search(tenantId, embedding, topK, metric, System.currentTimeMillis()));
+        });
+    }
+
+    /**
+     * Compacts the expired records out of every tenant segment. Segments are
+     * locked one at a time, so searches of other tenants are not blocked.
+     */
+    @Override
+    public Mono<Long> deleteExpired() {
+        return Mono.fromCallable(() -> {
+            long now = System.currentTimeMillis();
+            long removed = 0;
+            for (TenantSegment segment : segments.values()) {
+                removed += segment.removeExpired(now);
+            }
+            return removed;
+        });
+    }
+
+    /** Number of vectors stored for the tenant. */
+    public int size(String tenantId) {
+        TenantSegment segment = segments.get(tenantId);
+        return segment != null ? segment.size() : 0;
+    }
+
+    /**
+     * Writes a snapshot to the configured path. Tenants are captured one at a
+     * time, so concurrent writes to other tenants are not blocked.
+     */
+    public void snapshot() throws IOException {
+        if (snapshotPath == null) {
+            throw new IllegalStateException("No vector snapshot path configured");
+        }
+        long records = VectorSnapshotFile.write(snapshotPath, dimensions, segments, objectMapper);
+        logger.info("Wrote vector snapshot with {} records for {} tenants to {}", records, segments.size(), snapshotPath);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (snapshotPath == null || !Files.exists(snapshotPath)) {
+            return;
+        }
+        long records = VectorSnapshotFile.read(snapshotPath, dimensions, initialCapacity, segments, objectMapper);
+        logger.info("Restored {} vector records for {} tenants from {}", records, segments.size(), snapshotPath);
+    }
+
+    @Override
+    public void destroy() {
+        if (snapshotPath == null) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (IOException ex) {
+            logger.warn("Failed to write vector snapshot to {}", snapshotPath, ex);
+        }
+    }
+
+    private void checkDimensions(float[] embedding) {
+        if (embedding == null || embedding.length != dimensions) {
+            throw new IllegalArgumentException("Embedding must have " + dimensions + " dimensions");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.gateway.storage.vector;
+
+import com.example.gateway.storage.config.VectorStoreProperties;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Creates the pgvector schema on demand. The embeddings table is partitioned
+ * by {@code LIST (tenant_id)}; each tenant gets its own partition with an
+ * HNSW or IVFFlat index, so searches only walk the index of a single tenant
+ * and tenants can be dropped cheaply. Tables created before partitioning was
+ * introduced keep working with a single table-wide index. An expression index
+ * on the expiry time keeps expiry sweeps from scanning the table.
+ *
+ * <p>DDL runs at most once per tenant and JVM; failed attempts are retried on
+ * the next write.
+ */
+class PgVectorSchemaManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(PgVectorSchemaManager.class);
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]{0,31}");
+    private static final String TABLE_KEY = "";
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final DatabaseClient databaseClient;
+    private final VectorStoreProperties properties;
+    private final String table;
+    private final Map<String, Mono<Void>> ready = new ConcurrentHashMap<>();
+    private volatile boolean partitioned;
+
+    PgVectorSchemaManager(DatabaseClient databaseClient, VectorStoreProperties properties) {
+        this.databaseClient = Objects.requireNonNull(databaseClient, "databaseClient must not be null");
+        this.properties = Objects.requireNonNull(properties, "properties must not be null");
+        this.table = properties.getTable();
+        if (!IDENTIFIER.matcher(table).matches()) {
+            throw new IllegalArgumentException("Invalid vector table name: " + table);
+        }
+    }
+
+    /**
+     * Ensures the table and the partition and index of the tenant exist.
+     * Completes immediately when schema management is disabled.
+     */
+    Mono<Void> ensureTenant(String tenantId) {
+        if (!properties.isManageSchema()) {
+            return Mono.empty();
+        }
+        return once(TABLE_KEY, this::createTable)
+            .then(Mono.defer(() -> partitioned ? once(tenantId, () -> createPartition(tenantId)) : Mono.empty()));
+    }
+
+    private Mono<Void> once(String key, Supplier<Mono<Void>> action) {
+        return ready.computeIfAbsent(key, k -> Mono.defer(action)
+            .doOnError(ex -> {
+                logger.warn("Vector schema setup failed for {}", k.isEmpty() ? table : "tenant " + k, ex);
+                ready.remove(k);
+            })
+            .cache());
+    }
+
+    private Mono<Void> createTable() {
+        String ddl = "CREATE TABLE IF NOT EXISTS " + table + " ("
+            + "id TEXT NOT NULL, tenant_id TEXT NOT NULL, embedding vector(" + properties.getDimensions() + ") NOT NULL, "
+            + "metadata JSONB, PRIMARY KEY (tenant_id, id)) PARTITION BY LIST (tenant_id)";
+        return execute("CREATE EXTENSION IF NOT EXISTS vector")
+            .then(execute(ddl))
+            .then(databaseClient.sql("SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid "
+                    + "WHERE c.relname = :table AND c.relnamespace = current_schema()::regnamespace) AS partitioned")
+                .bind("table", table)
+                .map(row -> Boolean.TRUE.equals(row.get("partitioned", Boolean.class)))
+                .one())
+            .flatMap(isPartitioned -> {
+                partitioned = isPartitioned;
+                // Created on a partitioned table, the index cascades to existing and future partitions.
+                Mono<Void> expiryIndex = execute("CREATE INDEX IF NOT EXISTS " + table + "_expires_at_idx ON " + table
+                    + " (" + PgVectorStoreClient.EXPIRES_AT + ")");
+                if (isPartitioned) {
+                    return expiryIndex;
+                }
+                // Pre-existing plain table: upserts need a (tenant_id, id) key and searches a table-wide index.
+                logger.info("Vector table {} is not partitioned; using a single table-wide index", table);
+                return execute("CREATE UNIQUE INDEX IF NOT EXISTS " + table + "_tenant_id_key ON " + table + " (tenant_id, id)")
+                    .then(execute(indexDdl(table)))
+                    .then(expiryIndex);
+            });
+    }
+
+    private Mono<Void> createPartition(String tenantId) {
+        String partition = partitionName(tenantId);
+        String literal = "'" + tenantId.replace("'", "''") + "'";
+        return execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + table + " FOR VALUES IN (" + literal + ")")
+            .then(execute(indexDdl(partition)))
+            .doOnSuccess(ignored -> logger.debug("Vector partition {} ready for tenant {}", partition, tenantId));
+    }
+
+    private String indexDdl(String relation) {
+        VectorStoreProperties.Index index = properties.getIndex();
+        String operatorClass = properties.getMetric().getOperatorClass();
+        // The type is part of the name, so switching types builds a new index instead of keeping the old one.
+        String name = relation + "_" + index.getType().name().toLowerCase(Locale.ROOT) + "_idx";
+        return switch (index.getType()) {
+            case HNSW -> "CREATE INDEX IF NOT EXISTS " + name + " ON " + relation + " USING hnsw (embedding " + operatorClass
+                + ") WITH (m = " + index.getM() + ", ef_construction = " + index.getEfConstruction() + ")";
+            case IVFFLAT -> "CREATE INDEX IF NOT EXISTS " + name + " ON " + relation + " USING ivfflat (embedding " + operatorClass
+                + ") WITH (lists = " + index.getLists() + ")";
+        };
+    }
+
+    /**
+     * Derives a stable partition name; tenant identifiers are hashed because
+     * they may contain characters that are not valid in identifiers.
+     */
+    private String partitionName(String tenantId) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(tenantId.getBytes(StandardCharsets.UTF_8));
+            return table + "_t_" + HEX.formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private Mono<Void> execute(String sql) {
+        return databaseClient.sql(sql).then();
+    }
+}
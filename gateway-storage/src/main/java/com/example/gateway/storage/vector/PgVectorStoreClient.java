@@ -1,48 +1,259 @@
 package com.example.gateway.storage.vector;
 
+import com.example.gateway.storage.config.VectorStoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.r2dbc.core.DatabaseClient;
-import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
- * Minimal R2DBC implementation targeting PostgreSQL installations with the
- * pgvector extension enabled.
+ * R2DBC implementation targeting PostgreSQL installations with the pgvector
+ * extension. Searches order rows by the configured distance operator so the
+ * per-tenant HNSW/IVFFlat index (see {@link PgVectorSchemaManager}) answers
+ * top-K queries, and return a similarity score with each record.
+ *
+ * <p>Embeddings are exchanged as pgvector text literals ({@code [1,2,3]})
+ * cast to {@code vector}, which avoids a driver-specific codec. Bulk writes
+ * use multi-row {@code INSERT ... ON CONFLICT} statements rather than
+ * {@code COPY}, which cannot upsert without a staging table.
+ *
+ * <p>Expiry times are read from the {@link VectorStoreClient#EXPIRES_AT_KEY}
+ * metadata field; searches filter on it and {@link #deleteExpired()} deletes
+ * by it through an expression index on the table.
  */
-@Component
 public class PgVectorStoreClient implements VectorStoreClient {
 
+    private static final Logger logger = LoggerFactory.getLogger(PgVectorStoreClient.class);
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() { };
+    private static final int COLUMNS = 4;
+    private static final int MAX_BATCH_SIZE = 65535 / COLUMNS;
+    /** Expiry of a row; the same expression is indexed by {@link PgVectorSchemaManager}. */
+    static final String EXPIRES_AT = "((metadata->>'" + EXPIRES_AT_KEY + "')::bigint)";
+
     private final DatabaseClient databaseClient;
+    private final VectorStoreProperties properties;
+    private final ObjectMapper objectMapper;
+    private final PgVectorSchemaManager schemaManager;
+    private final String upsertSql;
+    private final String upsertConflictSql;
+    private final String searchSql;
+    private final String deleteExpiredSql;
+    private final String tuningSql;
 
-    public PgVectorStoreClient(ConnectionFactory connectionFactory) {
+    public PgVectorStoreClient(ConnectionFactory connectionFactory, VectorStoreProperties properties, ObjectMapper objectMapper) {
         this.databaseClient = DatabaseClient.create(connectionFactory);
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.schemaManager = new PgVectorSchemaManager(databaseClient, properties);
+        String table = properties.getTable();
+        String operator = properties.getMetric().getOperator();
+        this.upsertConflictSql = " ON CONFLICT (tenant_id, id) DO UPDATE SET embedding = EXCLUDED.embedding, metadata = EXCLUDED.metadata";
+        this.upsertSql = "INSERT INTO " + table + "(id, tenant_id, embedding, metadata) "
+            + "VALUES (:id, :tenant, CAST(:embedding AS vector), CAST(:metadata AS jsonb))" + upsertConflictSql;
+        this.searchSql = "SELECT id, tenant_id, embedding::text AS embedding, metadata::text AS metadata, "
+            + "embedding " + operator + " CAST($1 AS vector) AS distance FROM " + table + " WHERE tenant_id = $2 "
+            + "AND (" + EXPIRES_AT + " IS NULL OR " + EXPIRES_AT + " > $4) "
+            + "ORDER BY embedding " + operator + " CAST($1 AS vector) LIMIT $3";
+        this.deleteExpiredSql = "DELETE FROM " + table + " WHERE " + EXPIRES_AT + " <= $1";
+        VectorStoreProperties.Ingest ingest = properties.getIngest();
+        if (ingest.getBatchSize() < 1 || ingest.getBatchSize() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Ingest batch size must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        if (ingest.getConcurrency() < 1) {
+            throw new IllegalArgumentException("Ingest concurrency must be positive");
+        }
+        VectorStoreProperties.Index index = properties.getIndex();
+        this.tuningSql = switch (index.getType()) {
+            case HNSW -> "SET hnsw.ef_search = " + index.getEfSearch();
+            case IVFFLAT -> "SET ivfflat.probes = " + index.getProbes();
+        };
     }
 
     @Override
     public Mono<Void> upsert(VectorStoreRecord record) {
-        return databaseClient.sql("INSERT INTO ai_embeddings(id, tenant_id, embedding, metadata) VALUES (:id, :tenant, :embedding, :metadata) "
-                + "ON CONFLICT (id) DO UPDATE SET embedding = EXCLUDED.embedding, metadata = EXCLUDED.metadata")
-            .bind("id", record.getId())
-            .bind("tenant", record.getTenantId())
-            .bind("embedding", record.getEmbedding())
-            .bind("metadata", record.getMetadata())
-            .then();
+        return Mono.defer(() -> {
+            String embedding = toVectorLiteral(record.getEmbedding());
+            String metadata = writeMetadata(record.getMetadata());
+            DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(upsertSql)
+                .bind("id", record.getId())
+                .bind("tenant", record.getTenantId())
+                .bind("embedding", embedding);
+            spec = metadata != null ? spec.bind("metadata", metadata) : spec.bindNull("metadata", String.class);
+            return schemaManager.ensureTenant(record.getTenantId()).then(spec.then());
+        });
     }
 
+    /**
+     * Writes records with one multi-row upsert per batch of
+     * {@code gateway.storage.vector.ingest.batch-size} records, running up to
+     * {@code ingest.concurrency} batches at once. Results are emitted in input
+     * order and the source is only drained as batches complete. Within a
+     * batch, the last record with a given tenant and id wins.
+     */
     @Override
-    public Flux<VectorStoreRecord> search(String tenantId, float[] embedding, int topK) {
-        return databaseClient.sql("SELECT id, tenant_id, embedding, metadata FROM ai_embeddings WHERE tenant_id = :tenant LIMIT :limit")
-            .bind("tenant", tenantId)
-            .bind("limit", topK)
-            .map(row -> {
-                VectorStoreRecord record = new VectorStoreRecord();
-                record.setId(row.get("id", String.class));
-                record.setTenantId(row.get("tenant_id", String.class));
-                record.setEmbedding((float[]) row.get("embedding"));
-                record.setMetadata(row.get("metadata", java.util.Map.class));
-                return record;
+    public Flux<VectorStoreBatchResult> upsertAll(Flux<VectorStoreRecord> records) {
+        VectorStoreProperties.Ingest ingest = properties.getIngest();
+        return records.buffer(ingest.getBatchSize())
+            .index()
+            .flatMapSequential(batch -> writeBatch(batch.getT1(), batch.getT2()), ingest.getConcurrency(), 1);
+    }
+
+    private Mono<VectorStoreBatchResult> writeBatch(long batchIndex, List<VectorStoreRecord> batch) {
+        return Mono.defer(() -> {
+                // A single INSERT ... ON CONFLICT must not touch the same row twice.
+                Map<List<String>, VectorStoreRecord> unique = new LinkedHashMap<>();
+                Set<String> tenants = new LinkedHashSet<>();
+                for (VectorStoreRecord record : batch) {
+                    unique.put(List.of(record.getTenantId(), record.getId()), record);
+                    tenants.add(record.getTenantId());
+                }
+                DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(batchUpsertSql(unique.size()));
+                int parameter = 0;
+                for (VectorStoreRecord record : unique.values()) {
+                    String metadata = writeMetadata(record.getMetadata());
+                    spec = spec.bind(parameter++, record.getId())
+                        .bind(parameter++, record.getTenantId())
+                        .bind(parameter++, toVectorLiteral(record.getEmbedding()));
+                    spec = metadata != null ? spec.bind(parameter++, metadata) : spec.bindNull(parameter++, String.class);
+                }
+                DatabaseClient.GenericExecuteSpec statement = spec;
+                return Flux.fromIterable(tenants)
+                    .concatMap(schemaManager::ensureTenant)
+                    .then(statement.then());
             })
-            .all();
+            .thenReturn(VectorStoreBatchResult.success(batchIndex, batch.size()))
+            .doOnNext(result -> logger.debug("Vector batch {} with {} records written", batchIndex, batch.size()))
+            .onErrorResume(ex -> {
+                logger.warn("Vector batch {} with {} records failed", batchIndex, batch.size(), ex);
+                return Mono.just(VectorStoreBatchResult.failed(batchIndex, batch.size(), ex));
+            });
+    }
+
+    private String batchUpsertSql(int rows) {
+        StringBuilder sql = new StringBuilder(64 + rows * 64)
+            .append("INSERT INTO ").append(properties.getTable()).append("(id, tenant_id, embedding, metadata) VALUES ");
+        for (int row = 0, parameter = 1; row < rows; row++, parameter += COLUMNS) {
+            if (row > 0) {
+                sql.append(", ");
+            }
+            sql.append("($").append(parameter)
+                .append(", $").append(parameter + 1)
+                .append(", CAST($").append(parameter + 2).append(" AS vector)")
+                .append(", CAST($").append(parameter + 3).append(" AS jsonb))");
+        }
+        return sql.append(upsertConflictSql).toString();
+    }
+
+    /**
+     * Returns the {@code topK} records of the tenant closest to the supplied
+     * embedding, closest first, with {@link VectorStoreRecord#getScore()}
+     * populated. The index search parameter is applied on the same connection
+     * as the query.
+     */
+    @Override
+    public Flux<VectorStoreRecord> search(String tenantId, float[] embedding, int topK) {
+        return Flux.defer(() -> {
+            String literal = toVectorLiteral(embedding);
+            return databaseClient.inConnectionMany(connection -> Mono.from(connection.createStatement(tuningSql).execute())
+                .flatMap(result -> Mono.from(result.getRowsUpdated()))
+                .thenMany(Flux.from(connection.createStatement(searchSql)
+                        .bind("$1", literal)
+                        .bind("$2", tenantId)
+                        .bind("$3", topK)
+                        .bind("$4", System.currentTimeMillis())
+                        .execute()))
+                .concatMap(result -> Flux.from(result.map((row, metadata) -> toRecord(row)))));
+        });
+    }
+
+    @Override
+    public Mono<Long> deleteExpired() {
+        return databaseClient.sql(deleteExpiredSql)
+            .bind(0, System.currentTimeMillis())
+            .fetch()
+            .rowsUpdated();
+    }
+
+    private VectorStoreRecord toRecord(Row row) {
+        VectorStoreRecord record = new VectorStoreRecord();
+        record.setId(row.get("id", String.class));
+        record.setTenantId(row.get("tenant_id", String.class));
+        record.setEmbedding(parseVector(row.get("embedding", String.class)));
+        record.setMetadata(readMetadata(row.get("metadata", String.class)));
+        Double distance = row.get("distance", Double.class);
+        record.setScore(distance != null ? properties.getMetric().toScore(distance) : null);
+        return record;
+    }
+
+    private String toVectorLiteral(float[] embedding) {
+        if (embedding == null || embedding.length != properties.getDimensions()) {
+            throw new IllegalArgumentException("Embedding must have " + properties.getDimensions() + " dimensions");
+        }
+        StringBuilder literal = new StringBuilder(embedding.length * 12).append('[');
+        for (int i = 0; i < embedding.length; i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+            literal.append(embedding[i]);
+        }
+        return literal.append(']').toString();
+    }
+
+    private static float[] parseVector(String literal) {
+        if (literal == null) {
+            return null;
+        }
+        int end = literal.length() - 1;
+        if (end <= 1) {
+            return new float[0];
+        }
+        int count = 1;
+        for (int i = 1; i < end; i++) {
+            if (literal.charAt(i) == ',') {
+                count++;
+            }
+        }
+        float[] vector = new float[count];
+        int start = 1;
+        for (int i = 0; i < count; i++) {
+            int comma = literal.indexOf(',', start);
+            int stop = comma < 0 ? end : comma;
+            vector[i] = Float.parseFloat(literal.substring(start, stop));
+            start = stop + 1;
+        }
+        return vector;
+    }
+
+    private String writeMetadata(Map<String, Object> metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Vector record metadata is not serialisable", ex);
+        }
+    }
+
+    private Map<String, Object> readMetadata(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, METADATA_TYPE);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored vector metadata is not valid JSON", ex);
+        }
     }
 }
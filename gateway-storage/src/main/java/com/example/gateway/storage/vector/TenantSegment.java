@@ -0,0 +1,367 @@
+package com.example.gateway.storage.vector;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Vectors of a single tenant stored row-major in one contiguous
+ * {@code float[]}, next to their squared norms, ids and metadata. A search is
+ * a brute-force scan computing one dot product per row; the squared norms
+ * turn that into cosine, inner product or Euclidean scores without a second
+ * pass. The dot product kernel uses independent accumulators over a
+ * sequential layout, which keeps the loop free of dependencies and lets the
+ * JIT unroll and vectorise it.
+ *
+ * <p>The expiry time of each record ({@link VectorStoreClient#EXPIRES_AT_KEY})
+ * is kept in a primitive array, so searches skip expired rows without reading
+ * their metadata, and {@link #removeExpired(long)} compacts them away.
+ *
+ * <p>Writers take an exclusive lock; searches and snapshots share a read
+ * lock.
+ */
+final class TenantSegment {
+
+    private final int dimensions;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> slots = new HashMap<>();
+    private float[] vectors;
+    private float[] squaredNorms;
+    private String[] ids;
+    private Object[] metadata;
+    private long[] expiresAt;
+    private int size;
+
+    TenantSegment(int dimensions, int initialCapacity) {
+        this.dimensions = dimensions;
+        int capacity = Math.max(1, initialCapacity);
+        this.vectors = new float[capacity * dimensions];
+        this.squaredNorms = new float[capacity];
+        this.ids = new String[capacity];
+        this.metadata = new Object[capacity];
+        this.expiresAt = new long[capacity];
+    }
+
+    /** Number of stored vectors. */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Inserts a vector or replaces the vector stored under the same id. */
+    void upsert(String id, float[] embedding, Map<String, Object> recordMetadata) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = slots.get(id);
+            int slot;
+            if (existing != null) {
+                slot = existing;
+            } else {
+                ensureCapacity(size + 1);
+                slot = size++;
+                slots.put(id, slot);
+                ids[slot] = id;
+            }
+            System.arraycopy(embedding, 0, vectors, slot * dimensions, dimensions);
+            squaredNorms[slot] = dot(embedding, 0, embedding, dimensions);
+            metadata[slot] = recordMetadata;
+            expiresAt[slot] = expiry(recordMetadata);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the {@code topK} closest vectors not expired at {@code now}
+     * (epoch milliseconds), closest first, scored like
+     * {@link DistanceMetric#toScore(double)} scores pgvector distances.
+     */
+    List<VectorStoreRecord> search(String tenantId, float[] query, int topK, DistanceMetric metric, long now) {
+        float querySquaredNorm = dot(query, 0, query, dimensions);
+        lock.readLock().lock();
+        try {
+            int limit = Math.min(topK, size);
+            if (limit <= 0) {
+                return List.of();
+            }
+            TopK best = new TopK(limit);
+            for (int slot = 0; slot < size; slot++) {
+                if (expiresAt[slot] <= now) {
+                    continue;
+                }
+                float dot = dot(vectors, slot * dimensions, query, dimensions);
+                best.offer(slot, score(metric, dot, squaredNorms[slot], querySquaredNorm));
+            }
+            List<VectorStoreRecord> results = new ArrayList<>(best.size());
+            for (int i = best.drainDescending(); i >= 0; i = best.next()) {
+                int slot = best.slot(i);
+                results.add(toRecord(tenantId, slot, best.score(i)));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the records expired at {@code now} (epoch milliseconds) by
+     * moving the last record into each freed slot, and returns how many were
+     * removed.
+     */
+    int removeExpired(long now) {
+        lock.writeLock().lock();
+        try {
+            int removed = 0;
+            // Downwards, so the record moved into a freed slot has already been checked.
+            for (int slot = size - 1; slot >= 0; slot--) {
+                if (expiresAt[slot] <= now) {
+                    remove(slot);
+                    removed++;
+                }
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs {@code action} under the read lock, so the unlocked accessors
+     * below observe a consistent segment, e.g. while writing a snapshot.
+     */
+    void withReadLock(Runnable action) {
+        lock.readLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Record count; must be called while holding the read lock. */
+    int sizeUnlocked() {
+        return size;
+    }
+
+    /** Id of a slot; must be called while holding the read lock. */
+    String idAt(int slot) {
+        return ids[slot];
+    }
+
+    /** Metadata of a slot; must be called while holding the read lock. */
+    @SuppressWarnings("unchecked")
+    Map<String, Object> metadataAt(int slot) {
+        return (Map<String, Object>) metadata[slot];
+    }
+
+    /** Copies all vectors into {@code target}; must be called while holding the read lock. */
+    void writeVectors(ByteBuffer target) {
+        target.asFloatBuffer().put(vectors, 0, size * dimensions);
+        target.position(target.position() + size * dimensions * Float.BYTES);
+    }
+
+    /** Bulk-loads vectors of restored records, appended in slot order. */
+    void loadVectors(ByteBuffer source, List<String> recordIds, List<Map<String, Object>> recordMetadata) {
+        lock.writeLock().lock();
+        try {
+            int count = recordIds.size();
+            ensureCapacity(size + count);
+            source.asFloatBuffer().get(vectors, size * dimensions, count * dimensions);
+            source.position(source.position() + count * dimensions * Float.BYTES);
+            for (int i = 0; i < count; i++) {
+                int slot = size + i;
+                ids[slot] = recordIds.get(i);
+                metadata[slot] = recordMetadata.get(i);
+                expiresAt[slot] = expiry(recordMetadata.get(i));
+                slots.put(ids[slot], slot);
+                squaredNorms[slot] = dot(vectors, slot * dimensions, vectors, slot * dimensions, dimensions);
+            }
+            size += count;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private VectorStoreRecord toRecord(String tenantId, int slot, double score) {
+        VectorStoreRecord record = new VectorStoreRecord();
+        record.setId(ids[slot]);
+        record.setTenantId(tenantId);
+        int offset = slot * dimensions;
+        record.setEmbedding(Arrays.copyOfRange(vectors, offset, offset + dimensions));
+        record.setMetadata(metadataAt(slot));
+        record.setScore(score);
+        return record;
+    }
+
+    private void remove(int slot) {
+        int last = --size;
+        slots.remove(ids[slot]);
+        if (slot != last) {
+            System.arraycopy(vectors, last * dimensions, vectors, slot * dimensions, dimensions);
+            squaredNorms[slot] = squaredNorms[last];
+            ids[slot] = ids[last];
+            metadata[slot] = metadata[last];
+            expiresAt[slot] = expiresAt[last];
+            slots.put(ids[slot], slot);
+        }
+        ids[last] = null;
+        metadata[last] = null;
+    }
+
+    private static long expiry(Map<String, Object> recordMetadata) {
+        Object value = recordMetadata != null ? recordMetadata.get(VectorStoreClient.EXPIRES_AT_KEY) : null;
+        return value instanceof Number number ? number.longValue() : Long.MAX_VALUE;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length * 2);
+        if ((long) capacity * dimensions > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Tenant segment exceeds the maximum array size");
+        }
+        vectors = Arrays.copyOf(vectors, capacity * dimensions);
+        squaredNorms = Arrays.copyOf(squaredNorms, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        metadata = Arrays.copyOf(metadata, capacity);
+        expiresAt = Arrays.copyOf(expiresAt, capacity);
+    }
+
+    private static double score(DistanceMetric metric, float dot, float squaredNorm, float querySquaredNorm) {
+        return switch (metric) {
+            case COSINE -> squaredNorm == 0 || querySquaredNorm == 0
+                ? 0 : dot / Math.sqrt((double) squaredNorm * querySquaredNorm);
+            case INNER_PRODUCT -> dot;
+            case EUCLIDEAN -> -Math.sqrt(Math.max(0, (double) squaredNorm + querySquaredNorm - 2.0 * dot));
+        };
+    }
+
+    private static float dot(float[] data, int offset, float[] query, int length) {
+        return dot(data, offset, query, 0, length);
+    }
+
+    private static float dot(float[] left, int leftOffset, float[] right, int rightOffset, int length) {
+        float s0 = 0;
+        float s1 = 0;
+        float s2 = 0;
+        float s3 = 0;
+        int i = 0;
+        for (int bound = length - 3; i < bound; i += 4) {
+            s0 += left[leftOffset + i] * right[rightOffset + i];
+            s1 += left[leftOffset + i + 1] * right[rightOffset + i + 1];
+            s2 += left[leftOffset + i + 2] * right[rightOffset + i + 2];
+            s3 += left[leftOffset + i + 3] * right[rightOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += left[leftOffset + i] * right[rightOffset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Fixed-size min-heap of (slot, score) pairs on primitive arrays, so a
+     * scan allocates nothing per row.
+     */
+    private static final class TopK {
+
+        private final int[] slots;
+        private final double[] scores;
+        private int count;
+        private int cursor;
+
+        TopK(int capacity) {
+            this.slots = new int[capacity];
+            this.scores = new double[capacity];
+        }
+
+        int size() {
+            return count;
+        }
+
+        void offer(int slot, double score) {
+            if (count < slots.length) {
+                slots[count] = slot;
+                scores[count] = score;
+                siftUp(count++);
+            } else if (score > scores[0]) {
+                slots[0] = slot;
+                scores[0] = score;
+                siftDown(0, count);
+            }
+        }
+
+        /**
+         * Sorts the heap in place, best first, and returns the first index;
+         * subsequent indexes come from {@link #next()} until it returns -1.
+         */
+        int drainDescending() {
+            // Heap sort on a min-heap leaves the array ordered from highest to lowest score.
+            for (int end = count - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+            cursor = 0;
+            return count > 0 ? 0 : -1;
+        }
+
+        int next() {
+            return ++cursor < count ? cursor : -1;
+        }
+
+        int slot(int index) {
+            return slots[index];
+        }
+
+        double score(int index) {
+            return scores[index];
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (scores[parent] <= scores[index]) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index, int length) {
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < length && scores[left] < scores[smallest]) {
+                    smallest = left;
+                }
+                if (right < length && scores[right] < scores[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(index, smallest);
+                index = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int slot = slots[a];
+            slots[a] = slots[b];
+            slots[b] = slot;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
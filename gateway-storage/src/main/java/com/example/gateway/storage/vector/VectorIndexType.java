@@ -0,0 +1,21 @@
+package com.example.gateway.storage.vector;
+
+/**
+ * Approximate nearest-neighbour index types offered by pgvector.
+ */
+public enum VectorIndexType {
+
+    /**
+     * Hierarchical navigable small world graph. Better recall/latency
+     * trade-off and can be built on empty tables; tuned with {@code m},
+     * {@code ef_construction} and {@code hnsw.ef_search}.
+     */
+    HNSW,
+
+    /**
+     * Inverted file with flat lists. Cheaper to build, but the list centroids
+     * are computed from the rows present at build time; tuned with
+     * {@code lists} and {@code ivfflat.probes}.
+     */
+    IVFFLAT
+}
@@ -0,0 +1,168 @@
+package com.example.gateway.storage.vector;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary snapshot of {@link TenantSegment}s written and read through
+ * memory-mapped regions, so restoring a tenant is a bulk copy from the page
+ * cache into its vector array.
+ *
+ * <p>Layout (little endian): a 16 byte header ({@code magic}, {@code version},
+ * {@code dimensions}, {@code tenantCount}) followed by one block per tenant:
+ * {@code blockLength:long}, tenant id, record count, then per record its id
+ * and JSON metadata (length-prefixed, {@code -1} for none), and finally all
+ * vectors of the tenant as one contiguous float run. Snapshots are written to
+ * a temporary file and moved into place, so a crash never leaves a partial
+ * snapshot behind.
+ */
+final class VectorSnapshotFile {
+
+    private static final int MAGIC = 0x47564543;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() { };
+
+    private VectorSnapshotFile() {
+    }
+
+    /**
+     * Writes all segments to {@code path}, replacing any previous snapshot.
+     *
+     * @return number of records written
+     */
+    static long write(Path path, int dimensions, Map<String, TenantSegment> segments, ObjectMapper objectMapper) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        long records = 0;
+        int tenants = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = HEADER_BYTES;
+            for (Map.Entry<String, TenantSegment> entry : segments.entrySet()) {
+                long[] written = new long[2];
+                long start = position;
+                entry.getValue().withReadLock(() -> {
+                    try {
+                        written[0] = writeBlock(channel, start, entry.getKey(), entry.getValue(), dimensions, objectMapper);
+                        written[1] = entry.getValue().sizeUnlocked();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                position += written[0];
+                records += written[1];
+                tenants++;
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN).putInt(MAGIC).putInt(VERSION).putInt(dimensions).putInt(tenants);
+            header.force();
+            channel.force(true);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return records;
+    }
+
+    /**
+     * Restores segments from {@code path} into {@code segments}.
+     *
+     * @return number of records restored
+     */
+    static long read(Path path, int dimensions, int initialCapacity, Map<String, TenantSegment> segments,
+                     ObjectMapper objectMapper) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Unsupported vector snapshot format: " + path);
+            }
+            int snapshotDimensions = header.getInt();
+            if (snapshotDimensions != dimensions) {
+                throw new IOException("Vector snapshot has " + snapshotDimensions + " dimensions, expected " + dimensions);
+            }
+            int tenants = header.getInt();
+            long position = HEADER_BYTES;
+            long records = 0;
+            for (int t = 0; t < tenants; t++) {
+                long blockLength = channel.map(FileChannel.MapMode.READ_ONLY, position, Long.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN).getLong();
+                MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, position + Long.BYTES, blockLength);
+                block.order(ByteOrder.LITTLE_ENDIAN);
+                String tenantId = readString(block);
+                int count = block.getInt();
+                List<String> ids = new ArrayList<>(count);
+                List<Map<String, Object>> metadata = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    ids.add(readString(block));
+                    int length = block.getInt();
+                    if (length < 0) {
+                        metadata.add(null);
+                    } else {
+                        byte[] json = new byte[length];
+                        block.get(json);
+                        metadata.add(objectMapper.readValue(json, METADATA_TYPE));
+                    }
+                }
+                segments.computeIfAbsent(tenantId, id -> new TenantSegment(dimensions, Math.max(initialCapacity, count)))
+                    .loadVectors(block, ids, metadata);
+                position += Long.BYTES + blockLength;
+                records += count;
+            }
+            return records;
+        }
+    }
+
+    private static long writeBlock(FileChannel channel, long position, String tenantId, TenantSegment segment,
+                                   int dimensions, ObjectMapper objectMapper) throws IOException {
+        int count = segment.sizeUnlocked();
+        byte[] tenant = tenantId.getBytes(StandardCharsets.UTF_8);
+        byte[][] ids = new byte[count][];
+        byte[][] metadata = new byte[count][];
+        long length = Integer.BYTES + tenant.length + Integer.BYTES + (long) count * dimensions * Float.BYTES;
+        for (int i = 0; i < count; i++) {
+            ids[i] = segment.idAt(i).getBytes(StandardCharsets.UTF_8);
+            Map<String, Object> recordMetadata = segment.metadataAt(i);
+            metadata[i] = recordMetadata != null ? objectMapper.writeValueAsBytes(recordMetadata) : null;
+            length += Integer.BYTES + ids[i].length + Integer.BYTES + (metadata[i] != null ? metadata[i].length : 0);
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Vector snapshot block of tenant " + tenantId + " exceeds 2 GB");
+        }
+        MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_WRITE, position, Long.BYTES + length);
+        block.order(ByteOrder.LITTLE_ENDIAN);
+        block.putLong(length);
+        block.putInt(tenant.length).put(tenant);
+        block.putInt(count);
+        for (int i = 0; i < count; i++) {
+            block.putInt(ids[i].length).put(ids[i]);
+            if (metadata[i] == null) {
+                block.putInt(-1);
+            } else {
+                block.putInt(metadata[i].length).put(metadata[i]);
+            }
+        }
+        segment.writeVectors(block);
+        block.force();
+        return Long.BYTES + length;
+    }
+
+    private static String readString(MappedByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.gateway.storage.vector;
+
+/**
+ * Outcome of one batch written by {@link VectorStoreClient#upsertAll}.
+ *
+ * @param batchIndex zero-based position of the batch in the input stream
+ * @param records    number of input records in the batch
+ * @param failure    cause when the batch was not written, otherwise {@code null}
+ */
+public record VectorStoreBatchResult(long batchIndex, int records, Throwable failure) {
+
+    /** Creates the result of a written batch. */
+    public static VectorStoreBatchResult success(long batchIndex, int records) {
+        return new VectorStoreBatchResult(batchIndex, records, null);
+    }
+
+    /** Creates the result of a batch that could not be written. */
+    public static VectorStoreBatchResult failed(long batchIndex, int records, Throwable failure) {
+        return new VectorStoreBatchResult(batchIndex, records, failure);
+    }
+
+    /** Flag indicating whether the batch was written. */
+    public boolean isSuccess() {
+        return failure == null;
+    }
+}
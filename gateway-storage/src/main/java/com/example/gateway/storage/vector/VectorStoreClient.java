@@ -8,9 +8,45 @@ import reactor.core.publisher.Mono;
  */
 public interface VectorStoreClient {
 
+    /**
+     * Metadata key holding the expiry time of a record in epoch milliseconds.
+     * Expired records are no longer returned by searches and are removed by
+     * {@link #deleteExpired()}; records without it do not expire.
+     */
+    String EXPIRES_AT_KEY = "expiresAt";
+
     /** Inserts or updates a vector record. */
     Mono<Void> upsert(VectorStoreRecord record);
 
-    /** Performs a similarity search for the supplied embedding. */
+    /**
+     * Inserts or updates a stream of records in batches and emits one result
+     * per batch, in input order. A failed batch is reported rather than
+     * terminating the stream. Records are requested from the source only as
+     * batches complete.
+     *
+     * <p>The default implementation writes records one by one; stores should
+     * override it with a bulk write.
+     */
+    default Flux<VectorStoreBatchResult> upsertAll(Flux<VectorStoreRecord> records) {
+        return records.buffer(100)
+            .index()
+            .concatMap(batch -> Flux.fromIterable(batch.getT2())
+                .concatMap(this::upsert)
+                .then(Mono.fromSupplier(() -> VectorStoreBatchResult.success(batch.getT1(), batch.getT2().size())))
+                .onErrorResume(ex -> Mono.just(VectorStoreBatchResult.failed(batch.getT1(), batch.getT2().size(), ex))));
+    }
+
+    /**
+     * Performs a similarity search for the supplied embedding and returns up
+     * to {@code topK} records of the tenant, closest first, with their score.
+     * Expired records are skipped before the {@code topK} closest are picked,
+     * so they do not hide live records further away.
+     */
     Flux<VectorStoreRecord> search(String tenantId, float[] embedding, int topK);
+
+    /**
+     * Deletes the expired records of all tenants and emits the number of
+     * records deleted.
+     */
+    Mono<Long> deleteExpired();
 }
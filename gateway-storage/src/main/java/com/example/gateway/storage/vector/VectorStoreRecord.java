@@ -11,6 +11,7 @@ public class VectorStoreRecord {
     private String tenantId;
     private float[] embedding;
     private Map<String, Object> metadata;
+    private Double score;
 
     public String getId() {
         return id;
@@ -43,4 +44,16 @@ public class VectorStoreRecord {
     public void setMetadata(Map<String, Object> metadata) {
         this.metadata = metadata;
     }
+
+    /**
+     * Similarity score of a search result, higher meaning closer; {@code null}
+     * for records that did not come from a search.
+     */
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
 }
@@ -0,0 +1,155 @@
+package com.example.gateway.storage.usage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.gateway.storage.usage.UsageQueryPlanner.Segment;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class UsageQueryPlannerTest {
+
+    private static final Instant NO_HORIZON = Instant.parse("2100-01-01T00:00:00Z");
+
+    @Test
+    void emptyWindowHasNoSegments() {
+        Instant instant = Instant.parse("2024-05-01T10:00:00Z");
+        assertEquals(List.of(), UsageQueryPlanner.plan(instant, instant, NO_HORIZON));
+    }
+
+    @Test
+    void windowWithoutWholeMinuteIsReadFromLedger() {
+        Instant from = Instant.parse("2024-05-01T10:59:30Z");
+        Instant to = Instant.parse("2024-05-01T11:00:20Z");
+        assertEquals(List.of(ledger(from, to)), UsageQueryPlanner.plan(from, to, NO_HORIZON));
+    }
+
+    @Test
+    void alignedDayIsOneDayBucket() {
+        Instant from = Instant.parse("2024-05-01T00:00:00Z");
+        Instant to = Instant.parse("2024-05-02T00:00:00Z");
+        assertEquals(List.of(new Segment(UsageGranularity.DAY, from, to)), UsageQueryPlanner.plan(from, to, NO_HORIZON));
+    }
+
+    @Test
+    void windowAcrossMidnightWithoutWholeHourUsesMinutes() {
+        Instant from = Instant.parse("2024-05-01T23:30:00Z");
+        Instant to = Instant.parse("2024-05-02T00:30:00Z");
+        assertEquals(List.of(new Segment(UsageGranularity.MINUTE, from, to)), UsageQueryPlanner.plan(from, to, NO_HORIZON));
+    }
+
+    @Test
+    void windowAcrossMidnightWithoutWholeDayUsesHours() {
+        Instant from = Instant.parse("2024-05-01T22:00:00Z");
+        Instant to = Instant.parse("2024-05-02T03:00:00Z");
+        assertEquals(List.of(new Segment(UsageGranularity.HOUR, from, to)), UsageQueryPlanner.plan(from, to, NO_HORIZON));
+    }
+
+    @Test
+    void raggedMultiDayWindowNarrowsTowardsTheEdges() {
+        Instant from = Instant.parse("2024-05-01T22:59:30Z");
+        Instant to = Instant.parse("2024-05-04T01:02:15Z");
+        Set<Segment> expected = Set.of(
+            ledger(from, Instant.parse("2024-05-01T23:00:00Z")),
+            new Segment(UsageGranularity.HOUR, Instant.parse("2024-05-01T23:00:00Z"), Instant.parse("2024-05-02T00:00:00Z")),
+            new Segment(UsageGranularity.DAY, Instant.parse("2024-05-02T00:00:00Z"), Instant.parse("2024-05-04T00:00:00Z")),
+            new Segment(UsageGranularity.HOUR, Instant.parse("2024-05-04T00:00:00Z"), Instant.parse("2024-05-04T01:00:00Z")),
+            new Segment(UsageGranularity.MINUTE, Instant.parse("2024-05-04T01:00:00Z"), Instant.parse("2024-05-04T01:02:00Z")),
+            ledger(Instant.parse("2024-05-04T01:02:00Z"), to));
+        List<Segment> segments = UsageQueryPlanner.plan(from, to, NO_HORIZON);
+        assertEquals(expected.size(), segments.size());
+        assertEquals(expected, Set.copyOf(segments));
+    }
+
+    @Test
+    void usageAfterHorizonIsReadFromLedger() {
+        Instant from = Instant.parse("2024-05-01T10:00:00Z");
+        Instant horizon = Instant.parse("2024-05-01T11:30:00Z");
+        Instant to = Instant.parse("2024-05-01T12:00:00Z");
+        Set<Segment> expected = Set.of(
+            new Segment(UsageGranularity.HOUR, from, Instant.parse("2024-05-01T11:00:00Z")),
+            new Segment(UsageGranularity.MINUTE, Instant.parse("2024-05-01T11:00:00Z"), horizon),
+            ledger(horizon, to));
+        assertEquals(expected, Set.copyOf(UsageQueryPlanner.plan(from, to, horizon)));
+    }
+
+    @Test
+    void windowStartingAfterHorizonIsReadFromLedger() {
+        Instant from = Instant.parse("2024-05-01T11:45:00Z");
+        Instant to = Instant.parse("2024-05-01T12:00:00Z");
+        Instant horizon = Instant.parse("2024-05-01T11:30:00Z");
+        assertEquals(List.of(ledger(from, to)), UsageQueryPlanner.plan(from, to, horizon));
+    }
+
+    @Test
+    void segmentsTileTheWindowWithinBucketBounds() {
+        Random random = new Random(42);
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 0; i < 10_000; i++) {
+            Instant from = base.plusMillis(random.nextLong(Duration.ofDays(60).toMillis()));
+            Instant to = from.plusMillis(random.nextLong(Duration.ofDays(random.nextBoolean() ? 2 : 40).toMillis()));
+            List<Segment> segments = UsageQueryPlanner.plan(from, to, NO_HORIZON);
+            assertTiles(from, to, segments);
+
+            Duration ledger = Duration.ZERO;
+            Duration minutes = Duration.ZERO;
+            Duration hours = Duration.ZERO;
+            for (Segment segment : segments) {
+                Duration length = Duration.between(segment.from(), segment.to());
+                if (segment.granularity() == null) {
+                    ledger = ledger.plus(length);
+                    continue;
+                }
+                assertEquals(segment.granularity().floor(segment.from()), segment.from());
+                assertEquals(segment.granularity().floor(segment.to()), segment.to());
+                if (segment.granularity() == UsageGranularity.MINUTE) {
+                    minutes = minutes.plus(length);
+                } else if (segment.granularity() == UsageGranularity.HOUR) {
+                    hours = hours.plus(length);
+                }
+            }
+            assertTrue(ledger.compareTo(Duration.ofMinutes(2)) < 0, "ledger reads " + ledger);
+            assertTrue(minutes.compareTo(Duration.ofMinutes(118)) <= 0, "minute buckets " + minutes);
+            assertTrue(hours.compareTo(Duration.ofHours(46)) <= 0, "hour buckets " + hours);
+        }
+    }
+
+    @Test
+    void segmentsTileTheWindowAroundTheHorizon() {
+        Random random = new Random(7);
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 0; i < 10_000; i++) {
+            Instant from = base.plusMillis(random.nextLong(Duration.ofDays(3).toMillis()));
+            Instant to = from.plusMillis(random.nextLong(Duration.ofDays(2).toMillis()));
+            Instant horizon = UsageGranularity.MINUTE.floor(base.plusMillis(random.nextLong(Duration.ofDays(5).toMillis())));
+            List<Segment> segments = UsageQueryPlanner.plan(from, to, horizon);
+            assertTiles(from, to, segments);
+            for (Segment segment : segments) {
+                if (segment.granularity() != null) {
+                    assertTrue(!segment.to().isAfter(horizon), "rollup segment " + segment + " after horizon " + horizon);
+                }
+            }
+        }
+    }
+
+    /** Asserts that the segments cover {@code [from, to)} without gaps or overlaps. */
+    private static void assertTiles(Instant from, Instant to, List<Segment> segments) {
+        List<Segment> sorted = segments.stream().sorted(Comparator.comparing(Segment::from)).toList();
+        Instant cursor = from;
+        for (Segment segment : sorted) {
+            assertTrue(segment.from().isBefore(segment.to()), "empty segment " + segment);
+            assertEquals(cursor, segment.from(), "gap or overlap in " + sorted);
+            cursor = segment.to();
+        }
+        assertEquals(to, cursor, "window not covered by " + sorted);
+    }
+
+    private static Segment ledger(Instant from, Instant to) {
+        return new Segment(null, from, to);
+    }
+}
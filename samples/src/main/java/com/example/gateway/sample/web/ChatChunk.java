@@ -0,0 +1,46 @@
+package com.example.gateway.sample.web;
+
+import java.util.Map;
+
+/**
+ * Server-sent event payload for the streaming chat endpoint.
+ */
+public class ChatChunk {
+
+    private String content;
+    private Map<String, Object> metadata;
+    private boolean done;
+
+    public ChatChunk() {
+    }
+
+    public ChatChunk(String content, Map<String, Object> metadata, boolean done) {
+        this.content = content;
+        this.metadata = metadata;
+        this.done = done;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Map<String, Object> getMetadata() {
+        return metadata;
+    }
+
+    public void setMetadata(Map<String, Object> metadata) {
+        this.metadata = metadata;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public void setDone(boolean done) {
+        this.done = done;
+    }
+}
@@ -1,16 +1,27 @@
 package com.example.gateway.sample.web;
 
+import com.example.gateway.core.config.PipelineProperties;
+import com.example.gateway.core.pipeline.InvocationAttributes;
+import com.example.gateway.core.pipeline.InvocationChunk;
 import com.example.gateway.core.pipeline.InvocationPipeline;
 import com.example.gateway.core.pipeline.InvocationRequest;
 import com.example.gateway.core.pipeline.InvocationResponse;
+import com.example.gateway.core.pipeline.NormalizationLevel;
 import jakarta.validation.Valid;
+import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -22,25 +33,88 @@ import reactor.core.publisher.Mono;
 @Validated
 public class ChatController {
 
+    private static final String TENANT_HEADER = "X-Tenant-Id";
+    private static final String API_KEY_HEADER = "X-Api-Key";
+
     private final InvocationPipeline invocationPipeline;
+    private final PipelineProperties pipelineProperties;
 
-    public ChatController(InvocationPipeline invocationPipeline) {
+    public ChatController(InvocationPipeline invocationPipeline, PipelineProperties pipelineProperties) {
         this.invocationPipeline = invocationPipeline;
+        this.pipelineProperties = pipelineProperties;
     }
 
     /**
      * Invokes the gateway pipeline for the submitted prompt.
      */
     @PostMapping(path = "/chat", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<ChatResponse> chat(@Valid @RequestBody ChatRequest request) {
-        InvocationRequest invocationRequest = InvocationRequest.builder()
+    public Mono<ChatResponse> chat(@Valid @RequestBody ChatRequest request,
+                                   @RequestHeader(name = TENANT_HEADER, required = false) String tenantId,
+                                   @RequestHeader(name = API_KEY_HEADER, required = false) String apiKey) {
+        return invocationPipeline.invoke(toInvocationRequest(request, tenantId, apiKey))
+            .map(this::toResponse);
+    }
+
+    /**
+     * Streams the completion as server-sent events. Content events are named
+     * {@code chunk}; the final {@code done} event carries the response
+     * metadata.
+     */
+    @PostMapping(path = "/chat/stream", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ChatChunk>> stream(@Valid @RequestBody ChatRequest request,
+                                                   @RequestHeader(name = TENANT_HEADER, required = false) String tenantId,
+                                                   @RequestHeader(name = API_KEY_HEADER, required = false) String apiKey) {
+        return invocationPipeline.stream(toInvocationRequest(request, tenantId, apiKey))
+            .map(this::toEvent);
+    }
+
+    /**
+     * Returns the provider's response body unchanged, without decoding it into
+     * the gateway response shape. The {@code normalization} parameter selects
+     * {@code usage} (read token usage only), {@code none} or {@code full}
+     * (the {@code /chat} response); it defaults to
+     * {@code gateway.pipeline.normalization}.
+     */
+    @PostMapping(path = "/chat/raw", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<DataBuffer> raw(@Valid @RequestBody ChatRequest request,
+                                @RequestParam(name = "normalization", required = false) String normalization,
+                                @RequestHeader(name = TENANT_HEADER, required = false) String tenantId,
+                                @RequestHeader(name = API_KEY_HEADER, required = false) String apiKey) {
+        return invocationPipeline.passThrough(toInvocationRequest(request, tenantId, apiKey), normalizationLevel(normalization));
+    }
+
+    private NormalizationLevel normalizationLevel(String normalization) {
+        if (normalization == null || normalization.isBlank()) {
+            return pipelineProperties.getNormalization();
+        }
+        try {
+            return NormalizationLevel.valueOf(normalization.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown normalization level " + normalization);
+        }
+    }
+
+    private InvocationRequest toInvocationRequest(ChatRequest request, String tenantId, String apiKey) {
+        Map<String, Object> attributes = new HashMap<>(2);
+        if (tenantId != null) {
+            attributes.put(InvocationAttributes.TENANT_ID, tenantId);
+        }
+        if (apiKey != null) {
+            attributes.put(InvocationAttributes.API_KEY, apiKey);
+        }
+        return InvocationRequest.builder()
             .providerHint(request.getProvider())
             .modelHint(request.getModel())
+            .capabilities(request.getCapabilities())
             .payload(Map.of("prompt", request.getPrompt()))
+            .attributes(attributes)
             .build();
+    }
 
-        return invocationPipeline.invoke(invocationRequest)
-            .map(this::toResponse);
+    private ServerSentEvent<ChatChunk> toEvent(InvocationChunk chunk) {
+        return ServerSentEvent.builder(new ChatChunk(chunk.getContent(), chunk.getMetadata(), chunk.isLast()))
+            .event(chunk.isLast() ? "done" : "chunk")
+            .build();
     }
 
     private ChatResponse toResponse(InvocationResponse response) {
@@ -1,6 +1,8 @@
 package com.example.gateway.sample.web;
 
 import jakarta.validation.constraints.NotBlank;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Request payload for the sample chat endpoint.
@@ -10,6 +12,9 @@ public class ChatRequest {
     private String provider;
     private String model;
 
+    /** Capabilities the serving model must have; used when no model is given. */
+    private List<String> capabilities = new ArrayList<>();
+
     @NotBlank
     private String prompt;
 
@@ -29,6 +34,14 @@ public class ChatRequest {
         this.model = model;
     }
 
+    public List<String> getCapabilities() {
+        return capabilities;
+    }
+
+    public void setCapabilities(List<String> capabilities) {
+        this.capabilities = capabilities;
+    }
+
     public String getPrompt() {
         return prompt;
     }
@@ -0,0 +1,77 @@
+package com.example.gateway.sample.web;
+
+import com.example.gateway.core.pipeline.InvocationAttributes;
+import com.example.gateway.storage.usage.UsageLedger;
+import com.example.gateway.storage.usage.UsageSpend;
+import com.example.gateway.storage.usage.UsageSpendQuery;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive REST controller reporting tenant spend from the usage ledger.
+ *
+ * <p>The sample has no caller authentication, so the tenant is whatever the
+ * caller names. The endpoint is therefore an admin API: it is only registered
+ * when {@code gateway.sample.usage-api.enabled} is set together with the
+ * ledger usage exporter that feeds it, and every call must present the
+ * configured {@code gateway.sample.usage-api.admin-key} in
+ * {@value #ADMIN_KEY_HEADER}.
+ */
+@RestController
+@RequestMapping(path = "/v1/usage", produces = MediaType.APPLICATION_JSON_VALUE)
+@ConditionalOnExpression("${gateway.sample.usage-api.enabled:false} and ${gateway.finops.usage.exporters.ledger.enabled:false}")
+public class UsageController {
+
+    private static final String TENANT_HEADER = "X-Tenant-Id";
+    private static final String ADMIN_KEY_HEADER = "X-Admin-Key";
+    private static final Duration DEFAULT_WINDOW = Duration.ofDays(1);
+
+    private final UsageLedger usageLedger;
+    private final byte[] adminKey;
+
+    public UsageController(UsageLedger usageLedger, @Value("${gateway.sample.usage-api.admin-key:}") String adminKey) {
+        if (adminKey.isBlank()) {
+            throw new IllegalStateException("gateway.sample.usage-api.admin-key is required when the usage API is enabled");
+        }
+        this.usageLedger = usageLedger;
+        this.adminKey = adminKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the tenant's spend within {@code [from, to)}, in total and per
+     * model, optionally restricted to one provider or model. The window
+     * defaults to the last day; both ends are ISO-8601 instants. Calls
+     * without the admin key are rejected with {@code 403 Forbidden}.
+     */
+    @GetMapping("/spend")
+    public Mono<UsageSpend> spend(@RequestHeader(name = ADMIN_KEY_HEADER, required = false) String presentedKey,
+                                  @RequestHeader(name = TENANT_HEADER, required = false) String tenantId,
+                                  @RequestParam(name = "from", required = false)
+                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                  @RequestParam(name = "to", required = false)
+                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                  @RequestParam(name = "provider", required = false) String providerId,
+                                  @RequestParam(name = "model", required = false) String modelId) {
+        if (presentedKey == null || !MessageDigest.isEqual(adminKey, presentedKey.getBytes(StandardCharsets.UTF_8))) {
+            return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Admin key required"));
+        }
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_WINDOW);
+        String tenant = tenantId != null && !tenantId.isBlank() ? tenantId : InvocationAttributes.DEFAULT_TENANT;
+        return usageLedger.spend(new UsageSpendQuery(tenant, providerId, modelId, start, end));
+    }
+}